@@ -0,0 +1,222 @@
+
+package com.bpreece.lotr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder events which Frodo emits, so that hot spots in a
+ * script can be lined up with garbage collection and allocation in a
+ * recording.
+ *
+ * This class needs the <code>jdk.jfr</code> module, which is only in Java 11
+ * and later, so it is kept apart from the rest of the source, which targets
+ * Java 7, and compiled for Java 11 after it, when the JDK doing the build
+ * has the module.  Nothing refers to it directly:  <code>FlightEvents</code>
+ * loads it by name, and only once <code>--jfr</code> has been given.
+ *
+ * @author ben
+ */
+final class JfrEvents
+        extends FlightEvents.Recorder
+{
+    @Name("com.bpreece.lotr.Parse")
+    @Label("Parse Script")
+    @Category("Frodo")
+    @Description("Parsing a frodo script")
+    static class ParseEvent extends Event
+    {
+        @Label("Script")
+        String script;
+    }
+
+    @Name("com.bpreece.lotr.Execute")
+    @Label("Execute Script")
+    @Category("Frodo")
+    @Description("Executing a frodo script on the object text, or on one chunk of records")
+    static class ExecuteEvent extends Event
+    {
+        @Label("Lines")
+        int lineCount;
+
+        @Label("Changed")
+        boolean changed;
+    }
+
+    @Name("com.bpreece.lotr.Loop")
+    @Label("While Loop")
+    @Category("Frodo")
+    @Description("A batch of iterations of a while loop")
+    static class LoopEvent extends Event
+    {
+        @Label("Iterations")
+        long iterations;
+    }
+
+    @Name("com.bpreece.lotr.Search")
+    @Label("Search")
+    @Category("Frodo")
+    @Description("A next, prev or range search directive")
+    static class SearchEvent extends Event
+    {
+        @Label("Directive")
+        String directive;
+
+        @Label("Test")
+        String test;
+
+        @Label("Lines Scanned")
+        @Description("The number of lines tested, after any help from the search cache or index")
+        int scanned;
+
+        @Label("Found")
+        boolean found;
+    }
+
+    @Name("com.bpreece.lotr.Read")
+    @Label("Read Input")
+    @Category("Frodo")
+    @Description("Reading the input into the line store")
+    static class ReadEvent extends Event
+    {
+        @Label("Lines")
+        int lineCount;
+    }
+
+    @Name("com.bpreece.lotr.Write")
+    @Label("Write Output")
+    @Category("Frodo")
+    @Description("Writing the output, until it is flushed")
+    static class WriteEvent extends Event
+    {
+        @Label("Lines")
+        int lineCount;
+    }
+
+    JfrEvents()
+    {
+    }
+
+    @Override
+    Object beginParse()
+    {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endParse(Object handle, String script)
+    {
+        ParseEvent event = (ParseEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.script = script;
+            event.commit();
+        }
+    }
+
+    @Override
+    Object beginExecute()
+    {
+        ExecuteEvent event = new ExecuteEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endExecute(Object handle, int lineCount, boolean changed)
+    {
+        ExecuteEvent event = (ExecuteEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.lineCount = lineCount;
+            event.changed = changed;
+            event.commit();
+        }
+    }
+
+    @Override
+    Object beginLoop()
+    {
+        LoopEvent event = new LoopEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endLoop(Object handle, long iterations)
+    {
+        LoopEvent event = (LoopEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.iterations = iterations;
+            event.commit();
+        }
+    }
+
+    @Override
+    Object beginSearch()
+    {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endSearch(Object handle, String directive, LinePredicate test,
+                          int scanned, boolean found)
+    {
+        SearchEvent event = (SearchEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.directive = directive;
+            event.test = test.toString();
+            event.scanned = scanned;
+            event.found = found;
+            event.commit();
+        }
+    }
+
+    @Override
+    Object beginRead()
+    {
+        ReadEvent event = new ReadEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endRead(Object handle, int lineCount)
+    {
+        ReadEvent event = (ReadEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.lineCount = lineCount;
+            event.commit();
+        }
+    }
+
+    @Override
+    Object beginWrite()
+    {
+        WriteEvent event = new WriteEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void endWrite(Object handle, int lineCount)
+    {
+        WriteEvent event = (WriteEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.lineCount = lineCount;
+            event.commit();
+        }
+    }
+
+}
@@ -9,6 +9,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  *
@@ -17,6 +20,8 @@ import java.util.logging.Logger;
 public abstract class ASN
         implements FrodoConstants
 {
+    private static final Logger LOGGER = Logger.getLogger(ASN.class.getName());
+
     public static interface TConstant
     {
     }
@@ -42,21 +47,152 @@ public abstract class ASN
 
     public static class TRegex implements TConstant
     {
+        /* the most alternatives a regex may have and still count as literal */
+        private static final int MAX_LITERALS = 8;
+        /* characters which mean something other than themselves in a regex */
+        private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
         public final String regex;
+        private final String[] literals;
+        private volatile Pattern pattern;
 
         public TRegex(String regex)
         {
             this.regex = regex;
+            this.literals = parseLiterals(regex);
 //            Logger.getLogger(ASN.class.getName()).log(Level.SEVERE,
 //                    "TRegex(\"{0}\")", regex);
         }
 
+        /**
+         * Return the compiled form of the regular expression.  The pattern
+         * is compiled the first time it is needed, and the same pattern is
+         * returned every time after that, so that a directive which is
+         * executed many times does not compile its regular expression again
+         * each time.
+         *
+         * @return the compiled pattern
+         */
+        public Pattern getPattern()
+        {
+            Pattern compiled = pattern;
+            if (compiled == null) {
+                compiled = Pattern.compile(regex);
+                pattern = compiled;
+            }
+            return compiled;
+        }
+
+        /**
+         * Return the strings which the regular expression matches, if it is
+         * a plain literal or an alternation of a few plain literals, such as
+         * <code>/&lt;b&gt;|&lt;\/b&gt;/</code> or <code>/&lt;\/?b&gt;/</code>,
+         * so that it can be searched for without the regex engine.  The
+         * alternatives are in the order they appear, which is the order in
+         * which the regex tries them.
+         *
+         * @return the literal alternatives, or <code>null</code> if the
+         *         regular expression is not literal
+         */
+        public String[] getLiterals()
+        {
+            return literals;
+        }
+
         @Override
         public String toString()
         {
             return "TRegex[" + regex + "]";
         }
 
+        /*
+         * Split a regex into its literal alternatives, unquoting escaped
+         * punctuation, or return null if any part of it is not literal.  A
+         * character made optional with ? doubles the alternatives, the one
+         * with the character first, as the greedy regex would try them.
+         * Empty alternatives are not literal, since their zero-width matches
+         * need the regex engine's rules.
+         */
+        private static String[] parseLiterals(String regex)
+        {
+            List<String> literals = new ArrayList<String>();
+            List<StringBuilder> branch = new ArrayList<StringBuilder>();
+            branch.add(new StringBuilder());
+            boolean optional = false;
+            for (int index = 0; index <= regex.length(); index++) {
+                if (index == regex.length() || regex.charAt(index) == '|') {
+                    for (StringBuilder literal : branch) {
+                        if (literal.length() == 0) {
+                            return null;
+                        }
+                        literals.add(literal.toString());
+                    }
+                    if (literals.size() > MAX_LITERALS) {
+                        return null;
+                    }
+                    branch.clear();
+                    branch.add(new StringBuilder());
+                    optional = false;
+                    continue;
+                }
+                char c = regex.charAt(index);
+                if (c == '?' && optional) {
+                    List<StringBuilder> expanded = new ArrayList<StringBuilder>();
+                    for (StringBuilder literal : branch) {
+                        expanded.add(literal);
+                        expanded.add(new StringBuilder(literal)
+                                     .deleteCharAt(literal.length() - 1));
+                    }
+                    if (expanded.size() > MAX_LITERALS) {
+                        return null;
+                    }
+                    branch = expanded;
+                    optional = false;
+                    continue;
+                }
+                if (c == '\\') {
+                    if (index + 1 == regex.length()) {
+                        return null;
+                    }
+                    c = regex.charAt(++index);
+                    if (Character.isLetterOrDigit(c)) {
+                        return null;
+                    }
+                } else if (METACHARACTERS.indexOf(c) >= 0) {
+                    return null;
+                }
+                for (StringBuilder literal : branch) {
+                    literal.append(c);
+                }
+                optional = true;
+            }
+            return literals.toArray(new String[literals.size()]);
+        }
+
+    }
+
+    public static class TReplacement implements TConstant
+    {
+        public final String string;
+        public final Replacement replacement;
+
+        /**
+         * @param string the replacement string as it appears in the script
+         * @param replacement the string parsed for the pattern of the
+         *        directive it belongs to
+         */
+        public TReplacement(String string, Replacement replacement)
+        {
+            this.string = string;
+            this.replacement = replacement;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "TReplacement[" + string + "]";
+        }
+
     }
 
     public static class TFormat implements TConstant
@@ -157,13 +293,21 @@ public abstract class ASN
 
         public boolean execute(LOTR lotr)
         {
-            return ASN.apply(lotr, command, parameters);
+            boolean result = ASN.apply(lotr, command, parameters);
+            Metrics metrics = lotr.getMetrics();
+            if (metrics != null) {
+                metrics.directiveExecuted(command, result);
+            }
+            return result;
         }
 
     }
 
     public static class While implements Command
     {
+        /* the number of iterations in each flight recorder event */
+        private static final int EVENT_BATCH = 1024;
+
         private final Command command;
 
         public While(Command command)
@@ -175,8 +319,27 @@ public abstract class ASN
 
         public boolean execute(LOTR lotr)
         {
+            if (FlightEvents.isEnabled()) {
+                return executeRecorded(lotr);
+            }
+            while (command.execute(lotr)) {
+            }
+            return true;
+        }
+
+        /* execute the loop, recording an event for each batch of iterations */
+        private boolean executeRecorded(LOTR lotr)
+        {
+            Object event = FlightEvents.beginLoop();
+            long iterations = 1;
             while (command.execute(lotr)) {
+                if (iterations++ == EVENT_BATCH) {
+                    FlightEvents.endLoop(event, EVENT_BATCH);
+                    event = FlightEvents.beginLoop();
+                    iterations = 1;
+                }
             }
+            FlightEvents.endLoop(event, iterations);
             return true;
         }
 
@@ -213,6 +376,7 @@ public abstract class ASN
     public static class Disjunction implements Command
     {
         public final List<Command> commandList;
+        private volatile Fusion fusion;
 
         public Disjunction()
         {
@@ -226,14 +390,237 @@ public abstract class ASN
 
         public boolean execute(LOTR lotr)
         {
-            for (Command command : commandList) {
-                if (command.execute(lotr)) {
+            int start = 0;
+            Fusion leading = getFusion();
+            if (leading.size() > 0) {
+                /*
+                 * The leading alternatives each start by matching the current
+                 * line to a regex, so all of them fail except, possibly, the
+                 * first one whose regex matches.  Find it in a single pass.
+                 */
+                int alternative = leading.match(lotr);
+                if (lotr.getMetrics() != null) {
+                    leading.countFailures(lotr.getMetrics(), commandList,
+                                          (alternative < 0) ? leading.size() : alternative);
+                }
+                if (alternative < 0) {
+                    start = leading.size();
+                } else if (leading.execute(
+                               lotr, (Sequence) commandList.get(alternative))) {
+                    return true;
+                } else {
+                    start = alternative + 1;
+                }
+            }
+            for (int index = start; index < commandList.size(); index++) {
+                if (commandList.get(index).execute(lotr)) {
                     return true;
                 }
             }
             return false;
         }
 
+        private Fusion getFusion()
+        {
+            Fusion result = fusion;
+            if (result == null) {
+                result = Fusion.create(commandList);
+                fusion = result;
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * A single pattern which tests the current line against the regexes of
+     * the leading alternatives of a disjunction all at once, such as
+     *
+     *     replace A fa ? replace B fb ? replace C fc
+     *
+     * The pattern is <code>(A)|(B)|(C)</code>, which matches exactly when one
+     * of the regexes matches the entire line, and always chooses the first
+     * alternative which does, so the capture groups of that alternative can
+     * be picked out of the combined match.  Only alternatives which start with
+     * <code>match</code>, <code>replace regex format</code> or
+     * <code>rewrite</code> are fused, and only while they are at the front of
+     * the disjunction.  Regexes with backreferences, named groups or inline
+     * flags are never fused, since their meaning could change inside the
+     * combined pattern.
+     */
+    private static class Fusion
+    {
+        private static final Fusion NONE = new Fusion(null, new int[0]);
+
+        private final Pattern pattern;
+        /* the group in the combined pattern which wraps each alternative */
+        private final int[] offsets;
+
+        private Fusion(Pattern pattern, int[] offsets)
+        {
+            this.pattern = pattern;
+            this.offsets = offsets;
+        }
+
+        static Fusion create(List<Command> alternatives)
+        {
+            List<String> regexes = new ArrayList<String>();
+            for (Command alternative : alternatives) {
+                TRegex regex = getLeadingRegex(alternative);
+                if (regex == null || !isFusible(regex.regex)) {
+                    break;
+                }
+                regexes.add(regex.regex);
+            }
+            if (regexes.size() < 2) {
+                return NONE;
+            }
+            try {
+                StringBuilder combined = new StringBuilder();
+                int[] offsets = new int[regexes.size() + 1];
+                int group = 1;
+                for (int index = 0; index < regexes.size(); index++) {
+                    String regex = regexes.get(index);
+                    if (index > 0) {
+                        combined.append('|');
+                    }
+                    combined.append('(').append(regex).append(')');
+                    offsets[index] = group;
+                    group += Pattern.compile(regex).matcher("").groupCount() + 1;
+                }
+                offsets[regexes.size()] = group;
+                return new Fusion(Pattern.compile(combined.toString()), offsets);
+            } catch (PatternSyntaxException ex) {
+                /* leave the error to be reported by the directive itself */
+                return NONE;
+            }
+        }
+
+        /* the regex of the directive which starts an alternative, if any */
+        private static TRegex getLeadingRegex(Command alternative)
+        {
+            if (!(alternative instanceof Sequence)
+                || ((Sequence) alternative).commandList.isEmpty()
+                || !(((Sequence) alternative).commandList.get(0)
+                     instanceof Directive)) {
+                return null;
+            }
+            Directive directive =
+                (Directive) ((Sequence) alternative).commandList.get(0);
+            Object[] parameters = directive.parameters;
+            if ((directive.command == T_MATCH && parameters.length == 1
+                 || (directive.command == T_REPLACE
+                     || directive.command == T_REWRITE)
+                    && parameters.length == 2
+                    && parameters[1] instanceof TFormat)
+                && parameters[0] instanceof TRegex) {
+                return (TRegex) parameters[0];
+            }
+            return null;
+        }
+
+        private static boolean isFusible(String regex)
+        {
+            for (int index = 0; index < regex.length() - 1; index++) {
+                char c = regex.charAt(index);
+                char next = regex.charAt(index + 1);
+                if (c == '\\') {
+                    if (Character.isDigit(next) || next == 'k') {
+                        return false;
+                    }
+                    index++;
+                } else if (c == '(' && next == '?'
+                           && !regex.startsWith("(?:", index)
+                           && !regex.startsWith("(?=", index)
+                           && !regex.startsWith("(?!", index)
+                           && !regex.startsWith("(?<=", index)
+                           && !regex.startsWith("(?<!", index)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int size()
+        {
+            return offsets.length - 1;
+        }
+
+        /*
+         * Match the current line, save the capture groups of the first
+         * alternative which matches, and return its index, or -1 if none of
+         * the fused alternatives matches.
+         */
+        int match(LOTR lotr)
+        {
+            if (lotr.getLineIndex() >= lotr.getRangeIndex()) {
+                return -1;
+            }
+            Metrics metrics = lotr.getMetrics();
+            long start = (metrics != null) ? System.nanoTime() : 0;
+            Matcher matcher = pattern.matcher(lotr.getChars());
+            boolean matches = matcher.matches();
+            if (metrics != null) {
+                metrics.regexMatched(System.nanoTime() - start);
+            }
+            if (!matches) {
+                return -1;
+            }
+            int alternative = 0;
+            while (matcher.start(offsets[alternative]) < 0) {
+                alternative++;
+            }
+            int first = offsets[alternative];
+            Object[] groups = new Object[offsets[alternative + 1] - first];
+            groups[0] = matcher.group(0);
+            for (int i = 1; i < groups.length; i++) {
+                groups[i] = matcher.group(first + i);
+            }
+            lotr.setGroups(groups);
+            return alternative;
+        }
+
+        /*
+         * Count the leading directives of the given number of alternatives
+         * as failed, since the fused match has ruled them out.
+         */
+        void countFailures(Metrics metrics, List<Command> alternatives, int count)
+        {
+            for (int index = 0; index < count; index++) {
+                Sequence sequence = (Sequence) alternatives.get(index);
+                metrics.directiveExecuted(
+                        ((Directive) sequence.commandList.get(0)).command, false);
+            }
+        }
+
+        /*
+         * Finish executing an alternative whose regex has matched:  complete
+         * its leading directive, then execute the rest of its commands.
+         */
+        boolean execute(LOTR lotr, Sequence sequence)
+        {
+            Directive directive = (Directive) sequence.commandList.get(0);
+            boolean result = true;
+            if (directive.command == T_REPLACE
+                || directive.command == T_REWRITE) {
+                result = lotr.replaceLine(
+                        ((TFormat) directive.parameters[1]).format,
+                        lotr.getGroups());
+            }
+            if (lotr.getMetrics() != null) {
+                lotr.getMetrics().directiveExecuted(directive.command, result);
+            }
+            if (!result) {
+                return false;
+            }
+            for (int index = 1; index < sequence.commandList.size(); index++) {
+                if (!sequence.commandList.get(index).execute(lotr)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
     }
 
     public static class Script
@@ -247,7 +634,18 @@ public abstract class ASN
 
         public boolean execute(LOTR lotr)
         {
-            return command.execute(lotr);
+            Metrics metrics = lotr.getMetrics();
+            if (!FlightEvents.isEnabled() && metrics == null) {
+                return command.execute(lotr);
+            }
+            Object event = FlightEvents.beginExecute();
+            long start = System.nanoTime();
+            boolean result = command.execute(lotr);
+            if (metrics != null) {
+                metrics.scriptExecuted(System.nanoTime() - start);
+            }
+            FlightEvents.endExecute(event, lotr.getLineCount(), lotr.isModified());
+            return result;
         }
 
     }
@@ -256,6 +654,23 @@ public abstract class ASN
     {
     }
 
+    /*
+     * Log a message from a log, fail or abort directive, through the
+     * diagnostic sink if there is one, and otherwise as it is made.
+     */
+    private static void log(LOTR lotr, Level level, String message,
+                            Object[] parameters)
+    {
+        DiagnosticSink diagnostics = lotr.getDiagnostics();
+        if (diagnostics != null) {
+            diagnostics.log(level, message, parameters);
+        } else if (parameters == null) {
+            LOGGER.log(level, message);
+        } else {
+            LOGGER.log(level, message, parameters);
+        }
+    }
+
     private static boolean apply(LOTR lotr, int command, Object[] parameters)
     {
         try {
@@ -263,66 +678,59 @@ public abstract class ASN
             case T_ABORT:
                 if (parameters.length == 1) {
                     if (parameters[0] instanceof TString) {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.INFO, ((TString) parameters[0]).string);
+                        log(lotr, Level.INFO, ((TString) parameters[0]).string,
+                            null);
                     } else if (parameters[0] instanceof TFormat) {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.INFO, ((TFormat) parameters[0]).format,
-                                    lotr.getGroups());
+                        log(lotr, Level.INFO, ((TFormat) parameters[0]).format,
+                            lotr.getGroups());
                     } else {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.WARNING,
-                                    "Abort: unexpected parameter ({0})",
-                                    parameters[0]);
+                        LOGGER.log(Level.WARNING,
+                                   "Abort: unexpected parameter ({0})",
+                                   parameters[0]);
                     }
                 }
+                if (lotr.getDiagnostics() != null) {
+                    lotr.getDiagnostics().close();
+                }
                 System.exit(-1);
                 break;
             case T_LOG:
                 if (parameters.length == 0) {
-                    Logger.getLogger(ASN.class.getName()).log(Level.INFO,
-                                                              "Log ...");
+                    log(lotr, Level.INFO, "Log ...", null);
                     return true;
                 } else if (parameters.length == 1) {
                     if (parameters[0] instanceof TString) {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.INFO, ((TString) parameters[0]).string);
+                        log(lotr, Level.INFO, ((TString) parameters[0]).string,
+                            null);
                         return true;
                     } else if (parameters[0] instanceof TFormat) {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.INFO, ((TFormat) parameters[0]).format,
-                                    lotr.getGroups());
+                        log(lotr, Level.INFO, ((TFormat) parameters[0]).format,
+                            lotr.getGroups());
                         return true;
                     } else {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.WARNING,
-                                    "Fail: unexpected parameter ({0})",
-                                    parameters[0]);
+                        LOGGER.log(Level.WARNING,
+                                   "Fail: unexpected parameter ({0})",
+                                   parameters[0]);
                         return false;
                     }
                 } else {
-                    Logger.getLogger(ASN.class.getName()).
-                            log(Level.WARNING,
-                                "Next: bad parameter count ({0})",
-                                parameters.length);
+                    LOGGER.log(Level.WARNING,
+                               "Next: bad parameter count ({0})",
+                               parameters.length);
                     return false;
                 }
             case T_FAIL:
                 if (parameters.length > 0) {
                     if (parameters[0] instanceof TString) {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.WARNING,
-                                    ((TString) parameters[0]).string);
+                        log(lotr, Level.WARNING, ((TString) parameters[0]).string,
+                            null);
                     } else if (parameters[0] instanceof TFormat) {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.WARNING,
-                                    ((TFormat) parameters[0]).format,
-                                    lotr.getGroups());
+                        log(lotr, Level.WARNING,
+                            ((TFormat) parameters[0]).format, lotr.getGroups());
                     } else {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.WARNING,
-                                    "Fail: unexpected parameter ({0})",
-                                    parameters[0]);
+                        LOGGER.log(Level.WARNING,
+                                   "Fail: unexpected parameter ({0})",
+                                   parameters[0]);
                         return false;
                     }
                 }
@@ -348,19 +756,17 @@ public abstract class ASN
                                 ((TString) parameters[0]).string);
                     } else if (parameters[0] instanceof TRegex) {
                         return lotr.setRangeMatches(
-                                ((TRegex) parameters[0]).regex);
+                                ((TRegex) parameters[0]).getPattern());
                     } else {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.WARNING,
-                                    "Next: unexpected parameter ({0})",
-                                    parameters[0]);
+                        LOGGER.log(Level.WARNING,
+                                   "Next: unexpected parameter ({0})",
+                                   parameters[0]);
                         return false;
                     }
                 } else {
-                    Logger.getLogger(ASN.class.getName()).
-                            log(Level.WARNING,
-                                "Next: bad parameter count ({0})",
-                                parameters.length);
+                    LOGGER.log(Level.WARNING,
+                               "Next: bad parameter count ({0})",
+                               parameters.length);
                     return false;
                 }
             case T_RANGE_EMPTY:
@@ -385,19 +791,17 @@ public abstract class ASN
                                 (int) ((TInteger) parameters[0]).value);
                     } else if (parameters[0] instanceof TRegex) {
                         return lotr.nextLineMatches(
-                                ((TRegex) parameters[0]).regex);
+                                ((TRegex) parameters[0]).getPattern());
                     } else {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.WARNING,
-                                    "Next: unexpected parameter ({0})",
-                                    parameters[0]);
+                        LOGGER.log(Level.WARNING,
+                                   "Next: unexpected parameter ({0})",
+                                   parameters[0]);
                         return false;
                     }
                 } else {
-                    Logger.getLogger(ASN.class.getName()).
-                            log(Level.WARNING,
-                                "Next: bad parameter count ({0})",
-                                parameters.length);
+                    LOGGER.log(Level.WARNING,
+                               "Next: bad parameter count ({0})",
+                               parameters.length);
                     return false;
                 }
             case T_NEXT_EMPTY:
@@ -417,19 +821,17 @@ public abstract class ASN
                                 ((TString) parameters[0]).string);
                     } else if (parameters[0] instanceof TRegex) {
                         return lotr.prevLineMatches(
-                                ((TRegex) parameters[0]).regex);
+                                ((TRegex) parameters[0]).getPattern());
                     } else {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.WARNING,
-                                    "Prev: unexpected parameter ({0})",
-                                    parameters[0]);
+                        LOGGER.log(Level.WARNING,
+                                   "Prev: unexpected parameter ({0})",
+                                   parameters[0]);
                         return false;
                     }
                 } else {
-                    Logger.getLogger(ASN.class.getName()).
-                            log(Level.WARNING,
-                                "Prev: bad parameter count ({0})",
-                                parameters.length);
+                    LOGGER.log(Level.WARNING,
+                               "Prev: bad parameter count ({0})",
+                               parameters.length);
                     return false;
                 }
             case T_PREV_EMPTY:
@@ -446,10 +848,9 @@ public abstract class ASN
                 } else if (parameters[0] instanceof TFormat) {
                     return lotr.insertFormat(((TFormat) parameters[0]).format);
                 } else {
-                    Logger.getLogger(ASN.class.getName()).
-                            log(Level.WARNING,
-                                "Insert: unexpected parameter ({0})",
-                                parameters[0]);
+                    LOGGER.log(Level.WARNING,
+                               "Insert: unexpected parameter ({0})",
+                               parameters[0]);
                     return false;
                 }
             case T_INSERT_AFTER:
@@ -459,10 +860,9 @@ public abstract class ASN
                     return lotr.insertFormatAfter(
                             ((TFormat) parameters[0]).format);
                 } else {
-                    Logger.getLogger(ASN.class.getName()).
-                            log(Level.WARNING,
-                                "Insert-after: unexpected parameter ({0})",
-                                parameters[0]);
+                    LOGGER.log(Level.WARNING,
+                               "Insert-after: unexpected parameter ({0})",
+                               parameters[0]);
                     return false;
                 }
             case T_APPEND:
@@ -471,10 +871,9 @@ public abstract class ASN
                 } else if (parameters[0] instanceof TFormat) {
                     return lotr.appendFormat(((TFormat) parameters[0]).format);
                 } else {
-                    Logger.getLogger(ASN.class.getName()).
-                            log(Level.WARNING,
-                                "Append: bad parameter count ({0})",
-                                parameters.length);
+                    LOGGER.log(Level.WARNING,
+                               "Append: bad parameter count ({0})",
+                               parameters.length);
                     return false;
                 }
             case T_REMOVE:
@@ -489,56 +888,92 @@ public abstract class ASN
                         return lotr.replaceFormat(
                                 ((TFormat) parameters[0]).format);
                     } else {
-                        Logger.getLogger(ASN.class.getName()).
-                                log(Level.WARNING,
-                                    "Replace: unexpected parameter ({0})",
-                                    parameters[0]);
+                        LOGGER.log(Level.WARNING,
+                                   "Replace: unexpected parameter ({0})",
+                                   parameters[0]);
                         return false;
                     }
                 } else if (parameters.length == 2) {
-                    return lotr.rewrite(((TRegex) parameters[0]).regex,
+                    return lotr.rewrite(((TRegex) parameters[0]).getPattern(),
                                         ((TFormat) parameters[1]).format);
                 } else {
-                    Logger.getLogger(ASN.class.getName()).
-                            log(Level.WARNING,
-                                "Replace: bad parameter count ({0})",
-                                parameters.length);
+                    LOGGER.log(Level.WARNING,
+                               "Replace: bad parameter count ({0})",
+                               parameters.length);
                     return false;
                 }
             case T_REPLACE_FIRST:
-                return lotr.replaceFirst(((TRegex) parameters[0]).regex,
-                                         ((TString) parameters[1]).string);
             case T_REPLACE_ALL:
-                return lotr.replace(((TRegex) parameters[0]).regex,
-                                    ((TString) parameters[1]).string);
+            case T_REPLACE_ALL_RANGE:
+                Pattern pattern = ((TRegex) parameters[0]).getPattern();
+                Replacement replacement =
+                    ((TReplacement) parameters[1]).replacement;
+                if (command == T_REPLACE_FIRST) {
+                    return lotr.replaceFirst(pattern, replacement);
+                } else if (command == T_REPLACE_ALL_RANGE) {
+                    return lotr.replaceAllInRange(pattern, replacement);
+                }
+                String[] literals = ((TRegex) parameters[0]).getLiterals();
+                if (literals != null && replacement.isLiteral()) {
+                    return lotr.replaceLiterals(literals,
+                                                replacement.getLiteral());
+                }
+                return lotr.replace(pattern, replacement);
             case T_CATENATE:
                 if (parameters.length == 0) {
                     return lotr.catenate();
                 } else {
                     return lotr.catenate(((TInteger) parameters[0]).value);
                 }
+            case T_CATENATE_WHILE:
+                if (parameters.length == 1) {
+                    return lotr.catenateWhile((LinePredicate) parameters[0], "");
+                } else {
+                    return lotr.catenateWhile((LinePredicate) parameters[0],
+                                              ((TString) parameters[1]).string);
+                }
             case T_MATCH:
                 if (parameters.length == 1) {
-                    return lotr.match(((TRegex) parameters[0]).regex);
+                    return lotr.match(((TRegex) parameters[0]).getPattern());
                 } else {
-                    Logger.getLogger(ASN.class.getName()).
-                            log(Level.WARNING,
-                                "Match: bad parameter count ({0})",
-                                parameters.length);
+                    LOGGER.log(Level.WARNING,
+                               "Match: bad parameter count ({0})",
+                               parameters.length);
                     return false;
                 }
+            case T_REWRITE:
+                return lotr.rewrite(((TRegex) parameters[0]).getPattern(),
+                                    ((TFormat) parameters[1]).format);
+            case T_TO_LOWER:
+                return lotr.toLowerCase();
+            case T_TO_UPPER:
+                return lotr.toUpperCase();
+            case T_TRIM:
+                return lotr.trim();
+            case T_SPLIT:
+                return lotr.split(((TRegex) parameters[0]).getPattern());
+            case T_REWRITE_RANGE:
+                return lotr.rewriteRange(((TRegex) parameters[0]).getPattern(),
+                                         ((TFormat) parameters[1]).format);
+            case T_REMOVE_MATCHING:
+                return lotr.removeMatching(((TRegex) parameters[0]).getPattern());
+            case T_KEEP_MATCHING:
+                return lotr.keepMatching(((TRegex) parameters[0]).getPattern());
             default:
                 throw new IllegalStateException("unknown command " + command);
             }
-        } catch (Exception ex) {
-            /* log and return false */
-            Logger.getLogger(ASN.class.getName()).log(Level.WARNING, null, ex);
+        } catch (RuntimeException ex) {
+            /*
+             * A safety net:  no directive should fail by throwing, so
+             * anything caught here is a bug.  Log it and fail the directive
+             * rather than the whole run.
+             */
+            LOGGER.log(Level.WARNING, null, ex);
             return false;
         }
 
         // default action when nothing else works is always to return false
-        Logger.getLogger(ASN.class.getName()).log(Level.WARNING, Integer.
-                toString(command));
+        LOGGER.log(Level.WARNING, Integer.toString(command));
         return false;
     }
 
@@ -0,0 +1,207 @@
+
+package com.bpreece.lotr;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A skeleton <code>LineStore</code> which implements the operations on the
+ * text of a line in terms of <code>get()</code>, <code>set()</code> and
+ * <code>remove()</code>.  A store with a more compact representation can
+ * override these to work on it directly.
+ *
+ * @author ben
+ */
+public abstract class AbstractLineStore
+        implements LineStore
+{
+    /**
+     * Construct a new instance of <code>AbstractLineStore</code>.
+     */
+    protected AbstractLineStore()
+    {
+    }
+
+    public CharSequence getChars(int index)
+    {
+        return get(index);
+    }
+
+    public void setChars(int index, CharSequence line)
+    {
+        set(index, line.toString());
+    }
+
+    public int length(int index)
+    {
+        return get(index).length();
+    }
+
+    public boolean join(int index, int count, String separator)
+    {
+        String line = get(index);
+        StringBuilder buffer = new StringBuilder(line);
+        for (int n = 1; n <= count; n++) {
+            buffer.append(separator).append(get(index + n));
+        }
+        removeRange(index + 1, index + 1 + count);
+        if (buffer.length() == line.length()) {
+            return false;
+        }
+        set(index, buffer.toString());
+        return true;
+    }
+
+    public boolean slice(int index, int beginIndex, int endIndex)
+    {
+        String line = get(index);
+        String slice = line.substring(beginIndex, endIndex);
+        if (slice.length() == line.length()) {
+            return false;
+        }
+        set(index, slice);
+        return true;
+    }
+
+    public boolean trim(int index)
+    {
+        CharSequence chars = getChars(index);
+        int length = chars.length();
+        if (length == 0
+            || chars.charAt(0) > ' ' && chars.charAt(length - 1) > ' ') {
+            return false;
+        }
+        String line = get(index);
+        String trimmed = line.trim();
+        if (trimmed.length() == line.length()) {
+            return false;
+        }
+        set(index, trimmed);
+        return true;
+    }
+
+    public boolean toLowerCase(int index)
+    {
+        int result = changeAsciiCase(index, 'A', 'Z');
+        if (result >= 0) {
+            return result > 0;
+        }
+        String line = get(index);
+        return setIfChanged(index, line, line.toLowerCase());
+    }
+
+    public boolean toUpperCase(int index)
+    {
+        int result = changeAsciiCase(index, 'a', 'z');
+        if (result >= 0) {
+            return result > 0;
+        }
+        String line = get(index);
+        return setIfChanged(index, line, line.toUpperCase());
+    }
+
+    public void removeAll(BitSet indexes)
+    {
+        if (indexes.length() > size()) {
+            throw new IndexOutOfBoundsException("index=" + (indexes.length() - 1));
+        }
+        for (int index = indexes.length() - 1; index >= 0;
+             index = indexes.previousSetBit(index - 1)) {
+            remove(index);
+        }
+    }
+
+    /**
+     * Remove the lines from <code>fromIndex</code>, inclusive, to
+     * <code>toIndex</code>, exclusive.
+     *
+     * @param fromIndex the index of the first line to remove
+     * @param toIndex the index after the last line to remove
+     * @throws IndexOutOfBoundsException if the indexes are out of range
+     */
+    protected void removeRange(int fromIndex, int toIndex)
+    {
+        for (int index = toIndex - 1; index >= fromIndex; index--) {
+            remove(index);
+        }
+    }
+
+    /*
+     * Change the case of a line of plain ASCII text by flipping the case bit
+     * of the letters between first and last, without building a string at
+     * all if there are none.  Return 1 if the line changed, 0 if it did not,
+     * or -1 if the line is not plain ASCII, or the default locale has its own
+     * rules for ASCII letters, and the caller must convert it as a string.
+     */
+    private int changeAsciiCase(int index, char first, char last)
+    {
+        String language = Locale.getDefault().getLanguage();
+        if (language.equals("tr") || language.equals("az")
+            || language.equals("lt")) {
+            return -1;
+        }
+        CharSequence line = getChars(index);
+        int length = line.length();
+        int letter = -1;
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (c >= 0x80) {
+                return -1;
+            }
+            if (letter < 0 && c >= first && c <= last) {
+                letter = i;
+            }
+        }
+        if (letter < 0) {
+            return 0;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            chars[i] = (i >= letter && c >= first && c <= last)
+                ? (char) (c ^ 0x20) : c;
+        }
+        set(index, new String(chars));
+        return 1;
+    }
+
+    /**
+     * Remove the elements of a list whose indexes are in the given set, in a
+     * single pass which moves each element that is kept down over the
+     * removed ones, and then removes the tail of the list.  A store which
+     * keeps its lines in a list can use this for <code>removeAll()</code>,
+     * instead of shifting the rest of the list down for each removed line.
+     *
+     * @param list the list to remove elements from
+     * @param indexes the indexes of the elements to remove
+     * @throws IndexOutOfBoundsException if any index is out of range
+     */
+    protected static <T> void compact(List<T> list, BitSet indexes)
+    {
+        int size = list.size();
+        if (indexes.length() > size) {
+            throw new IndexOutOfBoundsException("index=" + (indexes.length() - 1));
+        }
+        int write = indexes.nextSetBit(0);
+        if (write < 0) {
+            return;
+        }
+        for (int read = write + 1; read < size; read++) {
+            if (!indexes.get(read)) {
+                list.set(write++, list.get(read));
+            }
+        }
+        list.subList(write, size).clear();
+    }
+
+    private boolean setIfChanged(int index, String line, String newLine)
+    {
+        if (newLine.equals(line)) {
+            return false;
+        }
+        set(index, newLine);
+        return true;
+    }
+
+}
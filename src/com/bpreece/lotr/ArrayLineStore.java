@@ -0,0 +1,263 @@
+
+package com.bpreece.lotr;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A <code>LineStore</code> which keeps every line as a <code>String</code> in
+ * an <code>ArrayList</code>.
+ *
+ * Lines joined onto the same line one after another are collected in a
+ * <code>StringBuilder</code>, which is only turned back into a
+ * <code>String</code> when the line is next read, so that catenating a long
+ * run of lines one at a time takes time in proportion to the length of the
+ * run rather than to its square.
+ *
+ * Lines of <code>Rope.THRESHOLD</code> characters or more are sliced, trimmed
+ * and joined as a <code>Rope</code>, which shares the text of the lines it
+ * was made from, and are only copied into a <code>String</code> when they
+ * are read with <code>get()</code>.
+ *
+ * @author ben
+ */
+public class ArrayLineStore
+        extends AbstractLineStore
+{
+    /* each line is a String or a Rope */
+    private final ArrayList<CharSequence> lines;
+
+    /* the text of the line at pendingIndex, if pending is not null */
+    private StringBuilder pending;
+    private int pendingIndex = -1;
+
+    /**
+     * Construct a new, empty instance of <code>ArrayLineStore</code>.
+     */
+    public ArrayLineStore()
+    {
+        this.lines = new ArrayList<CharSequence>();
+    }
+
+    /**
+     * Construct a new instance of <code>ArrayLineStore</code> holding a copy
+     * of the given lines.
+     *
+     * @param lines the initial lines
+     */
+    public ArrayLineStore(List<String> lines)
+    {
+        this.lines = new ArrayList<CharSequence>(lines);
+    }
+
+    /**
+     * Replace every line in the store with the given lines.  The store keeps
+     * the room it has already allocated, so that a store which is reused for
+     * one text after another does not grow its array again for each one.
+     *
+     * @param lines the new lines
+     */
+    public void load(List<String> lines)
+    {
+        clear();
+        this.lines.addAll(lines);
+    }
+
+    /**
+     * Remove every line from the store, keeping the room it has allocated.
+     */
+    public void clear()
+    {
+        lines.clear();
+        pending = null;
+        pendingIndex = -1;
+    }
+
+    public int size()
+    {
+        return lines.size();
+    }
+
+    public String get(int index)
+    {
+        if (pending != null && index == pendingIndex) {
+            flush();
+        }
+        CharSequence line = lines.get(index);
+        if (line instanceof Rope) {
+            line = line.toString();
+            lines.set(index, line);
+        }
+        return (String) line;
+    }
+
+    public void set(int index, String line)
+    {
+        lines.set(index, line);
+        if (index == pendingIndex) {
+            pending = null;
+            pendingIndex = -1;
+        }
+    }
+
+    @Override
+    public CharSequence getChars(int index)
+    {
+        if (pending != null && index == pendingIndex) {
+            return pending;
+        }
+        return lines.get(index);
+    }
+
+    @Override
+    public void setChars(int index, CharSequence line)
+    {
+        if (line instanceof Rope) {
+            lines.set(index, line);
+            if (index == pendingIndex) {
+                pending = null;
+                pendingIndex = -1;
+            }
+        } else {
+            set(index, line.toString());
+        }
+    }
+
+    public void add(int index, String line)
+    {
+        lines.add(index, line);
+        if (pending != null && index <= pendingIndex) {
+            pendingIndex++;
+        }
+    }
+
+    public void remove(int index)
+    {
+        lines.remove(index);
+        if (index == pendingIndex) {
+            pending = null;
+            pendingIndex = -1;
+        } else if (pending != null && index < pendingIndex) {
+            pendingIndex--;
+        }
+    }
+
+    @Override
+    public int length(int index)
+    {
+        if (pending != null && index == pendingIndex) {
+            return pending.length();
+        }
+        return lines.get(index).length();
+    }
+
+    @Override
+    public boolean join(int index, int count, String separator)
+    {
+        if (index < 0 || count < 0 || index + count >= lines.size()) {
+            throw new IndexOutOfBoundsException("index=" + (index + count));
+        }
+        if (index != pendingIndex) {
+            flush();
+            CharSequence line = lines.get(index);
+            long total = line.length();
+            for (int n = 1; n <= count; n++) {
+                total += separator.length() + lines.get(index + n).length();
+            }
+            if (line instanceof Rope || total >= Rope.THRESHOLD) {
+                Rope.Builder builder = new Rope.Builder().append(line);
+                for (int n = 1; n <= count; n++) {
+                    builder.append(separator).append(lines.get(index + n));
+                }
+                lines.set(index, builder.build());
+                lines.subList(index + 1, index + 1 + count).clear();
+                return total != line.length();
+            }
+            pending = new StringBuilder(line);
+            pendingIndex = index;
+        }
+        int length = pending.length();
+        for (int n = 1; n <= count; n++) {
+            pending.append(separator).append(lines.get(index + n));
+        }
+        lines.subList(index + 1, index + 1 + count).clear();
+        return pending.length() != length;
+    }
+
+    @Override
+    public boolean slice(int index, int beginIndex, int endIndex)
+    {
+        CharSequence line = getChars(index);
+        if (!(line instanceof Rope) && line.length() < Rope.THRESHOLD) {
+            return super.slice(index, beginIndex, endIndex);
+        }
+        CharSequence slice = new Rope.Builder().
+                append(line, beginIndex, endIndex).build();
+        if (slice.length() == line.length()) {
+            return false;
+        }
+        setChars(index, slice);
+        return true;
+    }
+
+    @Override
+    public boolean trim(int index)
+    {
+        CharSequence line = getChars(index);
+        if (!(line instanceof Rope) && line.length() < Rope.THRESHOLD) {
+            return super.trim(index);
+        }
+        int beginIndex = 0;
+        int endIndex = line.length();
+        while (beginIndex < endIndex && line.charAt(beginIndex) <= ' ') {
+            beginIndex++;
+        }
+        while (beginIndex < endIndex && line.charAt(endIndex - 1) <= ' ') {
+            endIndex--;
+        }
+        return slice(index, beginIndex, endIndex);
+    }
+
+    @Override
+    public void removeAll(BitSet indexes)
+    {
+        flush();
+        compact(lines, indexes);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex)
+    {
+        lines.subList(fromIndex, toIndex).clear();
+        if (pending == null || pendingIndex < fromIndex) {
+            return;
+        } else if (pendingIndex < toIndex) {
+            pending = null;
+            pendingIndex = -1;
+        } else {
+            pendingIndex -= toIndex - fromIndex;
+        }
+    }
+
+    public List<String> toList()
+    {
+        flush();
+        List<String> list = new ArrayList<String>(lines.size());
+        for (CharSequence line : lines) {
+            list.add(line.toString());
+        }
+        return list;
+    }
+
+    /* store the text of the pending line back in the list */
+    private void flush()
+    {
+        if (pending != null) {
+            lines.set(pendingIndex, pending.toString());
+            pending = null;
+            pendingIndex = -1;
+        }
+    }
+
+}
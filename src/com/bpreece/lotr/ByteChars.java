@@ -0,0 +1,89 @@
+
+package com.bpreece.lotr;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A read-only character sequence view of text held in a byte buffer, either
+ * as Latin-1, one byte per character, or as little-endian UTF-16, two bytes
+ * per character.  Both encodings give each character a fixed place, so the
+ * view gives random access to the text, which is all that a
+ * <code>Matcher</code> or a string search needs, without decoding it into a
+ * <code>String</code>.
+ *
+ * The view reads the buffer each time a character is asked for, so it shows
+ * any change to the bytes it covers.
+ *
+ * @author ben
+ */
+final class ByteChars
+        implements CharSequence
+{
+    private static final Charset LATIN_1 = Charset.forName("ISO-8859-1");
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+    private final boolean wide;
+
+    /**
+     * Construct a new instance of <code>ByteChars</code>.
+     *
+     * @param buffer the buffer holding the text
+     * @param offset the index in the buffer of the first byte of the text
+     * @param length the number of characters in the text
+     * @param wide <code>true</code> if the text is UTF-16, and
+     *        <code>false</code> if it is Latin-1
+     */
+    ByteChars(ByteBuffer buffer, int offset, int length, boolean wide)
+    {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.wide = wide;
+    }
+
+    public int length()
+    {
+        return length;
+    }
+
+    public char charAt(int index)
+    {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index=" + index);
+        }
+        if (wide) {
+            int i = offset + 2 * index;
+            return (char) ((buffer.get(i) & 0xff) | (buffer.get(i + 1) << 8));
+        } else {
+            return (char) (buffer.get(offset + index) & 0xff);
+        }
+    }
+
+    public CharSequence subSequence(int start, int end)
+    {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException(
+                    "start=" + start + ", end=" + end + ", length=" + length);
+        }
+        return new ByteChars(buffer, offset + (wide ? 2 * start : start),
+                             end - start, wide);
+    }
+
+    @Override
+    public String toString()
+    {
+        if (!wide && buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset,
+                              length, LATIN_1);
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = charAt(i);
+        }
+        return new String(chars);
+    }
+
+}
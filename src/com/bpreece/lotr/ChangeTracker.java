@@ -0,0 +1,514 @@
+package com.bpreece.lotr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps track of how the object text differs from the original input text,
+ * so that unchanged lines can be identified without comparing any text.
+ *
+ * For every current line the tracker knows which line of the original text
+ * it came from, and whether it has been modified;  inserted lines have no
+ * original line.  Removed lines are the original lines which no current
+ * line came from.  Since lines are never reordered, the original line
+ * numbers of the current lines are always increasing.
+ *
+ * The current text is kept as a list of entries:  one entry for each run of
+ * unchanged lines, which holds where the run starts in the original text and
+ * how long it is, and one entry for each inserted or modified line.  The list
+ * starts as a single run covering the whole text, and grows with the number
+ * of edits rather than the number of lines.  As in <code>LineIndex</code>,
+ * the entries are kept in blocks, with a Fenwick tree over the number of
+ * lines in each block, so the entry holding any line is found in
+ * O(log n + BLOCK_SIZE) time;  an edit next to the last one finds its entry
+ * without the tree.
+ *
+ * @author ben
+ */
+class ChangeTracker
+{
+    /* the entry of a line which is not in the original text */
+    private static final int INSERTED = -1;
+
+    /**
+     * A run of original lines [origStart, origEnd) which was replaced by the
+     * current lines [newStart, newEnd).  Either run may be empty, and every
+     * current line in it is inserted or modified.
+     */
+    static class Change
+    {
+        final int origStart;
+        int origEnd;
+        final int newStart;
+        int newEnd;
+
+        Change(int origStart, int origEnd, int newStart, int newEnd)
+        {
+            this.origStart = origStart;
+            this.origEnd = origEnd;
+            this.newStart = newStart;
+            this.newEnd = newEnd;
+        }
+
+    }
+
+    /* the maximum number of entries in a block */
+    private static final int BLOCK_SIZE = 256;
+
+    /* the number of entries tried around the one found last */
+    private static final int NEARBY = 4;
+
+    /*
+     * A block of consecutive entries of the current text.  An entry is the
+     * original start of a run of unchanged lines shifted left 32 bits, plus
+     * its length;  -(n + 2) for a line modified from original line n;  or
+     * INSERTED.
+     */
+    private static class Block
+    {
+        private long[] entries = new long[8];
+        private int count;
+        /* the number of current lines which the entries cover */
+        private int lines;
+
+        /* replace the entry at the given position with the given entries */
+        void replace(int position, long[] replacements)
+        {
+            int newCount = count - 1 + replacements.length;
+            if (newCount > entries.length) {
+                long[] newEntries = new long[Math.max(newCount, count * 2)];
+                System.arraycopy(entries, 0, newEntries, 0, count);
+                entries = newEntries;
+            }
+            lines -= length(entries[position]);
+            System.arraycopy(entries, position + 1,
+                             entries, position + replacements.length,
+                             count - position - 1);
+            for (int i = 0; i < replacements.length; i++) {
+                entries[position + i] = replacements[i];
+                lines += length(replacements[i]);
+            }
+            count = newCount;
+        }
+
+        void add(long entry)
+        {
+            if (count == entries.length) {
+                long[] newEntries = new long[count * 2];
+                System.arraycopy(entries, 0, newEntries, 0, count);
+                entries = newEntries;
+            }
+            entries[count++] = entry;
+            lines += length(entry);
+        }
+
+        /* move the second half of the entries into a new block */
+        Block split()
+        {
+            Block next = new Block();
+            int half = count / 2;
+            for (int i = half; i < count; i++) {
+                next.add(entries[i]);
+            }
+            count = half;
+            lines -= next.lines;
+            return next;
+        }
+
+    }
+
+    private final ArrayList<Block> blocks = new ArrayList<Block>();
+    /* Fenwick tree of the block line counts;  tree[k] covers blocks
+       (k - lowbit(k), k] */
+    private int[] tree = new int[1];
+    /* whether blocks were added or removed since the tree was built */
+    private boolean stale;
+    private int size;
+    private final int originalCount;
+    private int insertedCount;
+    private int modifiedCount;
+    private int removedCount;
+    /* where locate() found the last entry:  its block, its position in the
+       block, and the index of its first line, if still valid */
+    private int foundBlock;
+    private int foundPosition;
+    private int foundIndex;
+    private boolean found;
+
+    /**
+     * Construct a new instance of <code>ChangeTracker</code> for an original
+     * text with the given number of lines.
+     *
+     * @param originalCount the number of lines in the original text
+     */
+    ChangeTracker(int originalCount)
+    {
+        this.originalCount = originalCount;
+        this.size = originalCount;
+        if (originalCount > 0) {
+            append(unchanged(0, originalCount));
+        }
+    }
+
+    /**
+     * Return the number of lines in the original text.
+     *
+     * @return the number of lines in the original text
+     */
+    int getOriginalCount()
+    {
+        return originalCount;
+    }
+
+    /**
+     * Return whether the text differs from the original text.
+     *
+     * @return <code>true</code> if any line has been inserted, modified or
+     *         removed, and <code>false</code> otherwise.
+     */
+    boolean isModified()
+    {
+        return insertedCount + modifiedCount + removedCount > 0;
+    }
+
+    /**
+     * Return the index in the original text of the line at the given index.
+     *
+     * @param index the index of the current line
+     * @return the original index, or -1 if the line was inserted
+     */
+    int getOriginalIndex(int index)
+    {
+        long entry = locate(index);
+        if (entry >= 0) {
+            return start(entry) + index - foundIndex;
+        }
+        return (entry == INSERTED) ? INSERTED : (int) -(entry + 2);
+    }
+
+    /**
+     * Return whether the line at the given index was inserted or modified.
+     *
+     * @param index the index of the current line
+     * @return <code>true</code> if the line differs from its original line,
+     *         or has none, and <code>false</code> otherwise.
+     */
+    boolean isChanged(int index)
+    {
+        return locate(index) < 0;
+    }
+
+    /**
+     * Return the runs of changed lines, in order, with adjacent runs joined.
+     * This takes time in the number of edits, not the number of lines.
+     *
+     * @return the runs of changed lines, which is empty if the text has not
+     *         changed
+     */
+    List<Change> getChanges()
+    {
+        List<Change> changes = new ArrayList<Change>();
+        if (!isModified()) {
+            return changes;
+        }
+        int nextOriginal = 0;
+        int index = 0;
+        for (Block block : blocks) {
+            for (int position = 0; position < block.count; position++) {
+                long entry = block.entries[position];
+                if (entry >= 0) {
+                    int start = start(entry);
+                    if (start > nextOriginal) {
+                        addChange(changes, nextOriginal, start, index, index);
+                    }
+                    nextOriginal = start + length(entry);
+                    index += length(entry);
+                } else if (entry == INSERTED) {
+                    addChange(changes, nextOriginal, nextOriginal,
+                              index, index + 1);
+                    index++;
+                } else {
+                    int originalIndex = (int) -(entry + 2);
+                    addChange(changes, nextOriginal, originalIndex + 1,
+                              index, index + 1);
+                    nextOriginal = originalIndex + 1;
+                    index++;
+                }
+            }
+        }
+        if (nextOriginal < originalCount) {
+            addChange(changes, nextOriginal, originalCount, size, size);
+        }
+        return changes;
+    }
+
+    /**
+     * Record that a line was inserted at the given index.
+     *
+     * @param index the index of the new line
+     */
+    void inserted(int index)
+    {
+        if (index == size) {
+            append(INSERTED);
+        } else {
+            long entry = locate(index);
+            int offset = index - foundIndex;
+            if (entry < 0) {
+                replace(new long[] { INSERTED, entry });
+            } else {
+                replace(split(entry, offset, 0, INSERTED));
+            }
+        }
+        size++;
+        insertedCount++;
+    }
+
+    /**
+     * Record that the line at the given index was modified.
+     *
+     * @param index the index of the modified line
+     */
+    void modified(int index)
+    {
+        long entry = locate(index);
+        if (entry >= 0) {
+            int offset = index - foundIndex;
+            replace(split(entry, offset, 1, -(start(entry) + offset + 2)));
+            modifiedCount++;
+        }
+    }
+
+    /**
+     * Record that the line at the given index was removed.
+     *
+     * @param index the index of the removed line
+     */
+    void removed(int index)
+    {
+        long entry = locate(index);
+        if (entry == INSERTED) {
+            insertedCount--;
+        } else {
+            if (entry < 0) {
+                modifiedCount--;
+            }
+            removedCount++;
+        }
+        if (entry < 0) {
+            replace(new long[0]);
+        } else {
+            replace(split(entry, index - foundIndex, 1));
+        }
+        size--;
+    }
+
+    /*
+     * Return the entry holding the line at the given index, and note where
+     * it was found.  Edits mostly move through the text a line at a time, so
+     * the entries near the one found last are tried before the tree is
+     * searched.
+     */
+    private long locate(int index)
+    {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index=" + index);
+        }
+        for (int tries = 0; found && tries < NEARBY; tries++) {
+            long entry = found();
+            if (index < foundIndex) {
+                found = step(-1);
+            } else if (index >= foundIndex + length(entry)) {
+                found = step(1);
+            } else {
+                return entry;
+            }
+        }
+        if (stale) {
+            rebuild();
+        }
+        int blockCount = blocks.size();
+        int block = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(blockCount); step > 0; step >>= 1) {
+            int next = block + step;
+            if (next <= blockCount && tree[next] <= remaining) {
+                block = next;
+                remaining -= tree[next];
+            }
+        }
+        long[] entries = blocks.get(block).entries;
+        int position = 0;
+        while (remaining >= length(entries[position])) {
+            remaining -= length(entries[position]);
+            position++;
+        }
+        foundBlock = block;
+        foundPosition = position;
+        foundIndex = index - remaining;
+        found = true;
+        return entries[position];
+    }
+
+    /* the entry where locate() found the last entry */
+    private long found()
+    {
+        return blocks.get(foundBlock).entries[foundPosition];
+    }
+
+    /*
+     * Move where locate() found the last entry to the next entry, or the
+     * previous one, and return whether there was one.
+     */
+    private boolean step(int direction)
+    {
+        int block = foundBlock;
+        int position = foundPosition + direction;
+        if (position < 0) {
+            if (block == 0) {
+                return false;
+            }
+            block--;
+            position = blocks.get(block).count - 1;
+        } else if (position == blocks.get(block).count) {
+            if (block + 1 == blocks.size()) {
+                return false;
+            }
+            block++;
+            position = 0;
+        }
+        if (direction > 0) {
+            foundIndex += length(found());
+        }
+        foundBlock = block;
+        foundPosition = position;
+        if (direction < 0) {
+            foundIndex -= length(found());
+        }
+        return true;
+    }
+
+    /*
+     * Return the entries which replace a run of unchanged lines when the
+     * given number of lines at the given offset are replaced by the given
+     * entries.
+     */
+    private static long[] split(long entry, int offset, int skip,
+                                long... middle)
+    {
+        int rest = offset + skip;
+        int length = length(entry);
+        long[] entries = new long[(offset > 0 ? 1 : 0) + middle.length
+                                  + (rest < length ? 1 : 0)];
+        int n = 0;
+        if (offset > 0) {
+            entries[n++] = unchanged(start(entry), offset);
+        }
+        for (long newEntry : middle) {
+            entries[n++] = newEntry;
+        }
+        if (rest < length) {
+            entries[n++] = unchanged(start(entry) + rest, length - rest);
+        }
+        return entries;
+    }
+
+    /*
+     * Replace the entry which locate() found last with the given entries,
+     * splitting its block if it grows too large, or dropping the block if it
+     * is left empty.  Where it was found then holds the first replacement,
+     * or the entry after it, which start at the same line.  The tree is
+     * only rebuilt when it is next searched, since edits which move through
+     * the text in order seldom need it.
+     */
+    private void replace(long[] replacements)
+    {
+        Block block = blocks.get(foundBlock);
+        int oldLines = block.lines;
+        block.replace(foundPosition, replacements);
+        if (block.count > BLOCK_SIZE) {
+            blocks.add(foundBlock + 1, block.split());
+            stale = true;
+        } else if (block.count == 0) {
+            blocks.remove(foundBlock);
+            foundPosition = 0;
+            stale = true;
+        } else if (!stale) {
+            update(foundBlock, block.lines - oldLines);
+        }
+        if (foundBlock < blocks.size()
+            && foundPosition >= blocks.get(foundBlock).count) {
+            foundPosition -= blocks.get(foundBlock).count;
+            foundBlock++;
+        }
+        found = foundBlock < blocks.size()
+            && foundPosition < blocks.get(foundBlock).count;
+    }
+
+    /* add an entry after the last one */
+    private void append(long entry)
+    {
+        if (blocks.isEmpty()
+            || blocks.get(blocks.size() - 1).count == BLOCK_SIZE) {
+            blocks.add(new Block());
+            stale = true;
+        }
+        blocks.get(blocks.size() - 1).add(entry);
+        if (!stale) {
+            update(blocks.size() - 1, length(entry));
+        }
+    }
+
+    private void update(int blockIndex, int delta)
+    {
+        for (int k = blockIndex + 1; k < tree.length; k += k & -k) {
+            tree[k] += delta;
+        }
+    }
+
+    private void rebuild()
+    {
+        stale = false;
+        int blockCount = blocks.size();
+        tree = new int[blockCount + 1];
+        for (int k = 1; k <= blockCount; k++) {
+            tree[k] += blocks.get(k - 1).lines;
+            int parent = k + (k & -k);
+            if (parent <= blockCount) {
+                tree[parent] += tree[k];
+            }
+        }
+    }
+
+    private static void addChange(List<Change> changes, int origStart,
+                                  int origEnd, int newStart, int newEnd)
+    {
+        if (!changes.isEmpty()) {
+            Change previous = changes.get(changes.size() - 1);
+            if (previous.origEnd == origStart && previous.newEnd == newStart) {
+                previous.origEnd = origEnd;
+                previous.newEnd = newEnd;
+                return;
+            }
+        }
+        changes.add(new Change(origStart, origEnd, newStart, newEnd));
+    }
+
+    private static long unchanged(int start, int length)
+    {
+        return ((long) start << 32) | length;
+    }
+
+    /* the original index of the first line of a run of unchanged lines */
+    private static int start(long entry)
+    {
+        return (int) (entry >>> 32);
+    }
+
+    /* the number of current lines which an entry covers */
+    private static int length(long entry)
+    {
+        return (entry < 0) ? 1 : (int) entry;
+    }
+
+}
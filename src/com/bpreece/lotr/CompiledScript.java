@@ -0,0 +1,142 @@
+
+package com.bpreece.lotr;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A frodo script compiled by a <code>FrodoEngine</code>, ready to be
+ * executed on any number of texts.
+ *
+ * Each execution loads its input into a workspace borrowed from the engine's
+ * pool, executes the script on it, passes the resulting lines to the sink,
+ * and returns the workspace to the pool.  A list of lines is read where it
+ * is instead, and only copied if the script changes it.  The script itself
+ * is never changed by executing it, so one compiled script may be executed
+ * by many threads at once.
+ *
+ * This class is thread-safe.
+ *
+ * @author ben
+ */
+public final class CompiledScript
+{
+    private final FrodoEngine engine;
+    private final ASN.Script script;
+
+    CompiledScript(FrodoEngine engine, ASN.Script script)
+    {
+        this.engine = engine;
+        this.script = script;
+    }
+
+    /**
+     * Execute the script on the lines of the given text.  The text is split
+     * into lines as <code>BufferedReader.readLine()</code> would split it.
+     *
+     * @param text the input text
+     * @param sink the sink for the output lines
+     * @return <code>true</code> if the script changed the text
+     * @throws IOException if the sink cannot write the output
+     */
+    public boolean execute(CharSequence text, LineSink sink)
+            throws IOException
+    {
+        FrodoEngine.Workspace workspace = engine.acquire();
+        try {
+            List<String> input = workspace.input;
+            int start = 0;
+            int length = text.length();
+            for (int index = 0; index < length; index++) {
+                char c = text.charAt(index);
+                if (c == '\n' || c == '\r') {
+                    input.add(text.subSequence(start, index).toString());
+                    if (c == '\r' && index + 1 < length
+                        && text.charAt(index + 1) == '\n') {
+                        index++;
+                    }
+                    start = index + 1;
+                }
+            }
+            if (start < length) {
+                input.add(text.subSequence(start, length).toString());
+            }
+            return execute(workspace.load(), sink);
+        } finally {
+            engine.release(workspace);
+        }
+    }
+
+    /**
+     * Execute the script on the given lines.  The list is not changed, and it
+     * is only copied if the script changes the text, so a script which only
+     * reads the lines takes no memory for them.  Nothing should change the
+     * list while the script is executing.
+     *
+     * @param lines the input lines
+     * @param sink the sink for the output lines
+     * @return <code>true</code> if the script changed the text
+     * @throws IOException if the sink cannot write the output
+     */
+    public boolean execute(List<String> lines, LineSink sink)
+            throws IOException
+    {
+        if (!(lines instanceof RandomAccess)) {
+            lines = new ArrayList<String>(lines);
+        }
+        return execute(engine.configure(LOTR.copyOnWrite(lines)), sink);
+    }
+
+    /**
+     * Execute the script on the lines read from the given channel, which are
+     * decoded with the engine's character set.  The channel is read to the
+     * end, but it is not closed.
+     *
+     * @param channel the channel to read the input from
+     * @param sink the sink for the output lines
+     * @return <code>true</code> if the script changed the text
+     * @throws IOException if the input cannot be read, or the sink cannot
+     *         write the output
+     */
+    public boolean execute(ReadableByteChannel channel, LineSink sink)
+            throws IOException
+    {
+        FrodoEngine.Workspace workspace = engine.acquire();
+        try {
+            BufferedReader reader = new BufferedReader(Channels.newReader(
+                    channel, engine.getCharset().newDecoder(), -1));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                workspace.input.add(line);
+            }
+            return execute(workspace.load(), sink);
+        } finally {
+            engine.release(workspace);
+        }
+    }
+
+    /* execute the script, and write the resulting lines to the sink */
+    private boolean execute(LOTR lotr, LineSink sink)
+            throws IOException
+    {
+        Metrics metrics = lotr.getMetrics();
+        if (metrics != null) {
+            metrics.addLinesRead(lotr.getLineCount());
+        }
+        script.execute(lotr);
+        int count = lotr.getLineCount();
+        for (int index = 0; index < count; index++) {
+            sink.write(lotr.getLine(index));
+        }
+        if (metrics != null) {
+            metrics.addLinesWritten(count);
+        }
+        return lotr.isModified();
+    }
+
+}
@@ -0,0 +1,164 @@
+
+package com.bpreece.lotr;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A <code>LineStore</code> which reads the lines of a list supplied by the
+ * caller, and only copies them, into an <code>ArrayLineStore</code>, when the
+ * object text is first changed.  A script which only reads the text, or
+ * which fails before changing it, never copies the list, and the list itself
+ * is never changed.
+ *
+ * Operations which may leave a line as it is, such as <code>trim()</code>,
+ * only copy the list if they actually change the line.
+ *
+ * The list must support random access, and the caller must not change it
+ * while the store is in use.
+ *
+ * This class is not thread-safe.
+ *
+ * @author ben
+ */
+public class CopyOnWriteLineStore
+        extends AbstractLineStore
+{
+    private final List<String> original;
+
+    /* the copy of the lines, once the text has changed */
+    private ArrayLineStore copy;
+
+    /**
+     * Construct a new instance of <code>CopyOnWriteLineStore</code> which
+     * reads the given list.
+     *
+     * @param lines the list of lines
+     * @throws IllegalArgumentException if the list does not support random
+     *         access
+     */
+    public CopyOnWriteLineStore(List<String> lines)
+    {
+        if (!(lines instanceof RandomAccess)) {
+            throw new IllegalArgumentException(
+                    "list does not support random access: " + lines.getClass().getName());
+        }
+        this.original = lines;
+    }
+
+    /**
+     * Return whether the lines have been copied;  that is, whether the text
+     * has been changed.
+     *
+     * @return <code>true</code> if the lines have been copied
+     */
+    public boolean isCopied()
+    {
+        return copy != null;
+    }
+
+    public int size()
+    {
+        return (copy != null) ? copy.size() : original.size();
+    }
+
+    public String get(int index)
+    {
+        return (copy != null) ? copy.get(index) : original.get(index);
+    }
+
+    @Override
+    public CharSequence getChars(int index)
+    {
+        return (copy != null) ? copy.getChars(index) : original.get(index);
+    }
+
+    @Override
+    public int length(int index)
+    {
+        return (copy != null) ? copy.length(index) : original.get(index).length();
+    }
+
+    public void set(int index, String line)
+    {
+        writable().set(index, line);
+    }
+
+    @Override
+    public void setChars(int index, CharSequence line)
+    {
+        writable().setChars(index, line);
+    }
+
+    public void add(int index, String line)
+    {
+        writable().add(index, line);
+    }
+
+    public void remove(int index)
+    {
+        writable().remove(index);
+    }
+
+    @Override
+    public void removeAll(BitSet indexes)
+    {
+        if (!indexes.isEmpty()) {
+            writable().removeAll(indexes);
+        }
+    }
+
+    @Override
+    public boolean join(int index, int count, String separator)
+    {
+        return writable().join(index, count, separator);
+    }
+
+    @Override
+    public boolean slice(int index, int beginIndex, int endIndex)
+    {
+        return (copy != null) ? copy.slice(index, beginIndex, endIndex) :
+            super.slice(index, beginIndex, endIndex);
+    }
+
+    @Override
+    public boolean trim(int index)
+    {
+        return (copy != null) ? copy.trim(index) : super.trim(index);
+    }
+
+    @Override
+    public boolean toLowerCase(int index)
+    {
+        return (copy != null) ? copy.toLowerCase(index) : super.toLowerCase(index);
+    }
+
+    @Override
+    public boolean toUpperCase(int index)
+    {
+        return (copy != null) ? copy.toUpperCase(index) : super.toUpperCase(index);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex)
+    {
+        writable().removeRange(fromIndex, toIndex);
+    }
+
+    public List<String> toList()
+    {
+        return (copy != null) ? copy.toList() : new ArrayList<String>(original);
+    }
+
+    /* the store to change, copying the original lines the first time */
+    private ArrayLineStore writable()
+    {
+        if (copy == null) {
+            copy = new ArrayLineStore(original);
+        }
+        return copy;
+    }
+
+}
@@ -0,0 +1,232 @@
+
+package com.bpreece.lotr;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the messages of the <code>log</code>, <code>fail</code> and
+ * <code>abort</code> directives from a background thread, so that a script
+ * which logs a message for every line does not wait for each one to be
+ * formatted and written.
+ *
+ * Messages are held in a bounded queue until the writer thread logs them.
+ * A message is dropped, rather than holding up the script, if the queue is
+ * full, or if more messages have been offered in the current second than the
+ * rate limit allows.  The writer reports how many messages were dropped the
+ * next time it logs a message, and when the sink is closed.
+ *
+ * A sink is attached to each <code>LOTR</code> with
+ * <code>LOTR.setDiagnostics()</code>, and one sink may be shared by many
+ * instances, in many threads.  With no sink attached the messages are logged
+ * synchronously, as they are made.
+ *
+ * This class is thread-safe.
+ *
+ * @author ben
+ */
+public class DiagnosticSink
+{
+    /** The default number of messages which may wait to be written. */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    /*
+     * A message waiting to be written.  An entry with a latch and no level
+     * is a marker, whose latch is released once everything queued before it
+     * has been written.
+     */
+    private static class Entry
+    {
+        final Level level;
+        final String message;
+        final Object[] parameters;
+        final CountDownLatch latch;
+
+        Entry(Level level, String message, Object[] parameters,
+              CountDownLatch latch)
+        {
+            this.level = level;
+            this.message = message;
+            this.parameters = parameters;
+            this.latch = latch;
+        }
+
+    }
+
+    private final Logger logger;
+    private final int rate;
+    private final BlockingQueue<Entry> queue;
+    private final Thread writer;
+    private final AtomicLong dropped = new AtomicLong();
+    private long reported;
+    private long windowStart;
+    private int windowCount;
+    private volatile boolean closed;
+
+    /**
+     * Construct a new instance of <code>DiagnosticSink</code>, and start its
+     * writer thread.
+     *
+     * @param logger the logger to write the messages to
+     * @param capacity the number of messages which may wait to be written
+     * @param rate the number of messages a second to accept, or zero for no
+     *        limit
+     */
+    public DiagnosticSink(Logger logger, int capacity, int rate)
+    {
+        if (capacity < 1 || rate < 0) {
+            throw new IllegalArgumentException(
+                    "capacity=" + capacity + ", rate=" + rate);
+        }
+        this.logger = logger;
+        this.rate = rate;
+        this.queue = new ArrayBlockingQueue<Entry>(capacity);
+        this.windowStart = System.nanoTime();
+        this.writer = new Thread(new Runnable() {
+            public void run()
+            {
+                write();
+            }
+        }, "frodo-diagnostics");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Offer a message to be written, unless it is over the rate limit or the
+     * queue is full.  The parameters are copied, so the caller may reuse the
+     * array.
+     *
+     * @param level the level of the message
+     * @param message the message, or its <code>MessageFormat</code> pattern
+     * @param parameters the arguments for the pattern, or <code>null</code>
+     * @return <code>true</code> if the message was queued, and
+     *         <code>false</code> if it was dropped
+     */
+    public boolean log(Level level, String message, Object[] parameters)
+    {
+        if (closed || (rate > 0 && !admit())) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        Entry entry = new Entry(level, message,
+                                (parameters != null) ? parameters.clone() : null,
+                                null);
+        if (!queue.offer(entry)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Wait until every message queued so far has been written.
+     *
+     * @throws InterruptedException if the thread is interrupted while
+     *         waiting
+     */
+    public void flush()
+            throws InterruptedException
+    {
+        if (closed) {
+            return;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        queue.put(new Entry(null, null, null, latch));
+        latch.await();
+    }
+
+    /**
+     * Write every message queued so far, report any dropped messages, and
+     * stop the writer thread.  Messages offered after the sink is closed are
+     * dropped.
+     */
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        closed = true;
+        writer.interrupt();
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        reportDropped();
+    }
+
+    /**
+     * Return the number of messages dropped so far, because they were over
+     * the rate limit or the queue was full.
+     *
+     * @return the number of messages dropped
+     */
+    public long getDropped()
+    {
+        return dropped.get();
+    }
+
+    /* whether another message fits in the rate limit for this second */
+    private synchronized boolean admit()
+    {
+        long now = System.nanoTime();
+        if (now - windowStart >= NANOS_PER_SECOND) {
+            windowStart = now;
+            windowCount = 0;
+        }
+        if (windowCount < rate) {
+            windowCount++;
+            return true;
+        }
+        return false;
+    }
+
+    /* the body of the writer thread */
+    private void write()
+    {
+        try {
+            while (!closed) {
+                Entry entry = queue.take();
+                if (entry.latch != null) {
+                    entry.latch.countDown();
+                    continue;
+                }
+                reportDropped();
+                if (entry.parameters == null) {
+                    logger.log(entry.level, entry.message);
+                } else {
+                    logger.log(entry.level, entry.message, entry.parameters);
+                }
+            }
+        } catch (InterruptedException ex) {
+            /* closed */
+        }
+    }
+
+    /*
+     * Log the number of messages dropped since the last report, if any.  This
+     * is only called by the writer thread, or once it has stopped.
+     */
+    private void reportDropped()
+    {
+        long count = dropped.get();
+        if (count > reported) {
+            logger.log(Level.WARNING, "{0} diagnostic messages dropped",
+                       count - reported);
+            reported = count;
+        }
+    }
+
+}
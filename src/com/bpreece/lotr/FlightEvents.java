@@ -0,0 +1,174 @@
+
+package com.bpreece.lotr;
+
+/**
+ * Emits Java Flight Recorder events for the phases of a Frodo run, if they
+ * have been enabled with <code>--jfr</code>.
+ *
+ * Each <code>begin</code> method returns a handle for the event which it
+ * starts, or <code>null</code> if events are not enabled, and the matching
+ * <code>end</code> method does nothing with a <code>null</code> handle.  So
+ * when events are disabled they cost a test of a static field, and the JFR
+ * classes, which are not in Java 7 or 8, are never loaded.  The events
+ * themselves are in <code>JfrEvents</code>, which is compiled separately for
+ * Java 11, and loaded by name only when the events are enabled.
+ *
+ * Events are only recorded while a recording is running, for example one
+ * started with <code>-XX:StartFlightRecording</code>.
+ *
+ * @author ben
+ */
+final class FlightEvents
+{
+    /**
+     * Begins and ends the events;  <code>JfrEvents</code> is the only
+     * implementation.
+     */
+    abstract static class Recorder
+    {
+        abstract Object beginParse();
+
+        abstract void endParse(Object event, String script);
+
+        abstract Object beginExecute();
+
+        abstract void endExecute(Object event, int lineCount, boolean changed);
+
+        abstract Object beginLoop();
+
+        abstract void endLoop(Object event, long iterations);
+
+        abstract Object beginSearch();
+
+        abstract void endSearch(Object event, String directive,
+                                LinePredicate test, int scanned,
+                                boolean found);
+
+        abstract Object beginRead();
+
+        abstract void endRead(Object event, int lineCount);
+
+        abstract Object beginWrite();
+
+        abstract void endWrite(Object event, int lineCount);
+    }
+
+    private static Recorder recorder;
+
+    private FlightEvents()
+    {
+    }
+
+    /**
+     * Enable the events, if this Java runtime has the Flight Recorder and
+     * <code>JfrEvents</code> was built.  This must be called before any
+     * script is parsed or executed.
+     *
+     * @return <code>true</code> if the events were enabled, and
+     *         <code>false</code> if the Flight Recorder or
+     *         <code>JfrEvents</code> is not available
+     */
+    static boolean enable()
+    {
+        try {
+            Class.forName("jdk.jfr.Event");
+            recorder = (Recorder) Class.forName("com.bpreece.lotr.JfrEvents")
+                .newInstance();
+        } catch (ClassNotFoundException ex) {
+            /* an older runtime, or a build by a JDK without the module */
+            recorder = null;
+        } catch (UnsupportedClassVersionError ex) {
+            /* a Java 8 runtime with the module backported */
+            recorder = null;
+        } catch (InstantiationException ex) {
+            throw new IllegalStateException(ex);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return recorder != null;
+    }
+
+    /**
+     * Return whether the events are enabled.
+     *
+     * @return <code>true</code> if the events are enabled
+     */
+    static boolean isEnabled()
+    {
+        return recorder != null;
+    }
+
+    static Object beginParse()
+    {
+        return (recorder != null) ? recorder.beginParse() : null;
+    }
+
+    static void endParse(Object event, String script)
+    {
+        if (event != null) {
+            recorder.endParse(event, script);
+        }
+    }
+
+    static Object beginExecute()
+    {
+        return (recorder != null) ? recorder.beginExecute() : null;
+    }
+
+    static void endExecute(Object event, int lineCount, boolean changed)
+    {
+        if (event != null) {
+            recorder.endExecute(event, lineCount, changed);
+        }
+    }
+
+    static Object beginLoop()
+    {
+        return (recorder != null) ? recorder.beginLoop() : null;
+    }
+
+    static void endLoop(Object event, long iterations)
+    {
+        if (event != null) {
+            recorder.endLoop(event, iterations);
+        }
+    }
+
+    static Object beginSearch()
+    {
+        return (recorder != null) ? recorder.beginSearch() : null;
+    }
+
+    static void endSearch(Object event, String directive, LinePredicate test,
+                          int scanned, boolean found)
+    {
+        if (event != null) {
+            recorder.endSearch(event, directive, test, scanned, found);
+        }
+    }
+
+    static Object beginRead()
+    {
+        return (recorder != null) ? recorder.beginRead() : null;
+    }
+
+    static void endRead(Object event, int lineCount)
+    {
+        if (event != null) {
+            recorder.endRead(event, lineCount);
+        }
+    }
+
+    static Object beginWrite()
+    {
+        return (recorder != null) ? recorder.beginWrite() : null;
+    }
+
+    static void endWrite(Object event, int lineCount)
+    {
+        if (event != null) {
+            recorder.endWrite(event, lineCount);
+        }
+    }
+
+}
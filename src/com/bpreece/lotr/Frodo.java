@@ -2,66 +2,445 @@
 package com.bpreece.lotr;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.PrintStream;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 public class Frodo implements FrodoConstants {
     private static final Map<String, Object> defines = new HashMap<String, Object>();
 
+    /* the target number of lines in each chunk of records */
+    private static final int CHUNK_SIZE = 4 * Pipeline.BATCH_SIZE;
+    /* the number of chunks per worker thread when processing records */
+    private static final int CHUNKS_PER_JOB = 4;
+
     public static void main(String args[])
         throws ParseException
     {
+        InPlaceFile inPlace = null;
         try {
-            if (args.length < 1) {
-                System.err.println("Usage:  frodo <script> [ <infile> [ <outfile> ] ]");
+            /* parse the command line options */
+            Pattern recordStart = null;
+            int jobs = Runtime.getRuntime().availableProcessors();
+            boolean inPlaceMode = false;
+            boolean skipUnchanged = false;
+            boolean changedOnly = false;
+            boolean diff = false;
+            boolean index = false;
+            String metricsFile = null;
+            Integer logRate = null;
+            String storeKind = "array";
+            int cachePages = 256;
+            int argIndex = 0;
+            while (argIndex < args.length && args[argIndex].startsWith("-")) {
+                String option = args[argIndex++];
+                if (option.equals("-i") || option.equals("--in-place")) {
+                    inPlaceMode = true;
+                } else if (option.equals("--skip-unchanged")) {
+                    skipUnchanged = true;
+                } else if (option.equals("--changed-only")) {
+                    changedOnly = true;
+                } else if (option.equals("--diff")) {
+                    diff = true;
+                } else if (option.equals("--index")) {
+                    index = true;
+                } else if (option.equals("--jfr")) {
+                    if (!FlightEvents.enable()) {
+                        System.err.println("--jfr needs Java 11 or later;  ignored");
+                    }
+                } else if (argIndex < args.length && option.equals("--record-start")) {
+                    recordStart = Pattern.compile(args[argIndex++]);
+                } else if (argIndex < args.length && option.equals("--metrics")) {
+                    metricsFile = args[argIndex++];
+                } else if (argIndex < args.length && option.equals("--store")) {
+                    storeKind = args[argIndex++];
+                } else if (argIndex < args.length && option.equals("--cache-pages")) {
+                    cachePages = Integer.parseInt(args[argIndex++]);
+                } else if (argIndex < args.length && option.equals("--jobs")) {
+                    jobs = Integer.parseInt(args[argIndex++]);
+                } else if (argIndex < args.length && option.equals("--log-rate")) {
+                    logRate = Integer.parseInt(args[argIndex++]);
+                } else {
+                    usage();
+                    return;
+                }
             }
-            Frodo frodo = new Frodo(new FileReader(args[0]));
-
-            Reader in = new InputStreamReader(System.in);
-            if (args.length > 1) {
-                in = new BufferedReader(new FileReader(args[1]));
+            int fileCount = args.length - argIndex;
+            boolean partialOutput = changedOnly || diff;
+            if (fileCount < 1 || jobs < 1 || (inPlaceMode && fileCount != 2)
+                || cachePages < 1 || newLineStore(storeKind, cachePages) == null
+                || (logRate != null && logRate < 0)
+                || (partialOutput && (inPlaceMode || recordStart != null))) {
+                usage();
+                return;
             }
 
-            PrintStream out = System.out;
-            if (args.length > 2) {
-                out = new PrintStream(new FileOutputStream(args[2]));
+            /* set up input and output streams;  a paged store maps the input
+               file itself, instead of reading it through the pipeline */
+            if (inPlaceMode) {
+                inPlace = new InPlaceFile(args[argIndex + 1]);
             }
-
+            boolean mapInput = storeKind.equals("paged") && fileCount > 1
+                && recordStart == null && !diff;
+            Reader in = mapInput ? new StringReader("") :
+                (fileCount > 1) ?
+                new BufferedReader(new FileReader(args[argIndex + 1])) :
+                new InputStreamReader(System.in);
+            String outFile = (fileCount > 2) ? args[argIndex + 2] : null;
+
+            Metrics metrics = (metricsFile != null) ? new Metrics() : null;
+            DiagnosticSink diagnostics = (logRate != null) ?
+                new DiagnosticSink(Logger.getLogger(ASN.class.getName()),
+                                   DiagnosticSink.DEFAULT_CAPACITY, logRate) :
+                null;
+            /* parse the frodo script while the input is being read */
+            Pipeline pipeline = new Pipeline(in);
+            pipeline.start();
+            Object parseEvent = FlightEvents.beginParse();
+            Frodo frodo = new Frodo(new FileReader(args[argIndex]));
             ASN.Script frodoScript = frodo.Script();
-            LOTR lotr = new LOTR(readLines(in));
-            frodoScript.execute(lotr);
-            writeLines(out, lotr.getLines());
+            FlightEvents.endParse(parseEvent, args[argIndex]);
+
+            /* execute the frodo script */
+            boolean changed;
+            OutputStream out = null;
+            LineStore store = null;
+            Object writeEvent = null;
+            int written = 0;
+            if (recordStart == null) {
+                List<String> input = null;
+                Object readEvent = FlightEvents.beginRead();
+                if (mapInput) {
+                    store = PagedLineStore.open(args[argIndex + 1],
+                                                Charset.defaultCharset(),
+                                                cachePages);
+                } else if (diff) {
+                    store = newLineStore(storeKind, cachePages);
+                    input = pipeline.readAll();
+                    for (String line : input) {
+                        store.add(store.size(), line);
+                    }
+                } else {
+                    store = newLineStore(storeKind, cachePages);
+                    pipeline.readAll(store);
+                }
+                FlightEvents.endRead(readEvent, store.size());
+                LOTR lotr = new LOTR(store);
+                lotr.setSearchIndex(index);
+                lotr.setParallelism(jobs);
+                lotr.setMetrics(metrics);
+                lotr.setDiagnostics(diagnostics);
+                if (metrics != null) {
+                    metrics.addLinesRead(store.size());
+                }
+                frodoScript.execute(lotr);
+                lotr.close();
+                changed = lotr.isModified();
+                String name = (fileCount > 1) ? args[argIndex + 1] : "-";
+                List<String> output = diff ? UnifiedDiff.diff(input, lotr, name, name) :
+                    changedOnly ? getModifiedLines(lotr) :
+                    null;
+                if (changed || !(inPlaceMode && skipUnchanged)) {
+                    writeEvent = FlightEvents.beginWrite();
+                    out = openOutput(inPlace, outFile);
+                    pipeline.startWriter(out);
+                    if (output != null) {
+                        pipeline.write(output);
+                    } else {
+                        writeLines(pipeline, lotr);
+                    }
+                    written = (output != null) ? output.size() : lotr.getLineCount();
+                    if (metrics != null) {
+                        metrics.addLinesWritten(written);
+                    }
+                }
+            } else {
+                out = openOutput(inPlace, outFile);
+                pipeline.startWriter(out);
+                changed = executeRecords(frodoScript, pipeline,
+                                         new RecordSplitter(recordStart), jobs,
+                                         index, metrics, diagnostics);
+            }
+            pipeline.finish();
+            FlightEvents.endWrite(writeEvent, written);
+            in.close();
+            if (store instanceof Closeable) {
+                ((Closeable) store).close();
+            }
+
+            /* save the output */
+            if (inPlace != null) {
+                if (changed || !skipUnchanged) {
+                    inPlace.commit();
+                }
+            } else if (outFile != null) {
+                out.close();
+            }
+            if (diagnostics != null) {
+                diagnostics.close();
+            }
+            if (metrics != null) {
+                metrics.dump(metricsFile);
+            }
         } catch (IOException ex) {
-            ex.printStackTrace();
+            System.err.println(ex.getMessage());
+            if (inPlace != null) {
+                /* the input file was not rewritten, so the caller must not
+                   go on as if it had been */
+                inPlace.discard();
+                System.exit(1);
+            }
+        } finally {
+            if (inPlace != null) {
+                inPlace.discard();
+            }
         }
     }
 
-    private static List<String> readLines(Reader in)
-        throws IOException
+    /**
+     * Print the command line usage to the standard error stream.
+     */
+    private static void usage()
+    {
+        System.err.println("Usage:  frodo [ <options> ] <script> [ <infile> [ <outfile> ] ]");
+        System.err.println("Options:");
+        System.err.println("    -i, --in-place          rewrite <infile> with the output, replacing it");
+        System.err.println("                            atomically once the output is complete");
+        System.err.println("    --skip-unchanged        with --in-place, leave <infile> untouched if");
+        System.err.println("                            the script did not change any lines");
+        System.err.println("    --changed-only          write only the lines which the script");
+        System.err.println("                            inserted or modified");
+        System.err.println("    --diff                  write the changes which the script made as");
+        System.err.println("                            a unified diff against the input");
+        System.err.println("    --record-start <regex>  execute the script separately on chunks of");
+        System.err.println("                            whole records, each starting at a line");
+        System.err.println("                            which matches <regex>");
+        System.err.println("    --jobs <n>              the number of worker threads for processing");
+        System.err.println("                            records, or large ranges in bulk directives");
+        System.err.println("                            (default: number of processors)");
+        System.err.println("    --index                 index the lines found by each search, to");
+        System.err.println("                            speed up scripts which repeat searches");
+        System.err.println("    --store <kind>          how to hold the input lines in memory:");
+        System.err.println("                            array (default), slab, offheap or paged");
+        System.err.println("    --cache-pages <n>       with --store paged, the number of pages of");
+        System.err.println("                            about 1 MB to keep in memory (default: 256)");
+        System.err.println("    --metrics <file>        write counts of lines and directives, and");
+        System.err.println("                            timings, to <file> in the Prometheus format");
+        System.err.println("    --log-rate <n>          write the messages of log, fail and abort in");
+        System.err.println("                            the background, at most <n> a second, and");
+        System.err.println("                            drop the rest (0: no limit)");
+        System.err.println("    --jfr                   emit Java Flight Recorder events for parsing,");
+        System.err.println("                            execution, loops, searches and I/O");
+    }
+
+    /**
+     * Create an empty line store of the given kind.
+     * @param kind the name of the kind of store, as given to --store
+     * @param cachePages the number of pages a paged store keeps in memory
+     * @return the new store, or <code>null</code> if the kind is unknown
+     */
+    private static LineStore newLineStore(String kind, int cachePages)
+    {
+        if (kind.equals("array")) {
+            return new ArrayLineStore();
+        } else if (kind.equals("slab")) {
+            return new SlabLineStore();
+        } else if (kind.equals("offheap")) {
+            return new OffHeapLineStore();
+        } else if (kind.equals("paged")) {
+            return new PagedLineStore(cachePages);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Write all the lines of the object text, a batch at a time, so that
+     * they are never all held in a single list.
+     * @param pipeline the pipeline which writes output
+     * @param lotr the processed object text
+     */
+    private static void writeLines(Pipeline pipeline, LOTR lotr)
+    {
+        int lineCount = lotr.getLineCount();
+        for (int start = 0; start < lineCount; start += Pipeline.BATCH_SIZE) {
+            int end = Math.min(lineCount, start + Pipeline.BATCH_SIZE);
+            List<String> batch = new ArrayList<String>(end - start);
+            for (int index = start; index < end; index++) {
+                batch.add(lotr.getLine(index));
+            }
+            pipeline.write(batch);
+        }
+    }
+
+    /**
+     * Return the lines of the object text which the script inserted or
+     * modified.
+     * @param lotr the processed object text
+     * @return the new and modified lines, in order
+     */
+    private static List<String> getModifiedLines(LOTR lotr)
     {
         List<String> lines = new ArrayList<String>();
-        BufferedReader reader = new BufferedReader(in);
-        String line = null;
-        while ((line = reader.readLine()) != null) {
-            lines.add(line);
+        for (ChangeTracker.Change change : lotr.getChanges()) {
+            for (int index = change.newStart; index < change.newEnd; index++) {
+                lines.add(lotr.getLine(index));
+            }
         }
         return lines;
     }
 
-    private static void writeLines(PrintStream out, List<String> lines) {
-        for (String line : lines) {
-            out.println(line);
+    /**
+     * Open the stream to write the output.
+     * @param inPlace the file being rewritten in place, or <code>null</code>
+     * @param outFile the output file name, or <code>null</code>
+     * @return the output stream
+     */
+    private static OutputStream openOutput(InPlaceFile inPlace, String outFile)
+        throws IOException
+    {
+        if (inPlace != null) {
+            return inPlace.open();
+        } else if (outFile != null) {
+            return new FileOutputStream(outFile);
+        } else {
+            return System.out;
+        }
+    }
+
+    /**
+     * Split the input lines into chunks of whole records as they are read,
+     * execute the script on each chunk in parallel, and write the results in
+     * input order.  Each chunk is processed by its own instance of
+     * <code>LOTR</code>, so the script sees only the lines of the records in
+     * that chunk.
+     * @param script the frodo script to execute
+     * @param pipeline the pipeline which reads input and writes output
+     * @param splitter the splitter which identifies the record boundaries
+     * @param jobs the number of worker threads
+     * @param index whether to index the searches in each chunk
+     * @param metrics the metrics registry, or <code>null</code>
+     * @param diagnostics the diagnostic sink, or <code>null</code>
+     * @return whether the script changed any lines
+     */
+    private static boolean executeRecords(ASN.Script script,
+                                       Pipeline pipeline,
+                                       RecordSplitter splitter,
+                                       int jobs,
+                                       boolean index,
+                                       Metrics metrics,
+                                       DiagnosticSink diagnostics)
+        throws IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(jobs);
+        try {
+            Queue<Future<LOTR>> results = new LinkedList<Future<LOTR>>();
+            boolean changed = false;
+            List<String> chunk = new ArrayList<String>();
+            List<String> batch;
+            while ((batch = pipeline.readBatch()) != null) {
+                if (metrics != null) {
+                    metrics.addLinesRead(batch.size());
+                }
+                for (String line : batch) {
+                    if (splitter.isCut(chunk.size(), CHUNK_SIZE, line)) {
+                        results.add(submitChunk(executor, script, chunk, index,
+                                               metrics, diagnostics));
+                        chunk = new ArrayList<String>();
+                        if (results.size() > jobs * CHUNKS_PER_JOB) {
+                            changed |= writeChunk(pipeline, results.remove().get());
+                        }
+                    }
+                    chunk.add(line);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                results.add(submitChunk(executor, script, chunk, index, metrics,
+                                        diagnostics));
+            }
+            while (!results.isEmpty()) {
+                changed |= writeChunk(pipeline, results.remove().get());
+            }
+            return changed;
+        } catch (InterruptedException ex) {
+            throw new IOException("interrupted while processing records");
+        } catch (ExecutionException ex) {
+            throw new IOException("error while processing records: " + ex.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Write the output of a chunk of records.
+     * @param pipeline the pipeline which writes output
+     * @param lotr the processed chunk
+     * @return whether the script changed the chunk
+     */
+    private static boolean writeChunk(Pipeline pipeline, LOTR lotr)
+    {
+        pipeline.write(lotr.getLines());
+        if (lotr.getMetrics() != null) {
+            lotr.getMetrics().addLinesWritten(lotr.getLineCount());
         }
+        return lotr.isModified();
+    }
+
+    /**
+     * Submit a chunk of records to be processed by the given executor.
+     * @param executor the executor which runs the worker threads
+     * @param script the frodo script to execute
+     * @param chunk the lines of the records in the chunk
+     * @param index whether to index the searches in the chunk
+     * @param metrics the metrics registry, or <code>null</code>
+     * @param diagnostics the diagnostic sink, or <code>null</code>
+     * @return the future processed chunk
+     */
+    private static Future<LOTR> submitChunk(ExecutorService executor,
+                                            final ASN.Script script,
+                                            final List<String> chunk,
+                                            final boolean index,
+                                            final Metrics metrics,
+                                            final DiagnosticSink diagnostics)
+    {
+        return executor.submit(new Callable<LOTR>() {
+            public LOTR call() {
+                LOTR lotr = new LOTR(chunk);
+                lotr.setSearchIndex(index);
+                lotr.setMetrics(metrics);
+                lotr.setDiagnostics(diagnostics);
+                script.execute(lotr);
+                return lotr;
+            }
+        });
     }
 
+    /**
+     * Convert a string with backslashed control characters into a string with actual control characters.
+     * @param input the string to convert
+     * @return a new string with the converted control characters
+     */
     private static String unescape(String input) {
         input = input.substring(1, input.length()-1);
         StringBuilder buffer = new StringBuilder();
@@ -84,14 +463,26 @@ public class Frodo implements FrodoConstants {
         return buffer.toString();
     }
 
-    private static final HashMap<String, ASN.TConstant> definedValues =
+    /* A table of constants defined in the frodo script */
+    private final HashMap<String, ASN.TConstant> definedValues =
         new HashMap<String, ASN.TConstant>();
 
-    private static void define(String id, ASN.TConstant value) {
+    /**
+     * Add a constant and its value to the <code>definedValues</code>.
+     * @param id the string name of the constant
+     * @param value the value of the constant
+     */
+    private void define(String id, ASN.TConstant value) {
         definedValues.put(id, value);
     }
 
-    private static ASN.TConstant lookup(String id)
+    /**
+     * Look up a constant in the <code>definedValues</code> and return its value.
+     * @param id The string name of the constant
+     * @return the value of the constant
+     * @throws ParseException if the constant's id is not found in the <code>definedValues</code>.
+     */
+    private ASN.TConstant lookup(String id)
         throws ParseException
     {
         if (definedValues.containsKey(id)) {
@@ -101,18 +492,99 @@ public class Frodo implements FrodoConstants {
         }
     }
 
-    private static ASN.TConstant lookup(String id, Class valueClass)
+    private ASN.TConstant lookup(String id, Class valueClass)
         throws ParseException
     {
-        if (definedValues.containsKey(id)) {
-            ASN.TConstant value = definedValues.get(id);
-            if (value.getClass().equals(valueClass)) {
-                return value;
-            } else {
-                throw new ParseException(id + value.getClass() + " != " + valueClass);
-            }
+        ASN.TConstant value = lookup(id); // may throw ParseException
+        if (value.getClass().equals(valueClass)) {
+            return value;
         } else {
-            throw new ParseException("Undefined id " + id);
+            throw new ParseException(id + value.getClass() + " != " + valueClass);
+        }
+    }
+
+    /**
+     * Compile a regex of the script.  The regex is compiled here, while the
+     * script is parsed, so a regex which is not valid is reported as a
+     * syntax error at the token it came from, and the directives which use
+     * it never find it invalid.
+     * @param regex The regex
+     * @param token The regex token from which the regex was read
+     * @return the regex, compiled
+     * @throws ParseException if the regex is not valid.
+     */
+    private ASN.TRegex compile(ASN.TRegex regex, Token token)
+        throws ParseException
+    {
+        try {
+            regex.getPattern();
+            return regex;
+        } catch (PatternSyntaxException ex) {
+            throw new ParseException("Invalid regex \u005c"" + token.image
+                                     + "\u005c" at line " + token.beginLine
+                                     + ", column " + token.beginColumn
+                                     + ": " + ex.getDescription());
+        }
+    }
+
+    /**
+     * Check a format string of the script, so that a format which is not
+     * valid is reported as a syntax error at the token it came from.
+     * @param format The format
+     * @param token The format token from which the format was read
+     * @return the format
+     * @throws ParseException if the format is not valid.
+     */
+    private ASN.TFormat check(ASN.TFormat format, Token token)
+        throws ParseException
+    {
+        try {
+            new MessageFormat(format.format);
+            return format;
+        } catch (IllegalArgumentException ex) {
+            throw new ParseException("Invalid format " + token.image
+                                     + " at line " + token.beginLine
+                                     + ", column " + token.beginColumn
+                                     + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Return a predicate which matches lines to a regex of the script.
+     * @param regex The regex, compiled
+     * @param token The regex or id token from which the regex was read
+     * @return the predicate
+     * @throws ParseException if the regex is not valid.
+     */
+    private LinePredicate matches(ASN.TRegex regex, Token token)
+        throws ParseException
+    {
+        return LinePredicate.matches(compile(regex, token).getPattern());
+    }
+
+    /**
+     * Return the replacement string of a replace directive, parsed for the
+     * pattern of its regex.  It is parsed here, while the script is parsed,
+     * so a replacement which is not valid is reported as a syntax error at
+     * the token it came from.
+     * @param regex The regex of the directive
+     * @param string The replacement string
+     * @param token The string or id token from which the string was read
+     * @return the parsed replacement
+     * @throws ParseException if the replacement is not valid.
+     */
+    private ASN.TReplacement replacement(ASN.TRegex regex, ASN.TString string,
+                                         Token token)
+        throws ParseException
+    {
+        try {
+            return new ASN.TReplacement(string.string,
+                    Replacement.parse(string.string, regex.getPattern()));
+        } catch (IllegalArgumentException ex) {
+            throw new ParseException("Invalid replacement " + token.image
+                                     + " at line " + token.beginLine
+                                     + ", column " + token.beginColumn
+                                     + ": " + ex.getMessage());
         }
     }
 
@@ -120,7 +592,7 @@ public class Frodo implements FrodoConstants {
 
     public Frodo() { }
 
-  static final public ASN.Script Script() throws ParseException {
+  final public ASN.Script Script() throws ParseException {
     ASN.Command command;
     label_1:
     while (true) {
@@ -136,17 +608,17 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public ASN.TConstant Literal() throws ParseException {
+  final public ASN.TConstant Literal() throws ParseException {
     Token t;
     if (jj_2_2(3)) {
       t = jj_consume_token(T_STRING);
                      {if (true) return new ASN.TString(unescape(token.image));}
     } else if (jj_2_3(3)) {
       t = jj_consume_token(T_REGEX);
-                    {if (true) return new ASN.TRegex(unescape(token.image));}
+                    {if (true) return compile(new ASN.TRegex(unescape(token.image)), token);}
     } else if (jj_2_4(3)) {
       t = jj_consume_token(T_FORMAT);
-                     {if (true) return new ASN.TFormat(unescape(token.image));}
+                     {if (true) return check(new ASN.TFormat(unescape(token.image)), token);}
     } else if (jj_2_5(3)) {
       t = jj_consume_token(T_INTEGER);
                       {if (true) return new ASN.TInteger(Long.parseLong(token.image));}
@@ -160,7 +632,7 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public void Definition() throws ParseException {
+  final public void Definition() throws ParseException {
     Token id;
     ASN.TConstant constant;
     jj_consume_token(T_DEFINE);
@@ -169,17 +641,17 @@ public class Frodo implements FrodoConstants {
                                                   define(id.image, constant);
   }
 
-  static final public ASN.TConstant Constant() throws ParseException {
+  final public ASN.TConstant Constant() throws ParseException {
     Token t;
     if (jj_2_7(3)) {
       t = jj_consume_token(T_STRING);
                      {if (true) return new ASN.TString(unescape(t.image));}
     } else if (jj_2_8(3)) {
       t = jj_consume_token(T_REGEX);
-                    {if (true) return new ASN.TRegex(unescape(t.image));}
+                    {if (true) return compile(new ASN.TRegex(unescape(t.image)), t);}
     } else if (jj_2_9(3)) {
       t = jj_consume_token(T_FORMAT);
-                     {if (true) return new ASN.TFormat(unescape(t.image));}
+                     {if (true) return check(new ASN.TFormat(unescape(t.image)), t);}
     } else if (jj_2_10(3)) {
       t = jj_consume_token(T_INTEGER);
                       {if (true) return new ASN.TInteger(Long.parseLong(t.image));}
@@ -196,7 +668,7 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public ASN.TString String() throws ParseException {
+  final public ASN.TString String() throws ParseException {
     Token t;
     if (jj_2_13(3)) {
       t = jj_consume_token(T_STRING);
@@ -211,11 +683,11 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public ASN.TRegex Regex() throws ParseException {
+  final public ASN.TRegex Regex() throws ParseException {
     Token t;
     if (jj_2_15(3)) {
       t = jj_consume_token(T_REGEX);
-                    {if (true) return new ASN.TRegex(unescape(t.image));}
+                    {if (true) return compile(new ASN.TRegex(unescape(t.image)), t);}
     } else if (jj_2_16(3)) {
       t = jj_consume_token(T_ID);
                  {if (true) return (ASN.TRegex)lookup(t.image, ASN.TRegex.class);}
@@ -226,11 +698,11 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public ASN.TFormat Format() throws ParseException {
+  final public ASN.TFormat Format() throws ParseException {
     Token t;
     if (jj_2_17(3)) {
       t = jj_consume_token(T_FORMAT);
-                     {if (true) return new ASN.TFormat(unescape(t.image));}
+                     {if (true) return check(new ASN.TFormat(unescape(t.image)), t);}
     } else if (jj_2_18(3)) {
       t = jj_consume_token(T_ID);
                  {if (true) return (ASN.TFormat)lookup(t.image, ASN.TFormat.class);}
@@ -241,7 +713,7 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public ASN.TInteger Integer() throws ParseException {
+  final public ASN.TInteger Integer() throws ParseException {
     Token t;
     if (jj_2_19(3)) {
       t = jj_consume_token(T_INTEGER);
@@ -256,7 +728,7 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public ASN.TFloat Float() throws ParseException {
+  final public ASN.TFloat Float() throws ParseException {
     Token t;
     if (jj_2_21(3)) {
       t = jj_consume_token(T_FLOAT);
@@ -271,15 +743,47 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public ASN.Command Command() throws ParseException {
-    ASN.Command command;
+  final public LinePredicate LineTest() throws ParseException {
+    ASN.TString s;
+    ASN.TRegex r;
     if (jj_2_23(3)) {
+      jj_consume_token(T_EMPTY);
+      {if (true) return LinePredicate.isEmpty();}
+    } else if (jj_2_24(3)) {
+      jj_consume_token(T_EQUALS);
+      s = String();
+      {if (true) return LinePredicate.equalTo(s.string);}
+    } else if (jj_2_25(3)) {
+      jj_consume_token(T_STARTS);
+      s = String();
+      {if (true) return LinePredicate.startsWith(s.string);}
+    } else if (jj_2_26(3)) {
+      jj_consume_token(T_ENDS);
+      s = String();
+      {if (true) return LinePredicate.endsWith(s.string);}
+    } else if (jj_2_27(3)) {
+      jj_consume_token(T_CONTAINS);
+      s = String();
+      {if (true) return LinePredicate.contains(s.string);}
+    } else if (jj_2_28(3)) {
+      r = Regex();
+      {if (true) return matches(r, getToken(0));}
+    } else {
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
+    throw new Error("Missing return statement in function");
+  }
+
+  final public ASN.Command Command() throws ParseException {
+    ASN.Command command;
+    if (jj_2_29(3)) {
       command = Directive();
                             {if (true) return command;}
-    } else if (jj_2_24(3)) {
+    } else if (jj_2_30(3)) {
       command = WhileCommand();
                                {if (true) return command;}
-    } else if (jj_2_25(3)) {
+    } else if (jj_2_31(3)) {
       command = CompoundCommand();
                                   {if (true) return command;}
     } else {
@@ -289,7 +793,7 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public ASN.Disjunction CompoundCommand() throws ParseException {
+  final public ASN.Disjunction CompoundCommand() throws ParseException {
     ASN.Disjunction command;
     jj_consume_token(T_START);
     command = Disjunction();
@@ -298,7 +802,7 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public ASN.While WhileCommand() throws ParseException {
+  final public ASN.While WhileCommand() throws ParseException {
     ASN.Command command;
     jj_consume_token(T_WHILE);
     command = Command();
@@ -306,14 +810,14 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public ASN.Disjunction Disjunction() throws ParseException {
+  final public ASN.Disjunction Disjunction() throws ParseException {
     ASN.Disjunction command = new ASN.Disjunction();
     ASN.Command next;
     next = Sequence();
                         command.add(next);
     label_2:
     while (true) {
-      if (jj_2_26(3)) {
+      if (jj_2_32(3)) {
         ;
       } else {
         break label_2;
@@ -326,12 +830,12 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static final public ASN.Sequence Sequence() throws ParseException {
+  final public ASN.Sequence Sequence() throws ParseException {
     ASN.Sequence command = new ASN.Sequence();
     ASN.Command next;
     label_3:
     while (true) {
-      if (jj_2_27(3)) {
+      if (jj_2_33(3)) {
         ;
       } else {
         break label_3;
@@ -345,170 +849,222 @@ public class Frodo implements FrodoConstants {
 
 /*
  */
-  static final public ASN.Directive Directive() throws ParseException {
+  final public ASN.Directive Directive() throws ParseException {
     ASN.TConstant x, y;
     ASN.TString s;
     ASN.TRegex r;
     ASN.TFormat f;
     ASN.TInteger n;
-    if (jj_2_28(3)) {
+    ASN.TString separator = null;
+    LinePredicate p;
+    if (jj_2_35(3)) {
       jj_consume_token(T_ABORT);
       x = Constant();
       {if (true) return new ASN.Directive(FrodoConstants.T_ABORT, x);}
-    } else if (jj_2_29(3)) {
+    } else if (jj_2_36(3)) {
       jj_consume_token(T_ABORT);
       {if (true) return new ASN.Directive(FrodoConstants.T_ABORT);}
-    } else if (jj_2_30(3)) {
+    } else if (jj_2_37(3)) {
       jj_consume_token(T_LOG);
       x = Constant();
       {if (true) return new ASN.Directive(FrodoConstants.T_LOG, x);}
-    } else if (jj_2_31(3)) {
+    } else if (jj_2_38(3)) {
       jj_consume_token(T_FAIL);
       x = Constant();
       {if (true) return new ASN.Directive(FrodoConstants.T_FAIL, x);}
-    } else if (jj_2_32(3)) {
+    } else if (jj_2_39(3)) {
       jj_consume_token(T_FAIL);
       {if (true) return new ASN.Directive(FrodoConstants.T_FAIL);}
-    } else if (jj_2_33(3)) {
+    } else if (jj_2_40(3)) {
       jj_consume_token(T_RESET);
       {if (true) return new ASN.Directive(FrodoConstants.T_RESET);}
-    } else if (jj_2_34(3)) {
+    } else if (jj_2_41(3)) {
       jj_consume_token(T_EMPTY);
       {if (true) return new ASN.Directive(FrodoConstants.T_EMPTY);}
-    } else if (jj_2_35(3)) {
+    } else if (jj_2_42(3)) {
       jj_consume_token(T_EQUALS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_EQUALS, s);}
-    } else if (jj_2_36(3)) {
+    } else if (jj_2_43(3)) {
       jj_consume_token(T_STARTS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_STARTS, s);}
-    } else if (jj_2_37(3)) {
+    } else if (jj_2_44(3)) {
       jj_consume_token(T_ENDS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_ENDS, s);}
-    } else if (jj_2_38(3)) {
+    } else if (jj_2_45(3)) {
       jj_consume_token(T_CONTAINS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_CONTAINS, s);}
-    } else if (jj_2_39(3)) {
+    } else if (jj_2_46(3)) {
       jj_consume_token(T_RANGE_RESET);
       {if (true) return new ASN.Directive(FrodoConstants.T_RANGE_RESET);}
-    } else if (jj_2_40(3)) {
+    } else if (jj_2_47(3)) {
       jj_consume_token(T_RANGE);
       x = Constant();
       {if (true) return new ASN.Directive(FrodoConstants.T_RANGE, x);}
-    } else if (jj_2_41(3)) {
+    } else if (jj_2_48(3)) {
       jj_consume_token(T_RANGE_EMPTY);
       {if (true) return new ASN.Directive(FrodoConstants.T_RANGE_EMPTY);}
-    } else if (jj_2_42(3)) {
+    } else if (jj_2_49(3)) {
       jj_consume_token(T_RANGE_STARTS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_RANGE_STARTS, s);}
-    } else if (jj_2_43(3)) {
+    } else if (jj_2_50(3)) {
       jj_consume_token(T_RANGE_ENDS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_RANGE_ENDS, s);}
-    } else if (jj_2_44(3)) {
+    } else if (jj_2_51(3)) {
       jj_consume_token(T_RANGE_CONTAINS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_RANGE_CONTAINS, s);}
-    } else if (jj_2_45(3)) {
+    } else if (jj_2_52(3)) {
       jj_consume_token(T_RANGE_ADJUST);
       n = Integer();
       {if (true) return new ASN.Directive(FrodoConstants.T_RANGE_ADJUST, n);}
-    } else if (jj_2_46(3)) {
+    } else if (jj_2_53(3)) {
       jj_consume_token(T_NEXT);
       x = Constant();
       {if (true) return new ASN.Directive(FrodoConstants.T_NEXT, x);}
-    } else if (jj_2_47(3)) {
+    } else if (jj_2_54(3)) {
       jj_consume_token(T_NEXT);
       {if (true) return new ASN.Directive(FrodoConstants.T_NEXT);}
-    } else if (jj_2_48(3)) {
+    } else if (jj_2_55(3)) {
       jj_consume_token(T_NEXT_EMPTY);
       {if (true) return new ASN.Directive(FrodoConstants.T_NEXT_EMPTY);}
-    } else if (jj_2_49(3)) {
+    } else if (jj_2_56(3)) {
       jj_consume_token(T_NEXT_STARTS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_NEXT_STARTS, s);}
-    } else if (jj_2_50(3)) {
+    } else if (jj_2_57(3)) {
       jj_consume_token(T_NEXT_ENDS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_NEXT_ENDS, s);}
-    } else if (jj_2_51(3)) {
+    } else if (jj_2_58(3)) {
       jj_consume_token(T_NEXT_CONTAINS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_NEXT_CONTAINS, s);}
-    } else if (jj_2_52(3)) {
+    } else if (jj_2_59(3)) {
       jj_consume_token(T_PREV);
       x = Constant();
       {if (true) return new ASN.Directive(FrodoConstants.T_PREV, x);}
-    } else if (jj_2_53(3)) {
+    } else if (jj_2_60(3)) {
       jj_consume_token(T_PREV);
       {if (true) return new ASN.Directive(FrodoConstants.T_PREV);}
-    } else if (jj_2_54(3)) {
+    } else if (jj_2_61(3)) {
       jj_consume_token(T_PREV_EMPTY);
       {if (true) return new ASN.Directive(FrodoConstants.T_PREV_EMPTY);}
-    } else if (jj_2_55(3)) {
+    } else if (jj_2_62(3)) {
       jj_consume_token(T_PREV_STARTS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_PREV_STARTS, s);}
-    } else if (jj_2_56(3)) {
+    } else if (jj_2_63(3)) {
       jj_consume_token(T_PREV_ENDS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_PREV_ENDS, s);}
-    } else if (jj_2_57(3)) {
+    } else if (jj_2_64(3)) {
       jj_consume_token(T_PREV_CONTAINS);
       s = String();
       {if (true) return new ASN.Directive(FrodoConstants.T_PREV_CONTAINS, s);}
-    } else if (jj_2_58(3)) {
+    } else if (jj_2_65(3)) {
       jj_consume_token(T_INSERT);
       x = Constant();
       {if (true) return new ASN.Directive(FrodoConstants.T_INSERT, x);}
-    } else if (jj_2_59(3)) {
+    } else if (jj_2_66(3)) {
       jj_consume_token(T_INSERT_AFTER);
       x = Constant();
       {if (true) return new ASN.Directive(FrodoConstants.T_INSERT_AFTER, x);}
-    } else if (jj_2_60(3)) {
+    } else if (jj_2_67(3)) {
       jj_consume_token(T_APPEND);
       x = Constant();
       {if (true) return new ASN.Directive(FrodoConstants.T_APPEND, x);}
-    } else if (jj_2_61(3)) {
+    } else if (jj_2_68(3)) {
       jj_consume_token(T_REMOVE);
       {if (true) return new ASN.Directive(FrodoConstants.T_REMOVE);}
-    } else if (jj_2_62(3)) {
+    } else if (jj_2_69(3)) {
       jj_consume_token(T_REMOVE_RANGE);
       {if (true) return new ASN.Directive(FrodoConstants.T_REMOVE_RANGE);}
-    } else if (jj_2_63(3)) {
+    } else if (jj_2_70(3)) {
       jj_consume_token(T_REPLACE);
       r = Regex();
       f = Format();
       {if (true) return new ASN.Directive(FrodoConstants.T_REPLACE, r, f);}
-    } else if (jj_2_64(3)) {
+    } else if (jj_2_71(3)) {
       jj_consume_token(T_REPLACE);
       x = Constant();
       {if (true) return new ASN.Directive(FrodoConstants.T_REPLACE, x);}
-    } else if (jj_2_65(3)) {
+    } else if (jj_2_72(3)) {
       jj_consume_token(T_REPLACE_ALL);
       r = Regex();
       s = String();
-      {if (true) return new ASN.Directive(FrodoConstants.T_REPLACE_ALL, r, s);}
-    } else if (jj_2_66(3)) {
+      {if (true) return new ASN.Directive(FrodoConstants.T_REPLACE_ALL, r,
+                               replacement(r, s, getToken(0)));}
+    } else if (jj_2_73(3)) {
       jj_consume_token(T_REPLACE_FIRST);
       r = Regex();
       s = String();
-      {if (true) return new ASN.Directive(FrodoConstants.T_REPLACE_FIRST, r, s);}
-    } else if (jj_2_67(3)) {
+      {if (true) return new ASN.Directive(FrodoConstants.T_REPLACE_FIRST, r,
+                               replacement(r, s, getToken(0)));}
+    } else if (jj_2_74(3)) {
       jj_consume_token(T_CATENATE);
       {if (true) return new ASN.Directive(FrodoConstants.T_CATENATE);}
-    } else if (jj_2_68(3)) {
+    } else if (jj_2_75(3)) {
       jj_consume_token(T_CATENATE);
       n = Integer();
       {if (true) return new ASN.Directive(FrodoConstants.T_CATENATE, n);}
-    } else if (jj_2_69(3)) {
+    } else if (jj_2_76(3)) {
+      jj_consume_token(T_CATENATE_WHILE);
+      p = LineTest();
+      if (jj_2_34(3)) {
+        separator = String();
+      } else {
+        ;
+      }
+      {if (true) return (separator == null)
+        ? new ASN.Directive(FrodoConstants.T_CATENATE_WHILE, p)
+        : new ASN.Directive(FrodoConstants.T_CATENATE_WHILE, p, separator);}
+    } else if (jj_2_77(3)) {
       jj_consume_token(T_MATCH);
       r = Regex();
       {if (true) return new ASN.Directive(FrodoConstants.T_MATCH, r);}
+    } else if (jj_2_78(3)) {
+      jj_consume_token(T_REWRITE);
+      r = Regex();
+      f = Format();
+      {if (true) return new ASN.Directive(FrodoConstants.T_REWRITE, r, f);}
+    } else if (jj_2_79(3)) {
+      jj_consume_token(T_TO_LOWER);
+      {if (true) return new ASN.Directive(FrodoConstants.T_TO_LOWER);}
+    } else if (jj_2_80(3)) {
+      jj_consume_token(T_TO_UPPER);
+      {if (true) return new ASN.Directive(FrodoConstants.T_TO_UPPER);}
+    } else if (jj_2_81(3)) {
+      jj_consume_token(T_TRIM);
+      {if (true) return new ASN.Directive(FrodoConstants.T_TRIM);}
+    } else if (jj_2_82(3)) {
+      jj_consume_token(T_SPLIT);
+      r = Regex();
+      {if (true) return new ASN.Directive(FrodoConstants.T_SPLIT, r);}
+    } else if (jj_2_83(3)) {
+      jj_consume_token(T_REPLACE_ALL_RANGE);
+      r = Regex();
+      s = String();
+      {if (true) return new ASN.Directive(FrodoConstants.T_REPLACE_ALL_RANGE, r,
+                               replacement(r, s, getToken(0)));}
+    } else if (jj_2_84(3)) {
+      jj_consume_token(T_REWRITE_RANGE);
+      r = Regex();
+      f = Format();
+      {if (true) return new ASN.Directive(FrodoConstants.T_REWRITE_RANGE, r, f);}
+    } else if (jj_2_85(3)) {
+      jj_consume_token(T_REMOVE_MATCHING);
+      r = Regex();
+      {if (true) return new ASN.Directive(FrodoConstants.T_REMOVE_MATCHING, r);}
+    } else if (jj_2_86(3)) {
+      jj_consume_token(T_KEEP_MATCHING);
+      r = Regex();
+      {if (true) return new ASN.Directive(FrodoConstants.T_KEEP_MATCHING, r);}
     } else {
       jj_consume_token(-1);
       throw new ParseException();
@@ -516,602 +1072,1078 @@ public class Frodo implements FrodoConstants {
     throw new Error("Missing return statement in function");
   }
 
-  static private boolean jj_2_1(int xla) {
+  private boolean jj_2_1(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_1(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(0, xla); }
   }
 
-  static private boolean jj_2_2(int xla) {
+  private boolean jj_2_2(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_2(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(1, xla); }
   }
 
-  static private boolean jj_2_3(int xla) {
+  private boolean jj_2_3(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_3(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(2, xla); }
   }
 
-  static private boolean jj_2_4(int xla) {
+  private boolean jj_2_4(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_4(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(3, xla); }
   }
 
-  static private boolean jj_2_5(int xla) {
+  private boolean jj_2_5(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_5(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(4, xla); }
   }
 
-  static private boolean jj_2_6(int xla) {
+  private boolean jj_2_6(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_6(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(5, xla); }
   }
 
-  static private boolean jj_2_7(int xla) {
+  private boolean jj_2_7(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_7(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(6, xla); }
   }
 
-  static private boolean jj_2_8(int xla) {
+  private boolean jj_2_8(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_8(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(7, xla); }
   }
 
-  static private boolean jj_2_9(int xla) {
+  private boolean jj_2_9(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_9(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(8, xla); }
   }
 
-  static private boolean jj_2_10(int xla) {
+  private boolean jj_2_10(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_10(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(9, xla); }
   }
 
-  static private boolean jj_2_11(int xla) {
+  private boolean jj_2_11(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_11(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(10, xla); }
   }
 
-  static private boolean jj_2_12(int xla) {
+  private boolean jj_2_12(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_12(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(11, xla); }
   }
 
-  static private boolean jj_2_13(int xla) {
+  private boolean jj_2_13(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_13(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(12, xla); }
   }
 
-  static private boolean jj_2_14(int xla) {
+  private boolean jj_2_14(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_14(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(13, xla); }
   }
 
-  static private boolean jj_2_15(int xla) {
+  private boolean jj_2_15(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_15(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(14, xla); }
   }
 
-  static private boolean jj_2_16(int xla) {
+  private boolean jj_2_16(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_16(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(15, xla); }
   }
 
-  static private boolean jj_2_17(int xla) {
+  private boolean jj_2_17(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_17(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(16, xla); }
   }
 
-  static private boolean jj_2_18(int xla) {
+  private boolean jj_2_18(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_18(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(17, xla); }
   }
 
-  static private boolean jj_2_19(int xla) {
+  private boolean jj_2_19(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_19(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(18, xla); }
   }
 
-  static private boolean jj_2_20(int xla) {
+  private boolean jj_2_20(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_20(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(19, xla); }
   }
 
-  static private boolean jj_2_21(int xla) {
+  private boolean jj_2_21(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_21(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(20, xla); }
   }
 
-  static private boolean jj_2_22(int xla) {
+  private boolean jj_2_22(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_22(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(21, xla); }
   }
 
-  static private boolean jj_2_23(int xla) {
+  private boolean jj_2_23(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_23(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(22, xla); }
   }
 
-  static private boolean jj_2_24(int xla) {
+  private boolean jj_2_24(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_24(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(23, xla); }
   }
 
-  static private boolean jj_2_25(int xla) {
+  private boolean jj_2_25(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_25(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(24, xla); }
   }
 
-  static private boolean jj_2_26(int xla) {
+  private boolean jj_2_26(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_26(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(25, xla); }
   }
 
-  static private boolean jj_2_27(int xla) {
+  private boolean jj_2_27(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_27(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(26, xla); }
   }
 
-  static private boolean jj_2_28(int xla) {
+  private boolean jj_2_28(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_28(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(27, xla); }
   }
 
-  static private boolean jj_2_29(int xla) {
+  private boolean jj_2_29(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_29(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(28, xla); }
   }
 
-  static private boolean jj_2_30(int xla) {
+  private boolean jj_2_30(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_30(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(29, xla); }
   }
 
-  static private boolean jj_2_31(int xla) {
+  private boolean jj_2_31(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_31(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(30, xla); }
   }
 
-  static private boolean jj_2_32(int xla) {
+  private boolean jj_2_32(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_32(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(31, xla); }
   }
 
-  static private boolean jj_2_33(int xla) {
+  private boolean jj_2_33(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_33(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(32, xla); }
   }
 
-  static private boolean jj_2_34(int xla) {
+  private boolean jj_2_34(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_34(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(33, xla); }
   }
 
-  static private boolean jj_2_35(int xla) {
+  private boolean jj_2_35(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_35(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(34, xla); }
   }
 
-  static private boolean jj_2_36(int xla) {
+  private boolean jj_2_36(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_36(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(35, xla); }
   }
 
-  static private boolean jj_2_37(int xla) {
+  private boolean jj_2_37(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_37(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(36, xla); }
   }
 
-  static private boolean jj_2_38(int xla) {
+  private boolean jj_2_38(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_38(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(37, xla); }
   }
 
-  static private boolean jj_2_39(int xla) {
+  private boolean jj_2_39(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_39(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(38, xla); }
   }
 
-  static private boolean jj_2_40(int xla) {
+  private boolean jj_2_40(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_40(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(39, xla); }
   }
 
-  static private boolean jj_2_41(int xla) {
+  private boolean jj_2_41(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_41(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(40, xla); }
   }
 
-  static private boolean jj_2_42(int xla) {
+  private boolean jj_2_42(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_42(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(41, xla); }
   }
 
-  static private boolean jj_2_43(int xla) {
+  private boolean jj_2_43(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_43(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(42, xla); }
   }
 
-  static private boolean jj_2_44(int xla) {
+  private boolean jj_2_44(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_44(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(43, xla); }
   }
 
-  static private boolean jj_2_45(int xla) {
+  private boolean jj_2_45(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_45(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(44, xla); }
   }
 
-  static private boolean jj_2_46(int xla) {
+  private boolean jj_2_46(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_46(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(45, xla); }
   }
 
-  static private boolean jj_2_47(int xla) {
+  private boolean jj_2_47(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_47(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(46, xla); }
   }
 
-  static private boolean jj_2_48(int xla) {
+  private boolean jj_2_48(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_48(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(47, xla); }
   }
 
-  static private boolean jj_2_49(int xla) {
+  private boolean jj_2_49(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_49(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(48, xla); }
   }
 
-  static private boolean jj_2_50(int xla) {
+  private boolean jj_2_50(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_50(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(49, xla); }
   }
 
-  static private boolean jj_2_51(int xla) {
+  private boolean jj_2_51(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_51(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(50, xla); }
   }
 
-  static private boolean jj_2_52(int xla) {
+  private boolean jj_2_52(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_52(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(51, xla); }
   }
 
-  static private boolean jj_2_53(int xla) {
+  private boolean jj_2_53(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_53(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(52, xla); }
   }
 
-  static private boolean jj_2_54(int xla) {
+  private boolean jj_2_54(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_54(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(53, xla); }
   }
 
-  static private boolean jj_2_55(int xla) {
+  private boolean jj_2_55(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_55(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(54, xla); }
   }
 
-  static private boolean jj_2_56(int xla) {
+  private boolean jj_2_56(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_56(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(55, xla); }
   }
 
-  static private boolean jj_2_57(int xla) {
+  private boolean jj_2_57(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_57(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(56, xla); }
   }
 
-  static private boolean jj_2_58(int xla) {
+  private boolean jj_2_58(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_58(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(57, xla); }
   }
 
-  static private boolean jj_2_59(int xla) {
+  private boolean jj_2_59(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_59(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(58, xla); }
   }
 
-  static private boolean jj_2_60(int xla) {
+  private boolean jj_2_60(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_60(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(59, xla); }
   }
 
-  static private boolean jj_2_61(int xla) {
+  private boolean jj_2_61(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_61(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(60, xla); }
   }
 
-  static private boolean jj_2_62(int xla) {
+  private boolean jj_2_62(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_62(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(61, xla); }
   }
 
-  static private boolean jj_2_63(int xla) {
+  private boolean jj_2_63(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_63(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(62, xla); }
   }
 
-  static private boolean jj_2_64(int xla) {
+  private boolean jj_2_64(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_64(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(63, xla); }
   }
 
-  static private boolean jj_2_65(int xla) {
+  private boolean jj_2_65(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_65(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(64, xla); }
   }
 
-  static private boolean jj_2_66(int xla) {
+  private boolean jj_2_66(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_66(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(65, xla); }
   }
 
-  static private boolean jj_2_67(int xla) {
+  private boolean jj_2_67(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_67(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(66, xla); }
   }
 
-  static private boolean jj_2_68(int xla) {
+  private boolean jj_2_68(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_68(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(67, xla); }
   }
 
-  static private boolean jj_2_69(int xla) {
+  private boolean jj_2_69(int xla) {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_69(); }
     catch(LookaheadSuccess ls) { return true; }
     finally { jj_save(68, xla); }
   }
 
-  static private boolean jj_3_44() {
-    if (jj_scan_token(T_RANGE_CONTAINS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
+  private boolean jj_2_70(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_70(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(69, xla); }
   }
 
-  static private boolean jj_3_43() {
-    if (jj_scan_token(T_RANGE_ENDS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
+  private boolean jj_2_71(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_71(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(70, xla); }
   }
 
-  static private boolean jj_3_42() {
-    if (jj_scan_token(T_RANGE_STARTS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
+  private boolean jj_2_72(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_72(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(71, xla); }
   }
 
-  static private boolean jj_3_41() {
-    if (jj_scan_token(T_RANGE_EMPTY)) return true;
-    return false;
+  private boolean jj_2_73(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_73(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(72, xla); }
   }
 
-  static private boolean jj_3_40() {
-    if (jj_scan_token(T_RANGE)) return true;
-    if (jj_3R_10()) return true;
-    return false;
+  private boolean jj_2_74(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_74(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(73, xla); }
   }
 
-  static private boolean jj_3_39() {
-    if (jj_scan_token(T_RANGE_RESET)) return true;
-    return false;
+  private boolean jj_2_75(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_75(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(74, xla); }
   }
 
-  static private boolean jj_3_38() {
-    if (jj_scan_token(T_CONTAINS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
+  private boolean jj_2_76(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_76(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(75, xla); }
   }
 
-  static private boolean jj_3_37() {
-    if (jj_scan_token(T_ENDS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
+  private boolean jj_2_77(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_77(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(76, xla); }
   }
 
-  static private boolean jj_3_36() {
-    if (jj_scan_token(T_STARTS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
+  private boolean jj_2_78(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_78(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(77, xla); }
   }
 
-  static private boolean jj_3_35() {
-    if (jj_scan_token(T_EQUALS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
+  private boolean jj_2_79(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_79(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(78, xla); }
   }
 
-  static private boolean jj_3_34() {
-    if (jj_scan_token(T_EMPTY)) return true;
-    return false;
+  private boolean jj_2_80(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_80(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(79, xla); }
   }
 
-  static private boolean jj_3_33() {
-    if (jj_scan_token(T_RESET)) return true;
-    return false;
+  private boolean jj_2_81(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_81(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(80, xla); }
   }
 
-  static private boolean jj_3_32() {
-    if (jj_scan_token(T_FAIL)) return true;
-    return false;
+  private boolean jj_2_82(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_82(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(81, xla); }
   }
 
-  static private boolean jj_3_31() {
-    if (jj_scan_token(T_FAIL)) return true;
-    if (jj_3R_10()) return true;
-    return false;
+  private boolean jj_2_83(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_83(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(82, xla); }
   }
 
-  static private boolean jj_3_30() {
-    if (jj_scan_token(T_LOG)) return true;
-    if (jj_3R_10()) return true;
-    return false;
+  private boolean jj_2_84(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_84(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(83, xla); }
   }
 
-  static private boolean jj_3_29() {
-    if (jj_scan_token(T_ABORT)) return true;
-    return false;
-  }
+  private boolean jj_2_85(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_85(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(84, xla); }
+  }
 
-  static private boolean jj_3_28() {
-    if (jj_scan_token(T_ABORT)) return true;
-    if (jj_3R_10()) return true;
+  private boolean jj_2_86(int xla) {
+    jj_la = xla; jj_lastpos = jj_scanpos = token;
+    try { return !jj_3_86(); }
+    catch(LookaheadSuccess ls) { return true; }
+    finally { jj_save(85, xla); }
+  }
+
+  private boolean jj_3_86() {
+    if (jj_scan_token(T_KEEP_MATCHING)) return true;
+    if (jj_3R_6()) return true;
     return false;
   }
 
-  static private boolean jj_3R_5() {
+  private boolean jj_3_85() {
+    if (jj_scan_token(T_REMOVE_MATCHING)) return true;
+    if (jj_3R_6()) return true;
+    return false;
+  }
+
+  private boolean jj_3_18() {
+    if (jj_scan_token(T_ID)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_14() {
     Token xsp;
     xsp = jj_scanpos;
-    if (jj_3_28()) {
+    if (jj_3_17()) {
     jj_scanpos = xsp;
-    if (jj_3_29()) {
+    if (jj_3_18()) return true;
+    }
+    return false;
+  }
+
+  private boolean jj_3_84() {
+    if (jj_scan_token(T_REWRITE_RANGE)) return true;
+    if (jj_3R_6()) return true;
+    if (jj_3R_14()) return true;
+    return false;
+  }
+
+  private boolean jj_3_17() {
+    if (jj_scan_token(T_FORMAT)) return true;
+    return false;
+  }
+
+  private boolean jj_3_83() {
+    if (jj_scan_token(T_REPLACE_ALL_RANGE)) return true;
+    if (jj_3R_6()) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_82() {
+    if (jj_scan_token(T_SPLIT)) return true;
+    if (jj_3R_6()) return true;
+    return false;
+  }
+
+  private boolean jj_3_16() {
+    if (jj_scan_token(T_ID)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_6() {
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_3_15()) {
     jj_scanpos = xsp;
-    if (jj_3_30()) {
+    if (jj_3_16()) return true;
+    }
+    return false;
+  }
+
+  private boolean jj_3_81() {
+    if (jj_scan_token(T_TRIM)) return true;
+    return false;
+  }
+
+  private boolean jj_3_15() {
+    if (jj_scan_token(T_REGEX)) return true;
+    return false;
+  }
+
+  private boolean jj_3_80() {
+    if (jj_scan_token(T_TO_UPPER)) return true;
+    return false;
+  }
+
+  private boolean jj_3_79() {
+    if (jj_scan_token(T_TO_LOWER)) return true;
+    return false;
+  }
+
+  private boolean jj_3_78() {
+    if (jj_scan_token(T_REWRITE)) return true;
+    if (jj_3R_6()) return true;
+    if (jj_3R_14()) return true;
+    return false;
+  }
+
+  private boolean jj_3_14() {
+    if (jj_scan_token(T_ID)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_5() {
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_3_13()) {
+    jj_scanpos = xsp;
+    if (jj_3_14()) return true;
+    }
+    return false;
+  }
+
+  private boolean jj_3_13() {
+    if (jj_scan_token(T_STRING)) return true;
+    return false;
+  }
+
+  private boolean jj_3_77() {
+    if (jj_scan_token(T_MATCH)) return true;
+    if (jj_3R_6()) return true;
+    return false;
+  }
+
+  private boolean jj_3_76() {
+    if (jj_scan_token(T_CATENATE_WHILE)) return true;
+    if (jj_3R_15()) return true;
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_3_34()) jj_scanpos = xsp;
+    return false;
+  }
+
+  private boolean jj_3_12() {
+    if (jj_scan_token(T_ID)) return true;
+    return false;
+  }
+
+  private boolean jj_3_75() {
+    if (jj_scan_token(T_CATENATE)) return true;
+    if (jj_3R_13()) return true;
+    return false;
+  }
+
+  private boolean jj_3_11() {
+    if (jj_scan_token(T_FLOAT)) return true;
+    return false;
+  }
+
+  private boolean jj_3_10() {
+    if (jj_scan_token(T_INTEGER)) return true;
+    return false;
+  }
+
+  private boolean jj_3_74() {
+    if (jj_scan_token(T_CATENATE)) return true;
+    return false;
+  }
+
+  private boolean jj_3_9() {
+    if (jj_scan_token(T_FORMAT)) return true;
+    return false;
+  }
+
+  private boolean jj_3_8() {
+    if (jj_scan_token(T_REGEX)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_12() {
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_3_7()) {
+    jj_scanpos = xsp;
+    if (jj_3_8()) {
     jj_scanpos = xsp;
-    if (jj_3_31()) {
+    if (jj_3_9()) {
+    jj_scanpos = xsp;
+    if (jj_3_10()) {
+    jj_scanpos = xsp;
+    if (jj_3_11()) {
+    jj_scanpos = xsp;
+    if (jj_3_12()) return true;
+    }
+    }
+    }
+    }
+    }
+    return false;
+  }
+
+  private boolean jj_3_7() {
+    if (jj_scan_token(T_STRING)) return true;
+    return false;
+  }
+
+  private boolean jj_3_73() {
+    if (jj_scan_token(T_REPLACE_FIRST)) return true;
+    if (jj_3R_6()) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_72() {
+    if (jj_scan_token(T_REPLACE_ALL)) return true;
+    if (jj_3R_6()) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3R_4() {
+    if (jj_scan_token(T_DEFINE)) return true;
+    if (jj_scan_token(T_ID)) return true;
+    if (jj_3R_16()) return true;
+    return false;
+  }
+
+  private boolean jj_3_71() {
+    if (jj_scan_token(T_REPLACE)) return true;
+    if (jj_3R_12()) return true;
+    return false;
+  }
+
+  private boolean jj_3_70() {
+    if (jj_scan_token(T_REPLACE)) return true;
+    if (jj_3R_6()) return true;
+    if (jj_3R_14()) return true;
+    return false;
+  }
+
+  private boolean jj_3_69() {
+    if (jj_scan_token(T_REMOVE_RANGE)) return true;
+    return false;
+  }
+
+  private boolean jj_3_68() {
+    if (jj_scan_token(T_REMOVE)) return true;
+    return false;
+  }
+
+  private boolean jj_3_6() {
+    if (jj_scan_token(T_FLOAT)) return true;
+    return false;
+  }
+
+  private boolean jj_3_5() {
+    if (jj_scan_token(T_INTEGER)) return true;
+    return false;
+  }
+
+  private boolean jj_3_67() {
+    if (jj_scan_token(T_APPEND)) return true;
+    if (jj_3R_12()) return true;
+    return false;
+  }
+
+  private boolean jj_3_4() {
+    if (jj_scan_token(T_FORMAT)) return true;
+    return false;
+  }
+
+  private boolean jj_3_3() {
+    if (jj_scan_token(T_REGEX)) return true;
+    return false;
+  }
+
+  private boolean jj_3_66() {
+    if (jj_scan_token(T_INSERT_AFTER)) return true;
+    if (jj_3R_12()) return true;
+    return false;
+  }
+
+  private boolean jj_3R_16() {
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_3_2()) {
     jj_scanpos = xsp;
-    if (jj_3_32()) {
+    if (jj_3_3()) {
     jj_scanpos = xsp;
-    if (jj_3_33()) {
+    if (jj_3_4()) {
     jj_scanpos = xsp;
-    if (jj_3_34()) {
+    if (jj_3_5()) {
     jj_scanpos = xsp;
+    if (jj_3_6()) return true;
+    }
+    }
+    }
+    }
+    return false;
+  }
+
+  private boolean jj_3_2() {
+    if (jj_scan_token(T_STRING)) return true;
+    return false;
+  }
+
+  private boolean jj_3_65() {
+    if (jj_scan_token(T_INSERT)) return true;
+    if (jj_3R_12()) return true;
+    return false;
+  }
+
+  private boolean jj_3_64() {
+    if (jj_scan_token(T_PREV_CONTAINS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_1() {
+    if (jj_3R_4()) return true;
+    return false;
+  }
+
+  private boolean jj_3_63() {
+    if (jj_scan_token(T_PREV_ENDS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_62() {
+    if (jj_scan_token(T_PREV_STARTS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_61() {
+    if (jj_scan_token(T_PREV_EMPTY)) return true;
+    return false;
+  }
+
+  private boolean jj_3_60() {
+    if (jj_scan_token(T_PREV)) return true;
+    return false;
+  }
+
+  private boolean jj_3_59() {
+    if (jj_scan_token(T_PREV)) return true;
+    if (jj_3R_12()) return true;
+    return false;
+  }
+
+  private boolean jj_3_58() {
+    if (jj_scan_token(T_NEXT_CONTAINS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_57() {
+    if (jj_scan_token(T_NEXT_ENDS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_56() {
+    if (jj_scan_token(T_NEXT_STARTS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_55() {
+    if (jj_scan_token(T_NEXT_EMPTY)) return true;
+    return false;
+  }
+
+  private boolean jj_3_54() {
+    if (jj_scan_token(T_NEXT)) return true;
+    return false;
+  }
+
+  private boolean jj_3_53() {
+    if (jj_scan_token(T_NEXT)) return true;
+    if (jj_3R_12()) return true;
+    return false;
+  }
+
+  private boolean jj_3_52() {
+    if (jj_scan_token(T_RANGE_ADJUST)) return true;
+    if (jj_3R_13()) return true;
+    return false;
+  }
+
+  private boolean jj_3_51() {
+    if (jj_scan_token(T_RANGE_CONTAINS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_50() {
+    if (jj_scan_token(T_RANGE_ENDS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_49() {
+    if (jj_scan_token(T_RANGE_STARTS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_48() {
+    if (jj_scan_token(T_RANGE_EMPTY)) return true;
+    return false;
+  }
+
+  private boolean jj_3_47() {
+    if (jj_scan_token(T_RANGE)) return true;
+    if (jj_3R_12()) return true;
+    return false;
+  }
+
+  private boolean jj_3_46() {
+    if (jj_scan_token(T_RANGE_RESET)) return true;
+    return false;
+  }
+
+  private boolean jj_3_45() {
+    if (jj_scan_token(T_CONTAINS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_44() {
+    if (jj_scan_token(T_ENDS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_43() {
+    if (jj_scan_token(T_STARTS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_42() {
+    if (jj_scan_token(T_EQUALS)) return true;
+    if (jj_3R_5()) return true;
+    return false;
+  }
+
+  private boolean jj_3_41() {
+    if (jj_scan_token(T_EMPTY)) return true;
+    return false;
+  }
+
+  private boolean jj_3_40() {
+    if (jj_scan_token(T_RESET)) return true;
+    return false;
+  }
+
+  private boolean jj_3_39() {
+    if (jj_scan_token(T_FAIL)) return true;
+    return false;
+  }
+
+  private boolean jj_3_38() {
+    if (jj_scan_token(T_FAIL)) return true;
+    if (jj_3R_12()) return true;
+    return false;
+  }
+
+  private boolean jj_3_37() {
+    if (jj_scan_token(T_LOG)) return true;
+    if (jj_3R_12()) return true;
+    return false;
+  }
+
+  private boolean jj_3_36() {
+    if (jj_scan_token(T_ABORT)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_7() {
+    Token xsp;
+    xsp = jj_scanpos;
     if (jj_3_35()) {
     jj_scanpos = xsp;
     if (jj_3_36()) {
@@ -1180,14 +2212,54 @@ public class Frodo implements FrodoConstants {
     jj_scanpos = xsp;
     if (jj_3_68()) {
     jj_scanpos = xsp;
-    if (jj_3_69()) return true;
-    }
-    }
-    }
-    }
-    }
-    }
-    }
+    if (jj_3_69()) {
+    jj_scanpos = xsp;
+    if (jj_3_70()) {
+    jj_scanpos = xsp;
+    if (jj_3_71()) {
+    jj_scanpos = xsp;
+    if (jj_3_72()) {
+    jj_scanpos = xsp;
+    if (jj_3_73()) {
+    jj_scanpos = xsp;
+    if (jj_3_74()) {
+    jj_scanpos = xsp;
+    if (jj_3_75()) {
+    jj_scanpos = xsp;
+    if (jj_3_76()) {
+    jj_scanpos = xsp;
+    if (jj_3_77()) {
+    jj_scanpos = xsp;
+    if (jj_3_78()) {
+    jj_scanpos = xsp;
+    if (jj_3_79()) {
+    jj_scanpos = xsp;
+    if (jj_3_80()) {
+    jj_scanpos = xsp;
+    if (jj_3_81()) {
+    jj_scanpos = xsp;
+    if (jj_3_82()) {
+    jj_scanpos = xsp;
+    if (jj_3_83()) {
+    jj_scanpos = xsp;
+    if (jj_3_84()) {
+    jj_scanpos = xsp;
+    if (jj_3_85()) {
+    jj_scanpos = xsp;
+    if (jj_3_86()) return true;
+    }
+    }
+    }
+    }
+    }
+    }
+    }
+    }
+    }
+    }
+    }
+    }
+    }
     }
     }
     }
@@ -1222,209 +2294,133 @@ public class Frodo implements FrodoConstants {
     }
     }
     }
-    return false;
-  }
-
-  static private boolean jj_3_27() {
-    if (jj_3R_9()) return true;
-    return false;
-  }
-
-  static private boolean jj_3R_8() {
-    Token xsp;
-    while (true) {
-      xsp = jj_scanpos;
-      if (jj_3_27()) { jj_scanpos = xsp; break; }
     }
-    return false;
-  }
-
-  static private boolean jj_3_26() {
-    if (jj_scan_token(T_ELSE)) return true;
-    if (jj_3R_8()) return true;
-    return false;
-  }
-
-  static private boolean jj_3R_16() {
-    if (jj_3R_8()) return true;
-    Token xsp;
-    while (true) {
-      xsp = jj_scanpos;
-      if (jj_3_26()) { jj_scanpos = xsp; break; }
     }
-    return false;
-  }
-
-  static private boolean jj_3R_6() {
-    if (jj_scan_token(T_WHILE)) return true;
-    if (jj_3R_9()) return true;
-    return false;
-  }
-
-  static private boolean jj_3R_7() {
-    if (jj_scan_token(T_START)) return true;
-    if (jj_3R_16()) return true;
-    if (jj_scan_token(T_END)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_25() {
-    if (jj_3R_7()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_24() {
-    if (jj_3R_6()) return true;
-    return false;
-  }
-
-  static private boolean jj_3R_9() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3_23()) {
-    jj_scanpos = xsp;
-    if (jj_3_24()) {
-    jj_scanpos = xsp;
-    if (jj_3_25()) return true;
     }
     }
     return false;
   }
 
-  static private boolean jj_3_23() {
-    if (jj_3R_5()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_22() {
-    if (jj_scan_token(T_ID)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_21() {
-    if (jj_scan_token(T_FLOAT)) return true;
+  private boolean jj_3_35() {
+    if (jj_scan_token(T_ABORT)) return true;
+    if (jj_3R_12()) return true;
     return false;
   }
 
-  static private boolean jj_3_20() {
-    if (jj_scan_token(T_ID)) return true;
+  private boolean jj_3_33() {
+    if (jj_3R_11()) return true;
     return false;
   }
 
-  static private boolean jj_3R_12() {
+  private boolean jj_3R_10() {
     Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3_19()) {
-    jj_scanpos = xsp;
-    if (jj_3_20()) return true;
+    while (true) {
+      xsp = jj_scanpos;
+      if (jj_3_33()) { jj_scanpos = xsp; break; }
     }
     return false;
   }
 
-  static private boolean jj_3_19() {
-    if (jj_scan_token(T_INTEGER)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_18() {
-    if (jj_scan_token(T_ID)) return true;
+  private boolean jj_3_32() {
+    if (jj_scan_token(T_ELSE)) return true;
+    if (jj_3R_10()) return true;
     return false;
   }
 
-  static private boolean jj_3R_14() {
+  private boolean jj_3R_17() {
+    if (jj_3R_10()) return true;
     Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3_17()) {
-    jj_scanpos = xsp;
-    if (jj_3_18()) return true;
+    while (true) {
+      xsp = jj_scanpos;
+      if (jj_3_32()) { jj_scanpos = xsp; break; }
     }
     return false;
   }
 
-  static private boolean jj_3_17() {
-    if (jj_scan_token(T_FORMAT)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_16() {
-    if (jj_scan_token(T_ID)) return true;
+  private boolean jj_3R_8() {
+    if (jj_scan_token(T_WHILE)) return true;
+    if (jj_3R_11()) return true;
     return false;
   }
 
-  static private boolean jj_3R_13() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3_15()) {
-    jj_scanpos = xsp;
-    if (jj_3_16()) return true;
-    }
+  private boolean jj_3R_9() {
+    if (jj_scan_token(T_START)) return true;
+    if (jj_3R_17()) return true;
+    if (jj_scan_token(T_END)) return true;
     return false;
   }
 
-  static private boolean jj_3_15() {
-    if (jj_scan_token(T_REGEX)) return true;
+  private boolean jj_3_31() {
+    if (jj_3R_9()) return true;
     return false;
   }
 
-  static private boolean jj_3_14() {
-    if (jj_scan_token(T_ID)) return true;
+  private boolean jj_3_30() {
+    if (jj_3R_8()) return true;
     return false;
   }
 
-  static private boolean jj_3R_11() {
+  private boolean jj_3R_11() {
     Token xsp;
     xsp = jj_scanpos;
-    if (jj_3_13()) {
+    if (jj_3_29()) {
     jj_scanpos = xsp;
-    if (jj_3_14()) return true;
+    if (jj_3_30()) {
+    jj_scanpos = xsp;
+    if (jj_3_31()) return true;
+    }
     }
     return false;
   }
 
-  static private boolean jj_3_13() {
-    if (jj_scan_token(T_STRING)) return true;
+  private boolean jj_3_29() {
+    if (jj_3R_7()) return true;
     return false;
   }
 
-  static private boolean jj_3_12() {
-    if (jj_scan_token(T_ID)) return true;
+  private boolean jj_3_28() {
+    if (jj_3R_6()) return true;
     return false;
   }
 
-  static private boolean jj_3_11() {
-    if (jj_scan_token(T_FLOAT)) return true;
+  private boolean jj_3_27() {
+    if (jj_scan_token(T_CONTAINS)) return true;
+    if (jj_3R_5()) return true;
     return false;
   }
 
-  static private boolean jj_3_10() {
-    if (jj_scan_token(T_INTEGER)) return true;
+  private boolean jj_3_26() {
+    if (jj_scan_token(T_ENDS)) return true;
+    if (jj_3R_5()) return true;
     return false;
   }
 
-  static private boolean jj_3_9() {
-    if (jj_scan_token(T_FORMAT)) return true;
+  private boolean jj_3_25() {
+    if (jj_scan_token(T_STARTS)) return true;
+    if (jj_3R_5()) return true;
     return false;
   }
 
-  static private boolean jj_3_8() {
-    if (jj_scan_token(T_REGEX)) return true;
+  private boolean jj_3_24() {
+    if (jj_scan_token(T_EQUALS)) return true;
+    if (jj_3R_5()) return true;
     return false;
   }
 
-  static private boolean jj_3R_10() {
+  private boolean jj_3R_15() {
     Token xsp;
     xsp = jj_scanpos;
-    if (jj_3_7()) {
+    if (jj_3_23()) {
     jj_scanpos = xsp;
-    if (jj_3_8()) {
+    if (jj_3_24()) {
     jj_scanpos = xsp;
-    if (jj_3_9()) {
+    if (jj_3_25()) {
     jj_scanpos = xsp;
-    if (jj_3_10()) {
+    if (jj_3_26()) {
     jj_scanpos = xsp;
-    if (jj_3_11()) {
+    if (jj_3_27()) {
     jj_scanpos = xsp;
-    if (jj_3_12()) return true;
+    if (jj_3_28()) return true;
     }
     }
     }
@@ -1433,231 +2429,65 @@ public class Frodo implements FrodoConstants {
     return false;
   }
 
-  static private boolean jj_3_7() {
-    if (jj_scan_token(T_STRING)) return true;
-    return false;
-  }
-
-  static private boolean jj_3R_4() {
-    if (jj_scan_token(T_DEFINE)) return true;
-    if (jj_scan_token(T_ID)) return true;
-    if (jj_3R_15()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_6() {
-    if (jj_scan_token(T_FLOAT)) return true;
+  private boolean jj_3_23() {
+    if (jj_scan_token(T_EMPTY)) return true;
     return false;
   }
 
-  static private boolean jj_3_5() {
-    if (jj_scan_token(T_INTEGER)) return true;
+  private boolean jj_3_34() {
+    if (jj_3R_5()) return true;
     return false;
   }
 
-  static private boolean jj_3_4() {
-    if (jj_scan_token(T_FORMAT)) return true;
+  private boolean jj_3_22() {
+    if (jj_scan_token(T_ID)) return true;
     return false;
   }
 
-  static private boolean jj_3_3() {
-    if (jj_scan_token(T_REGEX)) return true;
+  private boolean jj_3_21() {
+    if (jj_scan_token(T_FLOAT)) return true;
     return false;
   }
 
-  static private boolean jj_3_69() {
-    if (jj_scan_token(T_MATCH)) return true;
-    if (jj_3R_13()) return true;
+  private boolean jj_3_20() {
+    if (jj_scan_token(T_ID)) return true;
     return false;
   }
 
-  static private boolean jj_3R_15() {
+  private boolean jj_3R_13() {
     Token xsp;
     xsp = jj_scanpos;
-    if (jj_3_2()) {
-    jj_scanpos = xsp;
-    if (jj_3_3()) {
-    jj_scanpos = xsp;
-    if (jj_3_4()) {
-    jj_scanpos = xsp;
-    if (jj_3_5()) {
+    if (jj_3_19()) {
     jj_scanpos = xsp;
-    if (jj_3_6()) return true;
-    }
-    }
-    }
+    if (jj_3_20()) return true;
     }
     return false;
   }
 
-  static private boolean jj_3_2() {
-    if (jj_scan_token(T_STRING)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_68() {
-    if (jj_scan_token(T_CATENATE)) return true;
-    if (jj_3R_12()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_67() {
-    if (jj_scan_token(T_CATENATE)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_1() {
-    if (jj_3R_4()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_66() {
-    if (jj_scan_token(T_REPLACE_FIRST)) return true;
-    if (jj_3R_13()) return true;
-    if (jj_3R_11()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_65() {
-    if (jj_scan_token(T_REPLACE_ALL)) return true;
-    if (jj_3R_13()) return true;
-    if (jj_3R_11()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_64() {
-    if (jj_scan_token(T_REPLACE)) return true;
-    if (jj_3R_10()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_63() {
-    if (jj_scan_token(T_REPLACE)) return true;
-    if (jj_3R_13()) return true;
-    if (jj_3R_14()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_62() {
-    if (jj_scan_token(T_REMOVE_RANGE)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_61() {
-    if (jj_scan_token(T_REMOVE)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_60() {
-    if (jj_scan_token(T_APPEND)) return true;
-    if (jj_3R_10()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_59() {
-    if (jj_scan_token(T_INSERT_AFTER)) return true;
-    if (jj_3R_10()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_58() {
-    if (jj_scan_token(T_INSERT)) return true;
-    if (jj_3R_10()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_57() {
-    if (jj_scan_token(T_PREV_CONTAINS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_56() {
-    if (jj_scan_token(T_PREV_ENDS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_55() {
-    if (jj_scan_token(T_PREV_STARTS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_54() {
-    if (jj_scan_token(T_PREV_EMPTY)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_53() {
-    if (jj_scan_token(T_PREV)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_52() {
-    if (jj_scan_token(T_PREV)) return true;
-    if (jj_3R_10()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_51() {
-    if (jj_scan_token(T_NEXT_CONTAINS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_50() {
-    if (jj_scan_token(T_NEXT_ENDS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_49() {
-    if (jj_scan_token(T_NEXT_STARTS)) return true;
-    if (jj_3R_11()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_48() {
-    if (jj_scan_token(T_NEXT_EMPTY)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_47() {
-    if (jj_scan_token(T_NEXT)) return true;
-    return false;
-  }
-
-  static private boolean jj_3_46() {
-    if (jj_scan_token(T_NEXT)) return true;
-    if (jj_3R_10()) return true;
-    return false;
-  }
-
-  static private boolean jj_3_45() {
-    if (jj_scan_token(T_RANGE_ADJUST)) return true;
-    if (jj_3R_12()) return true;
+  private boolean jj_3_19() {
+    if (jj_scan_token(T_INTEGER)) return true;
     return false;
   }
 
-  static private boolean jj_initialized_once = false;
   /** Generated Token Manager. */
-  static public FrodoTokenManager token_source;
-  static SimpleCharStream jj_input_stream;
+  public FrodoTokenManager token_source;
+  SimpleCharStream jj_input_stream;
   /** Current token. */
-  static public Token token;
+  public Token token;
   /** Next token. */
-  static public Token jj_nt;
-  static private int jj_ntk;
-  static private Token jj_scanpos, jj_lastpos;
-  static private int jj_la;
-  static private int jj_gen;
-  static final private int[] jj_la1 = new int[0];
+  public Token jj_nt;
+  private int jj_ntk;
+  private Token jj_scanpos, jj_lastpos;
+  private int jj_la;
+  private int jj_gen;
+  final private int[] jj_la1 = new int[0];
   static private int[] jj_la1_0;
   static private int[] jj_la1_1;
+  static private int[] jj_la1_2;
   static {
       jj_la1_init_0();
       jj_la1_init_1();
+      jj_la1_init_2();
    }
    private static void jj_la1_init_0() {
       jj_la1_0 = new int[] {};
@@ -1665,9 +2495,12 @@ public class Frodo implements FrodoConstants {
    private static void jj_la1_init_1() {
       jj_la1_1 = new int[] {};
    }
-  static final private JJCalls[] jj_2_rtns = new JJCalls[69];
-  static private boolean jj_rescan = false;
-  static private int jj_gc = 0;
+   private static void jj_la1_init_2() {
+      jj_la1_2 = new int[] {};
+   }
+  final private JJCalls[] jj_2_rtns = new JJCalls[86];
+  private boolean jj_rescan = false;
+  private int jj_gc = 0;
 
   /** Constructor with InputStream. */
   public Frodo(java.io.InputStream stream) {
@@ -1675,13 +2508,6 @@ public class Frodo implements FrodoConstants {
   }
   /** Constructor with InputStream and supplied encoding */
   public Frodo(java.io.InputStream stream, String encoding) {
-    if (jj_initialized_once) {
-      System.out.println("ERROR: Second call to constructor of static parser.  ");
-      System.out.println("       You must either use ReInit() or set the JavaCC option STATIC to false");
-      System.out.println("       during parser generation.");
-      throw new Error();
-    }
-    jj_initialized_once = true;
     try { jj_input_stream = new SimpleCharStream(stream, encoding, 1, 1); } catch(java.io.UnsupportedEncodingException e) { throw new RuntimeException(e); }
     token_source = new FrodoTokenManager(jj_input_stream);
     token = new Token();
@@ -1692,11 +2518,11 @@ public class Frodo implements FrodoConstants {
   }
 
   /** Reinitialise. */
-  static public void ReInit(java.io.InputStream stream) {
+  public void ReInit(java.io.InputStream stream) {
      ReInit(stream, null);
   }
   /** Reinitialise. */
-  static public void ReInit(java.io.InputStream stream, String encoding) {
+  public void ReInit(java.io.InputStream stream, String encoding) {
     try { jj_input_stream.ReInit(stream, encoding, 1, 1); } catch(java.io.UnsupportedEncodingException e) { throw new RuntimeException(e); }
     token_source.ReInit(jj_input_stream);
     token = new Token();
@@ -1708,13 +2534,6 @@ public class Frodo implements FrodoConstants {
 
   /** Constructor. */
   public Frodo(java.io.Reader stream) {
-    if (jj_initialized_once) {
-      System.out.println("ERROR: Second call to constructor of static parser. ");
-      System.out.println("       You must either use ReInit() or set the JavaCC option STATIC to false");
-      System.out.println("       during parser generation.");
-      throw new Error();
-    }
-    jj_initialized_once = true;
     jj_input_stream = new SimpleCharStream(stream, 1, 1);
     token_source = new FrodoTokenManager(jj_input_stream);
     token = new Token();
@@ -1725,7 +2544,7 @@ public class Frodo implements FrodoConstants {
   }
 
   /** Reinitialise. */
-  static public void ReInit(java.io.Reader stream) {
+  public void ReInit(java.io.Reader stream) {
     jj_input_stream.ReInit(stream, 1, 1);
     token_source.ReInit(jj_input_stream);
     token = new Token();
@@ -1737,13 +2556,6 @@ public class Frodo implements FrodoConstants {
 
   /** Constructor with generated Token Manager. */
   public Frodo(FrodoTokenManager tm) {
-    if (jj_initialized_once) {
-      System.out.println("ERROR: Second call to constructor of static parser. ");
-      System.out.println("       You must either use ReInit() or set the JavaCC option STATIC to false");
-      System.out.println("       during parser generation.");
-      throw new Error();
-    }
-    jj_initialized_once = true;
     token_source = tm;
     token = new Token();
     jj_ntk = -1;
@@ -1762,7 +2574,7 @@ public class Frodo implements FrodoConstants {
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
-  static private Token jj_consume_token(int kind) throws ParseException {
+  private Token jj_consume_token(int kind) throws ParseException {
     Token oldToken;
     if ((oldToken = token).next != null) token = token.next;
     else token = token.next = token_source.getNextToken();
@@ -1787,8 +2599,8 @@ public class Frodo implements FrodoConstants {
   }
 
   static private final class LookaheadSuccess extends java.lang.Error { }
-  static final private LookaheadSuccess jj_ls = new LookaheadSuccess();
-  static private boolean jj_scan_token(int kind) {
+  final private LookaheadSuccess jj_ls = new LookaheadSuccess();
+  private boolean jj_scan_token(int kind) {
     if (jj_scanpos == jj_lastpos) {
       jj_la--;
       if (jj_scanpos.next == null) {
@@ -1811,7 +2623,7 @@ public class Frodo implements FrodoConstants {
 
 
 /** Get the next Token. */
-  static final public Token getNextToken() {
+  final public Token getNextToken() {
     if (token.next != null) token = token.next;
     else token = token.next = token_source.getNextToken();
     jj_ntk = -1;
@@ -1820,7 +2632,7 @@ public class Frodo implements FrodoConstants {
   }
 
 /** Get the specific Token. */
-  static final public Token getToken(int index) {
+  final public Token getToken(int index) {
     Token t = token;
     for (int i = 0; i < index; i++) {
       if (t.next != null) t = t.next;
@@ -1829,20 +2641,20 @@ public class Frodo implements FrodoConstants {
     return t;
   }
 
-  static private int jj_ntk() {
+  private int jj_ntk() {
     if ((jj_nt=token.next) == null)
       return (jj_ntk = (token.next=token_source.getNextToken()).kind);
     else
       return (jj_ntk = jj_nt.kind);
   }
 
-  static private java.util.List<int[]> jj_expentries = new java.util.ArrayList<int[]>();
-  static private int[] jj_expentry;
-  static private int jj_kind = -1;
-  static private int[] jj_lasttokens = new int[100];
-  static private int jj_endpos;
+  private java.util.List<int[]> jj_expentries = new java.util.ArrayList<int[]>();
+  private int[] jj_expentry;
+  private int jj_kind = -1;
+  private int[] jj_lasttokens = new int[100];
+  private int jj_endpos;
 
-  static private void jj_add_error_token(int kind, int pos) {
+  private void jj_add_error_token(int kind, int pos) {
     if (pos >= 100) return;
     if (pos == jj_endpos + 1) {
       jj_lasttokens[jj_endpos++] = kind;
@@ -1868,9 +2680,9 @@ public class Frodo implements FrodoConstants {
   }
 
   /** Generate ParseException. */
-  static public ParseException generateParseException() {
+  public ParseException generateParseException() {
     jj_expentries.clear();
-    boolean[] la1tokens = new boolean[60];
+    boolean[] la1tokens = new boolean[65];
     if (jj_kind >= 0) {
       la1tokens[jj_kind] = true;
       jj_kind = -1;
@@ -1884,10 +2696,13 @@ public class Frodo implements FrodoConstants {
           if ((jj_la1_1[i] & (1<<j)) != 0) {
             la1tokens[32+j] = true;
           }
+          if ((jj_la1_2[i] & (1<<j)) != 0) {
+            la1tokens[64+j] = true;
+          }
         }
       }
     }
-    for (int i = 0; i < 60; i++) {
+    for (int i = 0; i < 65; i++) {
       if (la1tokens[i]) {
         jj_expentry = new int[1];
         jj_expentry[0] = i;
@@ -1905,16 +2720,16 @@ public class Frodo implements FrodoConstants {
   }
 
   /** Enable tracing. */
-  static final public void enable_tracing() {
+  final public void enable_tracing() {
   }
 
   /** Disable tracing. */
-  static final public void disable_tracing() {
+  final public void disable_tracing() {
   }
 
-  static private void jj_rescan_token() {
+  private void jj_rescan_token() {
     jj_rescan = true;
-    for (int i = 0; i < 69; i++) {
+    for (int i = 0; i < 86; i++) {
     try {
       JJCalls p = jj_2_rtns[i];
       do {
@@ -1990,6 +2805,23 @@ public class Frodo implements FrodoConstants {
             case 66: jj_3_67(); break;
             case 67: jj_3_68(); break;
             case 68: jj_3_69(); break;
+            case 69: jj_3_70(); break;
+            case 70: jj_3_71(); break;
+            case 71: jj_3_72(); break;
+            case 72: jj_3_73(); break;
+            case 73: jj_3_74(); break;
+            case 74: jj_3_75(); break;
+            case 75: jj_3_76(); break;
+            case 76: jj_3_77(); break;
+            case 77: jj_3_78(); break;
+            case 78: jj_3_79(); break;
+            case 79: jj_3_80(); break;
+            case 80: jj_3_81(); break;
+            case 81: jj_3_82(); break;
+            case 82: jj_3_83(); break;
+            case 83: jj_3_84(); break;
+            case 84: jj_3_85(); break;
+            case 85: jj_3_86(); break;
           }
         }
         p = p.next;
@@ -1999,7 +2831,7 @@ public class Frodo implements FrodoConstants {
     jj_rescan = false;
   }
 
-  static private void jj_save(int index, int xla) {
+  private void jj_save(int index, int xla) {
     JJCalls p = jj_2_rtns[index];
     while (p.gen > jj_gen) {
       if (p.next == null) { p = p.next = new JJCalls(); break; }
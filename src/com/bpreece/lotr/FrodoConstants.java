@@ -91,29 +91,39 @@ public interface FrodoConstants {
   /** RegularExpression Id. */
   int T_CATENATE = 47;
   /** RegularExpression Id. */
-  int T_REWRITE = 48;
+  int T_CATENATE_WHILE = 48;
   /** RegularExpression Id. */
-  int T_TO_LOWER = 49;
+  int T_REWRITE = 49;
   /** RegularExpression Id. */
-  int T_TO_UPPER = 50;
+  int T_TO_LOWER = 50;
   /** RegularExpression Id. */
-  int T_TRIM = 51;
+  int T_TO_UPPER = 51;
   /** RegularExpression Id. */
-  int T_MATCH = 52;
+  int T_TRIM = 52;
   /** RegularExpression Id. */
-  int T_SPLIT = 53;
+  int T_MATCH = 53;
   /** RegularExpression Id. */
-  int T_STRING = 54;
+  int T_SPLIT = 54;
   /** RegularExpression Id. */
-  int T_REGEX = 55;
+  int T_REPLACE_ALL_RANGE = 55;
   /** RegularExpression Id. */
-  int T_FORMAT = 56;
+  int T_REWRITE_RANGE = 56;
   /** RegularExpression Id. */
-  int T_INTEGER = 57;
+  int T_REMOVE_MATCHING = 57;
   /** RegularExpression Id. */
-  int T_FLOAT = 58;
+  int T_KEEP_MATCHING = 58;
   /** RegularExpression Id. */
-  int T_ID = 59;
+  int T_STRING = 59;
+  /** RegularExpression Id. */
+  int T_REGEX = 60;
+  /** RegularExpression Id. */
+  int T_FORMAT = 61;
+  /** RegularExpression Id. */
+  int T_INTEGER = 62;
+  /** RegularExpression Id. */
+  int T_FLOAT = 63;
+  /** RegularExpression Id. */
+  int T_ID = 64;
 
   /** Lexical state. */
   int DEFAULT = 0;
@@ -170,12 +180,17 @@ public interface FrodoConstants {
     "\"replace-first\"",
     "\"replace-all\"",
     "<T_CATENATE>",
+    "\"catenate-while\"",
     "\"rewrite\"",
     "\"to-lower\"",
     "\"to-upper\"",
     "\"trim\"",
     "\"match\"",
     "\"split\"",
+    "\"replace-all-range\"",
+    "\"rewrite-range\"",
+    "\"remove-matching\"",
+    "\"keep-matching\"",
     "<T_STRING>",
     "<T_REGEX>",
     "<T_FORMAT>",
@@ -0,0 +1,240 @@
+
+package com.bpreece.lotr;
+
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * An entry point for programs which embed frodo, and apply scripts to many
+ * texts held in memory rather than to files.
+ *
+ * A script is compiled once with <code>compile()</code>, and the
+ * <code>CompiledScript</code> can then be executed on any number of texts,
+ * from any number of threads.  Each execution works in a workspace, a
+ * <code>LOTR</code> with its own line store, which the engine keeps in a
+ * pool and reloads for the next text, so that a run of small texts does not
+ * allocate a new store and a new array of lines for each one.  The pool
+ * holds at most a fixed number of idle workspaces;  when more executions
+ * than that run at once, the extra workspaces are simply dropped when they
+ * are done.
+ *
+ * A metrics registry, a diagnostic sink, the search index setting and the
+ * number of threads for bulk directives may be given to the engine, and
+ * apply to every execution which starts afterwards.  The bulk directives of
+ * all executions share one pool of threads, which <code>close()</code>
+ * stops.
+ *
+ * This class is thread-safe.
+ *
+ * @author ben
+ */
+public class FrodoEngine
+{
+    /*
+     * A reusable LOTR, with the store it works on and a list in which the
+     * input is gathered before it is loaded.
+     */
+    static class Workspace
+    {
+        final ArrayList<String> input = new ArrayList<String>();
+        private final ArrayLineStore store = new ArrayLineStore();
+        private final LOTR lotr = new LOTR(store);
+
+        /*
+         * Move the gathered input into the store, and start the LOTR again
+         * on it.
+         */
+        LOTR load()
+        {
+            store.load(input);
+            input.clear();
+            lotr.restart();
+            return lotr;
+        }
+
+        /* drop the lines of the last text, keeping the room they took */
+        void clear()
+        {
+            input.clear();
+            store.clear();
+            lotr.restart();
+        }
+
+    }
+
+    private final Charset charset;
+    private final BlockingQueue<Workspace> pool;
+    private volatile Metrics metrics;
+    private volatile DiagnosticSink diagnostics;
+    private volatile boolean searchIndex;
+    private volatile int parallelism = 1;
+    /* the pool shared by the bulk directives of every execution */
+    private ExecutorService executor;
+
+    /**
+     * Construct a new instance of <code>FrodoEngine</code>, which reads
+     * channels in the platform's default character set, and keeps as many
+     * idle workspaces as there are processors.
+     */
+    public FrodoEngine()
+    {
+        this(Charset.defaultCharset(),
+             Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Construct a new instance of <code>FrodoEngine</code>.
+     *
+     * @param charset the character set in which to read channels
+     * @param poolSize the largest number of idle workspaces to keep
+     */
+    public FrodoEngine(Charset charset, int poolSize)
+    {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("poolSize=" + poolSize);
+        }
+        this.charset = charset;
+        this.pool = new ArrayBlockingQueue<Workspace>(poolSize);
+    }
+
+    /**
+     * Compile a frodo script.  Scripts may be compiled by many threads at
+     * once.
+     *
+     * @param reader the reader from which to read the script
+     * @return the compiled script
+     * @throws ParseException if the script is not valid
+     */
+    public CompiledScript compile(Reader reader)
+            throws ParseException
+    {
+        try {
+            return new CompiledScript(this, new Frodo(reader).Script());
+        } catch (TokenMgrError ex) {
+            throw new ParseException(ex.getMessage());
+        }
+    }
+
+    /**
+     * Return the character set in which channels are read.
+     *
+     * @return the character set
+     */
+    public Charset getCharset()
+    {
+        return charset;
+    }
+
+    /**
+     * Attach a metrics registry to every execution which starts from now on.
+     *
+     * @param metrics the registry, or <code>null</code> to measure nothing
+     * @see LOTR#setMetrics(Metrics)
+     */
+    public void setMetrics(Metrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Attach a diagnostic sink to every execution which starts from now on.
+     *
+     * @param diagnostics the sink, or <code>null</code> to log synchronously
+     * @see LOTR#setDiagnostics(DiagnosticSink)
+     */
+    public void setDiagnostics(DiagnosticSink diagnostics)
+    {
+        this.diagnostics = diagnostics;
+    }
+
+    /**
+     * Set whether executions which start from now on index their searches.
+     *
+     * @param enabled whether to index searches
+     * @see LOTR#setSearchIndex(boolean)
+     */
+    public void setSearchIndex(boolean enabled)
+    {
+        this.searchIndex = enabled;
+    }
+
+    /**
+     * Set the largest number of threads which the bulk directives of
+     * executions which start from now on may use.
+     *
+     * @param threads the largest number of threads to use
+     * @throws IllegalArgumentException if <code>threads</code> is less than
+     *         one
+     * @see LOTR#setParallelism(int)
+     */
+    public void setParallelism(int threads)
+    {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads=" + threads);
+        }
+        synchronized (this) {
+            if (threads != parallelism && executor != null) {
+                /* executions still using the old pool finish their ranges
+                   on their own threads */
+                executor.shutdown();
+                executor = null;
+            }
+            this.parallelism = threads;
+        }
+    }
+
+    /**
+     * Stop the threads which the bulk directives of executions started, and
+     * drop the idle workspaces.  The engine can still be used afterwards,
+     * and starts new threads if it needs them again.
+     */
+    public void close()
+    {
+        synchronized (this) {
+            if (executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+        }
+        pool.clear();
+    }
+
+    /* take an idle workspace from the pool, or make a new one */
+    Workspace acquire()
+    {
+        Workspace workspace = pool.poll();
+        if (workspace == null) {
+            workspace = new Workspace();
+        }
+        configure(workspace.lotr);
+        return workspace;
+    }
+
+    /* apply the engine's settings to an instance about to be used */
+    LOTR configure(LOTR lotr)
+    {
+        lotr.setMetrics(metrics);
+        lotr.setDiagnostics(diagnostics);
+        lotr.setSearchIndex(searchIndex);
+        synchronized (this) {
+            lotr.setParallelism(parallelism);
+            if (parallelism > 1 && executor == null) {
+                executor = RangeWorker.newExecutor(parallelism);
+            }
+            lotr.setExecutor((parallelism > 1) ? executor : null);
+        }
+        return lotr;
+    }
+
+    /* return a workspace to the pool, unless the pool is full */
+    void release(Workspace workspace)
+    {
+        workspace.clear();
+        pool.offer(workspace);
+    }
+
+}
@@ -1,167 +1,193 @@
 /* Generated By:JavaCC: Do not edit this line. FrodoTokenManager.java */
 package com.bpreece.lotr;
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.PrintStream;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /** Token Manager. */
 public class FrodoTokenManager implements FrodoConstants
 {
 
   /** Debug output. */
-  public static  java.io.PrintStream debugStream = System.out;
+  public  java.io.PrintStream debugStream = System.out;
   /** Set debug output. */
-  public static  void setDebugStream(java.io.PrintStream ds) { debugStream = ds; }
-private static final int jjStopStringLiteralDfa_0(int pos, long active0)
+  public  void setDebugStream(java.io.PrintStream ds) { debugStream = ds; }
+private final int jjStopStringLiteralDfa_0(int pos, long active0)
 {
    switch (pos)
    {
       case 0:
-         if ((active0 & 0x20000000080000L) != 0L)
-         {
-            jjmatchedKind = 59;
-            return 9;
-         }
-         if ((active0 & 0x10000000000L) != 0L)
+         if ((active0 & 0x7800000000L) != 0L)
          {
-            jjmatchedKind = 59;
-            return 32;
+            jjmatchedKind = 64;
+            return 24;
          }
-         if ((active0 & 0x178001fc10000L) != 0L)
+         if ((active0 & 0x200L) != 0L)
          {
-            jjmatchedKind = 59;
-            return 46;
+            jjmatchedKind = 64;
+            return 40;
          }
-         if ((active0 & 0x1e000000008400L) != 0L)
+         if ((active0 & 0x1000000200000L) != 0L)
          {
-            jjmatchedKind = 59;
-            return 74;
+            jjmatchedKind = 64;
+            return 82;
          }
          if ((active0 & 0x120000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             return 100;
          }
-         if ((active0 & 0x7800000000L) != 0L)
+         if ((active0 & 0x3c0000000L) != 0L)
          {
-            jjmatchedKind = 59;
-            return 24;
+            jjmatchedKind = 64;
+            return 18;
          }
-         if ((active0 & 0x200L) != 0L)
+         if ((active0 & 0x40000000080000L) != 0L)
          {
-            jjmatchedKind = 59;
-            return 40;
+            jjmatchedKind = 64;
+            return 9;
          }
-         if ((active0 & 0x200000L) != 0L)
+         if ((active0 & 0x10000000000L) != 0L)
          {
-            jjmatchedKind = 59;
-            return 82;
+            jjmatchedKind = 64;
+            return 32;
+         }
+         if ((active0 & 0x38278001fc10000L) != 0L)
+         {
+            jjmatchedKind = 64;
+            return 46;
          }
          if ((active0 & 0x20L) != 0L)
             return 66;
-         if ((active0 & 0x3c0000000L) != 0L)
+         if ((active0 & 0x43c000000008400L) != 0L)
          {
-            jjmatchedKind = 59;
-            return 18;
+            jjmatchedKind = 64;
+            return 74;
          }
          return -1;
       case 1:
-         if ((active0 & 0x7800000000L) != 0L)
+         if ((active0 & 0x3c0000000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 1;
-            return 23;
+            return 17;
          }
-         if ((active0 & 0x1780000010000L) != 0L)
+         if ((active0 & 0x47c00001fe28600L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 1;
-            return 45;
+            return 74;
          }
-         if ((active0 & 0x10000000000L) != 0L)
+         if ((active0 & 0x80000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 1;
-            return 31;
+            return 8;
          }
-         if ((active0 & 0x100000L) != 0L)
+         if ((active0 & 0x1000000000000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 1;
-            return 99;
+            return 81;
+         }
+         if ((active0 & 0x7800000000L) != 0L)
+         {
+            jjmatchedKind = 64;
+            jjmatchedPos = 1;
+            return 23;
          }
-         if ((active0 & 0x3e00001fe28600L) != 0L)
+         if ((active0 & 0x382780000010000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 1;
-            return 74;
+            return 45;
          }
-         if ((active0 & 0x80000L) != 0L)
+         if ((active0 & 0x10000000000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 1;
-            return 8;
+            return 31;
          }
-         if ((active0 & 0x3c0000000L) != 0L)
+         if ((active0 & 0x100000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 1;
-            return 17;
+            return 99;
          }
          return -1;
       case 2:
-         if ((active0 & 0x80000000000L) != 0L)
+         if ((active0 & 0xc000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 1)
+            {
+               jjmatchedKind = 64;
+               jjmatchedPos = 1;
+            }
+            return -1;
+         }
+         if ((active0 & 0x3c0000000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 2;
-            return 44;
+            return 16;
          }
-         if ((active0 & 0x10000000000L) != 0L)
+         if ((active0 & 0x5f270001fe38200L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 2;
-            return 30;
+            return 74;
          }
-         if ((active0 & 0x7800000000L) != 0L)
+         if ((active0 & 0x1000000000000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 47;
             jjmatchedPos = 2;
-            return 22;
+            return 80;
          }
          if ((active0 & 0x400L) != 0L)
             return 74;
-         if ((active0 & 0x3970001fe38200L) != 0L)
+         if ((active0 & 0x10000000000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 2;
-            return 74;
+            return 30;
          }
-         if ((active0 & 0x3c0000000L) != 0L)
+         if ((active0 & 0x200080000000000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 2;
-            return 16;
+            return 44;
          }
-         if ((active0 & 0x6000000000000L) != 0L)
+         if ((active0 & 0x7800000000L) != 0L)
          {
-            if (jjmatchedPos < 1)
-            {
-               jjmatchedKind = 59;
-               jjmatchedPos = 1;
-            }
-            return -1;
+            jjmatchedKind = 64;
+            jjmatchedPos = 2;
+            return 22;
          }
          if ((active0 & 0x80000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 2;
             return 7;
          }
@@ -173,93 +199,108 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
          }
          return -1;
       case 3:
-         if ((active0 & 0x6000000000000L) != 0L)
+         if ((active0 & 0x7800000000L) != 0L)
          {
-            if (jjmatchedPos < 1)
-            {
-               jjmatchedKind = 59;
-               jjmatchedPos = 1;
-            }
-            return -1;
+            jjmatchedKind = 34;
+            jjmatchedPos = 3;
+            return 74;
          }
-         if ((active0 & 0x10000000000L) != 0L)
+         if ((active0 & 0x5e270001fe38200L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 3;
-            return 29;
+            return 74;
          }
          if ((active0 & 0x80000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 3;
             return 6;
          }
-         if ((active0 & 0x80000000000L) != 0L)
+         if ((active0 & 0xc000000000000L) != 0L)
          {
-            jjmatchedKind = 59;
-            jjmatchedPos = 3;
-            return 43;
+            if (jjmatchedPos < 1)
+            {
+               jjmatchedKind = 64;
+               jjmatchedPos = 1;
+            }
+            return -1;
          }
-         if ((active0 & 0x8000000100000L) != 0L)
-            return 74;
-         if ((active0 & 0x7800000000L) != 0L)
+         if ((active0 & 0x3c0000000L) != 0L)
          {
-            jjmatchedKind = 34;
+            jjmatchedKind = 29;
             jjmatchedPos = 3;
             return 74;
          }
-         if ((active0 & 0x3c0000000L) != 0L)
+         if ((active0 & 0x10000000000L) != 0L)
          {
-            jjmatchedKind = 29;
+            jjmatchedKind = 64;
             jjmatchedPos = 3;
+            return 29;
+         }
+         if ((active0 & 0x10000000100000L) != 0L)
             return 74;
+         if ((active0 & 0x1000000000000L) != 0L)
+         {
+            jjmatchedKind = 64;
+            jjmatchedPos = 3;
+            return 79;
          }
-         if ((active0 & 0x3170001fe38200L) != 0L)
+         if ((active0 & 0x200080000000000L) != 0L)
          {
-            jjmatchedKind = 59;
+            jjmatchedKind = 64;
             jjmatchedPos = 3;
-            return 74;
+            return 43;
          }
          return -1;
       case 4:
-         if ((active0 & 0x6000000000000L) != 0L)
+         if ((active0 & 0x7800000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 34;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
+         if ((active0 & 0xc000000000000L) != 0L)
          {
             if (jjmatchedPos < 1)
             {
-               jjmatchedKind = 59;
+               jjmatchedKind = 64;
                jjmatchedPos = 1;
             }
             return -1;
          }
-         if ((active0 & 0x1700000200000L) != 0L)
+         if ((active0 & 0x1000000000000L) != 0L)
          {
             if (jjmatchedPos != 4)
             {
-               jjmatchedKind = 59;
+               jjmatchedKind = 64;
                jjmatchedPos = 4;
             }
-            return 74;
+            return 78;
          }
-         if ((active0 & 0x80000000000L) != 0L)
+         if ((active0 & 0x200080000000000L) != 0L)
          {
             if (jjmatchedPos != 4)
             {
-               jjmatchedKind = 59;
+               jjmatchedKind = 64;
                jjmatchedPos = 4;
             }
             return 42;
          }
-         if ((active0 & 0x3000001fc38200L) != 0L)
-            return 74;
-         if ((active0 & 0x7800000000L) != 0L)
+         if ((active0 & 0x10000000000L) != 0L)
          {
-            if (jjmatchedPos < 3)
+            if (jjmatchedPos != 4)
             {
-               jjmatchedKind = 34;
-               jjmatchedPos = 3;
+               jjmatchedKind = 64;
+               jjmatchedPos = 4;
             }
-            return -1;
+            return 28;
          }
+         if ((active0 & 0x6000001fc38200L) != 0L)
+            return 74;
          if ((active0 & 0x80000L) != 0L)
          {
             if (jjmatchedPos != 4)
@@ -269,14 +310,23 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return 74;
          }
-         if ((active0 & 0x10000000000L) != 0L)
+         if ((active0 & 0x400000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 64;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
+         if ((active0 & 0x182700000200000L) != 0L)
          {
             if (jjmatchedPos != 4)
             {
-               jjmatchedKind = 59;
+               jjmatchedKind = 64;
                jjmatchedPos = 4;
             }
-            return 28;
+            return 74;
          }
          if ((active0 & 0x3c0000000L) != 0L)
          {
@@ -289,44 +339,59 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
          }
          return -1;
       case 5:
-         if ((active0 & 0x6000000000000L) != 0L)
+         if ((active0 & 0x10000000000L) != 0L)
+         {
+            jjmatchedKind = 39;
+            jjmatchedPos = 5;
+            return 74;
+         }
+         if ((active0 & 0x7800000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 34;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
+         if ((active0 & 0xc000000000000L) != 0L)
          {
             if (jjmatchedPos < 1)
             {
-               jjmatchedKind = 59;
+               jjmatchedKind = 64;
                jjmatchedPos = 1;
             }
             return -1;
          }
-         if ((active0 & 0x10000000000L) != 0L)
+         if ((active0 & 0x1000000000000L) != 0L)
          {
-            jjmatchedKind = 39;
+            jjmatchedKind = 64;
             jjmatchedPos = 5;
-            return 74;
+            return 77;
          }
-         if ((active0 & 0x80000000000L) != 0L)
+         if ((active0 & 0x80000L) != 0L)
+            return 74;
+         if ((active0 & 0x200080000000000L) != 0L)
          {
             jjmatchedKind = 42;
             jjmatchedPos = 5;
             return 74;
          }
-         if ((active0 & 0x1700000200000L) != 0L)
-         {
-            jjmatchedKind = 59;
-            jjmatchedPos = 5;
-            return 74;
-         }
-         if ((active0 & 0x80000L) != 0L)
-            return 74;
-         if ((active0 & 0x7800000000L) != 0L)
+         if ((active0 & 0x400000000000000L) != 0L)
          {
             if (jjmatchedPos < 3)
             {
-               jjmatchedKind = 34;
+               jjmatchedKind = 64;
                jjmatchedPos = 3;
             }
             return -1;
          }
+         if ((active0 & 0x182700000200000L) != 0L)
+         {
+            jjmatchedKind = 64;
+            jjmatchedPos = 5;
+            return 74;
+         }
          if ((active0 & 0x3c0000000L) != 0L)
          {
             if (jjmatchedPos < 3)
@@ -338,35 +403,24 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
          }
          return -1;
       case 6:
-         if ((active0 & 0x6000000000000L) != 0L)
-         {
-            if (jjmatchedPos < 1)
-            {
-               jjmatchedKind = 59;
-               jjmatchedPos = 1;
-            }
-            return -1;
-         }
-         if ((active0 & 0x10000000000L) != 0L)
+         if ((active0 & 0x200080000000000L) != 0L)
          {
             if (jjmatchedPos < 5)
             {
-               jjmatchedKind = 39;
+               jjmatchedKind = 42;
                jjmatchedPos = 5;
             }
             return -1;
          }
-         if ((active0 & 0x80000000000L) != 0L)
+         if ((active0 & 0x1000000000000L) != 0L)
          {
-            if (jjmatchedPos < 5)
+            if (jjmatchedPos != 6)
             {
-               jjmatchedKind = 42;
-               jjmatchedPos = 5;
+               jjmatchedKind = 64;
+               jjmatchedPos = 6;
             }
-            return -1;
+            return 76;
          }
-         if ((active0 & 0x1700000000000L) != 0L)
-            return 74;
          if ((active0 & 0x7800000000L) != 0L)
          {
             if (jjmatchedPos < 3)
@@ -376,15 +430,44 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return -1;
          }
+         if ((active0 & 0xc000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 1)
+            {
+               jjmatchedKind = 64;
+               jjmatchedPos = 1;
+            }
+            return -1;
+         }
          if ((active0 & 0x200000L) != 0L)
          {
             if (jjmatchedPos != 6)
             {
-               jjmatchedKind = 59;
+               jjmatchedKind = 64;
                jjmatchedPos = 6;
             }
             return 74;
          }
+         if ((active0 & 0x182700000000000L) != 0L)
+            return 74;
+         if ((active0 & 0x10000000000L) != 0L)
+         {
+            if (jjmatchedPos < 5)
+            {
+               jjmatchedKind = 39;
+               jjmatchedPos = 5;
+            }
+            return -1;
+         }
+         if ((active0 & 0x400000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 64;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
          if ((active0 & 0x3c0000000L) != 0L)
          {
             if (jjmatchedPos < 3)
@@ -396,11 +479,11 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
          }
          return -1;
       case 7:
-         if ((active0 & 0x6000000000000L) != 0L)
+         if ((active0 & 0xc000000000000L) != 0L)
          {
             if (jjmatchedPos < 1)
             {
-               jjmatchedKind = 59;
+               jjmatchedKind = 64;
                jjmatchedPos = 1;
             }
             return -1;
@@ -414,7 +497,7 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return -1;
          }
-         if ((active0 & 0x80000000000L) != 0L)
+         if ((active0 & 0x200080000000000L) != 0L)
          {
             if (jjmatchedPos < 5)
             {
@@ -423,6 +506,12 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return -1;
          }
+         if ((active0 & 0x1000000000000L) != 0L)
+         {
+            jjmatchedKind = 47;
+            jjmatchedPos = 7;
+            return 74;
+         }
          if ((active0 & 0x200000L) != 0L)
             return 74;
          if ((active0 & 0x7800000000L) != 0L)
@@ -434,6 +523,15 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return -1;
          }
+         if ((active0 & 0x400000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 64;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
          if ((active0 & 0x3c0000000L) != 0L)
          {
             if (jjmatchedPos < 3)
@@ -454,7 +552,7 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return -1;
          }
-         if ((active0 & 0x80000000000L) != 0L)
+         if ((active0 & 0x200080000000000L) != 0L)
          {
             if (jjmatchedPos < 5)
             {
@@ -472,6 +570,24 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return -1;
          }
+         if ((active0 & 0x400000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 64;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
+         if ((active0 & 0x1000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 7)
+            {
+               jjmatchedKind = 47;
+               jjmatchedPos = 7;
+            }
+            return -1;
+         }
          if ((active0 & 0x3c0000000L) != 0L)
          {
             if (jjmatchedPos < 3)
@@ -492,7 +608,7 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return -1;
          }
-         if ((active0 & 0x80000000000L) != 0L)
+         if ((active0 & 0x200080000000000L) != 0L)
          {
             if (jjmatchedPos < 5)
             {
@@ -510,6 +626,24 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return -1;
          }
+         if ((active0 & 0x400000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 64;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
+         if ((active0 & 0x1000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 7)
+            {
+               jjmatchedKind = 47;
+               jjmatchedPos = 7;
+            }
+            return -1;
+         }
          if ((active0 & 0x2c0000000L) != 0L)
          {
             if (jjmatchedPos < 3)
@@ -530,7 +664,7 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return -1;
          }
-         if ((active0 & 0x80000000000L) != 0L)
+         if ((active0 & 0x200080000000000L) != 0L)
          {
             if (jjmatchedPos < 5)
             {
@@ -548,6 +682,24 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return -1;
          }
+         if ((active0 & 0x400000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 64;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
+         if ((active0 & 0x1000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 7)
+            {
+               jjmatchedKind = 47;
+               jjmatchedPos = 7;
+            }
+            return -1;
+         }
          if ((active0 & 0x280000000L) != 0L)
          {
             if (jjmatchedPos < 3)
@@ -568,7 +720,7 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             }
             return -1;
          }
-         if ((active0 & 0x80000000000L) != 0L)
+         if ((active0 & 0x200080000000000L) != 0L)
          {
             if (jjmatchedPos < 5)
             {
@@ -579,10 +731,75 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
          }
          if ((active0 & 0x4000000000L) != 0L)
          {
-            if (jjmatchedPos < 3)
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 34;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
+         if ((active0 & 0x400000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 64;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
+         if ((active0 & 0x1000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 7)
+            {
+               jjmatchedKind = 47;
+               jjmatchedPos = 7;
+            }
+            return -1;
+         }
+         if ((active0 & 0x200000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 29;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
+         return -1;
+      case 12:
+         if ((active0 & 0x200000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 5)
+            {
+               jjmatchedKind = 42;
+               jjmatchedPos = 5;
+            }
+            return -1;
+         }
+         if ((active0 & 0x4000000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 34;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
+         if ((active0 & 0x400000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 3)
+            {
+               jjmatchedKind = 64;
+               jjmatchedPos = 3;
+            }
+            return -1;
+         }
+         if ((active0 & 0x1000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 7)
             {
-               jjmatchedKind = 34;
-               jjmatchedPos = 3;
+               jjmatchedKind = 47;
+               jjmatchedPos = 7;
             }
             return -1;
          }
@@ -596,22 +813,33 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
             return -1;
          }
          return -1;
-      case 12:
-         if ((active0 & 0x4000000000L) != 0L)
+      case 13:
+         if ((active0 & 0x200000000000000L) != 0L)
          {
-            if (jjmatchedPos < 3)
+            if (jjmatchedPos < 5)
             {
-               jjmatchedKind = 34;
-               jjmatchedPos = 3;
+               jjmatchedKind = 42;
+               jjmatchedPos = 5;
             }
             return -1;
          }
-         if ((active0 & 0x200000000L) != 0L)
+         if ((active0 & 0x1000000000000L) != 0L)
          {
-            if (jjmatchedPos < 3)
+            if (jjmatchedPos < 7)
             {
-               jjmatchedKind = 29;
-               jjmatchedPos = 3;
+               jjmatchedKind = 47;
+               jjmatchedPos = 7;
+            }
+            return -1;
+         }
+         return -1;
+      case 14:
+         if ((active0 & 0x200000000000000L) != 0L)
+         {
+            if (jjmatchedPos < 5)
+            {
+               jjmatchedKind = 42;
+               jjmatchedPos = 5;
             }
             return -1;
          }
@@ -620,17 +848,17 @@ private static final int jjStopStringLiteralDfa_0(int pos, long active0)
          return -1;
    }
 }
-private static final int jjStartNfa_0(int pos, long active0)
+private final int jjStartNfa_0(int pos, long active0)
 {
    return jjMoveNfa_0(jjStopStringLiteralDfa_0(pos, active0), pos + 1);
 }
-static private int jjStopAtPos(int pos, int kind)
+private int jjStopAtPos(int pos, int kind)
 {
    jjmatchedKind = kind;
    jjmatchedPos = pos;
    return pos + 1;
 }
-static private int jjMoveStringLiteralDfa0_0()
+private int jjMoveStringLiteralDfa0_0()
 {
    switch(curChar)
    {
@@ -639,32 +867,34 @@ static private int jjMoveStringLiteralDfa0_0()
       case 97:
          return jjMoveStringLiteralDfa1_0(0x200L);
       case 99:
-         return jjMoveStringLiteralDfa1_0(0x200000L);
+         return jjMoveStringLiteralDfa1_0(0x1000000200000L);
       case 101:
          return jjMoveStringLiteralDfa1_0(0x120000L);
       case 105:
          return jjMoveStringLiteralDfa1_0(0x10000000000L);
+      case 107:
+         return jjMoveStringLiteralDfa1_0(0x400000000000000L);
       case 108:
          return jjMoveStringLiteralDfa1_0(0x400L);
       case 109:
-         return jjMoveStringLiteralDfa1_0(0x10000000000000L);
+         return jjMoveStringLiteralDfa1_0(0x20000000000000L);
       case 110:
          return jjMoveStringLiteralDfa1_0(0x7800000000L);
       case 112:
          return jjMoveStringLiteralDfa1_0(0x3c0000000L);
       case 114:
-         return jjMoveStringLiteralDfa1_0(0x178001fc10000L);
+         return jjMoveStringLiteralDfa1_0(0x38278001fc10000L);
       case 115:
-         return jjMoveStringLiteralDfa1_0(0x20000000080000L);
+         return jjMoveStringLiteralDfa1_0(0x40000000080000L);
       case 116:
-         return jjMoveStringLiteralDfa1_0(0xe000000000000L);
+         return jjMoveStringLiteralDfa1_0(0x1c000000000000L);
       case 119:
          return jjMoveStringLiteralDfa1_0(0x8000L);
       default :
          return jjMoveNfa_0(1, 0);
    }
 }
-static private int jjMoveStringLiteralDfa1_0(long active0)
+private int jjMoveStringLiteralDfa1_0(long active0)
 {
    try { curChar = input_stream.readChar(); }
    catch(java.io.IOException e) {
@@ -678,11 +908,11 @@ static private int jjMoveStringLiteralDfa1_0(long active0)
             return jjStopAtPos(1, 5);
          break;
       case 97:
-         return jjMoveStringLiteralDfa2_0(active0, 0x1000001fc00000L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x2100001fc00000L);
       case 98:
          return jjMoveStringLiteralDfa2_0(active0, 0x200L);
       case 101:
-         return jjMoveStringLiteralDfa2_0(active0, 0x1787800010000L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x782787800010000L);
       case 104:
          return jjMoveStringLiteralDfa2_0(active0, 0x8000L);
       case 109:
@@ -690,11 +920,11 @@ static private int jjMoveStringLiteralDfa1_0(long active0)
       case 110:
          return jjMoveStringLiteralDfa2_0(active0, 0x10000100000L);
       case 111:
-         return jjMoveStringLiteralDfa2_0(active0, 0x6000000200400L);
+         return jjMoveStringLiteralDfa2_0(active0, 0xc000000200400L);
       case 112:
-         return jjMoveStringLiteralDfa2_0(active0, 0x20000000000000L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x40000000000000L);
       case 114:
-         return jjMoveStringLiteralDfa2_0(active0, 0x80003c0000000L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x100003c0000000L);
       case 116:
          return jjMoveStringLiteralDfa2_0(active0, 0x80000L);
       default :
@@ -702,7 +932,7 @@ static private int jjMoveStringLiteralDfa1_0(long active0)
    }
    return jjStartNfa_0(0, active0);
 }
-static private int jjMoveStringLiteralDfa2_0(long old0, long active0)
+private int jjMoveStringLiteralDfa2_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(0, old0);
@@ -714,35 +944,35 @@ static private int jjMoveStringLiteralDfa2_0(long old0, long active0)
    switch(curChar)
    {
       case 45:
-         return jjMoveStringLiteralDfa3_0(active0, 0x6000000000000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0xc000000000000L);
       case 97:
          return jjMoveStringLiteralDfa3_0(active0, 0x80000L);
       case 100:
          return jjMoveStringLiteralDfa3_0(active0, 0x100000L);
       case 101:
-         return jjMoveStringLiteralDfa3_0(active0, 0x3c0000000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x4000003c0000000L);
       case 103:
          if ((active0 & 0x400L) != 0L)
             return jjStartNfaWithStates_0(2, 10, 74);
          break;
       case 105:
-         return jjMoveStringLiteralDfa3_0(active0, 0x8000000008000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x10000000008000L);
       case 108:
-         return jjMoveStringLiteralDfa3_0(active0, 0x20000000000000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x40000000000000L);
       case 109:
-         return jjMoveStringLiteralDfa3_0(active0, 0x80000000000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x200080000000000L);
       case 110:
          return jjMoveStringLiteralDfa3_0(active0, 0x1fe00000L);
       case 111:
          return jjMoveStringLiteralDfa3_0(active0, 0x200L);
       case 112:
-         return jjMoveStringLiteralDfa3_0(active0, 0x700000020000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x80700000020000L);
       case 115:
          return jjMoveStringLiteralDfa3_0(active0, 0x10000010000L);
       case 116:
-         return jjMoveStringLiteralDfa3_0(active0, 0x10000000000000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x21000000000000L);
       case 119:
-         return jjMoveStringLiteralDfa3_0(active0, 0x1000000000000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x102000000000000L);
       case 120:
          return jjMoveStringLiteralDfa3_0(active0, 0x7800000000L);
       default :
@@ -750,7 +980,7 @@ static private int jjMoveStringLiteralDfa2_0(long old0, long active0)
    }
    return jjStartNfa_0(1, active0);
 }
-static private int jjMoveStringLiteralDfa3_0(long old0, long active0)
+private int jjMoveStringLiteralDfa3_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(1, old0);
@@ -762,23 +992,25 @@ static private int jjMoveStringLiteralDfa3_0(long old0, long active0)
    switch(curChar)
    {
       case 99:
-         return jjMoveStringLiteralDfa4_0(active0, 0x10000000000000L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x20000000000000L);
       case 101:
-         return jjMoveStringLiteralDfa4_0(active0, 0x10000010000L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x1010000010000L);
       case 103:
          return jjMoveStringLiteralDfa4_0(active0, 0x1fc00000L);
       case 105:
-         return jjMoveStringLiteralDfa4_0(active0, 0x20000000000000L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x40000000000000L);
       case 108:
-         return jjMoveStringLiteralDfa4_0(active0, 0x2700000008000L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x84700000008000L);
       case 109:
-         if ((active0 & 0x8000000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 51, 74);
+         if ((active0 & 0x10000000000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 52, 74);
          break;
       case 111:
-         return jjMoveStringLiteralDfa4_0(active0, 0x80000000000L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x200080000000000L);
+      case 112:
+         return jjMoveStringLiteralDfa4_0(active0, 0x400000000000000L);
       case 114:
-         return jjMoveStringLiteralDfa4_0(active0, 0x1000000080200L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x102000000080200L);
       case 115:
          if ((active0 & 0x100000L) != 0L)
             return jjStartNfaWithStates_0(3, 20, 74);
@@ -786,7 +1018,7 @@ static private int jjMoveStringLiteralDfa3_0(long old0, long active0)
       case 116:
          return jjMoveStringLiteralDfa4_0(active0, 0x7800220000L);
       case 117:
-         return jjMoveStringLiteralDfa4_0(active0, 0x4000000000000L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x8000000000000L);
       case 118:
          return jjMoveStringLiteralDfa4_0(active0, 0x3c0000000L);
       default :
@@ -794,7 +1026,7 @@ static private int jjMoveStringLiteralDfa3_0(long old0, long active0)
    }
    return jjStartNfa_0(2, active0);
 }
-static private int jjMoveStringLiteralDfa4_0(long old0, long active0)
+private int jjMoveStringLiteralDfa4_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(2, old0);
@@ -806,9 +1038,9 @@ static private int jjMoveStringLiteralDfa4_0(long old0, long active0)
    switch(curChar)
    {
       case 45:
-         return jjMoveStringLiteralDfa5_0(active0, 0x7bc0000000L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x400007bc0000000L);
       case 97:
-         return jjMoveStringLiteralDfa5_0(active0, 0x700000200000L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x80700000200000L);
       case 101:
          if ((active0 & 0x8000L) != 0L)
             return jjStartNfaWithStates_0(4, 15, 74);
@@ -819,15 +1051,17 @@ static private int jjMoveStringLiteralDfa4_0(long old0, long active0)
          }
          return jjMoveStringLiteralDfa5_0(active0, 0x1f800000L);
       case 104:
-         if ((active0 & 0x10000000000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 52, 74);
+         if ((active0 & 0x20000000000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 53, 74);
          break;
       case 105:
+         return jjMoveStringLiteralDfa5_0(active0, 0x102000000000000L);
+      case 110:
          return jjMoveStringLiteralDfa5_0(active0, 0x1000000000000L);
       case 111:
-         return jjMoveStringLiteralDfa5_0(active0, 0x2000000000000L);
-      case 112:
          return jjMoveStringLiteralDfa5_0(active0, 0x4000000000000L);
+      case 112:
+         return jjMoveStringLiteralDfa5_0(active0, 0x8000000000000L);
       case 114:
          return jjMoveStringLiteralDfa5_0(active0, 0x10000000000L);
       case 116:
@@ -835,11 +1069,11 @@ static private int jjMoveStringLiteralDfa4_0(long old0, long active0)
             return jjStartNfaWithStates_0(4, 9, 74);
          else if ((active0 & 0x10000L) != 0L)
             return jjStartNfaWithStates_0(4, 16, 74);
-         else if ((active0 & 0x20000000000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 53, 74);
+         else if ((active0 & 0x40000000000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 54, 74);
          return jjMoveStringLiteralDfa5_0(active0, 0x80000L);
       case 118:
-         return jjMoveStringLiteralDfa5_0(active0, 0x80000000000L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x200080000000000L);
       case 121:
          if ((active0 & 0x20000L) != 0L)
             return jjStartNfaWithStates_0(4, 17, 74);
@@ -849,7 +1083,7 @@ static private int jjMoveStringLiteralDfa4_0(long old0, long active0)
    }
    return jjStartNfa_0(3, active0);
 }
-static private int jjMoveStringLiteralDfa5_0(long old0, long active0)
+private int jjMoveStringLiteralDfa5_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(3, old0);
@@ -862,28 +1096,32 @@ static private int jjMoveStringLiteralDfa5_0(long old0, long active0)
    {
       case 45:
          return jjMoveStringLiteralDfa6_0(active0, 0x1f800000L);
+      case 97:
+         return jjMoveStringLiteralDfa6_0(active0, 0x1000000000000L);
       case 99:
-         return jjMoveStringLiteralDfa6_0(active0, 0x704200000000L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x80704200000000L);
       case 101:
-         return jjMoveStringLiteralDfa6_0(active0, 0x82940000000L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x200082940000000L);
       case 105:
          return jjMoveStringLiteralDfa6_0(active0, 0x200000L);
+      case 109:
+         return jjMoveStringLiteralDfa6_0(active0, 0x400000000000000L);
       case 112:
-         return jjMoveStringLiteralDfa6_0(active0, 0x4000000000000L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x8000000000000L);
       case 115:
          if ((active0 & 0x80000L) != 0L)
             return jjStartNfaWithStates_0(5, 19, 74);
          return jjMoveStringLiteralDfa6_0(active0, 0x1080000000L);
       case 116:
-         return jjMoveStringLiteralDfa6_0(active0, 0x1010000000000L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x102010000000000L);
       case 119:
-         return jjMoveStringLiteralDfa6_0(active0, 0x2000000000000L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x4000000000000L);
       default :
          break;
    }
    return jjStartNfa_0(4, active0);
 }
-static private int jjMoveStringLiteralDfa6_0(long old0, long active0)
+private int jjMoveStringLiteralDfa6_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(4, old0);
@@ -895,9 +1133,9 @@ static private int jjMoveStringLiteralDfa6_0(long old0, long active0)
    switch(curChar)
    {
       case 45:
-         return jjMoveStringLiteralDfa7_0(active0, 0x90000000000L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x200090000000000L);
       case 97:
-         return jjMoveStringLiteralDfa7_0(active0, 0x8000000L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x400000008000000L);
       case 99:
          return jjMoveStringLiteralDfa7_0(active0, 0x4000000L);
       case 101:
@@ -906,9 +1144,12 @@ static private int jjMoveStringLiteralDfa6_0(long old0, long active0)
             jjmatchedKind = 44;
             jjmatchedPos = 6;
          }
-         else if ((active0 & 0x1000000000000L) != 0L)
-            return jjStartNfaWithStates_0(6, 48, 74);
-         return jjMoveStringLiteralDfa7_0(active0, 0x6600002800000L);
+         else if ((active0 & 0x2000000000000L) != 0L)
+         {
+            jjmatchedKind = 49;
+            jjmatchedPos = 6;
+         }
+         return jjMoveStringLiteralDfa7_0(active0, 0x18c600002800000L);
       case 109:
          return jjMoveStringLiteralDfa7_0(active0, 0x840000000L);
       case 110:
@@ -920,13 +1161,13 @@ static private int jjMoveStringLiteralDfa6_0(long old0, long active0)
       case 115:
          return jjMoveStringLiteralDfa7_0(active0, 0x1000000L);
       case 116:
-         return jjMoveStringLiteralDfa7_0(active0, 0x1080000000L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x1001080000000L);
       default :
          break;
    }
    return jjStartNfa_0(5, active0);
 }
-static private int jjMoveStringLiteralDfa7_0(long old0, long active0)
+private int jjMoveStringLiteralDfa7_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(5, old0);
@@ -938,15 +1179,15 @@ static private int jjMoveStringLiteralDfa7_0(long old0, long active0)
    switch(curChar)
    {
       case 45:
-         return jjMoveStringLiteralDfa8_0(active0, 0x600000000000L);
+         return jjMoveStringLiteralDfa8_0(active0, 0x180600000000000L);
       case 97:
          return jjMoveStringLiteralDfa8_0(active0, 0x11080000000L);
       case 100:
          return jjMoveStringLiteralDfa8_0(active0, 0x2108000000L);
       case 101:
-         return jjMoveStringLiteralDfa8_0(active0, 0x10000000L);
+         return jjMoveStringLiteralDfa8_0(active0, 0x1000010000000L);
       case 109:
-         return jjMoveStringLiteralDfa8_0(active0, 0x800000L);
+         return jjMoveStringLiteralDfa8_0(active0, 0x200000000800000L);
       case 110:
          return jjMoveStringLiteralDfa8_0(active0, 0x4202000000L);
       case 111:
@@ -954,23 +1195,23 @@ static private int jjMoveStringLiteralDfa7_0(long old0, long active0)
       case 112:
          return jjMoveStringLiteralDfa8_0(active0, 0x840000000L);
       case 114:
-         if ((active0 & 0x2000000000000L) != 0L)
-            return jjStopAtPos(7, 49);
-         else if ((active0 & 0x4000000000000L) != 0L)
+         if ((active0 & 0x4000000000000L) != 0L)
             return jjStopAtPos(7, 50);
+         else if ((active0 & 0x8000000000000L) != 0L)
+            return jjStopAtPos(7, 51);
          return jjMoveStringLiteralDfa8_0(active0, 0x80000000000L);
       case 115:
          if ((active0 & 0x200000L) != 0L)
             return jjStartNfaWithStates_0(7, 21, 74);
          break;
       case 116:
-         return jjMoveStringLiteralDfa8_0(active0, 0x1000000L);
+         return jjMoveStringLiteralDfa8_0(active0, 0x400000001000000L);
       default :
          break;
    }
    return jjStartNfa_0(6, active0);
 }
-static private int jjMoveStringLiteralDfa8_0(long old0, long active0)
+private int jjMoveStringLiteralDfa8_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(6, old0);
@@ -981,8 +1222,12 @@ static private int jjMoveStringLiteralDfa8_0(long old0, long active0)
    }
    switch(curChar)
    {
+      case 45:
+         return jjMoveStringLiteralDfa9_0(active0, 0x1000000000000L);
       case 97:
-         return jjMoveStringLiteralDfa9_0(active0, 0x480001000000L);
+         return jjMoveStringLiteralDfa9_0(active0, 0x280480001000000L);
+      case 99:
+         return jjMoveStringLiteralDfa9_0(active0, 0x400000000000000L);
       case 100:
          return jjMoveStringLiteralDfa9_0(active0, 0x2000000L);
       case 102:
@@ -994,7 +1239,7 @@ static private int jjMoveStringLiteralDfa8_0(long old0, long active0)
       case 112:
          return jjMoveStringLiteralDfa9_0(active0, 0x800000L);
       case 114:
-         return jjMoveStringLiteralDfa9_0(active0, 0x1080000000L);
+         return jjMoveStringLiteralDfa9_0(active0, 0x100001080000000L);
       case 115:
          if ((active0 & 0x100000000L) != 0L)
             return jjStopAtPos(8, 32);
@@ -1008,7 +1253,7 @@ static private int jjMoveStringLiteralDfa8_0(long old0, long active0)
    }
    return jjStartNfa_0(7, active0);
 }
-static private int jjMoveStringLiteralDfa9_0(long old0, long active0)
+private int jjMoveStringLiteralDfa9_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(7, old0);
@@ -1020,13 +1265,15 @@ static private int jjMoveStringLiteralDfa9_0(long old0, long active0)
    switch(curChar)
    {
       case 97:
-         return jjMoveStringLiteralDfa10_0(active0, 0x4200000000L);
+         return jjMoveStringLiteralDfa10_0(active0, 0x100004200000000L);
       case 101:
          return jjMoveStringLiteralDfa10_0(active0, 0x10000000L);
+      case 104:
+         return jjMoveStringLiteralDfa10_0(active0, 0x400000000000000L);
       case 105:
          return jjMoveStringLiteralDfa10_0(active0, 0x200000000000L);
       case 108:
-         return jjMoveStringLiteralDfa10_0(active0, 0x400000000000L);
+         return jjMoveStringLiteralDfa10_0(active0, 0x80400000000000L);
       case 110:
          return jjMoveStringLiteralDfa10_0(active0, 0x80000000000L);
       case 114:
@@ -1036,9 +1283,11 @@ static private int jjMoveStringLiteralDfa9_0(long old0, long active0)
             return jjStopAtPos(9, 25);
          break;
       case 116:
-         return jjMoveStringLiteralDfa10_0(active0, 0x11084800000L);
+         return jjMoveStringLiteralDfa10_0(active0, 0x200011084800000L);
       case 117:
          return jjMoveStringLiteralDfa10_0(active0, 0x8000000L);
+      case 119:
+         return jjMoveStringLiteralDfa10_0(active0, 0x1000000000000L);
       case 121:
          if ((active0 & 0x40000000L) != 0L)
             return jjStopAtPos(9, 30);
@@ -1050,7 +1299,7 @@ static private int jjMoveStringLiteralDfa9_0(long old0, long active0)
    }
    return jjStartNfa_0(8, active0);
 }
-static private int jjMoveStringLiteralDfa10_0(long old0, long active0)
+private int jjMoveStringLiteralDfa10_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(8, old0);
@@ -1063,16 +1312,25 @@ static private int jjMoveStringLiteralDfa10_0(long old0, long active0)
    {
       case 97:
          return jjMoveStringLiteralDfa11_0(active0, 0x4000000L);
+      case 99:
+         return jjMoveStringLiteralDfa11_0(active0, 0x200000000000000L);
       case 101:
          return jjMoveStringLiteralDfa11_0(active0, 0x10000000000L);
       case 103:
          return jjMoveStringLiteralDfa11_0(active0, 0x80000000000L);
+      case 104:
+         return jjMoveStringLiteralDfa11_0(active0, 0x1000000000000L);
       case 105:
-         return jjMoveStringLiteralDfa11_0(active0, 0x4200000000L);
+         return jjMoveStringLiteralDfa11_0(active0, 0x400004200000000L);
       case 108:
          if ((active0 & 0x400000000000L) != 0L)
-            return jjStopAtPos(10, 46);
-         break;
+         {
+            jjmatchedKind = 46;
+            jjmatchedPos = 10;
+         }
+         return jjMoveStringLiteralDfa11_0(active0, 0x80000000000000L);
+      case 110:
+         return jjMoveStringLiteralDfa11_0(active0, 0x100000000000000L);
       case 114:
          return jjMoveStringLiteralDfa11_0(active0, 0x200000000000L);
       case 115:
@@ -1094,7 +1352,7 @@ static private int jjMoveStringLiteralDfa10_0(long old0, long active0)
    }
    return jjStartNfa_0(9, active0);
 }
-static private int jjMoveStringLiteralDfa11_0(long old0, long active0)
+private int jjMoveStringLiteralDfa11_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(9, old0);
@@ -1105,14 +1363,20 @@ static private int jjMoveStringLiteralDfa11_0(long old0, long active0)
    }
    switch(curChar)
    {
+      case 45:
+         return jjMoveStringLiteralDfa12_0(active0, 0x80000000000000L);
       case 101:
          if ((active0 & 0x80000000000L) != 0L)
             return jjStopAtPos(11, 43);
          break;
+      case 103:
+         return jjMoveStringLiteralDfa12_0(active0, 0x100000000000000L);
+      case 104:
+         return jjMoveStringLiteralDfa12_0(active0, 0x200000000000000L);
       case 105:
-         return jjMoveStringLiteralDfa12_0(active0, 0x4000000L);
+         return jjMoveStringLiteralDfa12_0(active0, 0x1000004000000L);
       case 110:
-         return jjMoveStringLiteralDfa12_0(active0, 0x4200000000L);
+         return jjMoveStringLiteralDfa12_0(active0, 0x400004200000000L);
       case 114:
          if ((active0 & 0x10000000000L) != 0L)
             return jjStopAtPos(11, 40);
@@ -1130,7 +1394,7 @@ static private int jjMoveStringLiteralDfa11_0(long old0, long active0)
    }
    return jjStartNfa_0(10, active0);
 }
-static private int jjMoveStringLiteralDfa12_0(long old0, long active0)
+private int jjMoveStringLiteralDfa12_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(10, old0);
@@ -1141,8 +1405,22 @@ static private int jjMoveStringLiteralDfa12_0(long old0, long active0)
    }
    switch(curChar)
    {
+      case 101:
+         if ((active0 & 0x100000000000000L) != 0L)
+            return jjStopAtPos(12, 56);
+         break;
+      case 103:
+         if ((active0 & 0x400000000000000L) != 0L)
+            return jjStopAtPos(12, 58);
+         break;
+      case 105:
+         return jjMoveStringLiteralDfa13_0(active0, 0x200000000000000L);
+      case 108:
+         return jjMoveStringLiteralDfa13_0(active0, 0x1000000000000L);
       case 110:
          return jjMoveStringLiteralDfa13_0(active0, 0x4000000L);
+      case 114:
+         return jjMoveStringLiteralDfa13_0(active0, 0x80000000000000L);
       case 115:
          if ((active0 & 0x200000000L) != 0L)
             return jjStopAtPos(12, 33);
@@ -1158,7 +1436,7 @@ static private int jjMoveStringLiteralDfa12_0(long old0, long active0)
    }
    return jjStartNfa_0(11, active0);
 }
-static private int jjMoveStringLiteralDfa13_0(long old0, long active0)
+private int jjMoveStringLiteralDfa13_0(long old0, long active0)
 {
    if (((active0 &= old0)) == 0L)
       return jjStartNfa_0(11, old0);
@@ -1169,6 +1447,14 @@ static private int jjMoveStringLiteralDfa13_0(long old0, long active0)
    }
    switch(curChar)
    {
+      case 97:
+         return jjMoveStringLiteralDfa14_0(active0, 0x80000000000000L);
+      case 101:
+         if ((active0 & 0x1000000000000L) != 0L)
+            return jjStopAtPos(13, 48);
+         break;
+      case 110:
+         return jjMoveStringLiteralDfa14_0(active0, 0x200000000000000L);
       case 115:
          if ((active0 & 0x4000000L) != 0L)
             return jjStopAtPos(13, 26);
@@ -1178,7 +1464,67 @@ static private int jjMoveStringLiteralDfa13_0(long old0, long active0)
    }
    return jjStartNfa_0(12, active0);
 }
-static private int jjStartNfaWithStates_0(int pos, int kind, int state)
+private int jjMoveStringLiteralDfa14_0(long old0, long active0)
+{
+   if (((active0 &= old0)) == 0L)
+      return jjStartNfa_0(12, old0);
+   try { curChar = input_stream.readChar(); }
+   catch(java.io.IOException e) {
+      jjStopStringLiteralDfa_0(13, active0);
+      return 14;
+   }
+   switch(curChar)
+   {
+      case 103:
+         if ((active0 & 0x200000000000000L) != 0L)
+            return jjStopAtPos(14, 57);
+         break;
+      case 110:
+         return jjMoveStringLiteralDfa15_0(active0, 0x80000000000000L);
+      default :
+         break;
+   }
+   return jjStartNfa_0(13, active0);
+}
+private int jjMoveStringLiteralDfa15_0(long old0, long active0)
+{
+   if (((active0 &= old0)) == 0L)
+      return jjStartNfa_0(13, old0);
+   try { curChar = input_stream.readChar(); }
+   catch(java.io.IOException e) {
+      jjStopStringLiteralDfa_0(14, active0);
+      return 15;
+   }
+   switch(curChar)
+   {
+      case 103:
+         return jjMoveStringLiteralDfa16_0(active0, 0x80000000000000L);
+      default :
+         break;
+   }
+   return jjStartNfa_0(14, active0);
+}
+private int jjMoveStringLiteralDfa16_0(long old0, long active0)
+{
+   if (((active0 &= old0)) == 0L)
+      return jjStartNfa_0(14, old0);
+   try { curChar = input_stream.readChar(); }
+   catch(java.io.IOException e) {
+      jjStopStringLiteralDfa_0(15, active0);
+      return 16;
+   }
+   switch(curChar)
+   {
+      case 101:
+         if ((active0 & 0x80000000000000L) != 0L)
+            return jjStopAtPos(16, 55);
+         break;
+      default :
+         break;
+   }
+   return jjStartNfa_0(15, active0);
+}
+private int jjStartNfaWithStates_0(int pos, int kind, int state)
 {
    jjmatchedKind = kind;
    jjmatchedPos = pos;
@@ -1189,7 +1535,7 @@ static private int jjStartNfaWithStates_0(int pos, int kind, int state)
 static final long[] jjbitVec0 = {
    0x0L, 0x0L, 0xffffffffffffffffL, 0xffffffffffffffffL
 };
-static private int jjMoveNfa_0(int startState, int curPos)
+private int jjMoveNfa_0(int startState, int curPos)
 {
    int startsAt = 0;
    jjnewStateCnt = 109;
@@ -1211,169 +1557,211 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 74:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 7:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 46:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 45:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 82:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 43:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 100:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 28:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
+                  jjCheckNAdd(74);
+                  break;
+               case 78:
+                  if ((0x3ff000000000000L & l) == 0L)
+                     break;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 32:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 30:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
+                  jjCheckNAdd(74);
+                  break;
+               case 77:
+                  if ((0x3ff000000000000L & l) == 0L)
+                     break;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 17:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 23:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
+                  jjCheckNAdd(74);
+                  break;
+               case 81:
+                  if ((0x3ff000000000000L & l) == 0L)
+                     break;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 8:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 6:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 99:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 44:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 42:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 40:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 29:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
+                  jjCheckNAdd(74);
+                  break;
+               case 79:
+                  if ((0x3ff000000000000L & l) == 0L)
+                     break;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 31:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
+                  jjCheckNAdd(74);
+                  break;
+               case 76:
+                  if ((0x3ff000000000000L & l) == 0L)
+                     break;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 18:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 24:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
-               case 16:
+               case 22:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
-               case 22:
+               case 80:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
+                  jjCheckNAdd(74);
+                  break;
+               case 16:
+                  if ((0x3ff000000000000L & l) == 0L)
+                     break;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 1:
@@ -1416,8 +1804,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                   }
                   if ((0x3fe000000000000L & l) != 0L)
                   {
-                     if (kind > 57)
-                        kind = 57;
+                     if (kind > 62)
+                        kind = 62;
                      jjCheckNAdd(67);
                   }
                   break;
@@ -1479,8 +1867,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                      jjCheckNAddStates(5, 7);
                   break;
                case 54:
-                  if (curChar == 34 && kind > 54)
-                     kind = 54;
+                  if (curChar == 34 && kind > 59)
+                     kind = 59;
                   break;
                case 55:
                case 58:
@@ -1492,8 +1880,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                      jjCheckNAddStates(2, 4);
                   break;
                case 59:
-                  if (curChar == 47 && kind > 55)
-                     kind = 55;
+                  if (curChar == 47 && kind > 60)
+                     kind = 60;
                   break;
                case 61:
                   if ((0xffffffffffffdbffL & l) != 0L)
@@ -1506,15 +1894,15 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 66:
                   if ((0x3fe000000000000L & l) == 0L)
                      break;
-                  if (kind > 57)
-                     kind = 57;
+                  if (kind > 62)
+                     kind = 62;
                   jjCheckNAdd(67);
                   break;
                case 67:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 57)
-                     kind = 57;
+                  if (kind > 62)
+                     kind = 62;
                   jjCheckNAdd(67);
                   break;
                case 68:
@@ -1524,15 +1912,15 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 69:
                   if (curChar != 46)
                      break;
-                  if (kind > 58)
-                     kind = 58;
+                  if (kind > 63)
+                     kind = 63;
                   jjCheckNAdd(70);
                   break;
                case 70:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 58)
-                     kind = 58;
+                  if (kind > 63)
+                     kind = 63;
                   jjCheckNAdd(70);
                   break;
                case 71:
@@ -1542,8 +1930,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 72:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 58)
-                     kind = 58;
+                  if (kind > 63)
+                     kind = 63;
                   jjCheckNAdd(72);
                   break;
                case 93:
@@ -1580,8 +1968,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 9:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 116)
@@ -1590,8 +1978,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 7:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 114)
@@ -1600,8 +1988,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 46:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 101)
@@ -1610,8 +1998,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 45:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 109)
@@ -1620,8 +2008,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 82:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 97)
@@ -1632,8 +2020,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 43:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 118)
@@ -1642,8 +2030,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 100:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 113)
@@ -1656,8 +2044,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 28:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 116)
@@ -1666,11 +2054,21 @@ static private int jjMoveNfa_0(int startState, int curPos)
                         kind = 39;
                   }
                   break;
+               case 78:
+                  if ((0x7fffffe87fffffeL & l) != 0L)
+                  {
+                     if (kind > 64)
+                        kind = 64;
+                     jjCheckNAdd(74);
+                  }
+                  if (curChar == 97)
+                     jjstateSet[jjnewStateCnt++] = 77;
+                  break;
                case 32:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 110)
@@ -1679,18 +2077,28 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 30:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 101)
                      jjstateSet[jjnewStateCnt++] = 29;
                   break;
+               case 77:
+                  if ((0x7fffffe87fffffeL & l) != 0L)
+                  {
+                     if (kind > 64)
+                        kind = 64;
+                     jjCheckNAdd(74);
+                  }
+                  if (curChar == 116)
+                     jjstateSet[jjnewStateCnt++] = 76;
+                  break;
                case 17:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 101)
@@ -1699,18 +2107,33 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 23:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 120)
                      jjstateSet[jjnewStateCnt++] = 22;
                   break;
+               case 81:
+                  if ((0x7fffffe87fffffeL & l) != 0L)
+                  {
+                     if (kind > 64)
+                        kind = 64;
+                     jjCheckNAdd(74);
+                  }
+                  if (curChar == 116)
+                  {
+                     if (kind > 47)
+                        kind = 47;
+                  }
+                  if (curChar == 116)
+                     jjstateSet[jjnewStateCnt++] = 80;
+                  break;
                case 8:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 97)
@@ -1719,8 +2142,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 6:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 116)
@@ -1732,8 +2155,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 99:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 100)
@@ -1745,8 +2168,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 44:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 111)
@@ -1755,8 +2178,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 42:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 101)
@@ -1768,8 +2191,8 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 40:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 112)
@@ -1778,28 +2201,51 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 29:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 114)
                      jjstateSet[jjnewStateCnt++] = 28;
                   break;
+               case 79:
+                  if ((0x7fffffe87fffffeL & l) != 0L)
+                  {
+                     if (kind > 64)
+                        kind = 64;
+                     jjCheckNAdd(74);
+                  }
+                  if (curChar == 110)
+                     jjstateSet[jjnewStateCnt++] = 78;
+                  break;
                case 31:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 115)
                      jjstateSet[jjnewStateCnt++] = 30;
                   break;
+               case 76:
+                  if ((0x7fffffe87fffffeL & l) != 0L)
+                  {
+                     if (kind > 64)
+                        kind = 64;
+                     jjCheckNAdd(74);
+                  }
+                  if (curChar == 101)
+                  {
+                     if (kind > 47)
+                        kind = 47;
+                  }
+                  break;
                case 18:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 114)
@@ -1808,44 +2254,54 @@ static private int jjMoveNfa_0(int startState, int curPos)
                case 24:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   if (curChar == 101)
                      jjstateSet[jjnewStateCnt++] = 23;
                   break;
-               case 16:
+               case 22:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
-                  if (curChar == 118)
+                  if (curChar == 116)
                   {
-                     if (kind > 29)
-                        kind = 29;
+                     if (kind > 34)
+                        kind = 34;
                   }
                   break;
-               case 22:
+               case 80:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
-                  if (curChar == 116)
+                  if (curChar == 101)
+                     jjstateSet[jjnewStateCnt++] = 79;
+                  break;
+               case 16:
+                  if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 34)
-                        kind = 34;
+                     if (kind > 64)
+                        kind = 64;
+                     jjCheckNAdd(74);
+                  }
+                  if (curChar == 118)
+                  {
+                     if (kind > 29)
+                        kind = 29;
                   }
                   break;
                case 1:
                   if ((0x7fffffe07fffffeL & l) != 0L)
                   {
-                     if (kind > 59)
-                        kind = 59;
+                     if (kind > 64)
+                        kind = 64;
                      jjCheckNAdd(74);
                   }
                   else if (curChar == 124)
@@ -1978,51 +2434,27 @@ static private int jjMoveNfa_0(int startState, int curPos)
                      jjCheckNAddStates(8, 10);
                   break;
                case 64:
-                  if (curChar == 124 && kind > 56)
-                     kind = 56;
+                  if (curChar == 124 && kind > 61)
+                     kind = 61;
                   break;
                case 73:
                   if ((0x7fffffe07fffffeL & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 74:
                   if ((0x7fffffe87fffffeL & l) == 0L)
                      break;
-                  if (kind > 59)
-                     kind = 59;
+                  if (kind > 64)
+                     kind = 64;
                   jjCheckNAdd(74);
                   break;
                case 75:
                   if (curChar == 99)
                      jjAddStates(16, 17);
                   break;
-               case 76:
-                  if (curChar == 101 && kind > 47)
-                     kind = 47;
-                  break;
-               case 77:
-                  if (curChar == 116)
-                     jjstateSet[jjnewStateCnt++] = 76;
-                  break;
-               case 78:
-                  if (curChar == 97)
-                     jjstateSet[jjnewStateCnt++] = 77;
-                  break;
-               case 79:
-                  if (curChar == 110)
-                     jjstateSet[jjnewStateCnt++] = 78;
-                  break;
-               case 80:
-                  if (curChar == 101)
-                     jjstateSet[jjnewStateCnt++] = 79;
-                  break;
-               case 81:
-                  if (curChar == 116)
-                     jjstateSet[jjnewStateCnt++] = 80;
-                  break;
                case 83:
                   if (curChar == 116 && kind > 47)
                      kind = 47;
@@ -2140,11 +2572,11 @@ static private int jjMoveNfa_0(int startState, int curPos)
       catch(java.io.IOException e) { return curPos; }
    }
 }
-static private int jjMoveStringLiteralDfa0_1()
+private int jjMoveStringLiteralDfa0_1()
 {
    return jjMoveNfa_1(0, 0);
 }
-static private int jjMoveNfa_1(int startState, int curPos)
+private int jjMoveNfa_1(int startState, int curPos)
 {
    int startsAt = 0;
    jjnewStateCnt = 1;
@@ -2226,9 +2658,11 @@ public static final String[] jjstrLiteralImages = {
 "\156\145\170\164\55\143\157\156\164\141\151\156\163", null, "\151\156\163\145\162\164\55\141\146\164\145\162", null, null, 
 "\162\145\155\157\166\145\55\162\141\156\147\145", "\162\145\160\154\141\143\145", 
 "\162\145\160\154\141\143\145\55\146\151\162\163\164", "\162\145\160\154\141\143\145\55\141\154\154", null, 
-"\162\145\167\162\151\164\145", "\164\157\55\154\157\167\145\162", "\164\157\55\165\160\160\145\162", 
-"\164\162\151\155", "\155\141\164\143\150", "\163\160\154\151\164", null, null, null, null, null, 
-null, };
+"\143\141\164\145\156\141\164\145\55\167\150\151\154\145", "\162\145\167\162\151\164\145", "\164\157\55\154\157\167\145\162", 
+"\164\157\55\165\160\160\145\162", "\164\162\151\155", "\155\141\164\143\150", "\163\160\154\151\164", 
+"\162\145\160\154\141\143\145\55\141\154\154\55\162\141\156\147\145", "\162\145\167\162\151\164\145\55\162\141\156\147\145", 
+"\162\145\155\157\166\145\55\155\141\164\143\150\151\156\147", "\153\145\145\160\55\155\141\164\143\150\151\156\147", null, null, null, null, 
+null, null, };
 
 /** Lexer state names. */
 public static final String[] lexStateNames = {
@@ -2240,22 +2674,22 @@ public static final String[] lexStateNames = {
 public static final int[] jjnewLexState = {
    -1, -1, -1, -1, -1, 1, 0, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 
    -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 
-   -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 
+   -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 
 };
 static final long[] jjtoToken = {
-   0xfffffffffffff01L, 
+   0xffffffffffffff01L, 0x1L, 
 };
 static final long[] jjtoSkip = {
-   0xfeL, 
+   0xfeL, 0x0L, 
 };
-static protected SimpleCharStream input_stream;
-static private final int[] jjrounds = new int[109];
-static private final int[] jjstateSet = new int[218];
-static protected char curChar;
+protected SimpleCharStream input_stream;
+private final int[] jjrounds = new int[109];
+private final int[] jjstateSet = new int[218];
+protected char curChar;
 /** Constructor. */
 public FrodoTokenManager(SimpleCharStream stream){
-   if (input_stream != null)
-      throw new TokenMgrError("ERROR: Second call to constructor of static lexer. You must use ReInit() to initialize the static variables.", TokenMgrError.STATIC_LEXER_ERROR);
+   if (SimpleCharStream.staticFlag)
+      throw new Error("ERROR: Cannot use a static CharStream class with a non-static lexical analyzer.");
    input_stream = stream;
 }
 
@@ -2266,14 +2700,14 @@ public FrodoTokenManager(SimpleCharStream stream, int lexState){
 }
 
 /** Reinitialise parser. */
-static public void ReInit(SimpleCharStream stream)
+public void ReInit(SimpleCharStream stream)
 {
    jjmatchedPos = jjnewStateCnt = 0;
    curLexState = defaultLexState;
    input_stream = stream;
    ReInitRounds();
 }
-static private void ReInitRounds()
+private void ReInitRounds()
 {
    int i;
    jjround = 0x80000001;
@@ -2282,14 +2716,14 @@ static private void ReInitRounds()
 }
 
 /** Reinitialise parser. */
-static public void ReInit(SimpleCharStream stream, int lexState)
+public void ReInit(SimpleCharStream stream, int lexState)
 {
    ReInit(stream);
    SwitchTo(lexState);
 }
 
 /** Switch to specified lex state. */
-static public void SwitchTo(int lexState)
+public void SwitchTo(int lexState)
 {
    if (lexState >= 2 || lexState < 0)
       throw new TokenMgrError("Error: Ignoring invalid lexical state : " + lexState + ". State unchanged.", TokenMgrError.INVALID_LEXICAL_STATE);
@@ -2297,7 +2731,7 @@ static public void SwitchTo(int lexState)
       curLexState = lexState;
 }
 
-static protected Token jjFillToken()
+protected Token jjFillToken()
 {
    final Token t;
    final String curTokenImage;
@@ -2321,15 +2755,15 @@ static protected Token jjFillToken()
    return t;
 }
 
-static int curLexState = 0;
-static int defaultLexState = 0;
-static int jjnewStateCnt;
-static int jjround;
-static int jjmatchedPos;
-static int jjmatchedKind;
+int curLexState = 0;
+int defaultLexState = 0;
+int jjnewStateCnt;
+int jjround;
+int jjmatchedPos;
+int jjmatchedKind;
 
 /** Get the next Token. */
-public static Token getNextToken() 
+public Token getNextToken() 
 {
   Token matchedToken;
   int curPos = 0;
@@ -2411,7 +2845,7 @@ public static Token getNextToken()
   }
 }
 
-static private void jjCheckNAdd(int state)
+private void jjCheckNAdd(int state)
 {
    if (jjrounds[state] != jjround)
    {
@@ -2419,19 +2853,19 @@ static private void jjCheckNAdd(int state)
       jjrounds[state] = jjround;
    }
 }
-static private void jjAddStates(int start, int end)
+private void jjAddStates(int start, int end)
 {
    do {
       jjstateSet[jjnewStateCnt++] = jjnextStates[start];
    } while (start++ != end);
 }
-static private void jjCheckNAddTwoStates(int state1, int state2)
+private void jjCheckNAddTwoStates(int state1, int state2)
 {
    jjCheckNAdd(state1);
    jjCheckNAdd(state2);
 }
 
-static private void jjCheckNAddStates(int start, int end)
+private void jjCheckNAddStates(int start, int end)
 {
    do {
       jjCheckNAdd(jjnextStates[start]);
@@ -0,0 +1,110 @@
+
+package com.bpreece.lotr;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+
+/**
+ * Rewrites a file in place without ever leaving it partially written.
+ *
+ * The new contents are written to a temporary file in the same directory as
+ * the original.  When the new contents are complete, the temporary file is
+ * forced to the storage device and atomically renamed over the original, so
+ * that a reader sees either the complete old file or the complete new file.
+ * If the rewrite is abandoned, the temporary file is deleted and the original
+ * is left untouched.
+ *
+ * @author ben
+ */
+public class InPlaceFile
+{
+    private final Path path;
+    private Path tempPath;
+    private FileChannel channel;
+
+    /**
+     * Construct a new instance of <code>InPlaceFile</code> to rewrite the file
+     * at the given path.  Nothing is created until <code>open()</code> is
+     * called.
+     *
+     * @param fileName the path of the file to rewrite
+     */
+    public InPlaceFile(String fileName)
+    {
+        this.path = Paths.get(fileName).toAbsolutePath();
+    }
+
+    /**
+     * Create the temporary file and return a stream which writes to it.
+     * The stream should not be closed by the caller;  use
+     * <code>commit()</code> or <code>discard()</code> instead.
+     *
+     * @return a stream which writes the new contents of the file
+     * @throws IOException if the temporary file cannot be created
+     */
+    public OutputStream open()
+            throws IOException
+    {
+        tempPath = Files.createTempFile(path.getParent(),
+                                        "." + path.getFileName(), ".tmp");
+        tempPath.toFile().deleteOnExit();
+        PosixFileAttributeView posix = Files.getFileAttributeView(
+                path, PosixFileAttributeView.class);
+        if (posix != null) {
+            Files.setPosixFilePermissions(
+                    tempPath, posix.readAttributes().permissions());
+        }
+        channel = FileChannel.open(tempPath, StandardOpenOption.WRITE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+        return Channels.newOutputStream(channel);
+    }
+
+    /**
+     * Force the new contents to the storage device, and atomically replace
+     * the original file with them.
+     *
+     * @throws IOException if the new contents cannot be saved, in which case
+     *         the original file is left untouched.
+     */
+    public void commit()
+            throws IOException
+    {
+        try {
+            channel.force(true);
+            channel.close();
+            Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE);
+            tempPath = null;
+        } catch (IOException ex) {
+            discard();
+            throw ex;
+        }
+    }
+
+    /**
+     * Abandon the new contents, deleting the temporary file if it was
+     * created.  The original file is left untouched.  This method does
+     * nothing if the new contents were already committed.
+     */
+    public void discard()
+    {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+            if (tempPath != null) {
+                Files.deleteIfExists(tempPath);
+            }
+        } catch (IOException ex) {
+            // nothing more can be done with the temporary file
+        }
+    }
+
+}
@@ -3,7 +3,9 @@ package com.bpreece.lotr;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,7 +31,7 @@ public class LOTR
      * @return <code>true</code> if the current line matched the given pattern,
      * and <code>false</code> otherwise.
      */
-    public static Object[] getCaptureGroups(Pattern pattern, String line)
+    public static Object[] getCaptureGroups(Pattern pattern, CharSequence line)
     {
         Matcher matcher = pattern.matcher(line);
         if (matcher.matches()) {
@@ -44,7 +46,8 @@ public class LOTR
         }
     }
 
-    private ArrayList<String> lines;
+    private final LineStore lines;
+    private ChangeTracker changes;
     /*
      * The following constraints must always hold:
      *
@@ -57,11 +60,32 @@ public class LOTR
     private int lineIndex;
     private int rangeIndex;
     private Object[] groups = new String[0];
+    private SearchCache searchCache = new SearchCache();
+    private Metrics metrics;
+    private DiagnosticSink diagnostics;
+    private SearchIndex searchIndex;
+    private int parallelism = 1;
+    /*
+     * The pool which the bulk directives share large ranges between, made
+     * when it is first needed unless it was given by setExecutor(), and only
+     * shut down by close() if it was made here.
+     */
+    private ExecutorService executor;
+    private boolean ownExecutor;
+    /*
+     * Reused by split() and the replace directives, so that working on one
+     * line after another does not allocate a new matcher each time, and a
+     * split allocates only the fields themselves.
+     */
+    private Matcher matcher;
+    private Object[] splitGroups;
+    private final ArrayList<String> splitFields = new ArrayList<String>();
 
     /**
      * Construct a new instance of <code>LOTR</code>.to process the given
      * input text.  The instance makes a copy of the input list, so that
      * there is no conflict between this instance and the calling objects.
+     * <code>adopt()</code> and <code>copyOnWrite()</code> avoid the copy.
      *
      * The current line is set to the first line; that is, the line index is
      * set to index zero.The range is set to the entire list of input lines;
@@ -74,11 +98,84 @@ public class LOTR
      */
     public LOTR(List<String> lines)
     {
-        this.lines = new ArrayList<String>(lines);
+        this(new ArrayLineStore(lines));
+    }
+
+    /**
+     * Construct a new instance of <code>LOTR</code> to process the text held
+     * in the given line store.  The instance takes over the store, which
+     * should not be changed by anything else afterwards.
+     *
+     * The current line and the range are set as for
+     * <code>LOTR(List)</code>.
+     *
+     * @param lines the store holding the input text to be processed
+     */
+    public LOTR(LineStore lines)
+    {
+        this.lines = lines;
+        this.changes = new ChangeTracker(this.lines.size());
         lineIndex = 0;
         rangeIndex = this.lines.size();
     }
 
+    /**
+     * Return a new instance of <code>LOTR</code> which processes the given
+     * list in place, instead of copying it.  The instance takes over the
+     * list:  every change to the object text is made to the list itself, and
+     * nothing else should change the list while the instance is in use.
+     *
+     * @param lines the input text, which must support random access
+     * @return a new instance working on the list
+     * @throws IllegalArgumentException if the list does not support random
+     *         access
+     * @see ListLineStore
+     */
+    public static LOTR adopt(List<String> lines)
+    {
+        return new LOTR(new ListLineStore(lines));
+    }
+
+    /**
+     * Return a new instance of <code>LOTR</code> which reads the given list,
+     * and only copies it when the object text is first changed.  The list
+     * itself is never changed, and a script which only reads the text takes
+     * no memory for a copy.  Nothing should change the list while the
+     * instance is in use.
+     *
+     * @param lines the input text, which must support random access
+     * @return a new instance reading the list
+     * @throws IllegalArgumentException if the list does not support random
+     *         access
+     * @see CopyOnWriteLineStore
+     */
+    public static LOTR copyOnWrite(List<String> lines)
+    {
+        return new LOTR(new CopyOnWriteLineStore(lines));
+    }
+
+    /**
+     * Start again on the text now held in the line store, as if this
+     * instance had just been constructed with it:  the current line is the
+     * first line, the range is the whole text, no line counts as changed,
+     * and there are no saved groups.  The metrics registry, diagnostic sink,
+     * search index setting and parallelism are kept.
+     *
+     * This lets a workspace be reused for one text after another by
+     * reloading its store, instead of building a new instance each time.
+     */
+    void restart()
+    {
+        changes = new ChangeTracker(lines.size());
+        lineIndex = 0;
+        rangeIndex = lines.size();
+        groups = new String[0];
+        searchCache = new SearchCache();
+        if (searchIndex != null) {
+            searchIndex = new SearchIndex();
+        }
+    }
+
     public int compareTo(String line)
     {
         return lines.get(lineIndex).compareTo(line);
@@ -131,7 +228,7 @@ public class LOTR
 
     public int length()
     {
-        return lines.get(lineIndex).length();
+        return lines.length(lineIndex);
     }
 
     /**
@@ -143,7 +240,192 @@ public class LOTR
      */
     public List<String> getLines()
     {
-        return new ArrayList<String>(lines);
+        return lines.toList();
+    }
+
+    /**
+     * Turn the search index on or off.  When the index is on, each search
+     * predicate is indexed the first time it is used, and later searches with
+     * the same predicate find their line from the index instead of scanning
+     * the object text.  This is worthwhile when a script searches for the
+     * same strings or regular expressions many times.
+     *
+     * @param enabled <code>true</code> to use the search index
+     */
+    public void setSearchIndex(boolean enabled)
+    {
+        searchIndex = enabled ? new SearchIndex() : null;
+    }
+
+    /**
+     * Set the largest number of threads which the bulk directives, such as
+     * <code>replace-all-range</code>, may use to work on a range of lines.
+     * Only ranges of many thousands of lines are shared between threads;
+     * smaller ones are always worked on by the calling thread.  The default
+     * is one thread.
+     *
+     * @param threads the largest number of threads to use
+     * @throws IllegalArgumentException if <code>threads</code> is less than
+     *         one
+     */
+    public void setParallelism(int threads)
+    {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads=" + threads);
+        }
+        if (threads != parallelism && ownExecutor) {
+            close();
+        }
+        this.parallelism = threads;
+    }
+
+    /**
+     * Share the given pool of threads between the bulk directives of this
+     * instance, instead of starting a pool of its own.  The pool should have
+     * as many threads as the parallelism of this instance.  It is never shut
+     * down by this instance.
+     *
+     * @param executor the pool, or <code>null</code> for this instance to
+     *        start its own when it needs one
+     */
+    void setExecutor(ExecutorService executor)
+    {
+        if (ownExecutor) {
+            close();
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Stop the threads which the bulk directives started, if any.  An
+     * instance which may have used more than one thread should be closed
+     * when it is no longer needed;  it can still be used afterwards, and
+     * starts new threads if it needs them again.
+     */
+    public void close()
+    {
+        if (ownExecutor) {
+            executor.shutdown();
+            ownExecutor = false;
+        }
+        executor = null;
+    }
+
+    /**
+     * Return the largest number of threads which the bulk directives may use.
+     *
+     * @return the number of threads
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Attach a metrics registry, which counts the lines this instance inserts
+     * and removes, the directives executed on it, and the time taken by its
+     * regular expression matches.  With no registry attached, which is the
+     * default, nothing is measured.
+     *
+     * @param metrics the registry, or <code>null</code> to measure nothing
+     */
+    public void setMetrics(Metrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Return the metrics registry attached to this instance.
+     *
+     * @return the registry, or <code>null</code> if there is none
+     */
+    public Metrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Attach a diagnostic sink, through which the messages of the
+     * <code>log</code>, <code>fail</code> and <code>abort</code> directives
+     * executed on this instance are written in the background.  With no sink
+     * attached, which is the default, the messages are logged as they are
+     * made.
+     *
+     * @param diagnostics the sink, or <code>null</code> to log synchronously
+     */
+    public void setDiagnostics(DiagnosticSink diagnostics)
+    {
+        this.diagnostics = diagnostics;
+    }
+
+    /**
+     * Return the diagnostic sink attached to this instance.
+     *
+     * @return the sink, or <code>null</code> if there is none
+     */
+    public DiagnosticSink getDiagnostics()
+    {
+        return diagnostics;
+    }
+
+    /**
+     * Return whether the object text has changed since it was passed to the
+     * constructor;  that is, whether any line has been inserted, removed, or
+     * replaced with different text.
+     *
+     * @return <code>true</code> if the object text has changed, and
+     *         <code>false</code> otherwise.
+     */
+    public boolean isModified()
+    {
+        return changes.isModified();
+    }
+
+    /**
+     * Return whether the line at the given index has been inserted or
+     * replaced with different text since the object text was passed to the
+     * constructor.
+     *
+     * @param index the index of the line
+     * @return <code>true</code> if the line is new or modified, and
+     *         <code>false</code> if it is unchanged.
+     */
+    public boolean isLineModified(int index)
+    {
+        return changes.isChanged(index);
+    }
+
+    /**
+     * Return the index which the line at the given index had in the object
+     * text when it was passed to the constructor.  If the line has been
+     * modified, this is the index of the line it replaced.
+     *
+     * @param index the index of the line
+     * @return the original index of the line, or -1 if the line was inserted
+     */
+    public int getOriginalIndex(int index)
+    {
+        return changes.getOriginalIndex(index);
+    }
+
+    /*
+     * Return the runs of lines which differ from the object text as it was
+     * passed to the constructor, in order.
+     */
+    List<ChangeTracker.Change> getChanges()
+    {
+        return changes.getChanges();
+    }
+
+    /**
+     * Return the number of lines in the object text when it was passed to
+     * the constructor.
+     *
+     * @return the number of lines in the original object text
+     */
+    public int getOriginalLineCount()
+    {
+        return changes.getOriginalCount();
     }
 
     /**
@@ -317,7 +599,7 @@ public class LOTR
             throws IndexOutOfBoundsException
     {
         String line = lines.get(n);
-        lines.remove(n);
+        remove(n);
         if (n < lineIndex) {
             lineIndex--;
         }
@@ -516,13 +798,32 @@ public class LOTR
      */
     public boolean setRangeMatches(Pattern regex)
     {
-        int n = lineIndex;
-        while (++n < lines.size()) {
-            if (match(regex, n)) {
-                return setRangeIndex(n);
-            }
+        return setRange(LinePredicate.matches(regex));
+    }
+
+    /**
+     * Sets the range to include all lines from the current line, inclusive, to
+     * the next line after the current line which passes the given predicate,
+     * exclusive.
+     *
+     * If no line after the current line passes the predicate, then the
+     * method returns false, and the range is not changed.  If the predicate
+     * is a regular expression test, the capture groups of the line found are
+     * saved.
+     *
+     * @param predicate the test for the line at the end of the range
+     * @return <code>true</code> if the range is successfully changed, and
+     *         <code>false</code> otherwise.
+     */
+    public boolean setRange(LinePredicate predicate)
+    {
+        int index = findNext("range", predicate, lineIndex + 1, lines.size());
+        if (index < 0) {
+            return false;
+        } else {
+            rangeIndex = index;
+            return true;
         }
-        return false;
     }
 
     /**
@@ -541,14 +842,7 @@ public class LOTR
      */
     public boolean setRangeStartsWith(String string)
     {
-        int index = lineIndex;
-        while (++index < lines.size()) {
-            if (getLine(index).startsWith(string)) {
-                rangeIndex = index;
-                return true;
-            }
-        }
-        return false;
+        return setRange(LinePredicate.startsWith(string));
     }
 
     /**
@@ -567,14 +861,7 @@ public class LOTR
      */
     public boolean setRangeEndsWith(String string)
     {
-        int index = lineIndex;
-        while (++index < lines.size()) {
-            if (getLine(index).endsWith(string)) {
-                rangeIndex = index;
-                return true;
-            }
-        }
-        return false;
+        return setRange(LinePredicate.endsWith(string));
     }
 
     /**
@@ -593,14 +880,7 @@ public class LOTR
      */
     public boolean setRangeContains(String string)
     {
-        int index = lineIndex;
-        while (++index < lines.size()) {
-            if (getLine(index).contains(string)) {
-                rangeIndex = index;
-                return true;
-            }
-        }
-        return false;
+        return setRange(LinePredicate.contains(string));
     }
 
     /**
@@ -617,14 +897,7 @@ public class LOTR
      */
     public boolean setRangeIsEmpty()
     {
-        int index = lineIndex;
-        while (++index < lines.size()) {
-            if (getLine(index).isEmpty()) {
-                rangeIndex = index;
-                return true;
-            }
-        }
-        return false;
+        return setRange(LinePredicate.isEmpty());
     }
 
     /**
@@ -644,14 +917,7 @@ public class LOTR
      */
     public boolean setRangeEquals(String string)
     {
-        int index = lineIndex;
-        while (++index < lines.size()) {
-            if (getLine(index).equals(string)) {
-                rangeIndex = index;
-                return true;
-            }
-        }
-        return false;
+        return setRange(LinePredicate.equalTo(string));
     }
 
     /**
@@ -755,13 +1021,33 @@ public class LOTR
      */
     public boolean prevLineMatches(Pattern regex)
     {
-        int n = this.lineIndex;
-        while (--n >= 0) {
-            if (match(regex, n)) {
-                return setLineIndex(n);
-            }
+        return prevLine(LinePredicate.matches(regex));
+    }
+
+    /**
+     * Set the current line to be the closest line preceding it that passes
+     * the given predicate.
+     *
+     * If there is no line preceding the current line which passes the
+     * predicate, then this method returns false and the current line is not
+     * changed.  If the predicate is a regular expression test, the capture
+     * groups of the line found are saved.
+     *
+     * This method does not affect the end of the range.
+     *
+     * @param predicate the test for the new current line
+     * @return <code>true</code> if the current line is successfully changed,
+     *         and <code>false</code> otherwise.
+     */
+    public boolean prevLine(LinePredicate predicate)
+    {
+        int index = findPrev("prev", predicate, lineIndex);
+        if (index < 0) {
+            return false;
+        } else {
+            lineIndex = index;
+            return true;
         }
-        return false;
     }
 
     /**
@@ -782,14 +1068,7 @@ public class LOTR
      */
     public boolean prevLineStartsWith(String string)
     {
-        int n = this.lineIndex;
-        while (--n >= 0) {
-            if (getLine(n).startsWith(string)) {
-                this.lineIndex = n;
-                return true;
-            }
-        }
-        return false;
+        return prevLine(LinePredicate.startsWith(string));
     }
 
     /**
@@ -810,14 +1089,7 @@ public class LOTR
      */
     public boolean prevLineEndsWith(String string)
     {
-        int n = this.lineIndex;
-        while (--n >= 0) {
-            if (getLine(n).endsWith(string)) {
-                this.lineIndex = n;
-                return true;
-            }
-        }
-        return false;
+        return prevLine(LinePredicate.endsWith(string));
     }
 
     /**
@@ -838,14 +1110,7 @@ public class LOTR
      */
     public boolean prevLineContains(String string)
     {
-        int n = this.lineIndex;
-        while (--n >= 0) {
-            if (getLine(n).contains(string)) {
-                this.lineIndex = n;
-                return true;
-            }
-        }
-        return false;
+        return prevLine(LinePredicate.contains(string));
     }
 
     /**
@@ -864,14 +1129,7 @@ public class LOTR
      */
     public boolean prevLineIsEmpty()
     {
-        int n = this.lineIndex;
-        while (--n >= 0) {
-            if (getLine(n).isEmpty()) {
-                this.lineIndex = n;
-                return true;
-            }
-        }
-        return false;
+        return prevLine(LinePredicate.isEmpty());
     }
 
     /**
@@ -893,14 +1151,7 @@ public class LOTR
      */
     public boolean prevLineEquals(String string)
     {
-        int n = this.lineIndex;
-        while (--n >= 0) {
-            if (getLine(n).equals(string)) {
-                this.lineIndex = n;
-                return true;
-            }
-        }
-        return false;
+        return prevLine(LinePredicate.equalTo(string));
     }
 
     /**
@@ -941,7 +1192,7 @@ public class LOTR
      */
     public boolean nextLine(int integer)
     {
-        if (lineIndex + integer < rangeIndex) {
+        if (lineIndex + integer >= 0 && lineIndex + integer < rangeIndex) {
             lineIndex += integer;
             return true;
         }
@@ -989,13 +1240,33 @@ public class LOTR
      */
     public boolean nextLineMatches(Pattern regex)
     {
-        int n = this.lineIndex;
-        while (++n < rangeIndex) {
-            if (match(regex, n)) {
-                return setLineIndex(n);
-            }
+        return nextLine(LinePredicate.matches(regex));
+    }
+
+    /**
+     * Set the current line to be the closest line following it, but before
+     * the end of the current range, that passes the given predicate.
+     *
+     * If there is no line following it, but before the end of the range,
+     * which passes the predicate, then this method returns false and the
+     * current line is not changed.  If the predicate is a regular expression
+     * test, the capture groups of the line found are saved.
+     *
+     * This method does not affect the end of the range.
+     *
+     * @param predicate the test for the new current line
+     * @return <code>true</code> if the current line is successfully changed,
+     *         and <code>false</code> otherwise.
+     */
+    public boolean nextLine(LinePredicate predicate)
+    {
+        int index = findNext("next", predicate, lineIndex + 1, rangeIndex);
+        if (index < 0) {
+            return false;
+        } else {
+            lineIndex = index;
+            return true;
         }
-        return false;
     }
 
     /**
@@ -1017,14 +1288,7 @@ public class LOTR
      */
     public boolean nextLineStartsWith(String string)
     {
-        int n = this.lineIndex;
-        while (++n < rangeIndex) {
-            if (getLine(n).startsWith(string)) {
-                this.lineIndex = n;
-                return true;
-            }
-        }
-        return false;
+        return nextLine(LinePredicate.startsWith(string));
     }
 
     /**
@@ -1046,14 +1310,7 @@ public class LOTR
      */
     public boolean nextLineEndsWith(String string)
     {
-        int n = this.lineIndex;
-        while (++n < rangeIndex) {
-            if (getLine(n).endsWith(string)) {
-                this.lineIndex = n;
-                return true;
-            }
-        }
-        return false;
+        return nextLine(LinePredicate.endsWith(string));
     }
 
     /**
@@ -1075,14 +1332,7 @@ public class LOTR
      */
     public boolean nextLineContains(String string)
     {
-        int n = this.lineIndex;
-        while (++n < rangeIndex) {
-            if (getLine(n).contains(string)) {
-                this.lineIndex = n;
-                return true;
-            }
-        }
-        return false;
+        return nextLine(LinePredicate.contains(string));
     }
 
     /**
@@ -1102,14 +1352,7 @@ public class LOTR
      */
     public boolean nextLineIsEmpty()
     {
-        int n = this.lineIndex;
-        while (++n < rangeIndex) {
-            if (getLine(n).isEmpty()) {
-                this.lineIndex = n;
-                return true;
-            }
-        }
-        return false;
+        return nextLine(LinePredicate.isEmpty());
     }
 
     /**
@@ -1132,14 +1375,7 @@ public class LOTR
      */
     public boolean nextLineEquals(String string)
     {
-        int n = this.lineIndex;
-        while (++n < rangeIndex) {
-            if (getLine(n).equals(string)) {
-                this.lineIndex = n;
-                return true;
-            }
-        }
-        return false;
+        return nextLine(LinePredicate.equalTo(string));
     }
 
     /**
@@ -1155,7 +1391,7 @@ public class LOTR
      */
     public boolean insertLine(String string)
     {
-        lines.add(lineIndex, string);
+        insert(lineIndex, string);
         lineIndex++;
         rangeIndex++;
         return true;
@@ -1274,7 +1510,7 @@ public class LOTR
         if (lineIndex >= rangeIndex) {
             return false;
         } else {
-            lines.add(++lineIndex, string);
+            insert(++lineIndex, string);
             rangeIndex++;
             return true;
         }
@@ -1394,13 +1630,8 @@ public class LOTR
      */
     public boolean appendLine(String string)
     {
-        if (rangeIndex == lines.size()) {
-            lines.add(string);
-            rangeIndex = lines.size();
-        } else {
-            lines.add(rangeIndex, string);
-            rangeIndex++;
-        }
+        insert(rangeIndex, string);
+        rangeIndex++;
         return true;
     }
 
@@ -1512,7 +1743,7 @@ public class LOTR
         if (lineIndex == rangeIndex) {
             return false;
         } else {
-            lines.remove(lineIndex);
+            remove(lineIndex);
             rangeIndex--;
             return true;
         }
@@ -1550,10 +1781,10 @@ public class LOTR
      */
     public boolean replaceLine(String string)
     {
-        if (lines.isEmpty()) {
+        if (lineIndex >= lines.size()) {
             return false;
         } else {
-            lines.set(lineIndex, string);
+            update(lineIndex, string);
             return true;
         }
     }
@@ -1608,7 +1839,8 @@ public class LOTR
      */
     public boolean contains(String string)
     {
-        return lines.get(lineIndex).contains(string);
+        return lineIndex < rangeIndex
+            && LinePredicate.indexOf(lines.getChars(lineIndex), string) >= 0;
     }
 
     /**
@@ -1623,11 +1855,8 @@ public class LOTR
      */
     public boolean startsWith(String string)
     {
-        try {
-            return getLine().startsWith(string);
-        } catch (IndexOutOfBoundsException ex) {
-            return false;
-        }
+        return lineIndex < rangeIndex
+            && LinePredicate.regionMatches(lines.getChars(lineIndex), 0, string);
     }
 
     /**
@@ -1642,11 +1871,12 @@ public class LOTR
      */
     public boolean endsWith(String string)
     {
-        try {
-            return getLine().endsWith(string);
-        } catch (IndexOutOfBoundsException ex) {
+        if (lineIndex >= rangeIndex) {
             return false;
         }
+        CharSequence line = lines.getChars(lineIndex);
+        return LinePredicate.regionMatches(
+                line, line.length() - string.length(), string);
     }
 
     /**
@@ -1659,11 +1889,7 @@ public class LOTR
      */
     public boolean isEmpty()
     {
-        try {
-            return getLine().isEmpty();
-        } catch (IndexOutOfBoundsException ex) {
-            return false;
-        }
+        return lineIndex < rangeIndex && lines.length(lineIndex) == 0;
     }
 
     /**
@@ -1678,11 +1904,12 @@ public class LOTR
      */
     public boolean equals(String string)
     {
-        try {
-            return getLine().equals(string);
-        } catch (IndexOutOfBoundsException ex) {
+        if (lineIndex >= rangeIndex) {
             return false;
         }
+        CharSequence line = lines.getChars(lineIndex);
+        return line.length() == string.length()
+            && LinePredicate.regionMatches(line, 0, string);
     }
 
     /**
@@ -1729,11 +1956,101 @@ public class LOTR
      */
     public boolean replace(String regex, String string)
     {
-        if (lineIndex < rangeIndex) {
-            return replaceLine(getLine().replaceAll(regex, string));
-        } else {
+        Pattern pattern = Pattern.compile(regex);
+        return replace(pattern, Replacement.parse(string, pattern));
+    }
+
+    /**
+     * Directive: replace-all regex string
+     *
+     * Replaces all substrings which match the pattern with the parsed
+     * replacement in the current line.  A line with no match is left as it
+     * is, without being copied.  This directive fails if the current range
+     * is empty.
+     *
+     * @param pattern the pattern to replace
+     * @param replacement the replacement, parsed for the pattern
+     * @return Succeeds if there is a current line, and fails otherwise.
+     */
+    public boolean replace(Pattern pattern, Replacement replacement)
+    {
+        if (lineIndex >= rangeIndex) {
             return false;
         }
+        replaceMatches(lineIndex, pattern, replacement, true);
+        return true;
+    }
+
+    /**
+     * Directive: replace-all regex string
+     *
+     * Replaces every occurrence of any of the given strings in the current
+     * line with the replacement, as a replace-all would with a regex which
+     * is an alternation of the strings, but without the regex engine:  each
+     * string is found with <code>String.indexOf()</code>, and where several
+     * occur at the same place, the first in the array is replaced.  A line
+     * with no occurrence is left as it is, without being copied.  This
+     * directive fails if the current range is empty.
+     *
+     * @param targets the strings to replace, none of them empty
+     * @param replacement the string which replaces them, taken literally
+     * @return Succeeds if there is a current line, and fails otherwise.
+     */
+    public boolean replaceLiterals(String[] targets, String replacement)
+    {
+        if (lineIndex >= rangeIndex) {
+            return false;
+        }
+        if (lines.length(lineIndex) >= Rope.THRESHOLD) {
+            StringBuilder regex = new StringBuilder();
+            for (String target : targets) {
+                if (regex.length() > 0) {
+                    regex.append('|');
+                }
+                regex.append(Pattern.quote(target));
+            }
+            replaceMatches(lineIndex, Pattern.compile(regex.toString()),
+                           Replacement.literal(replacement), true);
+            return true;
+        }
+        String line = lines.get(lineIndex);
+        if (targets.length == 1) {
+            update(lineIndex, line.replace(targets[0], replacement));
+            return true;
+        }
+        /* next[i] is where targets[i] next occurs, or -1 if it does not */
+        int[] next = new int[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            next[i] = line.indexOf(targets[i]);
+        }
+        StringBuilder buffer = null;
+        int last = 0;
+        while (true) {
+            int found = -1;
+            for (int i = 0; i < targets.length; i++) {
+                if (next[i] >= 0 && (found < 0 || next[i] < next[found])) {
+                    found = i;
+                }
+            }
+            if (found < 0) {
+                break;
+            }
+            if (buffer == null) {
+                buffer = new StringBuilder(line.length() + 16);
+            }
+            buffer.append(line, last, next[found]).append(replacement);
+            last = next[found] + targets[found].length();
+            for (int i = 0; i < targets.length; i++) {
+                if (next[i] >= 0 && next[i] < last) {
+                    next[i] = line.indexOf(targets[i], last);
+                }
+            }
+        }
+        if (buffer != null) {
+            buffer.append(line, last, line.length());
+            update(lineIndex, buffer.toString());
+        }
+        return true;
     }
 
     /**
@@ -1749,12 +2066,142 @@ public class LOTR
      *         otherwise.
      */
     public boolean replaceFirst(String regex, String string)
+    {
+        Pattern pattern = Pattern.compile(regex);
+        return replaceFirst(pattern, Replacement.parse(string, pattern));
+    }
+
+    /**
+     * Directive: replace-first regex string
+     *
+     * Replaces the first substring which matches the pattern with the parsed
+     * replacement in the current line.  This directive fails if the current
+     * range is empty, or if the line does not change, either because nothing
+     * in it matches or because the replacement is the same as the match.
+     *
+     * @param pattern the pattern to replace
+     * @param replacement the replacement, parsed for the pattern
+     * @return Succeeds if the current line is changed, and fails otherwise.
+     */
+    public boolean replaceFirst(Pattern pattern, Replacement replacement)
     {
         if (lineIndex >= rangeIndex) {
             return false;
         }
-        String result = getLine().replaceFirst(regex, string);
-        return result.equals(getLine()) ? false : replaceLine(result);
+        return replaceMatches(lineIndex, pattern, replacement, false);
+    }
+
+    /**
+     * Directive: replace-all-range regex string
+     *
+     * Replaces all substrings which match the pattern with the parsed
+     * replacement in every line from the current line to the end of the
+     * range, as <code>while ( replace-all regex string next )</code> would,
+     * but without executing the loop for each line.  Afterwards the current
+     * line is the last line of the range, as after the loop.  This directive
+     * always succeeds.
+     *
+     * @param pattern the pattern to replace
+     * @param replacement the replacement, parsed for the pattern
+     * @return Always succeeds.
+     */
+    public boolean replaceAllInRange(Pattern pattern, Replacement replacement)
+    {
+        String[] results = new String[rangeIndex - lineIndex];
+        scan(new RangeWorker.Replace(pattern, replacement, results));
+        for (int position = 0; position < results.length; position++) {
+            int index = lineIndex + position;
+            if (results[position] != null) {
+                update(index, results[position]);
+            } else if (lines.length(index) >= Rope.THRESHOLD) {
+                replaceMatches(index, pattern, replacement, true);
+            }
+        }
+        if (lineIndex < rangeIndex) {
+            lineIndex = rangeIndex - 1;
+        }
+        return true;
+    }
+
+    /**
+     * Directive: rewrite-range regex format
+     *
+     * Rewrites every line from the current line to the end of the range
+     * which matches the pattern, as <code>rewrite regex format</code> would,
+     * and leaves the other lines as they are.  A line which cannot be
+     * formatted is also left as it is.  The saved capture groups are not
+     * changed.  Afterwards the current line is the last line of the range.
+     *
+     * @param pattern the pattern which the lines to rewrite match
+     * @param format the MessageFormat string for the new lines
+     * @return Succeeds unless the format string is not valid.
+     */
+    public boolean rewriteRange(Pattern pattern, String format)
+    {
+        String[] results = new String[rangeIndex - lineIndex];
+        RangeWorker worker;
+        try {
+            worker = new RangeWorker.Rewrite(pattern, format, results);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        scan(worker);
+        for (int position = 0; position < results.length; position++) {
+            int index = lineIndex + position;
+            if (results[position] != null) {
+                update(index, results[position]);
+            } else if (lines.length(index) >= Rope.THRESHOLD) {
+                Object[] captureGroups =
+                    getCaptureGroups(pattern, lines.getChars(index));
+                if (captureGroups != null) {
+                    try {
+                        update(index, MessageFormat.format(format, captureGroups));
+                    } catch (IllegalArgumentException ex) {
+                        /* leave the line as it is */
+                    }
+                }
+            }
+        }
+        if (lineIndex < rangeIndex) {
+            lineIndex = rangeIndex - 1;
+        }
+        return true;
+    }
+
+    /**
+     * Directive: remove-matching regex
+     *
+     * Removes every line from the current line to the end of the range
+     * which matches the pattern, as a whole, as
+     * <code>while ( ( match regex remove ) ? next )</code> would.
+     * Afterwards the current line is the last line of the range, or the end
+     * of the range if that line was removed, as after the loop.  This
+     * directive always succeeds.
+     *
+     * @param pattern the pattern which the lines to remove match
+     * @return Always succeeds.
+     */
+    public boolean removeMatching(Pattern pattern)
+    {
+        removeMatching(pattern, false);
+        return true;
+    }
+
+    /**
+     * Directive: keep-matching regex
+     *
+     * Removes every line from the current line to the end of the range
+     * which does not match the pattern, as a whole.  Afterwards the current
+     * line is the last line of the range, or the end of the range if that
+     * line was removed.  This directive always succeeds.
+     *
+     * @param pattern the pattern which the lines to keep match
+     * @return Always succeeds.
+     */
+    public boolean keepMatching(Pattern pattern)
+    {
+        removeMatching(pattern, true);
+        return true;
     }
 
     /**
@@ -1773,11 +2220,11 @@ public class LOTR
         if (lineIndex + integer >= rangeIndex) {
             return false;
         }
-        StringBuilder buffer = new StringBuilder(getLine());
-        while (integer-- > 0) {
-            buffer.append(deleteLine(lineIndex+1));
+        if (integer <= 0) {
+            return lineIndex < rangeIndex;
         }
-        return replaceLine(buffer.toString());
+        join((int) integer, "");
+        return true;
     }
 
     /**
@@ -1795,10 +2242,44 @@ public class LOTR
         return catenate(1);
     }
 
+    /**
+     * Directive: catenate-while test [string]
+     *
+     * Concatenate the current line together with the run of lines which
+     * follows it, where each line in the run follows a line which passes the
+     * test.  That is, the current line is joined with the next line if it
+     * passes the test, which is joined with the line after it if it passes
+     * the test, and so on, up to the end of the current range.  If a
+     * separator is given, it is put between each pair of joined lines.
+     *
+     * The whole run is joined in a single pass, so this is much faster for
+     * long runs than repeating "catenate" in a loop.  Capture groups are not
+     * saved by a regular expression test.
+     *
+     * @param predicate the test for the lines to join with the next line
+     * @param separator the string to put between joined lines
+     * @return Succeeds if there is a current line, even if no lines were
+     *         joined to it, and fails otherwise.
+     */
+    public boolean catenateWhile(LinePredicate predicate, String separator)
+    {
+        if (lineIndex >= rangeIndex) {
+            return false;
+        }
+        int end = lineIndex;
+        while (end + 1 < rangeIndex && predicate.test(lines.getChars(end))) {
+            end++;
+        }
+        if (end > lineIndex) {
+            join(end - lineIndex, separator);
+        }
+        return true;
+    }
+
     public boolean slice(int fromIndex)
     {
         if (lineIndex < rangeIndex) {
-            return replaceLine(getLine().substring(fromIndex));
+            return slice(fromIndex, lines.length(lineIndex));
         } else {
             return false;
         }
@@ -1806,45 +2287,152 @@ public class LOTR
 
     public boolean slice(int fromIndex, int toIndex)
     {
-        if (lineIndex < rangeIndex) {
-            return replaceLine(getLine().substring(fromIndex, toIndex));
+        if (lineIndex < rangeIndex && 0 <= fromIndex && fromIndex <= toIndex
+            && toIndex <= lines.length(lineIndex)) {
+            if (lines.slice(lineIndex, fromIndex, toIndex)) {
+                modified(lineIndex, null);
+            }
+            return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Directive: to-lower
+     *
+     * Converts the current line to lower case, by the rules of the default
+     * locale.  A line which is already in lower case is left as it is, and
+     * does not count as changed.
+     *
+     * @return Succeeds if there is a current line, and fails otherwise.
+     */
     public boolean toLowerCase()
     {
         if (lineIndex < rangeIndex) {
-            return replaceLine(getLine().toLowerCase());
+            if (lines.toLowerCase(lineIndex)) {
+                modified(lineIndex, null);
+            }
+            return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Directive: to-upper
+     *
+     * Converts the current line to upper case, by the rules of the default
+     * locale.  A line which is already in upper case is left as it is, and
+     * does not count as changed.
+     *
+     * @return Succeeds if there is a current line, and fails otherwise.
+     */
     public boolean toUpperCase()
     {
         if (lineIndex < rangeIndex) {
-            return replaceLine(getLine().toUpperCase());
+            if (lines.toUpperCase(lineIndex)) {
+                modified(lineIndex, null);
+            }
+            return true;
         } else {
             return false;
         }
     }
 
-    public boolean split(String regex)
+    /**
+     * Directive: split regex
+     *
+     * Splits the current line into fields around the matches of the given
+     * pattern, as <code>String.split()</code> does, and saves them as the
+     * capture groups, to be used later in formats.  As after a match, group
+     * 0 is the whole line, and the fields are groups 1 and up.  The line
+     * itself is not changed.
+     *
+     * The groups array is reused by the next split with the same number of
+     * fields, so a caller which keeps the groups of a split must copy them.
+     *
+     * @param pattern the pattern which matches the separators
+     * @return Succeeds if there is a current line, and fails otherwise.
+     */
+    public boolean split(Pattern pattern)
     {
-        if (lineIndex < rangeIndex) {
-            groups = getLine().split(regex);
-            return true;
-        } else {
+        if (lineIndex >= rangeIndex) {
             return false;
         }
+        CharSequence line = lines.getChars(lineIndex);
+        Matcher matcher = matcher(pattern, line);
+        ArrayList<String> fields = splitFields;
+        int start = 0;
+        boolean found = false;
+        while (matcher.find()) {
+            if (matcher.end() == 0) {
+                /* no leading empty field for a zero-width match at the start */
+                continue;
+            }
+            fields.add(line.subSequence(start, matcher.start()).toString());
+            start = matcher.end();
+            found = true;
+        }
+        String whole = line.toString();
+        int count;
+        if (found) {
+            fields.add(whole.substring(start));
+            count = fields.size();
+            while (count > 0 && fields.get(count - 1).isEmpty()) {
+                count--;
+            }
+        } else {
+            fields.add(whole);
+            count = 1;
+        }
+        Object[] array = splitGroups;
+        if (array == null || array.length != count + 1) {
+            array = new Object[count + 1];
+            splitGroups = array;
+        }
+        array[0] = whole;
+        for (int index = 0; index < count; index++) {
+            array[index + 1] = fields.get(index);
+        }
+        fields.clear();
+        /* don't hold on to the line until the next use */
+        matcher.reset("");
+        groups = array;
+        return true;
     }
 
+    /**
+     * Directive: split regex
+     *
+     * Splits the current line into fields around the matches of the given
+     * regular expression, and saves them as the capture groups.
+     *
+     * @param regex the regular expression which matches the separators
+     * @return Succeeds if there is a current line, and fails otherwise.
+     * @see #split(Pattern)
+     */
+    public boolean split(String regex)
+    {
+        return split(Pattern.compile(regex));
+    }
+
+    /**
+     * Directive: trim
+     *
+     * Removes leading and trailing white space from the current line, as
+     * <code>String.trim()</code> does.  A line with none is left as it is,
+     * and does not count as changed.
+     *
+     * @return Succeeds if there is a current line, and fails otherwise.
+     */
     public boolean trim()
     {
         if (lineIndex < rangeIndex) {
-            return replaceLine(getLine().trim());
+            if (lines.trim(lineIndex)) {
+                modified(lineIndex, null);
+            }
+            return true;
         } else {
             return false;
         }
@@ -1862,11 +2450,10 @@ public class LOTR
      */
     public boolean match(Pattern pattern)
     {
-        try {
-            return setGroups(getCaptureGroups(pattern, getLine()));
-        } catch (Exception ex) {
+        if (lineIndex >= rangeIndex) {
             return false;
         }
+        return matchLine(pattern, lineIndex);
     }
 
     /**
@@ -1898,11 +2485,10 @@ public class LOTR
      */
     public boolean match(Pattern pattern, int index)
     {
-        try {
-            return setGroups(getCaptureGroups(pattern, getLine(index)));
-        } catch (Exception ex) {
+        if (index < 0 || index >= lines.size()) {
             return false;
         }
+        return matchLine(pattern, index);
     }
 
     /**
@@ -1942,12 +2528,13 @@ public class LOTR
     }
 
     /**
-     * Directive: replace regex format
+     * Directive: rewrite regex format
      *
-     * Matches the current line to the given regular expression, formats a new
-     * line using the matching groups from the regex, and replaces the current
-     * line with the new line.  If the current line does not match the
-     * pattern, then this directive fails, and the line is not changed.
+     * The same as <code>replace regex format</code>.  Matches the current
+     * line to the given regular expression, formats a new line using the
+     * matching groups from the regex, and replaces the current line with the
+     * new line.  If the current line does not match the pattern, then this
+     * directive fails, and the line is not changed.
      *
      * If the regular expression matches, the capture groups are saved and
      * can be accessed later by formats.
@@ -1962,4 +2549,272 @@ public class LOTR
         return rewrite(Pattern.compile(regex), format);
     }
 
+    /*
+     * All changes to the object text go through the following methods, or
+     * are reported to modified() and removed() after an edit by the store
+     * itself, so that the change tracking is kept consistent with the line
+     * store.
+     */
+
+    private void insert(int index, String line)
+    {
+        lines.add(index, line);
+        if (metrics != null) {
+            metrics.lineInserted();
+        }
+        changes.inserted(index);
+        searchCache.inserted(index, line);
+        if (searchIndex != null) {
+            searchIndex.inserted(index, line);
+        }
+    }
+
+    /*
+     * Return the text of the current line, without copying it out of the
+     * store if the store can help it.  The text is only valid until the
+     * lines are next changed.
+     */
+    CharSequence getChars()
+            throws IndexOutOfBoundsException
+    {
+        if (lineIndex >= rangeIndex) {
+            throw new IndexOutOfBoundsException("index=" + lineIndex);
+        }
+        return lines.getChars(lineIndex);
+    }
+
+    /*
+     * Match the line at the given index, which must be valid, to the given
+     * pattern, and save the groups if it matches.
+     */
+    private boolean matchLine(Pattern pattern, int index)
+    {
+        if (metrics == null) {
+            return setGroups(getCaptureGroups(pattern, lines.getChars(index)));
+        }
+        long start = System.nanoTime();
+        Object[] captureGroups = getCaptureGroups(pattern, lines.getChars(index));
+        metrics.regexMatched(System.nanoTime() - start);
+        return setGroups(captureGroups);
+    }
+
+    private void update(int index, String line)
+    {
+        String oldLine = lines.get(index);
+        if (line != oldLine && !line.equals(oldLine)) {
+            lines.set(index, line);
+            modified(index, line);
+        }
+    }
+
+    /*
+     * Replace the first, or every, match of the pattern in the line at the
+     * given index, and return whether there was a match.  When only the
+     * first match is replaced, return false as well if the replacement is
+     * the same as the match, since the line would not change.  A line with
+     * no match is not touched.  A long line is rewritten as a rope, without
+     * copying the text which does not change.
+     */
+    private boolean replaceMatches(int index, Pattern pattern,
+                                   Replacement replacement, boolean all)
+    {
+        boolean isLong = lines.length(index) >= Rope.THRESHOLD;
+        CharSequence line = isLong ? lines.getChars(index) : lines.get(index);
+        Matcher matcher = matcher(pattern, line);
+        try {
+            if (!matcher.find()
+                || (!all && replacement.isUnchanged(line, matcher))) {
+                return false;
+            }
+            if (isLong) {
+                CharSequence result =
+                    Rope.replace(line, matcher, replacement, all);
+                if (!Rope.contentEquals(result, line)) {
+                    lines.setChars(index, result);
+                    modified(index, null);
+                }
+                return true;
+            }
+            update(index, replacement.replace(line, matcher, all));
+            return true;
+        } finally {
+            /* don't hold on to the line until the next use */
+            matcher.reset("");
+        }
+    }
+
+    /* the reusable matcher, reset to match the pattern against the text */
+    private Matcher matcher(Pattern pattern, CharSequence text)
+    {
+        if (matcher == null || matcher.pattern() != pattern) {
+            matcher = pattern.matcher(text);
+        } else {
+            matcher.reset(text);
+        }
+        return matcher;
+    }
+
+    private void remove(int index)
+    {
+        lines.remove(index);
+        removed(index);
+    }
+
+    /* the line is fetched from the store only if it is needed */
+    private void modified(int index, String line)
+    {
+        changes.modified(index);
+        if (searchIndex != null || !searchCache.isEmpty()) {
+            if (line == null) {
+                line = lines.get(index);
+            }
+            searchCache.updated(index, line);
+            if (searchIndex != null) {
+                searchIndex.updated(index, line);
+            }
+        }
+    }
+
+    /*
+     * Join the given number of following lines onto the current line, which
+     * must all be in the current range.
+     */
+    private void join(int count, String separator)
+    {
+        boolean changed = lines.join(lineIndex, count, separator);
+        for (int n = count; n > 0; n--) {
+            removed(lineIndex + n);
+        }
+        rangeIndex -= count;
+        if (changed) {
+            modified(lineIndex, null);
+        }
+    }
+
+    /*
+     * Run a bulk directive's worker on the lines from the current line to the
+     * end of the range, starting the pool of threads the first time a range
+     * is large enough to share.
+     */
+    private void scan(RangeWorker worker)
+    {
+        if (executor == null && parallelism > 1
+            && rangeIndex - lineIndex >= RangeWorker.PARALLEL_THRESHOLD) {
+            executor = RangeWorker.newExecutor(parallelism);
+            ownExecutor = true;
+        }
+        RangeWorker.scan(lines, lineIndex, rangeIndex, worker, executor,
+                         parallelism);
+    }
+
+    /*
+     * Remove the lines from the current line to the end of the range which
+     * match the pattern, or which don't if keep is true, all at once, and
+     * move the current line to where the equivalent loop would leave it.
+     */
+    private void removeMatching(Pattern pattern, boolean keep)
+    {
+        boolean[] matched = new boolean[rangeIndex - lineIndex];
+        scan(new RangeWorker.Match(pattern, matched));
+        BitSet indexes = new BitSet();
+        for (int position = 0; position < matched.length; position++) {
+            int index = lineIndex + position;
+            if (lines.length(index) >= Rope.THRESHOLD) {
+                matched[position] =
+                    pattern.matcher(lines.getChars(index)).matches();
+            }
+            if (matched[position] != keep) {
+                indexes.set(index);
+            }
+        }
+        if (!indexes.isEmpty()) {
+            lines.removeAll(indexes);
+            for (int index = indexes.length() - 1; index >= 0;
+                 index = indexes.previousSetBit(index - 1)) {
+                if (metrics != null) {
+                    metrics.lineRemoved();
+                }
+                changes.removed(index);
+                searchCache.removed(index);
+            }
+            /* shifting every posting for each removed line would cost more
+               than indexing the searches again when they are next made */
+            if (searchIndex != null) {
+                searchIndex = new SearchIndex();
+            }
+            rangeIndex -= indexes.cardinality();
+        }
+        /* the loop stops on the last line, unless it removed that line */
+        if (matched.length > 0 && matched[matched.length - 1] == keep) {
+            lineIndex = rangeIndex - 1;
+        } else {
+            lineIndex = rangeIndex;
+        }
+    }
+
+    private void removed(int index)
+    {
+        if (metrics != null) {
+            metrics.lineRemoved();
+        }
+        changes.removed(index);
+        searchCache.removed(index);
+        if (searchIndex != null) {
+            searchIndex.removed(index);
+        }
+    }
+
+    /*
+     * Find the first line in [from, to) which passes the predicate, and save
+     * its capture groups if the predicate is a regular expression test.
+     */
+    private int findNext(String directive, LinePredicate predicate,
+                         int from, int to)
+    {
+        Object event = FlightEvents.beginSearch();
+        int index;
+        int scanned;
+        if (searchIndex != null) {
+            index = searchIndex.findNext(lines, predicate, from, to);
+            scanned = searchIndex.getScanned();
+        } else {
+            index = searchCache.findNext(lines, predicate, from, to);
+            scanned = searchCache.getScanned();
+        }
+        if (index >= 0 && predicate.getPattern() != null) {
+            match(predicate.getPattern(), index);
+        }
+        FlightEvents.endSearch(event, directive, predicate, scanned, index >= 0);
+        return index;
+    }
+
+    /*
+     * Find the last line before the given index which passes the predicate,
+     * and save its capture groups if the predicate is a regular expression
+     * test.
+     */
+    private int findPrev(String directive, LinePredicate predicate, int to)
+    {
+        Object event = FlightEvents.beginSearch();
+        int index = -1;
+        int scanned = 0;
+        if (searchIndex != null) {
+            index = searchIndex.findPrev(lines, predicate, to);
+            scanned = searchIndex.getScanned();
+        } else {
+            for (int n = to - 1; n >= 0; n--) {
+                scanned++;
+                if (predicate.test(lines.getChars(n))) {
+                    index = n;
+                    break;
+                }
+            }
+        }
+        if (index >= 0 && predicate.getPattern() != null) {
+            match(predicate.getPattern(), index);
+        }
+        FlightEvents.endSearch(event, directive, predicate, scanned, index >= 0);
+        return index;
+    }
+
 }
@@ -0,0 +1,308 @@
+
+package com.bpreece.lotr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A compact list of one <code>long</code> value per line, such as the offset
+ * where each line starts in a backing buffer, which is kept up to date as
+ * lines are inserted and removed.
+ *
+ * The values are packed into blocks of at most <code>BLOCK_SIZE</code>
+ * entries.  Each block holds a base value and an <code>int</code> delta from
+ * the base for each entry, so that offsets into very large buffers cost four
+ * bytes per line rather than eight.  A block falls back to full
+ * <code>long</code> values only if some entry is too far from its base.
+ *
+ * A Fenwick tree over the block sizes finds the block holding any index in
+ * O(log n) time, so positional access stays fast however many lines are
+ * inserted or removed.  Inserting or removing a value costs O(BLOCK_SIZE),
+ * plus an occasional rebuild of the tree when a block is split or emptied.
+ *
+ * This class is not thread-safe.
+ *
+ * @author ben
+ */
+public class LineIndex
+{
+    /* the maximum number of entries in a block */
+    private static final int BLOCK_SIZE = 1024;
+
+    private static class Block
+    {
+        private long base;
+        private int[] deltas = new int[16];
+        private long[] values;
+        private int count;
+
+        long get(int index)
+        {
+            return (values != null) ? values[index] : base + deltas[index];
+        }
+
+        void set(int index, long value)
+        {
+            if (values == null && !fits(value)) {
+                widen();
+            }
+            if (values != null) {
+                values[index] = value;
+            } else {
+                deltas[index] = (int) (value - base);
+            }
+        }
+
+        void add(int index, long value)
+        {
+            if (count == 0) {
+                base = value;
+            }
+            if (values == null && !fits(value)) {
+                widen();
+            }
+            if (values != null) {
+                if (count == values.length) {
+                    long[] newValues = new long[count * 2];
+                    System.arraycopy(values, 0, newValues, 0, count);
+                    values = newValues;
+                }
+                System.arraycopy(values, index, values, index + 1, count - index);
+                values[index] = value;
+            } else {
+                if (count == deltas.length) {
+                    int[] newDeltas = new int[count * 2];
+                    System.arraycopy(deltas, 0, newDeltas, 0, count);
+                    deltas = newDeltas;
+                }
+                System.arraycopy(deltas, index, deltas, index + 1, count - index);
+                deltas[index] = (int) (value - base);
+            }
+            count++;
+        }
+
+        void remove(int index)
+        {
+            if (values != null) {
+                System.arraycopy(values, index + 1, values, index, count - index - 1);
+            } else {
+                System.arraycopy(deltas, index + 1, deltas, index, count - index - 1);
+            }
+            count--;
+        }
+
+        /*
+         * Move the upper half of the entries into a new block.  Both halves
+         * are trimmed to fit, since a block which is split is usually never
+         * added to again.
+         */
+        Block split()
+        {
+            Block upper = new Block();
+            int half = count / 2;
+            upper.base = base;
+            upper.count = count - half;
+            if (values != null) {
+                upper.values = Arrays.copyOfRange(values, half, count);
+                values = Arrays.copyOf(values, half);
+            } else {
+                upper.deltas = Arrays.copyOfRange(deltas, half, count);
+                deltas = Arrays.copyOf(deltas, half);
+            }
+            count = half;
+            return upper;
+        }
+
+        private boolean fits(long value)
+        {
+            long delta = value - base;
+            return delta >= Integer.MIN_VALUE && delta <= Integer.MAX_VALUE;
+        }
+
+        private void widen()
+        {
+            values = new long[Math.max(16, deltas.length)];
+            for (int i = 0; i < count; i++) {
+                values[i] = base + deltas[i];
+            }
+            deltas = null;
+        }
+
+    }
+
+    private final ArrayList<Block> blocks = new ArrayList<Block>();
+    /* Fenwick tree of the block sizes;  tree[k] covers blocks (k - lowbit(k), k] */
+    private int[] tree = new int[1];
+    private int size;
+
+    /**
+     * Construct a new, empty instance of <code>LineIndex</code>.
+     */
+    public LineIndex()
+    {
+    }
+
+    /**
+     * Return the number of values in the index.
+     *
+     * @return the number of values in the index
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Return the value at the given index.
+     *
+     * @param index the index of the value
+     * @return the value at the given index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long get(int index)
+    {
+        checkIndex(index, size - 1);
+        long location = locate(index);
+        return blocks.get((int) (location >>> 32)).get((int) location);
+    }
+
+    /**
+     * Replace the value at the given index.
+     *
+     * @param index the index of the value
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void set(int index, long value)
+    {
+        checkIndex(index, size - 1);
+        long location = locate(index);
+        blocks.get((int) (location >>> 32)).set((int) location, value);
+    }
+
+    /**
+     * Insert a value before the value at the given index.  If the index is
+     * the number of values in the index, then the value is added at the end.
+     *
+     * @param index the index of the new value
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void add(int index, long value)
+    {
+        checkIndex(index, size);
+        int blockIndex;
+        int offset;
+        if (blocks.isEmpty()) {
+            blocks.add(new Block());
+            rebuild();
+            blockIndex = 0;
+            offset = 0;
+        } else if (index == size) {
+            blockIndex = blocks.size() - 1;
+            offset = blocks.get(blockIndex).count;
+        } else {
+            long location = locate(index);
+            blockIndex = (int) (location >>> 32);
+            offset = (int) location;
+        }
+        Block block = blocks.get(blockIndex);
+        block.add(offset, value);
+        size++;
+        if (block.count > BLOCK_SIZE) {
+            blocks.add(blockIndex + 1, block.split());
+            rebuild();
+        } else {
+            update(blockIndex, 1);
+        }
+    }
+
+    /**
+     * Add a value after the last value in the index.
+     *
+     * @param value the new value
+     */
+    public void add(long value)
+    {
+        add(size, value);
+    }
+
+    /**
+     * Remove the value at the given index.
+     *
+     * @param index the index of the value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void remove(int index)
+    {
+        checkIndex(index, size - 1);
+        long location = locate(index);
+        int blockIndex = (int) (location >>> 32);
+        Block block = blocks.get(blockIndex);
+        block.remove((int) location);
+        size--;
+        if (block.count == 0) {
+            blocks.remove(blockIndex);
+            rebuild();
+        } else {
+            update(blockIndex, -1);
+        }
+    }
+
+    /**
+     * Remove all values from the index.
+     */
+    public void clear()
+    {
+        blocks.clear();
+        size = 0;
+        rebuild();
+    }
+
+    private static void checkIndex(int index, int max)
+    {
+        if (index < 0 || index > max) {
+            throw new IndexOutOfBoundsException("index=" + index);
+        }
+    }
+
+    /*
+     * Find the block holding the given index, and return the block index in
+     * the upper half and the offset within the block in the lower half.
+     */
+    private long locate(int index)
+    {
+        int blockCount = blocks.size();
+        int position = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(blockCount); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= blockCount && tree[next] <= remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return ((long) position << 32) | remaining;
+    }
+
+    private void update(int blockIndex, int delta)
+    {
+        for (int k = blockIndex + 1; k < tree.length; k += k & -k) {
+            tree[k] += delta;
+        }
+    }
+
+    private void rebuild()
+    {
+        int blockCount = blocks.size();
+        tree = new int[blockCount + 1];
+        for (int k = 1; k <= blockCount; k++) {
+            tree[k] += blocks.get(k - 1).count;
+            int parent = k + (k & -k);
+            if (parent <= blockCount) {
+                tree[parent] += tree[k];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,300 @@
+
+package com.bpreece.lotr;
+
+import java.util.regex.Pattern;
+
+/**
+ * A test which the search directives apply to lines, such as
+ * <code>next-contains</code> or <code>range regex</code>.
+ *
+ * Two predicates are equal if they apply the same kind of test with the same
+ * string or regular expression, so they can be used as keys for caching
+ * search results.
+ *
+ * Lines are tested as character sequences, so that a line store can let them
+ * be tested where they lie, without copying each line into a
+ * <code>String</code>.
+ *
+ * @author ben
+ */
+public abstract class LinePredicate
+{
+    private final String text;
+
+    private LinePredicate(String text)
+    {
+        this.text = text;
+    }
+
+    /**
+     * Return whether the given line passes this test.
+     *
+     * @param line the line to test
+     * @return <code>true</code> if the line passes, and <code>false</code>
+     *         otherwise.
+     */
+    public abstract boolean test(CharSequence line);
+
+    /**
+     * Return the pattern which this predicate matches, if it is a regular
+     * expression test.
+     *
+     * @return the pattern, or <code>null</code> if this predicate is not a
+     *         regular expression test.
+     */
+    public Pattern getPattern()
+    {
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        return other != null && other.getClass() == getClass()
+            && ((LinePredicate) other).text.equals(text);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return getClass().hashCode() * 31 + text.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[" + text + "]";
+    }
+
+    /**
+     * Return a predicate which tests whether a line equals the given string.
+     *
+     * @param string the string to compare
+     * @return the predicate
+     */
+    public static LinePredicate equalTo(String string)
+    {
+        return new EqualTo(string);
+    }
+
+    /**
+     * Return a predicate which tests whether a line starts with the given
+     * string.
+     *
+     * @param string the prefix to find
+     * @return the predicate
+     */
+    public static LinePredicate startsWith(String string)
+    {
+        return new StartsWith(string);
+    }
+
+    /**
+     * Return a predicate which tests whether a line ends with the given
+     * string.
+     *
+     * @param string the suffix to find
+     * @return the predicate
+     */
+    public static LinePredicate endsWith(String string)
+    {
+        return new EndsWith(string);
+    }
+
+    /**
+     * Return a predicate which tests whether a line contains the given
+     * string.
+     *
+     * @param string the substring to find
+     * @return the predicate
+     */
+    public static LinePredicate contains(String string)
+    {
+        return new Contains(string);
+    }
+
+    /**
+     * Return a predicate which tests whether a line is empty.
+     *
+     * @return the predicate
+     */
+    public static LinePredicate isEmpty()
+    {
+        return IS_EMPTY;
+    }
+
+    /**
+     * Return a predicate which tests whether the entire line matches the
+     * given pattern.
+     *
+     * @param pattern the pattern to match
+     * @return the predicate
+     */
+    public static LinePredicate matches(Pattern pattern)
+    {
+        return new Matches(pattern);
+    }
+
+    /**
+     * Return whether the given string occurs in the line at the given
+     * offset.
+     *
+     * @param line the line to search
+     * @param offset the index in the line where the string should start
+     * @param string the string to find
+     * @return <code>true</code> if the string occurs at the offset, and
+     *         <code>false</code> otherwise, including if the offset is out
+     *         of range
+     */
+    static boolean regionMatches(CharSequence line, int offset, String string)
+    {
+        int length = string.length();
+        if (offset < 0 || offset > line.length() - length) {
+            return false;
+        }
+        if (line instanceof String) {
+            return ((String) line).startsWith(string, offset);
+        }
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(offset + i) != string.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the index of the first occurrence of the given string in the
+     * line.
+     *
+     * @param line the line to search
+     * @param string the string to find
+     * @return the index of the string, or -1 if the line does not contain it
+     */
+    static int indexOf(CharSequence line, String string)
+    {
+        if (line instanceof String) {
+            return ((String) line).indexOf(string);
+        }
+        if (string.isEmpty()) {
+            return 0;
+        }
+        char first = string.charAt(0);
+        int last = line.length() - string.length();
+        for (int i = 0; i <= last; i++) {
+            if (line.charAt(i) == first && regionMatches(line, i, string)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final LinePredicate IS_EMPTY = new IsEmpty();
+
+    private static class EqualTo extends LinePredicate
+    {
+        private final String string;
+
+        EqualTo(String string)
+        {
+            super(string);
+            this.string = string;
+        }
+
+        public boolean test(CharSequence line)
+        {
+            return line.length() == string.length()
+                && regionMatches(line, 0, string);
+        }
+
+    }
+
+    private static class StartsWith extends LinePredicate
+    {
+        private final String string;
+
+        StartsWith(String string)
+        {
+            super(string);
+            this.string = string;
+        }
+
+        public boolean test(CharSequence line)
+        {
+            return regionMatches(line, 0, string);
+        }
+
+    }
+
+    private static class EndsWith extends LinePredicate
+    {
+        private final String string;
+
+        EndsWith(String string)
+        {
+            super(string);
+            this.string = string;
+        }
+
+        public boolean test(CharSequence line)
+        {
+            return regionMatches(line, line.length() - string.length(), string);
+        }
+
+    }
+
+    private static class Contains extends LinePredicate
+    {
+        private final String string;
+
+        Contains(String string)
+        {
+            super(string);
+            this.string = string;
+        }
+
+        public boolean test(CharSequence line)
+        {
+            return indexOf(line, string) >= 0;
+        }
+
+    }
+
+    private static class IsEmpty extends LinePredicate
+    {
+        IsEmpty()
+        {
+            super("");
+        }
+
+        public boolean test(CharSequence line)
+        {
+            return line.length() == 0;
+        }
+
+    }
+
+    private static class Matches extends LinePredicate
+    {
+        private final Pattern pattern;
+
+        Matches(Pattern pattern)
+        {
+            super(pattern.flags() + "/" + pattern.pattern());
+            this.pattern = pattern;
+        }
+
+        public boolean test(CharSequence line)
+        {
+            return pattern.matcher(line).matches();
+        }
+
+        @Override
+        public Pattern getPattern()
+        {
+            return pattern;
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+
+package com.bpreece.lotr;
+
+import java.io.IOException;
+
+/**
+ * Receives the lines of the object text, in order, once a
+ * <code>CompiledScript</code> has been executed on it.
+ *
+ * @author ben
+ */
+public interface LineSink
+{
+    /**
+     * Accept the next line of the output.
+     *
+     * @param line the line, without a line terminator
+     * @throws IOException if the line cannot be written
+     */
+    public void write(String line)
+            throws IOException;
+
+}
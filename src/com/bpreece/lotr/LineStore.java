@@ -0,0 +1,165 @@
+
+package com.bpreece.lotr;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The storage for the lines of the object text being processed by
+ * <code>LOTR</code>.
+ *
+ * Lines are addressed by their index, starting from zero.  A line store does
+ * not know about the current line or the range;  those are maintained by
+ * <code>LOTR</code>, which is the only class that changes the store.
+ *
+ * @author ben
+ */
+public interface LineStore
+{
+    /**
+     * Return the number of lines in the store.
+     *
+     * @return the number of lines in the store
+     */
+    public int size();
+
+    /**
+     * Return the line at the given index.
+     *
+     * @param index the index of the line
+     * @return the line at the given index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public String get(int index);
+
+    /**
+     * Replace the line at the given index.
+     *
+     * @param index the index of the line
+     * @param line the new line
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void set(int index, String line);
+
+    /**
+     * Return the text of the line at the given index, without copying it
+     * into a <code>String</code> if the store holds it some other way.  The
+     * sequence returned is only valid until the store is next changed.
+     *
+     * @param index the index of the line
+     * @return the text of the line at the given index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public CharSequence getChars(int index);
+
+    /**
+     * Replace the line at the given index with the given text, which the
+     * store may keep without copying it into a <code>String</code>.  The
+     * text must not be changed afterwards.
+     *
+     * @param index the index of the line
+     * @param line the text of the new line
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void setChars(int index, CharSequence line);
+
+    /**
+     * Insert a line before the line at the given index.  If the index is the
+     * number of lines in the store, then the line is added after the last
+     * line.
+     *
+     * @param index the index of the new line
+     * @param line the new line
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void add(int index, String line);
+
+    /**
+     * Remove the line at the given index.
+     *
+     * @param index the index of the line
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void remove(int index);
+
+    /**
+     * Remove every line whose index is in the given set, as if by removing
+     * them one at a time from the last to the first.
+     *
+     * @param indexes the indexes of the lines to remove
+     * @throws IndexOutOfBoundsException if any index is out of range
+     */
+    public void removeAll(BitSet indexes);
+
+    /**
+     * Return the number of characters in the line at the given index.
+     *
+     * @param index the index of the line
+     * @return the length of the line
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int length(int index);
+
+    /**
+     * Append the given number of following lines to the line at the given
+     * index, each preceded by the separator, and remove them.
+     *
+     * @param index the index of the line to append to
+     * @param count the number of following lines to append
+     * @param separator the string to put before each appended line
+     * @return <code>true</code> if the text of the line at the given index
+     *         changed;  that is, if anything was appended to it
+     * @throws IndexOutOfBoundsException if the indexes are out of range
+     */
+    public boolean join(int index, int count, String separator);
+
+    /**
+     * Replace the line at the given index with the substring of it between
+     * the given character indexes, as for <code>String.substring()</code>.
+     *
+     * @param index the index of the line
+     * @param beginIndex the index of the first character to keep
+     * @param endIndex the index after the last character to keep
+     * @return <code>true</code> if the text of the line changed
+     * @throws IndexOutOfBoundsException if any index is out of range
+     */
+    public boolean slice(int index, int beginIndex, int endIndex);
+
+    /**
+     * Remove leading and trailing white space from the line at the given
+     * index, as for <code>String.trim()</code>.
+     *
+     * @param index the index of the line
+     * @return <code>true</code> if the text of the line changed
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean trim(int index);
+
+    /**
+     * Convert the line at the given index to lower case, as for
+     * <code>String.toLowerCase()</code>.
+     *
+     * @param index the index of the line
+     * @return <code>true</code> if the text of the line changed
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean toLowerCase(int index);
+
+    /**
+     * Convert the line at the given index to upper case, as for
+     * <code>String.toUpperCase()</code>.
+     *
+     * @param index the index of the line
+     * @return <code>true</code> if the text of the line changed
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean toUpperCase(int index);
+
+    /**
+     * Return a copy of all the lines in the store.
+     *
+     * @return a new list holding all the lines in the store
+     */
+    public List<String> toList();
+
+}
@@ -0,0 +1,86 @@
+
+package com.bpreece.lotr;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A <code>LineStore</code> which works directly on a list of lines supplied
+ * by the caller, without copying it.  Every change to the object text is
+ * made to the list itself, so the caller must not change the list while the
+ * store is in use, and sees the result in the list afterwards.
+ *
+ * The list must support random access, and it must be modifiable if the
+ * script changes the text.
+ *
+ * This class is not thread-safe.
+ *
+ * @author ben
+ */
+public class ListLineStore
+        extends AbstractLineStore
+{
+    private final List<String> lines;
+
+    /**
+     * Construct a new instance of <code>ListLineStore</code> which works on
+     * the given list.
+     *
+     * @param lines the list of lines
+     * @throws IllegalArgumentException if the list does not support random
+     *         access
+     */
+    public ListLineStore(List<String> lines)
+    {
+        if (!(lines instanceof RandomAccess)) {
+            throw new IllegalArgumentException(
+                    "list does not support random access: " + lines.getClass().getName());
+        }
+        this.lines = lines;
+    }
+
+    public int size()
+    {
+        return lines.size();
+    }
+
+    public String get(int index)
+    {
+        return lines.get(index);
+    }
+
+    public void set(int index, String line)
+    {
+        lines.set(index, line);
+    }
+
+    public void add(int index, String line)
+    {
+        lines.add(index, line);
+    }
+
+    public void remove(int index)
+    {
+        lines.remove(index);
+    }
+
+    @Override
+    public void removeAll(BitSet indexes)
+    {
+        compact(lines, indexes);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex)
+    {
+        lines.subList(fromIndex, toIndex).clear();
+    }
+
+    public List<String> toList()
+    {
+        return new ArrayList<String>(lines);
+    }
+
+}
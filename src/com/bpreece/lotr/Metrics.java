@@ -0,0 +1,319 @@
+
+package com.bpreece.lotr;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * A registry of counters and timings for services which embed
+ * <code>LOTR</code> and <code>ASN.Script</code>:  lines read, written,
+ * inserted and removed, the successes and failures of each directive, and
+ * histograms of regular expression match times and script execution times.
+ *
+ * A registry is attached to each <code>LOTR</code> with
+ * <code>LOTR.setMetrics()</code>, and one registry may be shared by many
+ * instances, in many threads.  Nothing is measured for an instance with no
+ * registry attached, beyond a test for <code>null</code>.  Lines read and
+ * written are counted by whatever does the reading and writing, through
+ * <code>addLinesRead()</code> and <code>addLinesWritten()</code>.
+ *
+ * The counts can be read through JMX, once the registry is registered with
+ * <code>register()</code>, or written in the Prometheus text format with
+ * <code>writePrometheus()</code> or <code>dump()</code>.
+ *
+ * This class is thread-safe.
+ *
+ * @author ben
+ */
+public class Metrics
+        implements MetricsMXBean
+{
+    /* the upper bounds of the histogram buckets, in nanoseconds */
+    private static final long[] BUCKET_BOUNDS = {
+        1000L, 4000L, 16000L, 64000L, 256000L, 1024000L, 4096000L,
+        16384000L, 65536000L, 262144000L, 1048576000L, 4194304000L
+    };
+
+    /*
+     * A histogram of durations, with a bucket for each bound and one for
+     * longer durations.
+     */
+    private static class Histogram
+    {
+        private final AtomicLongArray counts =
+            new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+
+        void record(long nanos)
+        {
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS.length && nanos > BUCKET_BOUNDS[bucket]) {
+                bucket++;
+            }
+            counts.incrementAndGet(bucket);
+            count.incrementAndGet();
+            sum.addAndGet(nanos);
+        }
+
+        void write(PrintWriter out, String name, String help)
+        {
+            out.print("# HELP " + name + " " + help + "\n");
+            out.print("# TYPE " + name + " histogram\n");
+            long cumulative = 0;
+            for (int bucket = 0; bucket < BUCKET_BOUNDS.length; bucket++) {
+                cumulative += counts.get(bucket);
+                out.print(name + "_bucket{le=\"" + (BUCKET_BOUNDS[bucket] / 1e9)
+                          + "\"} " + cumulative + "\n");
+            }
+            cumulative += counts.get(BUCKET_BOUNDS.length);
+            out.print(name + "_bucket{le=\"+Inf\"} " + cumulative + "\n");
+            out.print(name + "_sum " + (sum.get() / 1e9) + "\n");
+            out.print(name + "_count " + cumulative + "\n");
+        }
+
+    }
+
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong linesWritten = new AtomicLong();
+    private final AtomicLong linesInserted = new AtomicLong();
+    private final AtomicLong linesRemoved = new AtomicLong();
+    private final AtomicLongArray successes =
+        new AtomicLongArray(FrodoConstants.tokenImage.length);
+    private final AtomicLongArray failures =
+        new AtomicLongArray(FrodoConstants.tokenImage.length);
+    private final Histogram regexMatches = new Histogram();
+    private final Histogram scriptExecutions = new Histogram();
+
+    /**
+     * Construct a new instance of <code>Metrics</code>, with every count
+     * zero.
+     */
+    public Metrics()
+    {
+    }
+
+    /**
+     * Register this registry with the platform MBean server, under the name
+     * <code>com.bpreece.lotr:type=Metrics,name=</code><i>name</i>.
+     *
+     * @param name the name which identifies this registry
+     * @return the object name under which the registry was registered
+     * @throws JMException if the registry cannot be registered, for example
+     *         because the name is already in use
+     */
+    public ObjectName register(String name)
+            throws JMException
+    {
+        ObjectName objectName = new ObjectName(
+                "com.bpreece.lotr:type=Metrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Add to the number of lines read from the input.
+     *
+     * @param count the number of lines read
+     */
+    public void addLinesRead(long count)
+    {
+        linesRead.addAndGet(count);
+    }
+
+    /**
+     * Add to the number of lines written to the output.
+     *
+     * @param count the number of lines written
+     */
+    public void addLinesWritten(long count)
+    {
+        linesWritten.addAndGet(count);
+    }
+
+    void lineInserted()
+    {
+        linesInserted.incrementAndGet();
+    }
+
+    void lineRemoved()
+    {
+        linesRemoved.incrementAndGet();
+    }
+
+    void directiveExecuted(int command, boolean succeeded)
+    {
+        (succeeded ? successes : failures).incrementAndGet(command);
+    }
+
+    void regexMatched(long nanos)
+    {
+        regexMatches.record(nanos);
+    }
+
+    void scriptExecuted(long nanos)
+    {
+        scriptExecutions.record(nanos);
+    }
+
+    public long getLinesRead()
+    {
+        return linesRead.get();
+    }
+
+    public long getLinesWritten()
+    {
+        return linesWritten.get();
+    }
+
+    public long getLinesInserted()
+    {
+        return linesInserted.get();
+    }
+
+    public long getLinesRemoved()
+    {
+        return linesRemoved.get();
+    }
+
+    public Map<String, Long> getDirectiveSuccesses()
+    {
+        return getCounts(successes);
+    }
+
+    public Map<String, Long> getDirectiveFailures()
+    {
+        return getCounts(failures);
+    }
+
+    public long getRegexMatchCount()
+    {
+        return regexMatches.count.get();
+    }
+
+    public long getRegexMatchNanos()
+    {
+        return regexMatches.sum.get();
+    }
+
+    public long getScriptExecutionCount()
+    {
+        return scriptExecutions.count.get();
+    }
+
+    public long getScriptExecutionNanos()
+    {
+        return scriptExecutions.sum.get();
+    }
+
+    /**
+     * Write the counts in the Prometheus text exposition format.  Lines end
+     * with a newline on every platform, as the format requires.
+     *
+     * @param writer the writer to write to
+     */
+    public void writePrometheus(Writer writer)
+    {
+        PrintWriter out = new PrintWriter(writer);
+        writeCounter(out, "frodo_lines_read_total",
+                     "Lines read from the input.", linesRead.get());
+        writeCounter(out, "frodo_lines_written_total",
+                     "Lines written to the output.", linesWritten.get());
+        writeCounter(out, "frodo_lines_inserted_total",
+                     "Lines inserted into the object text.", linesInserted.get());
+        writeCounter(out, "frodo_lines_removed_total",
+                     "Lines removed from the object text.", linesRemoved.get());
+        out.print("# HELP frodo_directives_total Directives executed, by result.\n");
+        out.print("# TYPE frodo_directives_total counter\n");
+        for (int command = 0; command < successes.length(); command++) {
+            writeDirective(out, command, "success", successes.get(command));
+            writeDirective(out, command, "failure", failures.get(command));
+        }
+        regexMatches.write(out, "frodo_regex_match_seconds",
+                           "Time taken by regular expression matches.");
+        scriptExecutions.write(out, "frodo_script_execution_seconds",
+                               "Time taken by script executions.");
+        out.flush();
+    }
+
+    /**
+     * Write the counts in the Prometheus text exposition format to the given
+     * file, replacing it, for example for the node exporter's textfile
+     * collector.
+     *
+     * @param fileName the name of the file
+     * @throws IOException if the file cannot be written
+     */
+    public void dump(String fileName)
+            throws IOException
+    {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(fileName), "UTF-8");
+        try {
+            writePrometheus(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Return the name of the directive with the given token kind, as it is
+     * written in a script.
+     *
+     * @param command the token kind, from <code>FrodoConstants</code>
+     * @return the name of the directive
+     */
+    static String getDirectiveName(int command)
+    {
+        String image = FrodoConstants.tokenImage[command];
+        if (image.startsWith("\"")) {
+            return image.substring(1, image.length() - 1);
+        } else if (image.startsWith("<T_")) {
+            return image.substring(3, image.length() - 1).
+                    toLowerCase(Locale.ROOT).replace('_', '-');
+        } else {
+            return image;
+        }
+    }
+
+    private static Map<String, Long> getCounts(AtomicLongArray counts)
+    {
+        Map<String, Long> map = new TreeMap<String, Long>();
+        for (int command = 0; command < counts.length(); command++) {
+            long count = counts.get(command);
+            if (count > 0) {
+                map.put(getDirectiveName(command), count);
+            }
+        }
+        return map;
+    }
+
+    private static void writeCounter(PrintWriter out, String name, String help,
+                                     long value)
+    {
+        out.print("# HELP " + name + " " + help + "\n");
+        out.print("# TYPE " + name + " counter\n");
+        out.print(name + " " + value + "\n");
+    }
+
+    private static void writeDirective(PrintWriter out, int command,
+                                       String result, long count)
+    {
+        if (count > 0) {
+            out.print("frodo_directives_total{directive=\""
+                      + getDirectiveName(command) + "\",result=\"" + result
+                      + "\"} " + count + "\n");
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+
+package com.bpreece.lotr;
+
+import java.util.Map;
+
+/**
+ * The management interface of <code>Metrics</code>, through which the counts
+ * are visible in JConsole and other JMX clients once the registry has been
+ * registered with <code>Metrics.register()</code>.
+ *
+ * @author ben
+ */
+public interface MetricsMXBean
+{
+    /**
+     * Return the number of lines read from the input.
+     *
+     * @return the number of lines read
+     */
+    public long getLinesRead();
+
+    /**
+     * Return the number of lines written to the output.
+     *
+     * @return the number of lines written
+     */
+    public long getLinesWritten();
+
+    /**
+     * Return the number of lines inserted into the object text.
+     *
+     * @return the number of lines inserted
+     */
+    public long getLinesInserted();
+
+    /**
+     * Return the number of lines removed from the object text, including
+     * lines joined onto another line.
+     *
+     * @return the number of lines removed
+     */
+    public long getLinesRemoved();
+
+    /**
+     * Return the number of times each directive has succeeded, by the name
+     * of the directive.
+     *
+     * @return the success counts of the directives which have been executed
+     */
+    public Map<String, Long> getDirectiveSuccesses();
+
+    /**
+     * Return the number of times each directive has failed, by the name of
+     * the directive.
+     *
+     * @return the failure counts of the directives which have been executed
+     */
+    public Map<String, Long> getDirectiveFailures();
+
+    /**
+     * Return the number of regular expression matches timed.
+     *
+     * @return the number of matches
+     */
+    public long getRegexMatchCount();
+
+    /**
+     * Return the total time spent in regular expression matches.
+     *
+     * @return the total time in nanoseconds
+     */
+    public long getRegexMatchNanos();
+
+    /**
+     * Return the number of script executions timed.
+     *
+     * @return the number of executions
+     */
+    public long getScriptExecutionCount();
+
+    /**
+     * Return the total time spent executing scripts.
+     *
+     * @return the total time in nanoseconds
+     */
+    public long getScriptExecutionNanos();
+
+}
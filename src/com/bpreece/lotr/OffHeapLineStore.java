@@ -0,0 +1,46 @@
+
+package com.bpreece.lotr;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A <code>SlabLineStore</code> which keeps the text of the lines outside the
+ * Java heap, in direct byte buffers.
+ *
+ * Only the slab objects and the line index live on the heap, so the heap
+ * needed does not grow with the length of the lines, and the garbage
+ * collector never has to copy or scan the text.  The memory for the slabs is
+ * limited by the <code>-XX:MaxDirectMemorySize</code> option of the JVM
+ * rather than by the heap size.
+ *
+ * @author ben
+ */
+public class OffHeapLineStore
+        extends SlabLineStore
+{
+    /**
+     * Construct a new, empty instance of <code>OffHeapLineStore</code>.
+     */
+    public OffHeapLineStore()
+    {
+    }
+
+    /**
+     * Construct a new instance of <code>OffHeapLineStore</code> holding a
+     * copy of the given lines.
+     *
+     * @param lines the initial lines
+     */
+    public OffHeapLineStore(List<String> lines)
+    {
+        super(lines);
+    }
+
+    @Override
+    protected ByteBuffer newSlab(int capacity)
+    {
+        return ByteBuffer.allocateDirect(capacity);
+    }
+
+}
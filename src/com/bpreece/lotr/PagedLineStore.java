@@ -0,0 +1,494 @@
+
+package com.bpreece.lotr;
+
+import java.io.Closeable;
+import java.io.IOError;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * A <code>LineStore</code> for inputs too large to hold in memory, which
+ * keeps the lines in pages and holds only a bounded number of pages in
+ * memory at once.
+ *
+ * The lines are grouped into pages of about <code>PAGE_BYTES</code> bytes.
+ * A page is loaded when one of its lines is used, and the least recently
+ * used page is dropped from memory when more than the given number of pages
+ * are loaded.  A page which has not been changed is simply reloaded from
+ * where it came from:  either the memory-mapped input file, or the spill
+ * file.  A changed page is written to the end of the spill file before it is
+ * dropped.  The space of pages which are written again is not reused, so
+ * the spill file grows with the number of changed pages written, not with
+ * the size of the input.
+ *
+ * The input file must use a character set in which line terminators are
+ * the single bytes of ASCII, such as UTF-8 or Latin-1, since the file is
+ * split into pages without decoding it.  Lines end at a line feed, a
+ * carriage return, or a carriage return followed by a line feed, as for
+ * <code>BufferedReader.readLine()</code>.
+ *
+ * If the input file or the spill file cannot be read or written, an
+ * <code>IOError</code> is thrown, since the lines cannot be recovered.
+ *
+ * This class is not thread-safe.
+ *
+ * @author ben
+ */
+public class PagedLineStore
+        extends AbstractLineStore
+        implements Closeable
+{
+    /* the target size of the pages read from the input file */
+    private static final int PAGE_BYTES = 1 << 20;
+    /* the most lines in a page read from the input file */
+    private static final int PAGE_LINES = 8192;
+    /* a page with more lines than this is split in two */
+    private static final int MAX_PAGE_LINES = 2 * PAGE_LINES;
+    /* the size of the windows in which the input file is scanned */
+    private static final long SCAN_BYTES = 1 << 28;
+
+    private static class Page
+    {
+        /* the lines of the page, or null if it is not loaded */
+        private List<String> lines;
+        private int count;
+        private boolean dirty;
+        /* where the page was last saved, if not dirty */
+        private boolean inSpill;
+        private long start;
+        private long end;
+    }
+
+    private final FileChannel input;
+    private final Charset charset;
+    private final int cachePages;
+    private final ArrayList<Page> pages = new ArrayList<Page>();
+    /* Fenwick tree of the page sizes;  tree[k] covers pages (k - lowbit(k), k] */
+    private int[] tree = new int[1];
+    private int size;
+    /* the loaded pages, least recently used first */
+    private final LinkedHashMap<Page, Page> loaded =
+        new LinkedHashMap<Page, Page>(16, 0.75f, true);
+    private Path spillPath;
+    private FileChannel spill;
+    private long spillEnd;
+
+    /**
+     * Construct a new, empty instance of <code>PagedLineStore</code> which
+     * keeps at most the given number of pages in memory.
+     *
+     * @param cachePages the number of pages to keep in memory
+     */
+    public PagedLineStore(int cachePages)
+    {
+        this(null, null, cachePages);
+    }
+
+    private PagedLineStore(FileChannel input, Charset charset, int cachePages)
+    {
+        this.input = input;
+        this.charset = charset;
+        this.cachePages = Math.max(1, cachePages);
+    }
+
+    /**
+     * Open a <code>PagedLineStore</code> holding the lines of the given
+     * file.  The file is mapped and scanned once to find where the pages
+     * start, but no lines are decoded until they are used.  The file must
+     * not be changed while the store is open.
+     *
+     * @param fileName the name of the input file
+     * @param charset the character set of the input file
+     * @param cachePages the number of pages to keep in memory
+     * @return the new store
+     * @throws IOException if the file cannot be read, or if the character
+     *         set is not supported
+     */
+    public static PagedLineStore open(String fileName, Charset charset,
+                                      int cachePages)
+            throws IOException
+    {
+        if (!Arrays.equals("\r\n".getBytes(charset), new byte[] {'\r', '\n'})) {
+            throw new IOException("cannot page input in " + charset.name());
+        }
+        FileChannel channel = FileChannel.open(Paths.get(fileName),
+                                               StandardOpenOption.READ);
+        PagedLineStore store = new PagedLineStore(channel, charset, cachePages);
+        try {
+            store.scan();
+        } catch (IOException ex) {
+            store.close();
+            throw ex;
+        }
+        return store;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public String get(int index)
+    {
+        checkIndex(index, size - 1);
+        long location = locate(index);
+        return load((int) (location >>> 32)).get((int) location);
+    }
+
+    public void set(int index, String line)
+    {
+        checkIndex(index, size - 1);
+        long location = locate(index);
+        Page page = pages.get((int) (location >>> 32));
+        load(page).set((int) location, line);
+        page.dirty = true;
+    }
+
+    public void add(int index, String line)
+    {
+        checkIndex(index, size);
+        int pageIndex;
+        int offset;
+        if (pages.isEmpty()) {
+            Page page = new Page();
+            page.lines = new ArrayList<String>();
+            page.dirty = true;
+            pages.add(page);
+            loaded.put(page, page);
+            rebuild();
+            pageIndex = 0;
+            offset = 0;
+        } else if (index == size) {
+            pageIndex = pages.size() - 1;
+            offset = pages.get(pageIndex).count;
+        } else {
+            long location = locate(index);
+            pageIndex = (int) (location >>> 32);
+            offset = (int) location;
+        }
+        Page page = pages.get(pageIndex);
+        load(page).add(offset, line);
+        page.count++;
+        page.dirty = true;
+        size++;
+        if (page.count > MAX_PAGE_LINES) {
+            split(pageIndex);
+        } else {
+            update(pageIndex, 1);
+        }
+        evict();
+    }
+
+    public void remove(int index)
+    {
+        checkIndex(index, size - 1);
+        long location = locate(index);
+        int pageIndex = (int) (location >>> 32);
+        Page page = pages.get(pageIndex);
+        load(page).remove((int) location);
+        page.count--;
+        page.dirty = true;
+        size--;
+        if (page.count == 0) {
+            pages.remove(pageIndex);
+            loaded.remove(page);
+            rebuild();
+        } else {
+            update(pageIndex, -1);
+        }
+    }
+
+    public List<String> toList()
+    {
+        List<String> list = new ArrayList<String>(size);
+        for (Page page : pages) {
+            list.addAll(load(page));
+        }
+        return list;
+    }
+
+    /**
+     * Close the input file, and delete the spill file.  The store cannot be
+     * used afterwards.
+     *
+     * @throws IOException if the files cannot be closed
+     */
+    public void close()
+            throws IOException
+    {
+        if (input != null) {
+            input.close();
+        }
+        if (spill != null) {
+            spill.close();
+            Files.deleteIfExists(spillPath);
+        }
+    }
+
+    private static void checkIndex(int index, int max)
+    {
+        if (index < 0 || index > max) {
+            throw new IndexOutOfBoundsException("index=" + index);
+        }
+    }
+
+    /*
+     * Find the pages of the input file.  Each page ends after the first line
+     * terminator once it holds PAGE_BYTES bytes or PAGE_LINES lines, so that
+     * a page always holds whole lines.
+     */
+    private void scan()
+            throws IOException
+    {
+        long fileSize = input.size();
+        long pageStart = 0;
+        long lineEnd = 0;
+        int lineCount = 0;
+        boolean carriageReturn = false;
+        for (long window = 0; window < fileSize; window += SCAN_BYTES) {
+            MappedByteBuffer buffer = input.map(
+                    FileChannel.MapMode.READ_ONLY, window,
+                    Math.min(SCAN_BYTES, fileSize - window));
+            int limit = buffer.limit();
+            for (int i = 0; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (carriageReturn) {
+                    carriageReturn = false;
+                    lineEnd = window + i + ((b == '\n') ? 1 : 0);
+                    lineCount++;
+                    if (b == '\n') {
+                        b = 0;
+                    }
+                } else if (b == '\n') {
+                    lineEnd = window + i + 1;
+                    lineCount++;
+                }
+                if (lineEnd - pageStart >= PAGE_BYTES || lineCount >= PAGE_LINES) {
+                    addInputPage(pageStart, lineEnd, lineCount);
+                    pageStart = lineEnd;
+                    lineCount = 0;
+                }
+                if (b == '\r') {
+                    carriageReturn = true;
+                }
+            }
+        }
+        if (carriageReturn || lineEnd < fileSize) {
+            lineEnd = fileSize;
+            lineCount++;
+        }
+        if (lineCount > 0) {
+            addInputPage(pageStart, lineEnd, lineCount);
+        }
+        rebuild();
+    }
+
+    private void addInputPage(long start, long end, int count)
+    {
+        Page page = new Page();
+        page.start = start;
+        page.end = end;
+        page.count = count;
+        pages.add(page);
+        size += count;
+    }
+
+    private List<String> load(int pageIndex)
+    {
+        return load(pages.get(pageIndex));
+    }
+
+    /* return the lines of the page, loading it if necessary */
+    private List<String> load(Page page)
+    {
+        if (page.lines == null) {
+            try {
+                page.lines = page.inSpill ? readSpill(page) : readInput(page);
+            } catch (IOException ex) {
+                throw new IOError(ex);
+            }
+            loaded.put(page, page);
+            evict();
+        } else {
+            loaded.get(page);
+        }
+        return page.lines;
+    }
+
+    /* drop the least recently used pages beyond the cache size */
+    private void evict()
+    {
+        Iterator<Page> iterator = loaded.keySet().iterator();
+        while (loaded.size() > cachePages) {
+            Page page = iterator.next();
+            if (page.dirty) {
+                try {
+                    writeSpill(page);
+                } catch (IOException ex) {
+                    throw new IOError(ex);
+                }
+            }
+            page.lines = null;
+            iterator.remove();
+        }
+    }
+
+    private List<String> readInput(Page page)
+            throws IOException
+    {
+        MappedByteBuffer buffer = input.map(FileChannel.MapMode.READ_ONLY,
+                                            page.start, page.end - page.start);
+        byte[] bytes = new byte[buffer.limit()];
+        buffer.get(bytes);
+        String text = new String(bytes, charset);
+        List<String> lines = new ArrayList<String>(page.count);
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                lines.add(text.substring(start, i));
+                if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        if (start < length) {
+            lines.add(text.substring(start));
+        }
+        return lines;
+    }
+
+    /*
+     * A page in the spill file is the number of lines, then for each line its
+     * encoded length and encoding, and its bytes, as in SlabLineStore.
+     */
+    private List<String> readSpill(Page page)
+            throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (page.end - page.start));
+        while (buffer.hasRemaining()) {
+            if (spill.read(buffer, page.start + buffer.position()) < 0) {
+                throw new IOException("spill file is truncated");
+            }
+        }
+        buffer.flip();
+        int count = buffer.getInt();
+        List<String> lines = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            int header = buffer.getInt();
+            int byteCount = header >>> SlabLineStore.ENCODING_BITS;
+            lines.add(SlabLineStore.decode(
+                    buffer.array(), buffer.position(), byteCount,
+                    header & ((1 << SlabLineStore.ENCODING_BITS) - 1)));
+            buffer.position(buffer.position() + byteCount);
+        }
+        return lines;
+    }
+
+    private void writeSpill(Page page)
+            throws IOException
+    {
+        if (spill == null) {
+            spillPath = Files.createTempFile("frodo", ".spill");
+            spillPath.toFile().deleteOnExit();
+            spill = FileChannel.open(spillPath, StandardOpenOption.READ,
+                                     StandardOpenOption.WRITE);
+        }
+        byte[][] encoded = new byte[page.count][];
+        int[] headers = new int[page.count];
+        int total = 4;
+        for (int i = 0; i < page.count; i++) {
+            String line = page.lines.get(i);
+            int encoding = SlabLineStore.getEncoding(line);
+            encoded[i] = SlabLineStore.encode(line, encoding);
+            headers[i] = (encoded[i].length << SlabLineStore.ENCODING_BITS)
+                | encoding;
+            total += 4 + encoded[i].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        buffer.putInt(page.count);
+        for (int i = 0; i < page.count; i++) {
+            buffer.putInt(headers[i]);
+            buffer.put(encoded[i]);
+        }
+        buffer.flip();
+        long start = spillEnd;
+        while (buffer.hasRemaining()) {
+            spillEnd += spill.write(buffer, spillEnd);
+        }
+        page.inSpill = true;
+        page.start = start;
+        page.end = spillEnd;
+        page.dirty = false;
+    }
+
+    /* split a page which has grown too large into two dirty pages */
+    private void split(int pageIndex)
+    {
+        Page page = pages.get(pageIndex);
+        int half = page.count / 2;
+        Page upper = new Page();
+        upper.lines = new ArrayList<String>(page.lines.subList(half, page.count));
+        upper.count = page.count - half;
+        upper.dirty = true;
+        page.lines = new ArrayList<String>(page.lines.subList(0, half));
+        page.count = half;
+        pages.add(pageIndex + 1, upper);
+        loaded.put(upper, upper);
+        rebuild();
+    }
+
+    /*
+     * Find the page holding the given index, and return the page index in
+     * the upper half and the offset within the page in the lower half.
+     */
+    private long locate(int index)
+    {
+        int pageCount = pages.size();
+        int position = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(pageCount); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= pageCount && tree[next] <= remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return ((long) position << 32) | remaining;
+    }
+
+    private void update(int pageIndex, int delta)
+    {
+        for (int k = pageIndex + 1; k < tree.length; k += k & -k) {
+            tree[k] += delta;
+        }
+    }
+
+    private void rebuild()
+    {
+        int pageCount = pages.size();
+        tree = new int[pageCount + 1];
+        for (int k = 1; k <= pageCount; k++) {
+            tree[k] += pages.get(k - 1).count;
+            int parent = k + (k & -k);
+            if (parent <= pageCount) {
+                tree[parent] += tree[k];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,236 @@
+
+package com.bpreece.lotr;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Overlaps reading and writing the object text with script execution.
+ *
+ * A reader thread reads and decodes the input into batches of lines, and a
+ * writer thread encodes and writes batches of output lines.  The batches are
+ * passed to and from the interpreter thread through bounded
+ * <code>RingBuffer</code>s, so that neither side can run too far ahead of
+ * the other.  The interpreter itself remains single-threaded.
+ *
+ * @author ben
+ */
+public class Pipeline
+{
+    /* the number of lines in each batch */
+    public static final int BATCH_SIZE = 1024;
+    /* the number of batches each ring buffer can hold */
+    public static final int CAPACITY = 64;
+
+    private static final String LINE_SEPARATOR =
+        System.getProperty("line.separator");
+
+    private final RingBuffer<List<String>> input =
+        new RingBuffer<List<String>>(CAPACITY);
+    private final RingBuffer<List<String>> output =
+        new RingBuffer<List<String>>(CAPACITY);
+    private final Thread reader;
+    private Thread writer;
+    private List<String> pending = new ArrayList<String>(BATCH_SIZE);
+    private volatile IOException writeFailure;
+
+    /**
+     * Construct a new instance of <code>Pipeline</code> which reads lines from
+     * the given reader.  The reader thread does not start until
+     * <code>start()</code> is called.
+     *
+     * @param in the input text
+     */
+    public Pipeline(final Reader in)
+    {
+        reader = new Thread("frodo-reader") {
+            @Override
+            public void run()
+            {
+                readBatches(in);
+            }
+        };
+        reader.setDaemon(true);
+    }
+
+    /**
+     * Start the reader thread.
+     */
+    public void start()
+    {
+        reader.start();
+    }
+
+    /**
+     * Start the writer thread, which writes lines to the given output stream.
+     * This must be called before any lines are written, but it may be
+     * delayed until it is known that there is something to write.
+     *
+     * @param out the output stream, which is flushed but not closed
+     */
+    public void startWriter(final OutputStream out)
+    {
+        writer = new Thread("frodo-writer") {
+            @Override
+            public void run()
+            {
+                writeBatches(out);
+            }
+        };
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Return the next batch of input lines, waiting until it has been read.
+     *
+     * @return the next batch of input lines, or <code>null</code> at the end
+     *         of the input.
+     * @throws IOException if the input could not be read
+     */
+    public List<String> readBatch()
+            throws IOException
+    {
+        return input.take();
+    }
+
+    /**
+     * Return all remaining input lines, waiting until they have been read.
+     *
+     * @return the remaining input lines
+     * @throws IOException if the input could not be read
+     */
+    public List<String> readAll()
+            throws IOException
+    {
+        List<String> lines = new ArrayList<String>();
+        List<String> batch;
+        while ((batch = readBatch()) != null) {
+            lines.addAll(batch);
+        }
+        return lines;
+    }
+
+    /**
+     * Add all remaining input lines to the end of the given store, waiting
+     * until they have been read.  Each batch is added as soon as it is read,
+     * so the lines are never all held as strings at once.
+     *
+     * @param store the store to add the lines to
+     * @throws IOException if the input could not be read
+     */
+    public void readAll(LineStore store)
+            throws IOException
+    {
+        List<String> batch;
+        while ((batch = readBatch()) != null) {
+            for (String line : batch) {
+                store.add(store.size(), line);
+            }
+        }
+    }
+
+    /**
+     * Queue the given lines to be written, in order, after any lines which
+     * were previously queued.  The writer thread must already be started.
+     *
+     * @param lines the output lines
+     */
+    public void write(List<String> lines)
+    {
+        for (String line : lines) {
+            pending.add(line);
+            if (pending.size() == BATCH_SIZE) {
+                output.put(pending);
+                pending = new ArrayList<String>(BATCH_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Write any remaining output lines, and wait until the writer thread
+     * has written everything.  If the writer thread was never started, then
+     * this method does nothing.
+     *
+     * @throws IOException if the output could not be written
+     */
+    public void finish()
+            throws IOException
+    {
+        if (writer == null) {
+            return;
+        }
+        if (!pending.isEmpty()) {
+            output.put(pending);
+            pending = new ArrayList<String>(BATCH_SIZE);
+        }
+        output.close();
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            throw new IOException("interrupted while writing output");
+        }
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    private void readBatches(Reader in)
+    {
+        try {
+            BufferedReader lineReader = new BufferedReader(in);
+            List<String> batch = new ArrayList<String>(BATCH_SIZE);
+            String line;
+            while ((line = lineReader.readLine()) != null) {
+                batch.add(line);
+                if (batch.size() == BATCH_SIZE) {
+                    input.put(batch);
+                    batch = new ArrayList<String>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                input.put(batch);
+            }
+            input.close();
+        } catch (IOException ex) {
+            input.fail(ex);
+        }
+    }
+
+    private void writeBatches(OutputStream out)
+    {
+        try {
+            Writer lineWriter = new BufferedWriter(new OutputStreamWriter(out));
+            List<String> batch;
+            while ((batch = output.take()) != null) {
+                for (String line : batch) {
+                    lineWriter.write(line);
+                    lineWriter.write(LINE_SEPARATOR);
+                }
+            }
+            lineWriter.flush();
+        } catch (IOException ex) {
+            writeFailure = ex;
+            drainOutput();
+        }
+    }
+
+    private void drainOutput()
+    {
+        try {
+            while (output.take() != null) {
+                // discard lines which can no longer be written
+            }
+        } catch (IOException ex) {
+            // the interpreter never fails the output buffer
+        }
+    }
+
+}
@@ -0,0 +1,285 @@
+
+package com.bpreece.lotr;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The work done on each line of a range by a bulk directive, such as
+ * <code>remove-matching</code>, which tests or rewrites every line of the
+ * range in one tight loop instead of a <code>while</code> loop in the
+ * script.
+ *
+ * A worker only reads the lines, and records its result for each one in an
+ * array by its position in the range;  <code>LOTR</code> then applies the
+ * results to the store.  Since reading a line changes nothing, a large range
+ * can be shared between several threads, each with its own fork of the
+ * worker, and its own matcher.  Line stores are not thread-safe, so the
+ * lines are read into an array by the calling thread first.
+ *
+ * Lines of <code>Rope.THRESHOLD</code> characters or more are never given
+ * to a worker, since a worker would copy them into a <code>String</code>;
+ * <code>LOTR</code> handles them itself when it applies the results.
+ *
+ * @author ben
+ */
+abstract class RangeWorker
+{
+    /* a range of fewer lines than this is never shared between threads */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /* the number of pieces each thread's share of a range is split into */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    protected final Matcher matcher;
+
+    /**
+     * Construct a new instance of <code>RangeWorker</code>.
+     *
+     * @param pattern the pattern which the worker tests lines against
+     */
+    protected RangeWorker(Pattern pattern)
+    {
+        this.matcher = pattern.matcher("");
+    }
+
+    /**
+     * Return a new worker which records its results in the same arrays as
+     * this one, for another thread to use.
+     *
+     * @return the new worker
+     */
+    abstract RangeWorker fork();
+
+    /**
+     * Work on one line.
+     *
+     * @param position the position of the line in the range, from zero
+     * @param line the text of the line
+     */
+    abstract void run(int position, String line);
+
+    /**
+     * Return a new pool of the given number of threads, for
+     * <code>scan()</code> to share the work on large ranges between.  The
+     * threads are daemon threads, so a pool which is never shut down does
+     * not keep the program running.
+     *
+     * @param threads the number of threads
+     * @return the new pool
+     */
+    static ExecutorService newExecutor(int threads)
+    {
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final ThreadFactory factory =
+                Executors.defaultThreadFactory();
+
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = factory.newThread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Run the worker on every line in [from, to) which is shorter than
+     * <code>Rope.THRESHOLD</code>, sharing the work between the threads of
+     * the given pool if the range is large enough to be worth it.  If the
+     * pool has been shut down, the calling thread does all the work.
+     *
+     * @param lines the store holding the lines
+     * @param from the index of the first line of the range
+     * @param to the index after the last line of the range
+     * @param worker the worker
+     * @param executor the pool to share the work with, or <code>null</code>
+     *        to do it all on the calling thread
+     * @param threads the number of threads in the pool
+     */
+    static void scan(LineStore lines, int from, int to, RangeWorker worker,
+                     ExecutorService executor, int threads)
+    {
+        int count = to - from;
+        if (executor == null || threads < 2 || count < PARALLEL_THRESHOLD) {
+            for (int position = 0; position < count; position++) {
+                if (lines.length(from + position) < Rope.THRESHOLD) {
+                    worker.run(position, lines.get(from + position));
+                }
+            }
+            return;
+        }
+        final String[] text = new String[count];
+        for (int position = 0; position < count; position++) {
+            if (lines.length(from + position) < Rope.THRESHOLD) {
+                text[position] = lines.getChars(from + position).toString();
+            }
+        }
+        int chunks = threads * CHUNKS_PER_THREAD;
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final int start = (int) ((long) count * chunk / chunks);
+            final int end = (int) ((long) count * (chunk + 1) / chunks);
+            final RangeWorker fork = worker.fork();
+            tasks.add(new Callable<Void>() {
+                public Void call()
+                {
+                    fork.runAll(text, start, end);
+                    return null;
+                }
+            });
+        }
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (RejectedExecutionException ex) {
+            /* the pool was shut down;  do the work on this thread */
+            worker.runAll(text, 0, count);
+        } catch (InterruptedException ex) {
+            /* finish the work on this thread, and leave the interrupt set */
+            Thread.currentThread().interrupt();
+            worker.runAll(text, 0, count);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /* work on the lines of the array in [start, end), skipping long lines */
+    private void runAll(String[] text, int start, int end)
+    {
+        for (int position = start; position < end; position++) {
+            if (text[position] != null) {
+                run(position, text[position]);
+            }
+        }
+    }
+
+    /**
+     * Records whether each line matches a pattern, as a whole.
+     */
+    static class Match
+            extends RangeWorker
+    {
+        private final Pattern pattern;
+        private final boolean[] matched;
+
+        Match(Pattern pattern, boolean[] matched)
+        {
+            super(pattern);
+            this.pattern = pattern;
+            this.matched = matched;
+        }
+
+        RangeWorker fork()
+        {
+            return new Match(pattern, matched);
+        }
+
+        void run(int position, String line)
+        {
+            matched[position] = matcher.reset(line).matches();
+        }
+
+    }
+
+    /**
+     * Records each line with every match of a pattern replaced, or
+     * <code>null</code> for a line with no match.
+     */
+    static class Replace
+            extends RangeWorker
+    {
+        private final Pattern pattern;
+        private final Replacement replacement;
+        private final String[] results;
+
+        Replace(Pattern pattern, Replacement replacement, String[] results)
+        {
+            super(pattern);
+            this.pattern = pattern;
+            this.replacement = replacement;
+            this.results = results;
+        }
+
+        RangeWorker fork()
+        {
+            return new Replace(pattern, replacement, results);
+        }
+
+        void run(int position, String line)
+        {
+            if (matcher.reset(line).find()) {
+                results[position] = replacement.replace(line, matcher, true);
+            }
+        }
+
+    }
+
+    /**
+     * Records each line which matches a pattern, as a whole, rewritten by a
+     * format with the capture groups of the match, or <code>null</code> for
+     * a line which does not match or cannot be formatted.
+     */
+    static class Rewrite
+            extends RangeWorker
+    {
+        private final Pattern pattern;
+        private final String format;
+        private final String[] results;
+        /* parsed once for each thread, since it is not thread-safe */
+        private final MessageFormat messageFormat;
+
+        /**
+         * @throws IllegalArgumentException if the format is not valid
+         */
+        Rewrite(Pattern pattern, String format, String[] results)
+        {
+            super(pattern);
+            this.pattern = pattern;
+            this.format = format;
+            this.results = results;
+            this.messageFormat = new MessageFormat(format);
+        }
+
+        RangeWorker fork()
+        {
+            return new Rewrite(pattern, format, results);
+        }
+
+        void run(int position, String line)
+        {
+            if (!matcher.reset(line).matches()) {
+                return;
+            }
+            int groupCount = matcher.groupCount();
+            Object[] groups = new Object[groupCount + 1];
+            for (int i = 0; i <= groupCount; i++) {
+                groups[i] = matcher.group(i);
+            }
+            try {
+                results[position] = messageFormat.format(groups);
+            } catch (IllegalArgumentException ex) {
+                /* leave the line as it is, as rewrite would */
+            }
+        }
+
+    }
+
+}
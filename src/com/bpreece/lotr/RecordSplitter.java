@@ -0,0 +1,62 @@
+
+package com.bpreece.lotr;
+
+import java.util.regex.Pattern;
+
+/**
+ * Decides where the object text can be cut into chunks which can be
+ * processed independently, for example by separate worker threads.
+ *
+ * A chunk is only ever cut immediately before a line which starts a new
+ * record, so that every chunk contains only whole records.  A record starts
+ * at each line which matches the record start pattern, and continues up to,
+ * but not including, the next line which matches the pattern.  The pattern
+ * must match the entire line.  Any lines before the first record start are
+ * kept together with the first record.
+ *
+ * @author ben
+ */
+public class RecordSplitter
+{
+    private final Pattern recordStart;
+
+    /**
+     * Construct a new instance of <code>RecordSplitter</code> which cuts
+     * before lines matching the given pattern.
+     *
+     * @param recordStart the pattern which matches the first line of a record
+     */
+    public RecordSplitter(Pattern recordStart)
+    {
+        this.recordStart = recordStart;
+    }
+
+    /**
+     * Returns whether the given line starts a new record.
+     *
+     * @param line the line to test
+     * @return <code>true</code> if the line matches the record start pattern,
+     *         and <code>false</code> otherwise.
+     */
+    public boolean isRecordStart(String line)
+    {
+        return recordStart.matcher(line).matches();
+    }
+
+    /**
+     * Returns whether a chunk which already holds the given number of lines
+     * should be cut before the given line;  that is, whether the chunk has
+     * reached its target size and the line starts a new record.
+     *
+     * @param chunkSize the number of lines already in the chunk
+     * @param targetSize the target number of lines per chunk
+     * @param line the next line
+     * @return <code>true</code> if a new chunk should start with the line,
+     *         and <code>false</code> otherwise.
+     */
+    public boolean isCut(int chunkSize, int targetSize, String line)
+    {
+        return chunkSize >= targetSize && isRecordStart(line);
+    }
+
+}
@@ -0,0 +1,296 @@
+
+package com.bpreece.lotr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The replacement string of a <code>replace-all</code> or
+ * <code>replace-first</code> directive, parsed once for the pattern it is
+ * used with, instead of every time a line is rewritten.
+ *
+ * The syntax is that of <code>Matcher.appendReplacement()</code>:
+ * <code>$n</code> and <code>${name}</code> refer to capture groups, and a
+ * backslash quotes the next character.  A replacement is a list of literal
+ * strings with a group reference between each pair, so applying it only
+ * appends those pieces.
+ *
+ * Instances are immutable, and may be shared between threads.
+ *
+ * @author ben
+ */
+public final class Replacement
+{
+    /* literals[i] comes before the i'th group reference, and the last
+       literal after the last reference */
+    private final String[] literals;
+    /* the number of each group referred to, or -1 for a named group */
+    private final int[] groups;
+    private final String[] names;
+
+    private Replacement(String[] literals, int[] groups, String[] names)
+    {
+        this.literals = literals;
+        this.groups = groups;
+        this.names = names;
+    }
+
+    /**
+     * Parse a replacement string for use with the given pattern.  As with
+     * <code>Matcher.appendReplacement()</code>, the digits after a
+     * <code>$</code> are read for as long as they name a group of the
+     * pattern.
+     *
+     * @param replacement the replacement string
+     * @param pattern the pattern whose matches are replaced
+     * @return the parsed replacement
+     * @throws IllegalArgumentException if the replacement is not valid, or
+     *         refers to a group which the pattern does not have
+     */
+    public static Replacement parse(String replacement, Pattern pattern)
+    {
+        int groupCount = pattern.matcher("").groupCount();
+        List<String> literals = new ArrayList<String>();
+        List<Integer> groups = new ArrayList<Integer>();
+        List<String> names = new ArrayList<String>();
+        StringBuilder literal = new StringBuilder();
+        int cursor = 0;
+        int length = replacement.length();
+        while (cursor < length) {
+            char c = replacement.charAt(cursor++);
+            if (c == '\\') {
+                if (cursor == length) {
+                    throw new IllegalArgumentException(
+                            "character to be escaped is missing");
+                }
+                literal.append(replacement.charAt(cursor++));
+                continue;
+            } else if (c != '$') {
+                literal.append(c);
+                continue;
+            }
+
+            if (cursor == length) {
+                throw new IllegalArgumentException(
+                        "Illegal group reference: group index is missing");
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            c = replacement.charAt(cursor++);
+            if (c == '{') {
+                int nameStart = cursor;
+                while (cursor < length && isNameChar(replacement.charAt(cursor))) {
+                    cursor++;
+                }
+                if (cursor == length || replacement.charAt(cursor) != '}') {
+                    throw new IllegalArgumentException(
+                            "named capturing group is missing trailing '}'");
+                }
+                if (cursor == nameStart) {
+                    throw new IllegalArgumentException(
+                            "named capturing group has 0 length name");
+                }
+                String name = replacement.substring(nameStart, cursor++);
+                if (!hasGroup(pattern, name)) {
+                    throw new IllegalArgumentException(
+                            "No group with name {" + name + "}");
+                }
+                groups.add(-1);
+                names.add(name);
+            } else {
+                int group = c - '0';
+                if (group < 0 || group > 9) {
+                    throw new IllegalArgumentException("Illegal group reference");
+                }
+                while (cursor < length) {
+                    int digit = replacement.charAt(cursor) - '0';
+                    if (digit < 0 || digit > 9
+                            || group * 10 + digit > groupCount) {
+                        break;
+                    }
+                    group = group * 10 + digit;
+                    cursor++;
+                }
+                if (group > groupCount) {
+                    throw new IllegalArgumentException("No group " + group);
+                }
+                groups.add(group);
+                names.add(null);
+            }
+        }
+        literals.add(literal.toString());
+        int[] groupArray = new int[groups.size()];
+        for (int index = 0; index < groupArray.length; index++) {
+            groupArray[index] = groups.get(index);
+        }
+        return new Replacement(literals.toArray(new String[literals.size()]),
+                               groupArray,
+                               names.toArray(new String[names.size()]));
+    }
+
+    /**
+     * Return a replacement which replaces every match with the given string
+     * as it is, with no group references or quoting.
+     *
+     * @param string the string which replaces every match
+     * @return the literal replacement
+     */
+    public static Replacement literal(String string)
+    {
+        return new Replacement(new String[] { string }, new int[0],
+                               new String[0]);
+    }
+
+    /**
+     * Return whether the replacement refers to no groups, so that every
+     * match is replaced by the same string.
+     *
+     * @return <code>true</code> if the replacement is a literal string
+     */
+    public boolean isLiteral()
+    {
+        return groups.length == 0;
+    }
+
+    /**
+     * Return the string which replaces every match, if the replacement is a
+     * literal string.
+     *
+     * @return the literal string, or <code>null</code> if the replacement
+     *         refers to groups
+     */
+    public String getLiteral()
+    {
+        return isLiteral() ? literals[0] : null;
+    }
+
+    /**
+     * Replace the current match of the matcher, and every following match if
+     * <code>all</code> is <code>true</code>, in the text it is matching.
+     *
+     * @param text the text which the matcher is matching
+     * @param matcher the matcher, which has found the first match
+     * @param all <code>true</code> to replace every match, and
+     *        <code>false</code> to replace only the first
+     * @return the rewritten text
+     */
+    String replace(CharSequence text, Matcher matcher, boolean all)
+    {
+        StringBuilder buffer = new StringBuilder(text.length() + 16);
+        int last = 0;
+        do {
+            buffer.append(text, last, matcher.start());
+            appendTo(buffer, text, matcher);
+            last = matcher.end();
+        } while (all && matcher.find());
+        buffer.append(text, last, text.length());
+        return buffer.toString();
+    }
+
+    /**
+     * Append the replacement for the current match of the matcher.
+     *
+     * @param buffer the buffer to append to
+     * @param text the text which the matcher is matching
+     * @param matcher the matcher, positioned at a match
+     */
+    void appendTo(StringBuilder buffer, CharSequence text, Matcher matcher)
+    {
+        for (int index = 0; index < groups.length; index++) {
+            buffer.append(literals[index]);
+            if (groups[index] < 0) {
+                String group = matcher.group(names[index]);
+                if (group != null) {
+                    buffer.append(group);
+                }
+                continue;
+            }
+            int start = matcher.start(groups[index]);
+            if (start >= 0) {
+                buffer.append(text, start, matcher.end(groups[index]));
+            }
+        }
+        buffer.append(literals[groups.length]);
+    }
+
+    /**
+     * Append the replacement for the current match of the matcher, sharing
+     * the text of the groups rather than copying it.
+     *
+     * @param builder the rope builder to append to
+     * @param text the text which the matcher is matching
+     * @param matcher the matcher, positioned at a match
+     */
+    void appendTo(Rope.Builder builder, CharSequence text, Matcher matcher)
+    {
+        for (int index = 0; index < groups.length; index++) {
+            builder.append(literals[index]);
+            if (groups[index] < 0) {
+                String group = matcher.group(names[index]);
+                if (group != null) {
+                    builder.append(group);
+                }
+                continue;
+            }
+            int start = matcher.start(groups[index]);
+            if (start >= 0) {
+                builder.append(text, start, matcher.end(groups[index]));
+            }
+        }
+        builder.append(literals[groups.length]);
+    }
+
+    /**
+     * Return whether replacing the current match of the matcher would leave
+     * the text as it is, by comparing the expanded replacement with the
+     * matched text only.
+     *
+     * @param text the text which the matcher is matching
+     * @param matcher the matcher, positioned at a match
+     * @return <code>true</code> if the replacement is the same as the match
+     */
+    boolean isUnchanged(CharSequence text, Matcher matcher)
+    {
+        int start = matcher.start();
+        int end = matcher.end();
+        StringBuilder buffer = new StringBuilder(end - start);
+        appendTo(buffer, text, matcher);
+        if (buffer.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < buffer.length(); i++) {
+            if (buffer.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Return whether the pattern has a group with the given name.  There is
+     * no way to ask a pattern for its group names before Java 8, so this
+     * compiles a back reference to the name after the pattern, which fails
+     * if the group does not exist.  The newline ends a trailing comment if
+     * the pattern uses COMMENTS mode.
+     */
+    private static boolean hasGroup(Pattern pattern, String name)
+    {
+        try {
+            Pattern.compile("(?:" + pattern.pattern() + "\n)\\k<" + name + ">",
+                            pattern.flags());
+            return true;
+        } catch (PatternSyntaxException ex) {
+            return false;
+        }
+    }
+
+    private static boolean isNameChar(char c)
+    {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+            || (c >= '0' && c <= '9');
+    }
+
+}
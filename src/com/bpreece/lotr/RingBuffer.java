@@ -0,0 +1,127 @@
+
+package com.bpreece.lotr;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded ring buffer which passes items from exactly one producer thread
+ * to exactly one consumer thread.
+ *
+ * The producer adds items with <code>put()</code> and finishes with
+ * <code>close()</code>, or with <code>fail()</code> if it cannot continue.
+ * The consumer removes items with <code>take()</code>, which returns
+ * <code>null</code> once the buffer is closed and empty.  Both sides wait
+ * when the buffer is full or empty, by spinning briefly and then parking.
+ *
+ * This class is safe only for a single producer and a single consumer.
+ *
+ * @author ben
+ */
+public class RingBuffer<T>
+{
+    private static final int SPIN_LIMIT = 100;
+    private static final long PARK_NANOS = 50000L;
+
+    private final Object[] items;
+    private final int mask;
+    /* the index of the next item to take; written only by the consumer */
+    private volatile long head;
+    /* the index of the next item to put; written only by the producer */
+    private volatile long tail;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    /**
+     * Construct a new instance of <code>RingBuffer</code> which holds at
+     * least the given number of items.  The capacity is rounded up to a
+     * power of two.
+     *
+     * @param capacity the minimum number of items the buffer can hold
+     */
+    public RingBuffer(int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        items = new Object[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Adds an item to the buffer, waiting while the buffer is full.
+     *
+     * @param item the item to add; must not be <code>null</code>
+     */
+    public void put(T item)
+    {
+        long index = tail;
+        int spins = 0;
+        while (index - head >= items.length) {
+            spins = pause(spins);
+        }
+        items[(int) index & mask] = item;
+        tail = index + 1;
+    }
+
+    /**
+     * Marks the end of the items.  The consumer receives <code>null</code>
+     * from <code>take()</code> after it has taken all remaining items.
+     */
+    public void close()
+    {
+        closed = true;
+    }
+
+    /**
+     * Marks the end of the items because the producer failed.  The consumer
+     * receives the given exception from <code>take()</code> after it has
+     * taken all remaining items.
+     *
+     * @param ex the reason the producer failed
+     */
+    public void fail(IOException ex)
+    {
+        failure = ex;
+        closed = true;
+    }
+
+    /**
+     * Removes and returns the next item, waiting while the buffer is empty.
+     *
+     * @return the next item, or <code>null</code> if the buffer is closed and
+     *         all items have been taken.
+     * @throws IOException if the producer failed
+     */
+    @SuppressWarnings("unchecked")
+    public T take()
+            throws IOException
+    {
+        long index = head;
+        int spins = 0;
+        while (index == tail) {
+            if (closed && index == tail) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return null;
+            }
+            spins = pause(spins);
+        }
+        int slot = (int) index & mask;
+        T item = (T) items[slot];
+        items[slot] = null;
+        head = index + 1;
+        return item;
+    }
+
+    private static int pause(int spins)
+    {
+        if (spins < SPIN_LIMIT) {
+            Thread.yield();
+            return spins + 1;
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            return spins;
+        }
+    }
+
+}
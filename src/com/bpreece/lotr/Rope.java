@@ -0,0 +1,284 @@
+
+package com.bpreece.lotr;
+
+import java.util.regex.Matcher;
+
+/**
+ * An immutable character sequence made of pieces of other strings, used for
+ * very long lines so that slicing, joining and rewriting them shares the text
+ * they were made from instead of copying it.
+ *
+ * A rope is a table of pieces, each of which is a range of characters in a
+ * <code>String</code>.  Taking a subsequence of a rope, or appending ropes
+ * together, only copies the table.  Random access finds the piece holding a
+ * character by a binary search, but runs of sequential access, such as a
+ * regular expression scan, stay in the same piece and cost no more than
+ * access to a <code>String</code>.
+ *
+ * Ropes are only worth their overhead for long text made of long pieces, so
+ * <code>Builder.build()</code> returns a plain <code>String</code> if the
+ * text is shorter than <code>THRESHOLD</code> characters, or if its pieces
+ * are short on average.  Note that a piece keeps the whole of its string
+ * alive, so that a short slice of a huge line holds on to the huge line
+ * until the slice is copied into a <code>String</code>.
+ *
+ * This class is not thread-safe:  it caches the last piece it read from.
+ *
+ * @author ben
+ */
+final class Rope
+        implements CharSequence
+{
+    /* text shorter than this many characters is kept in a plain String */
+    static final int THRESHOLD = 1 << 20;
+
+    /* text whose pieces are shorter than this on average is flattened */
+    private static final int MIN_PIECE_LENGTH = 256;
+
+    private final String[] bases;
+    private final int[] offsets;
+
+    /* starts[i] is the index of the first character of piece i, and
+       starts[count] is the length of the rope */
+    private final int[] starts;
+    private final int count;
+
+    /* the piece which was read last */
+    private int piece;
+
+    private Rope(String[] bases, int[] offsets, int[] starts, int count)
+    {
+        this.bases = bases;
+        this.offsets = offsets;
+        this.starts = starts;
+        this.count = count;
+    }
+
+    /**
+     * Collects pieces of text, without copying them, to make a new rope.
+     */
+    static class Builder
+    {
+        private String[] bases = new String[8];
+        private int[] offsets = new int[8];
+        private int[] starts = new int[9];
+        private int count;
+
+        /**
+         * Append the given text.
+         *
+         * @param text the text to append
+         * @return this builder
+         */
+        Builder append(CharSequence text)
+        {
+            return append(text, 0, text.length());
+        }
+
+        /**
+         * Append the characters of the given text from <code>start</code>,
+         * inclusive, to <code>end</code>, exclusive.  Strings and ropes are
+         * shared;  any other sequence is copied, since it might change.
+         *
+         * @param text the text to append from
+         * @param start the index of the first character to append
+         * @param end the index after the last character to append
+         * @return this builder
+         * @throws IndexOutOfBoundsException if the indexes are out of range
+         */
+        Builder append(CharSequence text, int start, int end)
+        {
+            if (start < 0 || end > text.length() || start > end) {
+                throw new IndexOutOfBoundsException(
+                        "start=" + start + ", end=" + end
+                        + ", length=" + text.length());
+            }
+            if (start == end) {
+                return this;
+            }
+            if (text instanceof Rope) {
+                ((Rope) text).appendTo(this, start, end);
+            } else if (text instanceof String) {
+                add((String) text, start, end - start);
+            } else {
+                String copy = text.subSequence(start, end).toString();
+                add(copy, 0, copy.length());
+            }
+            return this;
+        }
+
+        /**
+         * Return the number of characters appended so far.
+         *
+         * @return the length of the text
+         */
+        int length()
+        {
+            return starts[count];
+        }
+
+        /**
+         * Return the text appended so far, as a rope if it is long and made
+         * of long pieces, and as a <code>String</code> otherwise.  Once it
+         * has built a rope, the builder may not be used again.
+         *
+         * @return the text
+         */
+        CharSequence build()
+        {
+            int length = starts[count];
+            if (count == 1 && offsets[0] == 0 && bases[0].length() == length) {
+                return bases[0];
+            }
+            Rope rope = new Rope(bases, offsets, starts, count);
+            if (length < THRESHOLD || count > length / MIN_PIECE_LENGTH) {
+                return rope.toString();
+            }
+            bases = null;
+            offsets = null;
+            starts = null;
+            return rope;
+        }
+
+        private void add(String base, int offset, int length)
+        {
+            int end = starts[count];
+            if (length > Integer.MAX_VALUE - end) {
+                throw new OutOfMemoryError("Line too long");
+            }
+
+            /* a piece which follows on from the last one extends it */
+            if (count > 0 && bases[count - 1] == base
+                    && offsets[count - 1] + (end - starts[count - 1]) == offset) {
+                starts[count] = end + length;
+                return;
+            }
+            if (count == bases.length) {
+                String[] newBases = new String[count * 2];
+                System.arraycopy(bases, 0, newBases, 0, count);
+                bases = newBases;
+                int[] newOffsets = new int[count * 2];
+                System.arraycopy(offsets, 0, newOffsets, 0, count);
+                offsets = newOffsets;
+                int[] newStarts = new int[count * 2 + 1];
+                System.arraycopy(starts, 0, newStarts, 0, count + 1);
+                starts = newStarts;
+            }
+            bases[count] = base;
+            offsets[count] = offset;
+            starts[count + 1] = end + length;
+            count++;
+        }
+
+    }
+
+    /**
+     * Replace the first, or every, match of the matcher's pattern in the text
+     * with the given replacement, as for <code>Matcher.replaceFirst()</code>
+     * and <code>Matcher.replaceAll()</code>.  The text between matches, and
+     * the text of groups referred to by the replacement, are shared with the
+     * original text rather than copied.
+     *
+     * @param text the text to rewrite
+     * @param matcher a matcher on the text, which has found the first match
+     * @param replacement the replacement, which may refer to groups
+     * @param all <code>true</code> to replace every match, and
+     *        <code>false</code> to replace only the first
+     * @return the rewritten text
+     */
+    static CharSequence replace(CharSequence text, Matcher matcher,
+                                Replacement replacement, boolean all)
+    {
+        Builder builder = new Builder();
+        int last = 0;
+        do {
+            builder.append(text, last, matcher.start());
+            replacement.appendTo(builder, text, matcher);
+            last = matcher.end();
+        } while (all && matcher.find());
+        builder.append(text, last, text.length());
+        return builder.build();
+    }
+
+    /**
+     * Return whether the two sequences hold the same characters.
+     *
+     * @param a a sequence
+     * @param b another sequence
+     * @return <code>true</code> if the sequences are equal
+     */
+    static boolean contentEquals(CharSequence a, CharSequence b)
+    {
+        if (a == b) {
+            return true;
+        }
+        int length = a.length();
+        if (b.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int length()
+    {
+        return starts[count];
+    }
+
+    public char charAt(int index)
+    {
+        if (index < starts[piece] || index >= starts[piece + 1]) {
+            if (index < 0 || index >= starts[count]) {
+                throw new IndexOutOfBoundsException("index=" + index);
+            }
+            piece = find(index);
+        }
+        return bases[piece].charAt(offsets[piece] + index - starts[piece]);
+    }
+
+    public CharSequence subSequence(int start, int end)
+    {
+        return new Builder().append(this, start, end).build();
+    }
+
+    @Override
+    public String toString()
+    {
+        char[] chars = new char[starts[count]];
+        for (int i = 0; i < count; i++) {
+            bases[i].getChars(offsets[i], offsets[i] + starts[i + 1] - starts[i],
+                              chars, starts[i]);
+        }
+        return new String(chars);
+    }
+
+    private void appendTo(Builder builder, int start, int end)
+    {
+        for (int i = find(start); i < count && starts[i] < end; i++) {
+            int from = Math.max(start, starts[i]);
+            int to = Math.min(end, starts[i + 1]);
+            builder.add(bases[i], offsets[i] + from - starts[i], to - from);
+        }
+    }
+
+    /* return the piece holding the character at the given index */
+    private int find(int index)
+    {
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (starts[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,168 @@
+
+package com.bpreece.lotr;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers the result of the last forward search for each predicate, so that
+ * a loop which repeatedly searches forward for the same predicate does not
+ * test the same lines again each time around.
+ *
+ * For each predicate, the cache holds a span of lines which are known to fail
+ * the predicate, and whether the line just after the span is known to pass
+ * it.  A search which starts inside the span skips straight to the end of the
+ * span.  The span is kept up to date as lines are inserted, replaced and
+ * removed, testing only the changed line, so a loop which moves forward
+ * through the object text tests each line about once in all, instead of once
+ * for each time around the loop.
+ *
+ * This class is not thread-safe.
+ *
+ * @author ben
+ */
+class SearchCache
+{
+    /*
+     * The lines in [from, limit) fail the predicate.  If found is true, the
+     * line at limit passes it;  otherwise nothing is known about it.
+     */
+    private static class Span
+    {
+        private int from;
+        private int limit;
+        private boolean found;
+    }
+
+    private final Map<LinePredicate, Span> spans =
+        new HashMap<LinePredicate, Span>();
+    private int scanned;
+
+    /**
+     * Return the index of the first line at or after <code>from</code>, and
+     * before <code>to</code>, which passes the given predicate.
+     *
+     * @param lines the line store being searched
+     * @param predicate the predicate to pass
+     * @param from the first index to consider
+     * @param to the index after the last index to consider
+     * @return the index of the line, or -1 if there is none
+     */
+    int findNext(LineStore lines, LinePredicate predicate, int from, int to)
+    {
+        scanned = 0;
+        if (from >= to) {
+            return -1;
+        }
+        Span span = spans.get(predicate);
+        if (span == null || from < span.from || from > span.limit) {
+            if (span == null) {
+                span = new Span();
+                spans.put(predicate, span);
+            }
+            span.from = from;
+            span.limit = from;
+            span.found = false;
+        } else if (span.found || to <= span.limit) {
+            return (span.found && span.limit < to) ? span.limit : -1;
+        }
+
+        /* scan on from the end of the span */
+        for (int index = span.limit; index < to; index++) {
+            scanned++;
+            if (predicate.test(lines.getChars(index))) {
+                span.limit = index;
+                span.found = true;
+                return index;
+            }
+        }
+        span.limit = to;
+        return -1;
+    }
+
+    /**
+     * Return the number of lines which the last search tested.
+     *
+     * @return the number of lines tested
+     */
+    int getScanned()
+    {
+        return scanned;
+    }
+
+    /**
+     * Return whether the cache holds no search results, so that changes to
+     * the lines need not be reported to it.
+     *
+     * @return <code>true</code> if no searches have been made
+     */
+    boolean isEmpty()
+    {
+        return spans.isEmpty();
+    }
+
+    /**
+     * Update the cache after a line was inserted.
+     *
+     * @param index the index of the new line
+     * @param line the new line
+     */
+    void inserted(int index, String line)
+    {
+        for (Map.Entry<LinePredicate, Span> entry : spans.entrySet()) {
+            Span span = entry.getValue();
+            if (index < span.from) {
+                span.from++;
+                span.limit++;
+            } else if (index < span.limit || (span.found && index == span.limit)) {
+                if (entry.getKey().test(line)) {
+                    span.limit = index;
+                    span.found = true;
+                } else {
+                    span.limit++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Update the cache after a line was replaced.
+     *
+     * @param index the index of the line
+     * @param line the new line
+     */
+    void updated(int index, String line)
+    {
+        for (Map.Entry<LinePredicate, Span> entry : spans.entrySet()) {
+            Span span = entry.getValue();
+            if (index >= span.from && index < span.limit) {
+                if (entry.getKey().test(line)) {
+                    span.limit = index;
+                    span.found = true;
+                }
+            } else if (span.found && index == span.limit) {
+                span.found = entry.getKey().test(line);
+            }
+        }
+    }
+
+    /**
+     * Update the cache after a line was removed.
+     *
+     * @param index the index of the removed line
+     */
+    void removed(int index)
+    {
+        for (Span span : spans.values()) {
+            if (index < span.from) {
+                span.from--;
+                span.limit--;
+            } else if (index < span.limit) {
+                span.limit--;
+            } else if (index == span.limit) {
+                span.found = false;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,206 @@
+
+package com.bpreece.lotr;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An inverted index from search predicates to the indexes of the lines which
+ * pass them, so that repeated searches for the same string or regular
+ * expression are a binary search instead of a scan of the object text.
+ *
+ * The posting list for a predicate is built by a single scan the first time
+ * the predicate is searched for, and is then kept up to date as lines are
+ * inserted, replaced and removed.  Only predicates which have been searched
+ * for are indexed.
+ *
+ * This class is not thread-safe.
+ *
+ * @author ben
+ */
+class SearchIndex
+{
+    /*
+     * A sorted list of the indexes of the lines which pass a predicate.
+     */
+    private static class Postings
+    {
+        private int[] indexes = new int[16];
+        private int size;
+
+        void append(int index)
+        {
+            if (size == indexes.length) {
+                int[] newIndexes = new int[size * 2];
+                System.arraycopy(indexes, 0, newIndexes, 0, size);
+                indexes = newIndexes;
+            }
+            indexes[size++] = index;
+        }
+
+        /* return the position of the first posting >= index */
+        int search(int index)
+        {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (indexes[middle] < index) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        void insert(int position, int index)
+        {
+            append(0);
+            System.arraycopy(indexes, position, indexes, position + 1,
+                             size - position - 1);
+            indexes[position] = index;
+        }
+
+        void delete(int position)
+        {
+            System.arraycopy(indexes, position + 1, indexes, position,
+                             size - position - 1);
+            size--;
+        }
+
+        void shift(int position, int delta)
+        {
+            for (int i = position; i < size; i++) {
+                indexes[i] += delta;
+            }
+        }
+
+    }
+
+    private final Map<LinePredicate, Postings> postings =
+        new HashMap<LinePredicate, Postings>();
+    private int scanned;
+
+    /**
+     * Return the index of the first line at or after <code>from</code>, and
+     * before <code>to</code>, which passes the given predicate.
+     *
+     * @param lines the line store being indexed
+     * @param predicate the predicate to pass
+     * @param from the first index to consider
+     * @param to the index after the last index to consider
+     * @return the index of the line, or -1 if there is none
+     */
+    int findNext(LineStore lines, LinePredicate predicate, int from, int to)
+    {
+        Postings list = getPostings(lines, predicate);
+        int position = list.search(from);
+        if (position < list.size && list.indexes[position] < to) {
+            return list.indexes[position];
+        }
+        return -1;
+    }
+
+    /**
+     * Return the index of the last line before <code>to</code> which passes
+     * the given predicate.
+     *
+     * @param lines the line store being indexed
+     * @param predicate the predicate to pass
+     * @param to the index after the last index to consider
+     * @return the index of the line, or -1 if there is none
+     */
+    int findPrev(LineStore lines, LinePredicate predicate, int to)
+    {
+        Postings list = getPostings(lines, predicate);
+        int position = list.search(to);
+        return (position > 0) ? list.indexes[position - 1] : -1;
+    }
+
+    /**
+     * Return the number of lines which the last search tested, which is
+     * every line if it built a new posting list, and none otherwise.
+     *
+     * @return the number of lines tested
+     */
+    int getScanned()
+    {
+        return scanned;
+    }
+
+    /**
+     * Update the index after a line was inserted.
+     *
+     * @param index the index of the new line
+     * @param line the new line
+     */
+    void inserted(int index, String line)
+    {
+        for (Map.Entry<LinePredicate, Postings> entry : postings.entrySet()) {
+            Postings list = entry.getValue();
+            int position = list.search(index);
+            list.shift(position, 1);
+            if (entry.getKey().test(line)) {
+                list.insert(position, index);
+            }
+        }
+    }
+
+    /**
+     * Update the index after a line was replaced.
+     *
+     * @param index the index of the line
+     * @param line the new line
+     */
+    void updated(int index, String line)
+    {
+        for (Map.Entry<LinePredicate, Postings> entry : postings.entrySet()) {
+            Postings list = entry.getValue();
+            int position = list.search(index);
+            boolean present = position < list.size
+                && list.indexes[position] == index;
+            boolean passes = entry.getKey().test(line);
+            if (present && !passes) {
+                list.delete(position);
+            } else if (passes && !present) {
+                list.insert(position, index);
+            }
+        }
+    }
+
+    /**
+     * Update the index after a line was removed.
+     *
+     * @param index the index of the removed line
+     */
+    void removed(int index)
+    {
+        for (Postings list : postings.values()) {
+            int position = list.search(index);
+            if (position < list.size && list.indexes[position] == index) {
+                list.delete(position);
+            }
+            list.shift(position, -1);
+        }
+    }
+
+    private Postings getPostings(LineStore lines, LinePredicate predicate)
+    {
+        Postings list = postings.get(predicate);
+        scanned = 0;
+        if (list == null) {
+            list = new Postings();
+            int lineCount = lines.size();
+            for (int index = 0; index < lineCount; index++) {
+                if (predicate.test(lines.getChars(index))) {
+                    list.append(index);
+                }
+            }
+            scanned = lineCount;
+            postings.put(predicate, list);
+        }
+        return list;
+    }
+
+}
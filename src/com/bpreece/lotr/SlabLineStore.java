@@ -0,0 +1,534 @@
+
+package com.bpreece.lotr;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A compact <code>LineStore</code> which packs the text of every line into
+ * large shared byte slabs, instead of keeping a separate <code>String</code>
+ * object for each line.
+ *
+ * Each line is encoded as Latin-1 if it can be, which takes one byte per
+ * character, and as UTF-8 otherwise.  Lines which UTF-8 cannot represent
+ * exactly, such as lines with unpaired surrogates, are kept as UTF-16.  The
+ * position and length of each line are kept in a pair of
+ * <code>LineIndex</code> lists, which take about four bytes per line each,
+ * so the overhead is about eight bytes per line in place of the fifty or more
+ * bytes of a <code>String</code> and its array.  A <code>String</code> is only
+ * created when a line is read.
+ *
+ * New and replaced lines are appended to the last slab, and the space of
+ * replaced and removed lines is reclaimed by compacting the slabs once it
+ * outweighs the live text.
+ *
+ * Joining adjacent lines, and slicing, trimming or changing the case of a
+ * line, are done on the bytes where they are whenever the encoding allows
+ * it, instead of building a new <code>String</code> and appending it.  Lines
+ * which were added one after another lie next to each other in a slab, so
+ * joining them only changes the line index.
+ *
+ * Latin-1 and UTF-16 lines can be searched and matched where they lie in
+ * their slabs, through the views returned by <code>getChars()</code>.
+ *
+ * The slabs are heap buffers;  subclasses can hold them elsewhere by
+ * overriding <code>newSlab()</code>.
+ *
+ * @author ben
+ */
+public class SlabLineStore
+        extends AbstractLineStore
+{
+    /* the size of a slab;  longer lines get a slab to themselves */
+    private static final int SLAB_SHIFT = 20;
+    private static final int SLAB_SIZE = 1 << SLAB_SHIFT;
+
+    /* the encoding is kept in the low bits of the length of each line */
+    private static final int LATIN_1 = 0;
+    private static final int UTF_8 = 1;
+    private static final int UTF_16 = 2;
+    static final int ENCODING_BITS = 2;
+    private static final Charset LATIN_1_CHARSET = Charset.forName("ISO-8859-1");
+    private static final Charset UTF_8_CHARSET = Charset.forName("UTF-8");
+
+    private ArrayList<ByteBuffer> slabs = new ArrayList<ByteBuffer>();
+    /* the slab index times SLAB_SIZE, plus the offset in the slab */
+    private final LineIndex addresses = new LineIndex();
+    /* the byte length, shifted left past the encoding */
+    private final LineIndex lengths = new LineIndex();
+    private int fill = SLAB_SIZE;
+    private long liveBytes;
+    private long deadBytes;
+
+    /**
+     * Construct a new, empty instance of <code>SlabLineStore</code>.
+     */
+    public SlabLineStore()
+    {
+    }
+
+    /**
+     * Construct a new instance of <code>SlabLineStore</code> holding a copy
+     * of the given lines.
+     *
+     * @param lines the initial lines
+     */
+    public SlabLineStore(List<String> lines)
+    {
+        for (String line : lines) {
+            add(size(), line);
+        }
+    }
+
+    public int size()
+    {
+        return addresses.size();
+    }
+
+    public String get(int index)
+    {
+        long address = addresses.get(index);
+        long length = lengths.get(index);
+        int byteCount = (int) (length >>> ENCODING_BITS);
+        if (byteCount == 0) {
+            return "";
+        }
+        ByteBuffer slab = slabs.get((int) (address >>> SLAB_SHIFT));
+        int offset = (int) (address & (SLAB_SIZE - 1));
+        int encoding = encodingOf(length);
+        if (slab.hasArray()) {
+            return decode(slab.array(), slab.arrayOffset() + offset, byteCount,
+                          encoding);
+        } else {
+            return decode(copy(slab, offset, byteCount), 0, byteCount,
+                          encoding);
+        }
+    }
+
+    /**
+     * Return a view of the text of the line at the given index in its slab,
+     * if it is Latin-1 or UTF-16, so that it can be searched and matched
+     * without decoding it.  A UTF-8 line is decoded, since its characters do
+     * not have fixed places.
+     */
+    @Override
+    public CharSequence getChars(int index)
+    {
+        long length = lengths.get(index);
+        int byteCount = (int) (length >>> ENCODING_BITS);
+        int encoding = encodingOf(length);
+        if (byteCount == 0 || encoding == UTF_8) {
+            return get(index);
+        }
+        long address = addresses.get(index);
+        ByteBuffer slab = slabs.get((int) (address >>> SLAB_SHIFT));
+        int offset = (int) (address & (SLAB_SIZE - 1));
+        if (encoding == UTF_16) {
+            return new ByteChars(slab, offset, byteCount / 2, true);
+        } else {
+            return new ByteChars(slab, offset, byteCount, false);
+        }
+    }
+
+    public void set(int index, String line)
+    {
+        release(index);
+        int encoding = getEncoding(line);
+        byte[] bytes = encode(line, encoding);
+        addresses.set(index, append(bytes, 0, bytes.length));
+        lengths.set(index, ((long) bytes.length << ENCODING_BITS) | encoding);
+        compactIfWasteful();
+    }
+
+    public void add(int index, String line)
+    {
+        int encoding = getEncoding(line);
+        byte[] bytes = encode(line, encoding);
+        addresses.add(index, append(bytes, 0, bytes.length));
+        lengths.add(index, ((long) bytes.length << ENCODING_BITS) | encoding);
+    }
+
+    public void remove(int index)
+    {
+        release(index);
+        addresses.remove(index);
+        lengths.remove(index);
+        compactIfWasteful();
+    }
+
+    @Override
+    public int length(int index)
+    {
+        long length = lengths.get(index);
+        int byteCount = (int) (length >>> ENCODING_BITS);
+        switch (encodingOf(length)) {
+        case LATIN_1:
+            return byteCount;
+        case UTF_16:
+            return byteCount / 2;
+        default:
+            return get(index).length();
+        }
+    }
+
+    @Override
+    public boolean join(int index, int count, String separator)
+    {
+        if (index < 0 || count < 0 || index + count >= size()) {
+            throw new IndexOutOfBoundsException("index=" + (index + count));
+        }
+        if (separator.length() > 0) {
+            return super.join(index, count, separator);
+        }
+
+        /* the lines can be joined in place if their bytes follow each other
+           in a single slab, all in the same encoding */
+        long start = -1;
+        long end = -1;
+        int encoding = LATIN_1;
+        for (int n = index; n <= index + count; n++) {
+            long length = lengths.get(n);
+            long byteCount = length >>> ENCODING_BITS;
+            if (byteCount == 0) {
+                continue;
+            }
+            long address = addresses.get(n);
+            if (start < 0) {
+                start = address;
+                end = address + byteCount;
+                encoding = encodingOf(length);
+            } else if (address == end && encodingOf(length) == encoding
+                       && (address >>> SLAB_SHIFT) == (start >>> SLAB_SHIFT)) {
+                end += byteCount;
+            } else {
+                return super.join(index, count, separator);
+            }
+        }
+
+        long firstCount = lengths.get(index) >>> ENCODING_BITS;
+        for (int n = index + count; n > index; n--) {
+            addresses.remove(n);
+            lengths.remove(n);
+        }
+        if (end - start == firstCount) {
+            return false;
+        }
+        addresses.set(index, start);
+        lengths.set(index, ((end - start) << ENCODING_BITS) | encoding);
+        return true;
+    }
+
+    @Override
+    public boolean slice(int index, int beginIndex, int endIndex)
+    {
+        long length = lengths.get(index);
+        int encoding = encodingOf(length);
+        if (encoding == UTF_8) {
+            return super.slice(index, beginIndex, endIndex);
+        }
+        int width = (encoding == UTF_16) ? 2 : 1;
+        int charCount = (int) (length >>> ENCODING_BITS) / width;
+        if (beginIndex < 0 || endIndex > charCount || beginIndex > endIndex) {
+            throw new StringIndexOutOfBoundsException(
+                    "begin " + beginIndex + ", end " + endIndex
+                    + ", length " + charCount);
+        }
+        if (endIndex - beginIndex == charCount) {
+            return false;
+        }
+        narrow(index, beginIndex * width, endIndex * width);
+        return true;
+    }
+
+    @Override
+    public boolean trim(int index)
+    {
+        long length = lengths.get(index);
+        if (encodingOf(length) != LATIN_1) {
+            return super.trim(index);
+        }
+        int byteCount = (int) (length >>> ENCODING_BITS);
+        if (byteCount == 0) {
+            return false;
+        }
+        long address = addresses.get(index);
+        ByteBuffer slab = slabs.get((int) (address >>> SLAB_SHIFT));
+        int offset = (int) (address & (SLAB_SIZE - 1));
+        int begin = 0;
+        int end = byteCount;
+        while (begin < end && (slab.get(offset + begin) & 0xff) <= ' ') {
+            begin++;
+        }
+        while (end > begin && (slab.get(offset + end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        if (end - begin == byteCount) {
+            return false;
+        }
+        narrow(index, begin, end);
+        return true;
+    }
+
+    @Override
+    public boolean toLowerCase(int index)
+    {
+        int result = changeAsciiCase(index, 'A', 'Z');
+        return (result < 0) ? super.toLowerCase(index) : (result > 0);
+    }
+
+    @Override
+    public boolean toUpperCase(int index)
+    {
+        int result = changeAsciiCase(index, 'a', 'z');
+        return (result < 0) ? super.toUpperCase(index) : (result > 0);
+    }
+
+    public List<String> toList()
+    {
+        int lineCount = size();
+        List<String> list = new ArrayList<String>(lineCount);
+        for (int index = 0; index < lineCount; index++) {
+            list.add(get(index));
+        }
+        return list;
+    }
+
+    /**
+     * Return the number of bytes taken by the text of the lines, not
+     * counting the space of lines which have been replaced or removed but
+     * not yet reclaimed.
+     *
+     * @return the number of bytes of line text
+     */
+    public long getByteCount()
+    {
+        return liveBytes;
+    }
+
+    /**
+     * Allocate a new slab with the given capacity.  Lines are written to the
+     * slab through absolute positions, so the position and limit of the
+     * buffer are not used.
+     *
+     * @param capacity the size of the slab in bytes
+     * @return the new slab
+     */
+    protected ByteBuffer newSlab(int capacity)
+    {
+        return ByteBuffer.allocate(capacity);
+    }
+
+    /*
+     * Choose the most compact encoding which represents the line exactly.
+     */
+    static int getEncoding(String line)
+    {
+        int encoding = LATIN_1;
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (c >= 256) {
+                if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(line.charAt(i + 1))) {
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    return UTF_16;
+                }
+                encoding = UTF_8;
+            }
+        }
+        return encoding;
+    }
+
+    static byte[] encode(String line, int encoding)
+    {
+        if (encoding == LATIN_1) {
+            return line.getBytes(LATIN_1_CHARSET);
+        } else if (encoding == UTF_8) {
+            return line.getBytes(UTF_8_CHARSET);
+        } else {
+            /* by hand, since the charsets replace unpaired surrogates */
+            byte[] bytes = new byte[line.length() * 2];
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                bytes[2 * i] = (byte) c;
+                bytes[2 * i + 1] = (byte) (c >>> 8);
+            }
+            return bytes;
+        }
+    }
+
+    static String decode(byte[] slab, int offset, int length,
+                         int encoding)
+    {
+        if (encoding == LATIN_1) {
+            return new String(slab, offset, length, LATIN_1_CHARSET);
+        } else if (encoding == UTF_8) {
+            return new String(slab, offset, length, UTF_8_CHARSET);
+        } else {
+            char[] chars = new char[length / 2];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = (char) ((slab[offset + 2 * i] & 0xff)
+                                   | (slab[offset + 2 * i + 1] << 8));
+            }
+            return new String(chars);
+        }
+    }
+
+    /*
+     * Copy bytes to the end of the last slab, starting a new slab if they do
+     * not fit, and return their address.
+     */
+    private long append(byte[] bytes, int offset, int length)
+    {
+        if (fill + length > SLAB_SIZE) {
+            slabs.add(newSlab(Math.max(SLAB_SIZE, length)));
+            fill = 0;
+        }
+        int slabIndex = slabs.size() - 1;
+        long address = ((long) slabIndex << SLAB_SHIFT) + fill;
+        if (length > 0) {
+            ByteBuffer slab = slabs.get(slabIndex).duplicate();
+            slab.position(fill);
+            slab.put(bytes, offset, length);
+            fill += length;
+            /* a long line fills its slab, so the next line starts a new one */
+            fill = Math.min(fill, SLAB_SIZE);
+        }
+        liveBytes += length;
+        return address;
+    }
+
+    private static int encodingOf(long length)
+    {
+        return (int) (length & ((1 << ENCODING_BITS) - 1));
+    }
+
+    /*
+     * Keep only the bytes from beginByte to endByte of the line at the given
+     * index, by moving its start and end within the slab.  An address only
+     * has room for an offset below SLAB_SIZE, so if the new start of a line
+     * in an oversized slab is past that, the kept bytes are copied to the
+     * end of the last slab instead.
+     */
+    private void narrow(int index, int beginByte, int endByte)
+    {
+        long length = lengths.get(index);
+        long address = addresses.get(index);
+        int offset = (int) (address & (SLAB_SIZE - 1));
+        if (offset + (long) beginByte >= SLAB_SIZE) {
+            ByteBuffer slab = slabs.get((int) (address >>> SLAB_SHIFT));
+            byte[] kept = copy(slab, offset + beginByte, endByte - beginByte);
+            release(index);
+            addresses.set(index, append(kept, 0, kept.length));
+        } else {
+            long dropped = (length >>> ENCODING_BITS) - (endByte - beginByte);
+            liveBytes -= dropped;
+            deadBytes += dropped;
+            addresses.set(index, address + beginByte);
+        }
+        lengths.set(index, ((long) (endByte - beginByte) << ENCODING_BITS)
+                    | encodingOf(length));
+        compactIfWasteful();
+    }
+
+    /*
+     * Change the case of a line of plain ASCII in its slab, by flipping the
+     * case of the letters from first to last.  Return 1 if the line changed,
+     * 0 if it did not, or -1 if the line is not plain ASCII or the default
+     * locale has its own case rules for ASCII letters, so that the line must
+     * be converted as a String.
+     */
+    private int changeAsciiCase(int index, char first, char last)
+    {
+        long length = lengths.get(index);
+        String language = Locale.getDefault().getLanguage();
+        if (encodingOf(length) != LATIN_1 || language.equals("tr")
+            || language.equals("az") || language.equals("lt")) {
+            return -1;
+        }
+        int byteCount = (int) (length >>> ENCODING_BITS);
+        if (byteCount == 0) {
+            return 0;
+        }
+        long address = addresses.get(index);
+        ByteBuffer slab = slabs.get((int) (address >>> SLAB_SHIFT));
+        int offset = (int) (address & (SLAB_SIZE - 1));
+        boolean letters = false;
+        for (int i = offset; i < offset + byteCount; i++) {
+            byte b = slab.get(i);
+            if (b < 0) {
+                return -1;
+            }
+            letters |= (b >= first && b <= last);
+        }
+        if (!letters) {
+            return 0;
+        }
+        for (int i = offset; i < offset + byteCount; i++) {
+            byte b = slab.get(i);
+            if (b >= first && b <= last) {
+                slab.put(i, (byte) (b ^ 0x20));
+            }
+        }
+        return 1;
+    }
+
+    /* copy bytes out of a slab which has no accessible array */
+    private static byte[] copy(ByteBuffer slab, int offset, int length)
+    {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = slab.duplicate();
+        view.position(offset);
+        view.get(bytes, 0, length);
+        return bytes;
+    }
+
+    /* account for the line at the given index no longer being used */
+    private void release(int index)
+    {
+        long byteCount = lengths.get(index) >>> ENCODING_BITS;
+        liveBytes -= byteCount;
+        deadBytes += byteCount;
+    }
+
+    /*
+     * Copy the live lines into new slabs once the dead space is larger than
+     * both a slab and the live text, so the total is never more than about
+     * twice the live text.
+     */
+    private void compactIfWasteful()
+    {
+        if (deadBytes <= SLAB_SIZE || deadBytes <= liveBytes) {
+            return;
+        }
+        ArrayList<ByteBuffer> oldSlabs = slabs;
+        slabs = new ArrayList<ByteBuffer>();
+        fill = SLAB_SIZE;
+        liveBytes = 0;
+        deadBytes = 0;
+        int lineCount = size();
+        for (int index = 0; index < lineCount; index++) {
+            long address = addresses.get(index);
+            int byteCount = (int) (lengths.get(index) >>> ENCODING_BITS);
+            if (byteCount == 0) {
+                addresses.set(index, append(null, 0, 0));
+                continue;
+            }
+            ByteBuffer slab = oldSlabs.get((int) (address >>> SLAB_SHIFT));
+            int offset = (int) (address & (SLAB_SIZE - 1));
+            if (slab.hasArray()) {
+                addresses.set(index, append(slab.array(),
+                                            slab.arrayOffset() + offset,
+                                            byteCount));
+            } else {
+                addresses.set(index, append(copy(slab, offset, byteCount), 0,
+                                            byteCount));
+            }
+        }
+    }
+
+}
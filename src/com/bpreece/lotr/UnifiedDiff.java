@@ -0,0 +1,102 @@
+
+package com.bpreece.lotr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formats the changes which a script made to the object text as a unified
+ * diff against the original input text.
+ *
+ * The changes are taken from the change tracking in <code>LOTR</code>, so no
+ * lines are compared and only the changed lines and their context are ever
+ * read.  The work done is in proportion to the number of changes, not the
+ * length of the text.
+ *
+ * @author ben
+ */
+public class UnifiedDiff
+{
+    /* the number of unchanged lines shown around each change */
+    public static final int CONTEXT = 3;
+
+    private UnifiedDiff()
+    {
+    }
+
+    /**
+     * Return the lines of a unified diff from the original text to the
+     * current object text of the given <code>LOTR</code>.  If the object text
+     * has not changed, the result is empty.
+     *
+     * @param original the original input text, as passed to the constructor
+     *         of <code>LOTR</code>
+     * @param lotr the processed object text
+     * @param originalName the name of the original text, for the header
+     * @param newName the name of the processed text, for the header
+     * @return the lines of the unified diff
+     */
+    public static List<String> diff(List<String> original, LOTR lotr,
+                                    String originalName, String newName)
+    {
+        List<String> output = new ArrayList<String>();
+        List<ChangeTracker.Change> changes = lotr.getChanges();
+        if (changes.isEmpty()) {
+            return output;
+        }
+        output.add("--- " + originalName);
+        output.add("+++ " + newName);
+
+        int first = 0;
+        while (first < changes.size()) {
+            /* join changes whose context would overlap into one hunk */
+            int last = first;
+            while (last + 1 < changes.size()
+                   && changes.get(last + 1).origStart - changes.get(last).origEnd
+                      <= 2 * CONTEXT) {
+                last++;
+            }
+            ChangeTracker.Change firstChange = changes.get(first);
+            ChangeTracker.Change lastChange = changes.get(last);
+            int leading = Math.min(CONTEXT, firstChange.origStart);
+            int trailing = Math.min(CONTEXT, original.size() - lastChange.origEnd);
+            int origStart = firstChange.origStart - leading;
+            int origEnd = lastChange.origEnd + trailing;
+            int newStart = firstChange.newStart - leading;
+            int newEnd = lastChange.newEnd + trailing;
+            output.add("@@ -" + range(origStart, origEnd) + " +"
+                       + range(newStart, newEnd) + " @@");
+
+            int index = origStart;
+            for (int i = first; i <= last; i++) {
+                ChangeTracker.Change change = changes.get(i);
+                while (index < change.origStart) {
+                    output.add(" " + original.get(index++));
+                }
+                for (int n = change.origStart; n < change.origEnd; n++) {
+                    output.add("-" + original.get(n));
+                }
+                for (int n = change.newStart; n < change.newEnd; n++) {
+                    output.add("+" + lotr.getLine(n));
+                }
+                index = change.origEnd;
+            }
+            while (index < origEnd) {
+                output.add(" " + original.get(index++));
+            }
+            first = last + 1;
+        }
+        return output;
+    }
+
+    /**
+     * Format a range of lines for a hunk header.  An empty range is given by
+     * the line before it, as in other diff tools.
+     */
+    private static String range(int start, int end)
+    {
+        int count = end - start;
+        return (count == 0 ? start : start + 1) + "," + count;
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.bpreece.lotr;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests of the script nodes of <code>ASN</code>.
+ *
+ * @author ben
+ */
+public class ASNTest
+{
+    /* lines for the disjunctions below to choose between */
+    private static final List<String> LINES = Arrays.asList(
+            "abc", "xz", "xyz", "aq", "12-34", "word", "aa", "b", "bc", "",
+            "a-b", "ab", "qqq");
+
+    /*
+     * Each row is a disjunction whose leading alternatives are fused.  A
+     * backslash in a regex is written twice in a script, and so four times
+     * here.
+     */
+    private static final String[] DISJUNCTIONS = {
+        "rewrite /a(b)c/ |1:{1}| ? rewrite /(x)(y)?z/ |2:{1}{2}|"
+            + " ? rewrite /.*(q).*/ |3:{1}|",
+        "replace /(\\\\d+)-(\\\\d+)/ |{2}-{1}| ? replace /(\\\\w+)/ |w:{1}|",
+        "match /(a+)/ replace |m:{1}| ? match /((b)(c)?)/ replace |{1}{2}{3}|",
+        "rewrite /(?:a|b)+/ |ab| ? rewrite /(?=x).*(z)/ |x:{1}|",
+        "rewrite /(a)\\\\1/ |pair| ? rewrite /(a)(.*)/ |a:{2}|",
+        "match /a.*/ fail ? rewrite /(a)(-)?(b)/ |{1}{2}{3}!|"
+            + " ? rewrite /q+/ |q|",
+        "rewrite /(a|b)(c)?/ |{1}/{2}| ? rewrite /(c)|(d)/ |cd|",
+    };
+
+    /* each row is a regex, and the literals it matches, or null */
+    private static final String[][] LITERALS = {
+        { "abc", "abc" },
+        { "<b>|</b>", "<b>", "</b>" },
+        { "</?b>", "</b>", "<b>" },
+        { "colou?r", "colour", "color" },
+        { "ab?c?", "abc", "ab", "ac", "a" },
+        { "a\\.b", "a.b" },
+        { "\\(x\\)", "(x)" },
+        { "a|", null },
+        { "|a", null },
+        { "a\\d", null },
+        { "a.b", null },
+        { "x??", null },
+        { "a?b?c?d?", null },
+        { "a|b|c|d|e|f|g|h|i", null },
+        { "\\", null },
+    };
+
+    /* lines for the literal regexes above to be replaced in */
+    private static final List<String> TEXT = Arrays.asList(
+            "abc ab ac a abcabc", "<b>bold</b> and <b></b>",
+            "colour color colouur", "a.b axb", "(x) x", "");
+
+    @Test
+    public void literalsOfRegex()
+    {
+        for (String[] row : LITERALS) {
+            String[] literals = new ASN.TRegex(row[0]).getLiterals();
+            if (row[1] == null) {
+                assertNull(row[0], literals);
+            } else {
+                assertEquals(row[0],
+                             Arrays.asList(row).subList(1, row.length),
+                             Arrays.asList(literals));
+            }
+        }
+    }
+
+    @Test
+    public void literalReplaceAllMatchesRegex()
+    {
+        for (String[] row : LITERALS) {
+            ASN.TRegex regex = new ASN.TRegex(row[0]);
+            if (regex.getLiterals() == null) {
+                continue;
+            }
+            LOTR literal = new LOTR(TEXT);
+            LOTR pattern = new LOTR(TEXT);
+            do {
+                literal.replaceLiterals(regex.getLiterals(), "[$0]");
+                pattern.replace(regex.getPattern(),
+                                Replacement.literal("[$0]"));
+            } while (literal.nextLine() && pattern.nextLine());
+            assertEquals(row[0], pattern.getLines(), literal.getLines());
+        }
+    }
+
+    @Test
+    public void fusedDisjunctionMatchesUnfused()
+            throws Exception
+    {
+        FrodoEngine engine = new FrodoEngine();
+        for (String disjunction : DISJUNCTIONS) {
+            /* an alternative which is not a regex match stops the fusion */
+            String fused = "while ( ( " + disjunction + " ? match /.*/ ) next )";
+            String unfused = "while ( ( equals \"-\" ? " + disjunction
+                + " ? match /.*/ ) next )";
+            assertEquals(disjunction, run(engine, unfused),
+                         run(engine, fused));
+        }
+    }
+
+    private static List<String> run(FrodoEngine engine, String script)
+            throws Exception
+    {
+        final List<String> output = new ArrayList<String>();
+        engine.compile(new StringReader(script)).execute(LINES, new LineSink() {
+            public void write(String line)
+            {
+                output.add(line);
+            }
+        });
+        return output;
+    }
+
+}
@@ -0,0 +1,80 @@
+
+package com.bpreece.lotr;
+
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of <code>ChangeTracker</code>.
+ *
+ * @author ben
+ */
+public class ChangeTrackerTest
+{
+    @Test
+    public void unchangedTextHasNoChanges()
+    {
+        ChangeTracker tracker = new ChangeTracker(1000);
+        assertFalse(tracker.isModified());
+        assertTrue(tracker.getChanges().isEmpty());
+        assertEquals(999, tracker.getOriginalIndex(999));
+    }
+
+    @Test
+    public void changesAreJoinedRuns()
+    {
+        ChangeTracker tracker = new ChangeTracker(10);
+        tracker.modified(2);
+        tracker.removed(3);
+        tracker.inserted(3);
+        tracker.removed(8);
+        List<ChangeTracker.Change> changes = tracker.getChanges();
+        assertEquals(2, changes.size());
+        assertChange(changes.get(0), 2, 4, 2, 4);
+        assertChange(changes.get(1), 8, 9, 8, 8);
+        assertEquals(2, tracker.getOriginalIndex(2));
+        assertEquals(-1, tracker.getOriginalIndex(3));
+        assertEquals(9, tracker.getOriginalIndex(8));
+        assertTrue(tracker.isChanged(3));
+        assertFalse(tracker.isChanged(4));
+    }
+
+    @Test
+    public void manyEditsInEitherDirection()
+    {
+        int count = 100000;
+        ChangeTracker tracker = new ChangeTracker(count);
+        for (int index = 0; index < count; index += 2) {
+            tracker.modified(index);
+        }
+        for (int index = count - 1; index >= 0; index -= 4) {
+            tracker.removed(index);
+        }
+        for (int index = 0; index < count / 4 * 3; index++) {
+            int original = index / 3 * 4 + index % 3;
+            assertEquals(original, tracker.getOriginalIndex(index));
+            assertEquals(original % 2 == 0, tracker.isChanged(index));
+        }
+        List<ChangeTracker.Change> changes = tracker.getChanges();
+        assertEquals(count / 4 + 1, changes.size());
+        assertChange(changes.get(0), 0, 1, 0, 1);
+        assertChange(changes.get(1), 2, 5, 2, 4);
+        assertChange(changes.get(2), 6, 9, 5, 7);
+        assertChange(changes.get(count / 4), count - 2, count,
+                     count / 4 * 3 - 1, count / 4 * 3);
+    }
+
+    private static void assertChange(ChangeTracker.Change change,
+                                     int origStart, int origEnd,
+                                     int newStart, int newEnd)
+    {
+        assertEquals(origStart, change.origStart);
+        assertEquals(origEnd, change.origEnd);
+        assertEquals(newStart, change.newStart);
+        assertEquals(newEnd, change.newEnd);
+    }
+
+}
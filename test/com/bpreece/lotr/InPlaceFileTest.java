@@ -0,0 +1,126 @@
+package com.bpreece.lotr;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests that <code>InPlaceFile</code> replaces the file only on commit, and
+ * leaves no temporary file behind either way.
+ *
+ * @author ben
+ */
+public class InPlaceFileTest
+{
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void commitReplacesFile()
+            throws IOException
+    {
+        Path path = create("old");
+        boolean posix = Files.getFileStore(path)
+            .supportsFileAttributeView("posix");
+        if (posix) {
+            Files.setPosixFilePermissions(
+                    path, PosixFilePermissions.fromString("rw-r-----"));
+        }
+        InPlaceFile file = new InPlaceFile(path.toString());
+        write(file, "new");
+        assertEquals("old", read(path));
+        file.commit();
+        assertEquals("new", read(path));
+        if (posix) {
+            assertEquals(PosixFilePermissions.fromString("rw-r-----"),
+                         Files.getPosixFilePermissions(path));
+        }
+        assertOnly(path);
+
+        /* discarding after a commit does nothing */
+        file.discard();
+        assertEquals("new", read(path));
+    }
+
+    @Test
+    public void discardKeepsFile()
+            throws IOException
+    {
+        Path path = create("old");
+        InPlaceFile file = new InPlaceFile(path.toString());
+        write(file, "new");
+        file.discard();
+        assertEquals("old", read(path));
+        assertOnly(path);
+    }
+
+    @Test
+    public void discardBeforeOpen()
+            throws IOException
+    {
+        Path path = create("old");
+        new InPlaceFile(path.toString()).discard();
+        assertEquals("old", read(path));
+        assertOnly(path);
+    }
+
+    @Test
+    public void failedCommitKeepsOriginal()
+            throws IOException
+    {
+        /* a directory which is not empty cannot be replaced by a file */
+        Path path = folder.newFolder("text").toPath();
+        Files.write(path.resolve("inside"), "old".getBytes(UTF_8));
+        InPlaceFile file = new InPlaceFile(path.toString());
+        write(file, "new");
+        try {
+            file.commit();
+            fail("commit() over a directory");
+        } catch (IOException ex) {
+            // expected
+        }
+        assertEquals("old", read(path.resolve("inside")));
+        assertOnly(path);
+    }
+
+    private Path create(String text)
+            throws IOException
+    {
+        Path path = folder.newFile("text").toPath();
+        Files.write(path, text.getBytes(UTF_8));
+        return path;
+    }
+
+    private static void write(InPlaceFile file, String text)
+            throws IOException
+    {
+        OutputStream out = file.open();
+        out.write(text.getBytes(UTF_8));
+        out.flush();
+    }
+
+    private static String read(Path path)
+            throws IOException
+    {
+        return new String(Files.readAllBytes(path), UTF_8);
+    }
+
+    /* check that the temporary file is gone */
+    private void assertOnly(Path path)
+    {
+        assertArrayEquals(new String[] { path.getFileName().toString() },
+                          folder.getRoot().list());
+    }
+
+}
@@ -0,0 +1,60 @@
+
+package com.bpreece.lotr;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the directives of <code>LOTR</code>.
+ *
+ * @author ben
+ */
+public class LOTRTest
+{
+    @Test
+    public void replaceFirstFailsWhenLineIsUnchanged()
+    {
+        LOTR lotr = new LOTR(new ArrayList<String>(Arrays.asList("abc")));
+        assertFalse(lotr.replaceFirst("c", "c"));
+        assertFalse(lotr.replaceFirst("(b)", "$1"));
+        assertFalse(lotr.replaceFirst("x", "y"));
+        assertEquals("abc", lotr.getLine());
+        assertTrue(lotr.replaceFirst("c", "d"));
+        assertEquals("abd", lotr.getLine());
+    }
+
+    @Test
+    public void nextFailsBeforeFirstLine()
+    {
+        LOTR lotr = new LOTR(new ArrayList<String>(Arrays.asList("a", "b", "c")));
+        assertFalse(lotr.nextLine(-1));
+        assertEquals(0, lotr.getLineIndex());
+        assertTrue(lotr.nextLine(2));
+        assertFalse(lotr.nextLine(-3));
+        assertTrue(lotr.nextLine(-2));
+        assertEquals("a", lotr.getLine());
+    }
+
+    @Test(timeout = 10000)
+    public void identityReplaceFirstEndsWhileLoop()
+            throws Exception
+    {
+        CompiledScript script = new FrodoEngine().compile(new StringReader(
+                "while ( next ) while ( replace-first /c/ \"c\" )"));
+        final List<String> output = new ArrayList<String>();
+        script.execute(Arrays.asList("abc", "xyz", "cc"), new LineSink() {
+            public void write(String line)
+            {
+                output.add(line);
+            }
+        });
+        assertEquals(Arrays.asList("abc", "xyz", "cc"), output);
+    }
+
+}
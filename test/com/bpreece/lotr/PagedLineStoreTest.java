@@ -0,0 +1,171 @@
+package com.bpreece.lotr;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that <code>PagedLineStore</code> holds the same lines as a plain
+ * list, when so few pages are cached that the pages are evicted, spilled
+ * and reloaded, and when a page grows until it is split.
+ *
+ * @author ben
+ */
+public class PagedLineStoreTest
+{
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    /* more than the lines of an input page, and of a page before a split */
+    private static final int LINE_COUNT = 40000;
+    private static final String[] TERMINATORS = { "\n", "\r", "\r\n" };
+
+    @Test
+    public void readsEveryTerminator()
+            throws IOException
+    {
+        String text = text(new Random(1), LINE_COUNT) + "\r";
+        PagedLineStore store = open(text, 2);
+        try {
+            List<String> expected = readLines(text);
+            assertEquals(expected.size(), store.size());
+            for (int i = 0; i < expected.size(); i += 97) {
+                assertEquals("line " + i, expected.get(i), store.get(i));
+            }
+            assertEquals(expected, store.toList());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void editsMatchList()
+            throws IOException
+    {
+        Random random = new Random(2);
+        String text = text(random, LINE_COUNT) + "last";
+        List<String> expected = readLines(text);
+        PagedLineStore store = open(text, 2);
+        try {
+            for (int i = 0; i < 2000; i++) {
+                int index = random.nextInt(expected.size());
+                String line = "edit " + i + ((i % 7 == 0) ? " \u00e9\u4e2d" : "");
+                switch (random.nextInt(4)) {
+                case 0:
+                    store.set(index, line);
+                    expected.set(index, line);
+                    break;
+                case 1:
+                    store.add(index, line);
+                    expected.add(index, line);
+                    break;
+                case 2:
+                    store.remove(index);
+                    expected.remove(index);
+                    break;
+                default:
+                    assertEquals("line " + index, expected.get(index),
+                                 store.get(index));
+                    break;
+                }
+            }
+            assertEquals(expected.size(), store.size());
+            assertEquals(expected, store.toList());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void growingPageIsSplit()
+            throws IOException
+    {
+        String text = text(new Random(3), LINE_COUNT);
+        List<String> expected = readLines(text);
+        PagedLineStore store = open(text, 1);
+        try {
+            /* enough lines in one place to split its page more than once */
+            int index = LINE_COUNT / 2;
+            for (int i = 0; i < LINE_COUNT; i++) {
+                store.add(index + i, "added " + i);
+                expected.add(index + i, "added " + i);
+                if (i % 1000 == 0) {
+                    assertEquals(expected.get(i), store.get(i));
+                }
+            }
+            for (int i = 0; i < expected.size(); i += 89) {
+                assertEquals("line " + i, expected.get(i), store.get(i));
+            }
+            assertEquals(expected, store.toList());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void emptyStoreMatchesList()
+    {
+        PagedLineStore store = new PagedLineStore(1);
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < LINE_COUNT; i++) {
+            store.add(i, "line " + i);
+            expected.add(i, "line " + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            int index = (i * 7919) % expected.size();
+            store.add(index, "added " + i);
+            expected.add(index, "added " + i);
+            index = (i * 104729) % expected.size();
+            store.remove(index);
+            expected.remove(index);
+        }
+        assertEquals(expected, store.toList());
+    }
+
+    /* lines of varying length, with a mix of line terminators */
+    private static String text(Random random, int lineCount)
+    {
+        StringBuilder buffer = new StringBuilder();
+        for (int i = 0; i < lineCount; i++) {
+            if (random.nextInt(10) > 0) {
+                buffer.append("line ").append(i);
+                for (int j = random.nextInt(5); j > 0; j--) {
+                    buffer.append(" \u00fc");
+                }
+            }
+            buffer.append(TERMINATORS[random.nextInt(TERMINATORS.length)]);
+        }
+        return buffer.toString();
+    }
+
+    private static PagedLineStore open(String text, int cachePages)
+            throws IOException
+    {
+        Path path = Files.createTempFile("paged", ".txt");
+        try {
+            Files.write(path, text.getBytes(UTF_8));
+            return PagedLineStore.open(path.toString(), UTF_8, cachePages);
+        } finally {
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    private static List<String> readLines(String text)
+            throws IOException
+    {
+        BufferedReader reader = new BufferedReader(new StringReader(text));
+        List<String> lines = new ArrayList<String>();
+        for (String line = reader.readLine(); line != null;
+             line = reader.readLine()) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+}
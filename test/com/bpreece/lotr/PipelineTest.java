@@ -0,0 +1,162 @@
+package com.bpreece.lotr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests that <code>Pipeline</code> reads and writes every line in order, in
+ * batches, and passes on the failures of its reader and writer threads.
+ *
+ * @author ben
+ */
+public class PipelineTest
+{
+    private static final String LINE_SEPARATOR =
+        System.getProperty("line.separator");
+    /* enough lines to fill every batch of both buffers, with some over */
+    private static final int LINE_COUNT =
+        2 * Pipeline.CAPACITY * Pipeline.BATCH_SIZE + 5;
+
+    @Test(timeout = 10000)
+    public void readsBatchesInOrder()
+            throws IOException
+    {
+        Pipeline pipeline = new Pipeline(new StringReader(text(LINE_COUNT)));
+        pipeline.start();
+        int count = 0;
+        List<String> batch;
+        while ((batch = pipeline.readBatch()) != null) {
+            int expected = Math.min(Pipeline.BATCH_SIZE, LINE_COUNT - count);
+            assertEquals(expected, batch.size());
+            for (String line : batch) {
+                assertEquals("line " + count, line);
+                count++;
+            }
+        }
+        assertEquals(LINE_COUNT, count);
+        assertNull(pipeline.readBatch());
+    }
+
+    @Test(timeout = 10000)
+    public void readsIntoStore()
+            throws IOException
+    {
+        Pipeline pipeline = new Pipeline(new StringReader(text(LINE_COUNT)));
+        pipeline.start();
+        ArrayLineStore store = new ArrayLineStore();
+        pipeline.readAll(store);
+        assertEquals(lines(LINE_COUNT), store.toList());
+    }
+
+    @Test(timeout = 10000)
+    public void writesInOrder()
+            throws IOException
+    {
+        Pipeline pipeline = new Pipeline(new StringReader(""));
+        pipeline.start();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pipeline.startWriter(out);
+        List<String> lines = lines(LINE_COUNT);
+        /* writes of every size, some within a batch and some across */
+        for (int from = 0, size = 1; from < lines.size(); size *= 3) {
+            int to = Math.min(from + size, lines.size());
+            pipeline.write(lines.subList(from, to));
+            from = to;
+        }
+        pipeline.write(Collections.<String>emptyList());
+        pipeline.finish();
+        assertEquals(text(LINE_COUNT), out.toString());
+        assertEquals(Collections.emptyList(), pipeline.readAll());
+    }
+
+    @Test
+    public void finishWithoutWriter()
+            throws IOException
+    {
+        Pipeline pipeline = new Pipeline(new StringReader(""));
+        pipeline.write(Collections.<String>emptyList());
+        pipeline.finish();
+    }
+
+    @Test(timeout = 10000)
+    public void readFailureIsThrown()
+    {
+        Pipeline pipeline = new Pipeline(new Reader() {
+            private final Reader text = new StringReader(text(LINE_COUNT));
+
+            @Override
+            public int read(char[] buffer, int offset, int length)
+                    throws IOException
+            {
+                int count = text.read(buffer, offset, length);
+                if (count < 0) {
+                    throw new IOException("read error");
+                }
+                return count;
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        });
+        pipeline.start();
+        try {
+            pipeline.readAll();
+            fail("readAll() after a read error");
+        } catch (IOException ex) {
+            assertEquals("read error", ex.getMessage());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void writeFailureIsThrown()
+    {
+        Pipeline pipeline = new Pipeline(new StringReader(""));
+        pipeline.startWriter(new OutputStream() {
+            @Override
+            public void write(int b)
+                    throws IOException
+            {
+                throw new IOException("write error");
+            }
+        });
+        /* more than the buffer holds, so the writer must drain it */
+        pipeline.write(lines(LINE_COUNT));
+        try {
+            pipeline.finish();
+            fail("finish() after a write error");
+        } catch (IOException ex) {
+            assertEquals("write error", ex.getMessage());
+        }
+    }
+
+    private static List<String> lines(int count)
+    {
+        List<String> lines = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add("line " + i);
+        }
+        return lines;
+    }
+
+    private static String text(int count)
+    {
+        StringBuilder buffer = new StringBuilder();
+        for (String line : lines(count)) {
+            buffer.append(line).append(LINE_SEPARATOR);
+        }
+        return buffer.toString();
+    }
+
+}
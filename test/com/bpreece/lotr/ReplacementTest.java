@@ -0,0 +1,105 @@
+package com.bpreece.lotr;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that <code>Replacement</code> rewrites lines exactly as
+ * <code>Matcher.replaceAll()</code> and <code>replaceFirst()</code> do, and
+ * rejects the same replacement strings.
+ *
+ * @author ben
+ */
+public class ReplacementTest
+{
+    /* each row is a regex, a replacement string, and a line it matches */
+    private static final String[][] CASES = {
+        { "(a)(b)", "$2$1", "abab" },
+        { "a", "$0$0", "banana" },
+        /* only the first digit names a group, so the 0 is literal */
+        { "(a)", "$10", "aa" },
+        { "(a)(b)(c)(d)(e)(f)(g)(h)(i)(j)(k)", "$11-$1$12", "abcdefghijk" },
+        { "(?<word>\\w+)", "<${word}>", "ab cd" },
+        { "(?<n1>a)", "${n1}${n1}", "a" },
+        { "(?x) (?<w> a ) # a comment", "[${w}]", "bab" },
+        { "(a)|(b)", "[$1$2]", "ab" },
+        { "x*", "-", "abc" },
+        { "(a)", "\\$1", "a" },
+        { "(a)", "\\\\", "a" },
+        { "(a)", "\\x$1", "a" },
+        { "(a)", "x\\", "a" },
+        { "(a)", "$", "a" },
+        { "(a)", "$2", "a" },
+        { "(a)", "$x", "a" },
+        { "(a)", "${nope}", "a" },
+        { "(?<word>a)", "${word", "a" },
+        { "(?<word>a)", "${}", "a" },
+        { "(?<word>a)", "${1a}", "a" },
+    };
+
+    @Test
+    public void replaceAllMatchesMatcher()
+    {
+        for (String[] row : CASES) {
+            Pattern pattern = Pattern.compile(row[0]);
+            assertEquals(describe(row),
+                         expected(pattern, row[1], row[2], true),
+                         actual(pattern, row[1], row[2], true));
+        }
+    }
+
+    @Test
+    public void replaceFirstMatchesMatcher()
+    {
+        for (String[] row : CASES) {
+            Pattern pattern = Pattern.compile(row[0]);
+            assertEquals(describe(row),
+                         expected(pattern, row[1], row[2], false),
+                         actual(pattern, row[1], row[2], false));
+        }
+    }
+
+    @Test
+    public void literalReplacement()
+    {
+        Pattern pattern = Pattern.compile("b");
+        assertEquals("a$1\\c", actual(pattern, "\\$1\\\\", "abc", true));
+        assertEquals("$1\\", Replacement.parse("\\$1\\\\", pattern).getLiteral());
+        assertEquals(null, Replacement.parse("$0", pattern).getLiteral());
+    }
+
+    /* the rewritten line, or "error" if the matcher rejects the replacement */
+    private static String expected(Pattern pattern, String replacement,
+                                   String line, boolean all)
+    {
+        Matcher matcher = pattern.matcher(line);
+        try {
+            return all ? matcher.replaceAll(replacement)
+                       : matcher.replaceFirst(replacement);
+        } catch (RuntimeException ex) {
+            return "error";
+        }
+    }
+
+    /* the rewritten line, or "error" if the replacement cannot be parsed */
+    private static String actual(Pattern pattern, String replacement,
+                                 String line, boolean all)
+    {
+        Replacement parsed;
+        try {
+            parsed = Replacement.parse(replacement, pattern);
+        } catch (IllegalArgumentException ex) {
+            return "error";
+        }
+        Matcher matcher = pattern.matcher(line);
+        return matcher.find() ? parsed.replace(line, matcher, all) : line;
+    }
+
+    private static String describe(String[] row)
+    {
+        return "/" + row[0] + "/ \"" + row[1] + "\" on \"" + row[2] + "\"";
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.bpreece.lotr;
+
+import java.io.IOException;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of <code>RingBuffer</code>, with the producer and the consumer on
+ * one thread, and on two.
+ *
+ * @author ben
+ */
+public class RingBufferTest
+{
+    @Test
+    public void capacityIsRoundedUp()
+            throws IOException
+    {
+        /* a buffer for three holds four, so none of the puts waits */
+        RingBuffer<Integer> buffer = new RingBuffer<Integer>(3);
+        for (int i = 0; i < 4; i++) {
+            buffer.put(i);
+        }
+        buffer.close();
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Integer.valueOf(i), buffer.take());
+        }
+        assertNull(buffer.take());
+        assertNull(buffer.take());
+    }
+
+    @Test
+    public void failureFollowsItems()
+            throws IOException
+    {
+        RingBuffer<String> buffer = new RingBuffer<String>(4);
+        IOException failure = new IOException("read error");
+        buffer.put("a");
+        buffer.put("b");
+        buffer.fail(failure);
+        assertEquals("a", buffer.take());
+        assertEquals("b", buffer.take());
+        try {
+            buffer.take();
+            fail("take() after fail()");
+        } catch (IOException ex) {
+            assertSame(failure, ex);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void itemsPassBetweenThreadsInOrder()
+            throws Exception
+    {
+        final int count = 100000;
+        /* a small buffer, so that both sides wait, and the indexes wrap */
+        final RingBuffer<Integer> buffer = new RingBuffer<Integer>(4);
+        Thread producer = new Thread() {
+            @Override
+            public void run()
+            {
+                for (int i = 0; i < count; i++) {
+                    buffer.put(i);
+                }
+                buffer.close();
+            }
+        };
+        producer.start();
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.valueOf(i), buffer.take());
+        }
+        assertNull(buffer.take());
+        producer.join();
+    }
+
+}
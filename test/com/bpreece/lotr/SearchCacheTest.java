@@ -0,0 +1,92 @@
+package com.bpreece.lotr;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that <code>SearchCache</code> finds the same lines as a scan of the
+ * line store, for searches which move forward through the lines as a loop
+ * does, while lines are inserted, replaced and removed between the searches.
+ *
+ * @author ben
+ */
+public class SearchCacheTest
+{
+    private static final String[] LINES = {
+        "", "a", "b", "ab", "ba", "abc", "cab", "bb", "c", "aXb",
+    };
+
+    private static final LinePredicate[] PREDICATES = {
+        LinePredicate.equalTo("ab"),
+        LinePredicate.startsWith("b"),
+        LinePredicate.contains("a"),
+        LinePredicate.matches(Pattern.compile("a.b")),
+    };
+
+    @Test
+    public void searchesMatchScan()
+    {
+        Random random = new Random(1);
+        ArrayLineStore lines = new ArrayLineStore();
+        for (int i = 0; i < 200; i++) {
+            lines.add(i, LINES[random.nextInt(LINES.length)]);
+        }
+        SearchCache cache = new SearchCache();
+        /* where the next search for each predicate starts */
+        int[] cursors = new int[PREDICATES.length];
+        for (int step = 0; step < 20000; step++) {
+            int p = random.nextInt(PREDICATES.length);
+            String line = LINES[random.nextInt(LINES.length)];
+            /* the edits are mostly close to a cursor, where the spans are */
+            int at = Math.max(0, cursors[p] + random.nextInt(11) - 5);
+            switch (random.nextInt(6)) {
+            case 0:
+                at = Math.min(at, lines.size());
+                lines.add(at, line);
+                cache.inserted(at, line);
+                break;
+            case 1:
+                if (at < lines.size()) {
+                    lines.set(at, line);
+                    cache.updated(at, line);
+                }
+                break;
+            case 2:
+                if (at < lines.size()) {
+                    lines.remove(at);
+                    cache.removed(at);
+                }
+                break;
+            default:
+                LinePredicate predicate = PREDICATES[p];
+                int from = Math.min(cursors[p], lines.size());
+                int to = (random.nextInt(4) == 0)
+                    ? from + random.nextInt(lines.size() + 1 - from)
+                    : lines.size();
+                int found = scanNext(lines, predicate, from, to);
+                assertEquals("step " + step + ": " + predicate, found,
+                             cache.findNext(lines, predicate, from, to));
+                if (found >= 0) {
+                    cursors[p] = found + 1;
+                } else if (to == lines.size()) {
+                    cursors[p] = random.nextInt(lines.size() + 1);
+                }
+                break;
+            }
+        }
+    }
+
+    private static int scanNext(LineStore lines, LinePredicate predicate,
+                                int from, int to)
+    {
+        for (int i = from; i < to; i++) {
+            if (predicate.test(lines.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
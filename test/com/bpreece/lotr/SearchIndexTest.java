@@ -0,0 +1,99 @@
+package com.bpreece.lotr;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that <code>SearchIndex</code> finds the same lines as a scan of the
+ * line store, while lines are inserted, replaced and removed between the
+ * searches.
+ *
+ * @author ben
+ */
+public class SearchIndexTest
+{
+    private static final String[] LINES = {
+        "", "a", "b", "ab", "ba", "abc", "cab", "bb", "c", "aXb",
+    };
+
+    private static final LinePredicate[] PREDICATES = {
+        LinePredicate.equalTo("ab"),
+        LinePredicate.startsWith("b"),
+        LinePredicate.endsWith("b"),
+        LinePredicate.contains("a"),
+        LinePredicate.isEmpty(),
+        LinePredicate.matches(Pattern.compile("a.b")),
+    };
+
+    @Test
+    public void searchesMatchScan()
+    {
+        Random random = new Random(1);
+        ArrayLineStore lines = new ArrayLineStore();
+        for (int i = 0; i < 200; i++) {
+            lines.add(i, LINES[random.nextInt(LINES.length)]);
+        }
+        SearchIndex index = new SearchIndex();
+        for (int step = 0; step < 5000; step++) {
+            String line = LINES[random.nextInt(LINES.length)];
+            int at;
+            switch (random.nextInt(5)) {
+            case 0:
+                at = random.nextInt(lines.size() + 1);
+                lines.add(at, line);
+                index.inserted(at, line);
+                break;
+            case 1:
+                if (lines.size() > 0) {
+                    at = random.nextInt(lines.size());
+                    lines.set(at, line);
+                    index.updated(at, line);
+                }
+                break;
+            case 2:
+                if (lines.size() > 0) {
+                    at = random.nextInt(lines.size());
+                    lines.remove(at);
+                    index.removed(at);
+                }
+                break;
+            default:
+                LinePredicate predicate =
+                    PREDICATES[random.nextInt(PREDICATES.length)];
+                int from = random.nextInt(lines.size() + 1);
+                int to = from + random.nextInt(lines.size() + 1 - from);
+                String message = "step " + step + ": " + predicate;
+                assertEquals(message, scanNext(lines, predicate, from, to),
+                             index.findNext(lines, predicate, from, to));
+                assertEquals(message, scanPrev(lines, predicate, to),
+                             index.findPrev(lines, predicate, to));
+                break;
+            }
+        }
+    }
+
+    private static int scanNext(LineStore lines, LinePredicate predicate,
+                                int from, int to)
+    {
+        for (int i = from; i < to; i++) {
+            if (predicate.test(lines.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int scanPrev(LineStore lines, LinePredicate predicate,
+                                int to)
+    {
+        for (int i = to - 1; i >= 0; i--) {
+            if (predicate.test(lines.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
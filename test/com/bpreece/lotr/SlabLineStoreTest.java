@@ -0,0 +1,71 @@
+
+package com.bpreece.lotr;
+
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of <code>SlabLineStore</code> on lines longer than a slab, which are
+ * given a slab to themselves.
+ *
+ * @author ben
+ */
+public class SlabLineStoreTest
+{
+    private static final int MEGABYTE = 1 << 20;
+
+    @Test
+    public void trimLongLine()
+    {
+        String text = repeat('x', 2000000);
+        String line = repeat(' ', 1500000) + text;
+        SlabLineStore store =
+            new SlabLineStore(Arrays.asList("first", line, "last"));
+        assertTrue(store.trim(1));
+        assertEquals(text, store.get(1));
+        assertEquals(text, store.getChars(1).toString());
+        assertEquals(text.length(), store.length(1));
+        assertEquals("first", store.get(0));
+        assertEquals("last", store.get(2));
+    }
+
+    @Test
+    public void sliceLongLine()
+    {
+        StringBuilder buffer = new StringBuilder(3 * MEGABYTE);
+        for (int i = 0; i < 3 * MEGABYTE; i++) {
+            buffer.append((char) ('a' + i % 26));
+        }
+        String line = buffer.toString();
+        SlabLineStore store = new SlabLineStore(Arrays.asList(line, "last"));
+        assertTrue(store.slice(0, 1200000, 1300000));
+        assertEquals(line.substring(1200000, 1300000), store.get(0));
+        assertEquals(line.substring(1200000, 1300000),
+                     store.getChars(0).toString());
+        assertEquals("last", store.get(1));
+
+        /* slicing again moves the start within the copy */
+        assertTrue(store.slice(0, 10, 20));
+        assertEquals(line.substring(1200010, 1200020), store.get(0));
+    }
+
+    @Test
+    public void sliceLongUtf16Line()
+    {
+        /* an unpaired surrogate keeps the line as UTF-16, two bytes a char */
+        String line = '\ud800' + repeat('y', MEGABYTE);
+        SlabLineStore store = new SlabLineStore(Arrays.asList(line));
+        assertTrue(store.slice(0, 600000, 600010));
+        assertEquals(line.substring(600000, 600010), store.get(0));
+    }
+
+    private static String repeat(char c, int count)
+    {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+}